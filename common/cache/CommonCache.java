@@ -20,6 +20,7 @@ package grakn.core.common.cache;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -50,6 +51,10 @@ public class CommonCache<KEY, VALUE> {
 
     public VALUE getIfPresent(KEY key) { return cache.getIfPresent(key); }
 
+    public VALUE compute(KEY key, BiFunction<KEY, VALUE, VALUE> function) {
+        return cache.asMap().compute(key, function);
+    }
+
     public void clear() {
         cache.invalidateAll();
     }
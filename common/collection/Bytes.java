@@ -68,6 +68,18 @@ public class Bytes {
         return true;
     }
 
+    /**
+     * Compares two byte arrays lexicographically, by the unsigned value of
+     * every byte, which is the order of the keys in the storage.
+     */
+    public static int compareBytes(byte[] bytes1, byte[] bytes2) {
+        for (int i = 0; i < bytes1.length && i < bytes2.length; i++) {
+            int cmp = Integer.compare(bytes1[i] & 0xFF, bytes2[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(bytes1.length, bytes2.length);
+    }
+
     public static byte[] unsignedShortToBytes(int num) {
         byte[] bytes = new byte[SHORT_SIZE];
         bytes[1] = (byte) (num);
@@ -69,6 +69,8 @@ public abstract class ErrorMessage extends grakn.common.exception.ErrorMessage {
                 new Server(16, "The request with ID '%s' is a duplicate.");
         public static final Server ALREADY_RUNNING =
                 new Server(17, "Another instance of Grakn Core server is already running at this port: '%s'.");
+        public static final Server UNRECOGNISED_STORAGE_PROFILE =
+                new Server(18, "The storage profile '%s' was not recognised.");
 
         private static final String codePrefix = "SRV";
         private static final String messagePrefix = "Invalid Server Operation";
@@ -171,6 +173,10 @@ public abstract class ErrorMessage extends grakn.common.exception.ErrorMessage {
                 new Transaction(12, "The transaction type '%s' was not recognised.");
         public static final Transaction DATA_ACQUIRE_LOCK_TIMEOUT =
                 new Transaction(13, "Could not acquire lock for data transaction. A schema session may have been left open.");
+        public static final Transaction BULK_LOAD_DELETE_VIOLATION =
+                new Transaction(14, "Attempted to delete data in a bulk-load transaction, which only allows inserts.");
+        public static final Transaction BULK_LOAD_INGEST_FAILURE =
+                new Transaction(15, "The bulk-load transaction was committed, but its data could not be ingested. The ingestion will be retried when the database is next opened.");
 
         private static final String codePrefix = "TXN";
         private static final String messagePrefix = "Invalid Transaction Operation";
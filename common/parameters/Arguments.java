@@ -100,4 +100,42 @@ public class Arguments {
             public boolean isExhaustive() { return isExhaustive; }
         }
     }
+
+    public static class Storage {
+
+        /**
+         * A named set of RocksDB tuning choices for a given workload, along with
+         * the default memory budget of the workload, which can be overridden.
+         */
+        public enum Profile {
+            DEFAULT("default", 256, 128),
+            READ_HEAVY("read-heavy", 1024, 64),
+            WRITE_HEAVY("write-heavy", 256, 256),
+            BULK_LOAD("bulk-load", 128, 256),
+            LOW_MEMORY("low-memory", 32, 16);
+
+            private final String key;
+            private final int blockCacheSizeMB;
+            private final int writeBufferSizeMB;
+
+            Profile(String key, int blockCacheSizeMB, int writeBufferSizeMB) {
+                this.key = key;
+                this.blockCacheSizeMB = blockCacheSizeMB;
+                this.writeBufferSizeMB = writeBufferSizeMB;
+            }
+
+            public static Profile of(String key) {
+                for (Profile p : values()) {
+                    if (p.key.equals(key)) return p;
+                }
+                return null;
+            }
+
+            public String key() { return key; }
+
+            public int blockCacheSizeMB() { return blockCacheSizeMB; }
+
+            public int writeBufferSizeMB() { return writeBufferSizeMB; }
+        }
+    }
 }
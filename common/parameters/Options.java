@@ -30,18 +30,27 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static final int DEFAULT_SCHEMA_LOCK_ACQUIRE_TIMEOUT_MILLIS = 10_000;
     public static final boolean DEFAULT_INFER = false;
     public static final boolean DEFAULT_EXPLAIN = false;
+    public static final boolean DEFAULT_MATERIALISE = false;
     public static final boolean DEFAULT_PARALLEL = true;
+    public static final boolean DEFAULT_APPROXIMATE_AGGREGATE = false;
     public static final boolean DEFAULT_QUERY_READ_PREFETCH = true;
     public static final boolean DEFAULT_QUERY_WRITE_PREFETCH = false;
     public static final boolean DEFAULT_READ_ANY_REPLICA = false;
+    public static final boolean DEFAULT_BULK_LOAD = false;
+    public static final boolean DEFAULT_GROUP_COMMIT = false;
+    public static final int DEFAULT_GROUP_COMMIT_WINDOW_MILLIS = 1;
+    public static final int DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE = 64;
+    public static final Arguments.Storage.Profile DEFAULT_STORAGE_PROFILE = Arguments.Storage.Profile.DEFAULT;
 
     private PARENT parent;
     private Boolean infer = null;
     private Boolean explain = null;
+    private Boolean materialise = null;
     private Integer batchSize = null;
     private Integer sessionIdlTimeoutMillis = null;
     private Integer schemaLockAcquireTimeoutMillis = null;
     private Boolean readAnyReplica = null;
+    private Boolean bulkLoad = null;
 
     protected Boolean prefetch = null;
 
@@ -74,6 +83,17 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    public boolean materialise() {
+        if (materialise != null) return materialise;
+        else if (parent != null) return parent.materialise();
+        else return DEFAULT_MATERIALISE;
+    }
+
+    public SELF materialise(boolean materialise) {
+        this.materialise = materialise;
+        return getThis();
+    }
+
     public int responseBatchSize() {
         if (batchSize != null) return batchSize;
         else if (parent != null) return parent.responseBatchSize();
@@ -118,8 +138,26 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    public boolean bulkLoad() {
+        if (bulkLoad != null) return bulkLoad;
+        else if (parent != null) return parent.bulkLoad();
+        else return DEFAULT_BULK_LOAD;
+    }
+
+    public SELF bulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+        return getThis();
+    }
+
     public static class Database extends Options<Options<?, ?>, Database> {
 
+        private Boolean groupCommit = null;
+        private Integer groupCommitWindowMillis = null;
+        private Integer groupCommitMaxBatchSize = null;
+        private Arguments.Storage.Profile storageProfile = null;
+        private Integer storageBlockCacheSizeMB = null;
+        private Integer storageWriteBufferSizeMB = null;
+
         @Override
         Database getThis() {
             return this;
@@ -128,6 +166,71 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         public Database parent(Options<?, ?> parent) {
             throw GraknException.of(ILLEGAL_ARGUMENT);
         }
+
+        public boolean groupCommit() {
+            if (groupCommit != null) return groupCommit;
+            else return DEFAULT_GROUP_COMMIT;
+        }
+
+        public Database groupCommit(boolean groupCommit) {
+            this.groupCommit = groupCommit;
+            return this;
+        }
+
+        public int groupCommitWindowMillis() {
+            if (groupCommitWindowMillis != null) return groupCommitWindowMillis;
+            else return DEFAULT_GROUP_COMMIT_WINDOW_MILLIS;
+        }
+
+        public Database groupCommitWindowMillis(int groupCommitWindowMillis) {
+            if (groupCommitWindowMillis < 0) throw GraknException.of(ILLEGAL_ARGUMENT);
+            this.groupCommitWindowMillis = groupCommitWindowMillis;
+            return this;
+        }
+
+        public int groupCommitMaxBatchSize() {
+            if (groupCommitMaxBatchSize != null) return groupCommitMaxBatchSize;
+            else return DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE;
+        }
+
+        public Database groupCommitMaxBatchSize(int groupCommitMaxBatchSize) {
+            if (groupCommitMaxBatchSize < 1) throw GraknException.of(ILLEGAL_ARGUMENT);
+            this.groupCommitMaxBatchSize = groupCommitMaxBatchSize;
+            return this;
+        }
+
+        public Arguments.Storage.Profile storageProfile() {
+            if (storageProfile != null) return storageProfile;
+            else return DEFAULT_STORAGE_PROFILE;
+        }
+
+        public Database storageProfile(Arguments.Storage.Profile storageProfile) {
+            if (storageProfile == null) throw GraknException.of(ILLEGAL_ARGUMENT);
+            this.storageProfile = storageProfile;
+            return this;
+        }
+
+        public int storageBlockCacheSizeMB() {
+            if (storageBlockCacheSizeMB != null) return storageBlockCacheSizeMB;
+            else return storageProfile().blockCacheSizeMB();
+        }
+
+        public Database storageBlockCacheSizeMB(int storageBlockCacheSizeMB) {
+            if (storageBlockCacheSizeMB < 1) throw GraknException.of(ILLEGAL_ARGUMENT);
+            this.storageBlockCacheSizeMB = storageBlockCacheSizeMB;
+            return this;
+        }
+
+        public int storageWriteBufferSizeMB() {
+            if (storageWriteBufferSizeMB != null) return storageWriteBufferSizeMB;
+            else return storageProfile().writeBufferSizeMB();
+        }
+
+        public Database storageWriteBufferSizeMB(int storageWriteBufferSizeMB) {
+            if (storageWriteBufferSizeMB < 1) throw GraknException.of(ILLEGAL_ARGUMENT);
+            this.storageWriteBufferSizeMB = storageWriteBufferSizeMB;
+            return this;
+        }
     }
 
     public static class Session extends Options<Database, Session> {
@@ -149,6 +252,7 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static class Query extends Options<Transaction, Query> {
 
         private Boolean parallel = null;
+        private Boolean approximateAggregate = null;
         private GraqlQuery query = null;
 
         @Override
@@ -190,5 +294,15 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
             this.parallel = parallel;
             return this;
         }
+
+        public boolean approximateAggregate() {
+            if (approximateAggregate != null) return approximateAggregate;
+            return DEFAULT_APPROXIMATE_AGGREGATE;
+        }
+
+        public Query approximateAggregate(boolean approximateAggregate) {
+            this.approximateAggregate = approximateAggregate;
+            return this;
+        }
     }
 }
@@ -38,6 +38,7 @@ public class Executors {
     private static final String GRAKN_CORE_MAIN_POOL_NAME = "grakn-core-main";
     private static final String GRAKN_CORE_ASYNC_POOL_1_NAME = "grakn-core-async-1";
     private static final String GRAKN_CORE_ASYNC_POOL_2_NAME = "grakn-core-async-1";
+    private static final String GRAKN_CORE_PLANNER_POOL_NAME = "grakn-core-planner";
     private static final String GRAKN_CORE_NETWORK_POOL_NAME = "grakn-core-network";
     private static final String GRAKN_CORE_EVENTLOOP_POOL_NAME = "grakn-core-eventloop";
     private static final String GRAKN_CORE_SCHEDULED_POOL_NAME = "grakn-core-scheduled";
@@ -48,6 +49,7 @@ public class Executors {
     private final ExecutorService mainPool;
     private final ExecutorService asyncPool1;
     private final ExecutorService asyncPool2;
+    private final ExecutorService plannerPool;
     private final NioEventLoopGroup networkPool;
     private final EventLoopGroup eventLoopPool;
     private final ScheduledThreadPoolExecutor scheduledThreadPool;
@@ -56,6 +58,9 @@ public class Executors {
         mainPool = java.util.concurrent.Executors.newFixedThreadPool(main, NamedThreadFactory.create(GRAKN_CORE_MAIN_POOL_NAME));
         asyncPool1 = java.util.concurrent.Executors.newFixedThreadPool(other, NamedThreadFactory.create(GRAKN_CORE_ASYNC_POOL_1_NAME));
         asyncPool2 = java.util.concurrent.Executors.newFixedThreadPool(other, NamedThreadFactory.create(GRAKN_CORE_ASYNC_POOL_2_NAME));
+        plannerPool = java.util.concurrent.Executors.newFixedThreadPool(
+                Math.max(1, other / 4), NamedThreadFactory.create(GRAKN_CORE_PLANNER_POOL_NAME)
+        );
         eventLoopPool = new EventLoopGroup(other, NamedThreadFactory.create(GRAKN_CORE_EVENTLOOP_POOL_NAME));
         networkPool = new NioEventLoopGroup(other, NamedThreadFactory.create(GRAKN_CORE_NETWORK_POOL_NAME));
         scheduledThreadPool = new ScheduledThreadPoolExecutor(
@@ -89,6 +94,11 @@ public class Executors {
         return singleton.asyncPool2;
     }
 
+    public static ExecutorService plannerPool() {
+        assert isInitialised();
+        return singleton.plannerPool;
+    }
+
     public static NioEventLoopGroup networkPool() {
         assert isInitialised();
         return singleton.networkPool;
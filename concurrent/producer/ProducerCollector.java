@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.concurrent.producer;
+
+import grakn.core.common.exception.GraknException;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collector;
+
+import static grakn.core.concurrent.producer.Producers.MAX_BATCH_SIZE;
+
+/**
+ * Collects every item of a list of producers, without funnelling the items
+ * through a single consumer: every thread that puts an item accumulates it into
+ * its own partial result, and the partial results are combined once every
+ * producer is done. The collector must therefore support combining.
+ *
+ * @param <T> type of the items produced
+ * @param <A> type of the partial results of the collector
+ * @param <R> type of the result of the collector
+ */
+@ThreadSafe
+public class ProducerCollector<T, A, R> implements Producer.Queue<T> {
+
+    private final ConcurrentLinkedQueue<Producer<T>> producers;
+    private final Collector<T, A, R> collector;
+    private final ExecutorService executor;
+    private final ConcurrentMap<Thread, A> partials;
+    private final AtomicInteger pending;
+    private final CompletableFuture<Void> done;
+
+    ProducerCollector(List<Producer<T>> producers, Collector<T, A, R> collector, ExecutorService executor) {
+        assert !producers.isEmpty();
+        this.producers = new ConcurrentLinkedQueue<>(producers);
+        this.collector = collector;
+        this.executor = executor;
+        this.partials = new ConcurrentHashMap<>();
+        this.pending = new AtomicInteger(0);
+        this.done = new CompletableFuture<>();
+    }
+
+    R collect() {
+        try {
+            produce();
+            done.join();
+        } catch (CompletionException e) {
+            throw GraknException.of(e.getCause());
+        } finally {
+            producers.forEach(Producer::recycle);
+        }
+        A result = collector.supplier().get();
+        for (A partial : partials.values()) result = collector.combiner().apply(result, partial);
+        return collector.finisher().apply(result);
+    }
+
+    private synchronized void produce() {
+        Producer<T> producer = producers.peek();
+        if (producer == null) return;
+        pending.set(MAX_BATCH_SIZE);
+        executor.submit(() -> producer.produce(this, MAX_BATCH_SIZE, executor));
+    }
+
+    @Override
+    public void put(T item) {
+        A partial = partials.computeIfAbsent(Thread.currentThread(), t -> collector.supplier().get());
+        collector.accumulator().accept(partial, item);
+        if (pending.decrementAndGet() == 0) produce();
+    }
+
+    @Override
+    public void done() {
+        done(null);
+    }
+
+    @Override
+    public synchronized void done(@Nullable Throwable error) {
+        assert !producers.isEmpty();
+        producers.remove();
+        if (error != null) done.completeExceptionally(error);
+        else if (producers.isEmpty()) done.complete(null);
+        else produce();
+    }
+}
@@ -24,6 +24,7 @@ import grakn.core.common.parameters.Arguments;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collector;
 
 import static grakn.common.collection.Collections.list;
 
@@ -57,4 +58,12 @@ public class Producers {
     public static <T> ProducerIterator<T> produce(List<Producer<T>> producers, int batchSize, ExecutorService executor) {
         return new ProducerIterator<>(producers, batchSize, executor);
     }
+
+    public static <T, A, R> R collect(Producer<T> producer, Collector<T, A, R> collector, ExecutorService executor) {
+        return collect(list(producer), collector, executor);
+    }
+
+    public static <T, A, R> R collect(List<Producer<T>> producers, Collector<T, A, R> collector, ExecutorService executor) {
+        return new ProducerCollector<>(producers, collector, executor).collect();
+    }
 }
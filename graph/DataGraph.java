@@ -26,7 +26,6 @@ import grakn.core.common.parameters.Label;
 import grakn.core.concurrent.common.ConcurrentSet;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.common.KeyGenerator;
-import grakn.core.graph.common.StatisticsBytes;
 import grakn.core.graph.common.Storage;
 import grakn.core.graph.iid.EdgeIID;
 import grakn.core.graph.iid.PrefixIID;
@@ -38,66 +37,103 @@ import grakn.core.graph.vertex.Vertex;
 import grakn.core.graph.vertex.impl.AttributeVertexImpl;
 import grakn.core.graph.vertex.impl.ThingVertexImpl;
 
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
-import static grakn.common.util.Objects.className;
 import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.collection.Bytes.longToBytes;
-import static grakn.core.common.collection.Bytes.stripPrefix;
-import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
+import static grakn.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.ILLEGAL_STRING_SIZE;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
 import static grakn.core.common.iterator.Iterators.tree;
+import static grakn.core.concurrent.common.Executors.PARALLELISATION_FACTOR;
 import static grakn.core.graph.common.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_IN;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_OUT;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ATTRIBUTE_TYPE;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ENTITY_TYPE;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_RELATION_TYPE;
-import static grakn.core.graph.common.Encoding.Statistics.JobOperation.CREATED;
-import static grakn.core.graph.common.Encoding.Statistics.JobOperation.DELETED;
+import static grakn.core.graph.common.Encoding.Statistics.CountChange.CREATED;
+import static grakn.core.graph.common.Encoding.Statistics.CountChange.DELETED;
 import static grakn.core.graph.common.Encoding.Status.BUFFERED;
 import static grakn.core.graph.common.Encoding.ValueType.STRING_MAX_SIZE;
 import static grakn.core.graph.common.Encoding.Vertex.Thing.ATTRIBUTE;
-import static grakn.core.graph.common.StatisticsBytes.attributeCountJobKey;
 import static grakn.core.graph.common.StatisticsBytes.attributeCountedKey;
-import static grakn.core.graph.common.StatisticsBytes.hasEdgeCountJobKey;
+import static grakn.core.graph.common.StatisticsBytes.countJobKey;
+import static grakn.core.graph.common.StatisticsBytes.degreeKey;
+import static grakn.core.graph.common.StatisticsBytes.degreeKeyPrefix;
+import static grakn.core.graph.common.StatisticsBytes.degreeSumKey;
 import static grakn.core.graph.common.StatisticsBytes.hasEdgeCountKey;
 import static grakn.core.graph.common.StatisticsBytes.hasEdgeCountedKey;
 import static grakn.core.graph.common.StatisticsBytes.hasEdgeTotalCountKey;
 import static grakn.core.graph.common.StatisticsBytes.snapshotKey;
+import static grakn.core.graph.common.StatisticsBytes.valueBucketKey;
+import static grakn.core.graph.common.StatisticsBytes.valueHistogramKey;
 import static grakn.core.graph.common.StatisticsBytes.vertexCountKey;
 import static grakn.core.graph.common.StatisticsBytes.vertexTransitiveCountKey;
+import static grakn.core.graph.common.Storage.Scan.LONG;
+import static grakn.core.graph.common.Storage.Scan.SHORT;
 import static grakn.core.graph.iid.VertexIID.Thing.generate;
 
 public class DataGraph implements Graph {
 
+    private static final int COMMIT_PARALLELISATION_SPLIT_MIN = 256;
+
     private final Storage.Data storage;
     private final SchemaGraph schemaGraph;
     private final KeyGenerator.Data.Buffered keyGenerator;
     private final ConcurrentMap<VertexIID.Thing, ThingVertex> thingsByIID;
+    private final ThingCache thingCache;
     private final ConcurrentMap<VertexIID.Type, ConcurrentSet<ThingVertex>> thingsByTypeIID;
     private final AttributesByIID attributesByIID;
     private final Statistics statistics;
+    private final boolean isReadOnly;
     private boolean isModified;
 
-    public DataGraph(Storage.Data storage, SchemaGraph schemaGraph) {
+    public DataGraph(Storage.Data storage, SchemaGraph schemaGraph, boolean isReadOnly, ThingCache.Metrics metrics) {
+        this(storage, schemaGraph, isReadOnly, metrics, new Statistics.Samples());
+    }
+
+    public DataGraph(Storage.Data storage, SchemaGraph schemaGraph, boolean isReadOnly, ThingCache.Metrics metrics,
+                     Statistics.Samples samples) {
+        this(storage, schemaGraph, isReadOnly, metrics, samples, ThingCache.SIZE, ThingCache.WEIGHT);
+    }
+
+    DataGraph(Storage.Data storage, SchemaGraph schemaGraph, boolean isReadOnly, ThingCache.Metrics metrics,
+              Statistics.Samples samples, int thingCacheSize, long thingCacheWeight) {
         this.storage = storage;
         this.schemaGraph = schemaGraph;
+        this.isReadOnly = isReadOnly;
         keyGenerator = new KeyGenerator.Data.Buffered();
         thingsByIID = new ConcurrentHashMap<>();
+        thingCache = isReadOnly ? new ThingCache(thingsByIID, metrics, thingCacheSize, thingCacheWeight) : null;
         thingsByTypeIID = new ConcurrentHashMap<>();
         attributesByIID = new AttributesByIID();
-        statistics = new Statistics(schemaGraph, storage);
+        statistics = new Statistics(schemaGraph, storage, samples);
     }
 
     @Override
@@ -113,6 +149,10 @@ public class DataGraph implements Graph {
         return statistics;
     }
 
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
     public ResourceIterator<ThingVertex> vertices() {
         return link(thingsByIID.values().iterator(), attributesByIID.valuesIterator());
     }
@@ -120,7 +160,8 @@ public class DataGraph implements Graph {
     public ThingVertex get(VertexIID.Thing iid) {
         assert storage.isOpen();
         if (iid.encoding().equals(ATTRIBUTE)) return get(iid.asAttribute());
-        else if (!thingsByIID.containsKey(iid) && storage.get(iid.bytes()) == null) return null;
+        else if (!thingsByIID.containsKey(iid) && (thingCache == null || !thingCache.contains(iid)) &&
+                storage.get(iid.bytes()) == null) return null;
         return convert(iid);
     }
 
@@ -132,11 +173,37 @@ public class DataGraph implements Graph {
     }
 
     public ThingVertex convert(VertexIID.Thing iid) {
-        // TODO: benchmark caching persisted edges
         // assert storage.isOpen();
         // enable the the line above
+        ThingVertex vertex;
         if (iid.encoding().equals(ATTRIBUTE)) return convert(iid.asAttribute());
-        else return thingsByIID.computeIfAbsent(iid, i -> ThingVertexImpl.of(this, i));
+        else if (thingCache == null) return thingsByIID.computeIfAbsent(iid, i -> ThingVertexImpl.of(this, i));
+        else if ((vertex = thingsByIID.get(iid)) != null) return vertex;
+        else return thingCache.get(iid, i -> ThingVertexImpl.of(this, i));
+    }
+
+    /**
+     * Retains a persisted vertex of a read transaction that has been modified,
+     * by having an inferred edge put on it, so that it is no longer evicted
+     * from the cache of persisted vertices along with its buffered edges.
+     * As the cache never holds more than one vertex for an IID, the retained
+     * vertex is the one that every later conversion of its IID returns.
+     *
+     * @param vertex the persisted vertex that has been modified
+     */
+    public void retain(ThingVertex vertex) {
+        if (thingCache != null) thingCache.retain(vertex);
+    }
+
+    /**
+     * Adds to the weight of a persisted vertex of a read transaction in the
+     * cache of persisted vertices, once it has cached an adjacency of edges.
+     *
+     * @param vertex the persisted vertex that has cached the edges
+     * @param edges  the number of edges cached by the vertex
+     */
+    public void weigh(ThingVertex vertex, long edges) {
+        if (thingCache != null) thingCache.weigh(vertex, edges);
     }
 
     public AttributeVertex<?> convert(VertexIID.Attribute<?> attIID) {
@@ -188,14 +255,47 @@ public class DataGraph implements Graph {
     }
 
     public ResourceIterator<ThingVertex> get(TypeVertex typeVertex) {
-        ResourceIterator<ThingVertex> storageIterator = storage.iterate(
+        ResourceIterator<ThingVertex> storageIterator = storage.iterateKeys(
                 join(typeVertex.iid().bytes(), Encoding.Edge.ISA.in().bytes()),
-                (key, value) -> convert(EdgeIID.InwardsISA.of(key).end())
+                key -> convert(EdgeIID.InwardsISA.end(key)), LONG
         );
         if (!thingsByTypeIID.containsKey(typeVertex.iid())) return storageIterator;
         else return link(thingsByTypeIID.get(typeVertex.iid()).iterator(), storageIterator).distinct();
     }
 
+    /**
+     * Returns the attributes of the given type whose IIDs lie between the given
+     * IIDs, inclusive, where a null IID leaves the range unbounded on that side.
+     * As longs, doubles and datetimes are encoded in the order of their values,
+     * these are the attributes whose values lie within a range.
+     *
+     * @param typeVertex of the attributes
+     * @param lowerIID   of the least attribute to return, or null
+     * @param upperIID   of the greatest attribute to return, or null
+     * @return an iterator over the attributes between the given IIDs
+     */
+    public ResourceIterator<ThingVertex> get(TypeVertex typeVertex, @Nullable VertexIID.Attribute<?> lowerIID,
+                                             @Nullable VertexIID.Attribute<?> upperIID) {
+        assert typeVertex.isAttributeType();
+        byte[] prefix = join(typeVertex.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        byte[] lowerBound = lowerIID != null ? join(prefix, lowerIID.bytes()) : prefix;
+        byte[] upperBound;
+        if (upperIID != null) {
+            upperBound = join(prefix, upperIID.bytes(), new byte[]{0});
+        } else {
+            upperBound = Arrays.copyOf(prefix, prefix.length);
+            upperBound[upperBound.length - 1]++;
+        }
+        ResourceIterator<ThingVertex> storageIterator = storage.iterate(
+                lowerBound, upperBound, (key, value) -> convert(EdgeIID.InwardsISA.of(key).end()), LONG
+        );
+        if (!thingsByTypeIID.containsKey(typeVertex.iid())) return storageIterator;
+        return link(iterate(thingsByTypeIID.get(typeVertex.iid())).filter(
+                v -> (lowerIID == null || compareBytes(v.iid().bytes(), lowerIID.bytes()) >= 0) &&
+                        (upperIID == null || compareBytes(v.iid().bytes(), upperIID.bytes()) <= 0)
+        ), storageIterator).distinct();
+    }
+
     public AttributeVertex<Boolean> get(TypeVertex type, boolean value) {
         assert storage.isOpen();
         assert type.isAttributeType();
@@ -416,6 +516,7 @@ public class DataGraph implements Graph {
     @Override
     public void clear() {
         thingsByIID.clear();
+        if (thingCache != null) thingCache.clear();
         thingsByTypeIID.clear();
         attributesByIID.clear();
         statistics.clear();
@@ -425,11 +526,12 @@ public class DataGraph implements Graph {
      * Commits all the writes captured in this graph into storage.
      *
      * We start off by generating new IIDs for every {@code ThingVertex} (which
-     * does not actually include {@code AttributeVertex}). We then write the every
-     * {@code ThingVertex} onto the storage. Once all commit operations for every
-     * {@code ThingVertex} is done, we the write all the {@code AttributeVertex}
-     * as the last step. Since the write operations to storage are serialised
-     * anyways, we don't need to parallelise the streams to commit the vertices.
+     * does not actually include {@code AttributeVertex}). We then write every
+     * {@code ThingVertex} and {@code AttributeVertex}, along with their edges,
+     * onto the storage. Encoding the keys of a large number of vertices and edges
+     * is expensive, so we split the vertices into partitions that are written in
+     * parallel, and let the storage serialise the resulting writes at the end.
+     * Each edge is only written once, even though both of its vertices hold it.
      */
     @Override
     public void commit() {
@@ -441,8 +543,10 @@ public class DataGraph implements Graph {
                     vertex.iid(newIID);
                 }
         ); // thingByIID no longer contains valid mapping from IID to TypeVertex
-        thingsByIID.values().stream().filter(v -> !v.isInferred()).forEach(Vertex::commit);
-        attributesByIID.valuesIterator().forEachRemaining(Vertex::commit);
+        ResourceIterator<ThingVertex> vertices = link(
+                iterate(thingsByIID.values()).filter(v -> !v.isInferred()), attributesByIID.valuesIterator()
+        );
+        storage.writeParallel(vertices.toLists(COMMIT_PARALLELISATION_SPLIT_MIN, PARALLELISATION_FACTOR), Vertex::commit);
         statistics.commit(IIDMap);
 
         clear(); // we now flush the indexes after commit, and we do not expect this Graph.Thing to be used again
@@ -521,39 +625,268 @@ public class DataGraph implements Graph {
         }
     }
 
+    /**
+     * The persisted thing vertices of a read transaction, which are converted
+     * far more often than they are modified. Rather than retaining every vertex
+     * that is read, along with the edges that it caches, the cache holds up to
+     * {@link #SIZE} vertices, or {@link #WEIGHT} vertices and cached edges, and
+     * evicts the vertices that were least recently used. The vertices are split
+     * into segments by the hash of their IIDs, which are locked independently
+     * by the threads of a traversal. A vertex that is modified is retained by
+     * the graph instead.
+     *
+     * An evicted vertex may still be held elsewhere, by an iterator or an answer,
+     * so the cache keeps a weak reference to it until it is garbage collected,
+     * and returns that same vertex if its IID is converted again in the meantime.
+     * This way the cache is the only place where persisted vertices are created,
+     * and there is never more than one vertex for an IID that could be modified.
+     */
+    @ThreadSafe
+    public static class ThingCache {
+
+        static final int SIZE = 1 << 16;
+        static final long WEIGHT = 1L << 22;
+        private static final int SEGMENTS = 16;
+
+        private final ConcurrentMap<VertexIID.Thing, ThingVertex> retained;
+        private final Segment[] segments;
+        private final Metrics metrics;
+
+        ThingCache(ConcurrentMap<VertexIID.Thing, ThingVertex> retained, Metrics metrics, int size, long weight) {
+            this.retained = retained;
+            this.metrics = metrics;
+            this.segments = new Segment[SEGMENTS];
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment(Math.max(size / SEGMENTS, 1), Math.max(weight / SEGMENTS, 1));
+            }
+        }
+
+        private Segment segment(VertexIID.Thing iid) {
+            return segments[Math.floorMod(iid.hashCode(), SEGMENTS)];
+        }
+
+        ThingVertex get(VertexIID.Thing iid, Function<VertexIID.Thing, ThingVertex> constructor) {
+            Segment segment = segment(iid);
+            synchronized (segment) {
+                Segment.Entry entry = segment.get(iid);
+                if (entry != null) {
+                    metrics.hits.increment();
+                    return entry.vertex;
+                }
+                ThingVertex vertex;
+                if ((vertex = retained.get(iid)) != null) {
+                    metrics.hits.increment();
+                    return vertex;
+                } else if ((vertex = segment.reclaim(iid)) != null) metrics.hits.increment();
+                else {
+                    metrics.misses.increment();
+                    vertex = constructor.apply(iid);
+                }
+                segment.put(iid, new Segment.Entry(vertex));
+                segment.weight++;
+                segment.evict(metrics);
+                return vertex;
+            }
+        }
+
+        boolean contains(VertexIID.Thing iid) {
+            Segment segment = segment(iid);
+            synchronized (segment) {
+                return segment.containsKey(iid) || segment.isEvicted(iid);
+            }
+        }
+
+        void weigh(ThingVertex vertex, long edges) {
+            Segment segment = segment(vertex.iid());
+            synchronized (segment) {
+                Segment.Entry entry = segment.get(vertex.iid());
+                if (entry == null || entry.vertex != vertex) return;
+                entry.weight += edges;
+                segment.weight += edges;
+                segment.evict(metrics);
+            }
+        }
+
+        void retain(ThingVertex vertex) {
+            Segment segment = segment(vertex.iid());
+            synchronized (segment) {
+                assert !retained.containsKey(vertex.iid()) || retained.get(vertex.iid()) == vertex;
+                retained.put(vertex.iid(), vertex);
+                Segment.Entry entry = segment.remove(vertex.iid());
+                if (entry != null) segment.weight -= entry.weight;
+                segment.evicted.remove(vertex.iid());
+            }
+        }
+
+        void clear() {
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    segment.clear();
+                    segment.evicted.clear();
+                    segment.weight = 0;
+                }
+            }
+        }
+
+        private static class Segment extends LinkedHashMap<VertexIID.Thing, Segment.Entry> {
+
+            private final int size;
+            private final long maxWeight;
+            private final Map<VertexIID.Thing, Evicted> evicted;
+            private final ReferenceQueue<ThingVertex> collected;
+            private long weight;
+
+            private Segment(int size, long maxWeight) {
+                super(16, 0.75f, true);
+                this.size = size;
+                this.maxWeight = maxWeight;
+                this.evicted = new HashMap<>();
+                this.collected = new ReferenceQueue<>();
+                this.weight = 0;
+            }
+
+            private ThingVertex reclaim(VertexIID.Thing iid) {
+                purge();
+                Evicted reference = evicted.remove(iid);
+                return reference != null ? reference.get() : null;
+            }
+
+            private boolean isEvicted(VertexIID.Thing iid) {
+                purge();
+                Evicted reference = evicted.get(iid);
+                return reference != null && reference.get() != null;
+            }
+
+            private void evict(Metrics metrics) {
+                Iterator<Entry> eldest = values().iterator();
+                while ((size() > size || weight > maxWeight) && size() > 1) {
+                    Entry entry = eldest.next();
+                    weight -= entry.weight;
+                    evicted.put(entry.vertex.iid(), new Evicted(entry.vertex, collected));
+                    eldest.remove();
+                    metrics.evictions.increment();
+                }
+                purge();
+            }
+
+            private void purge() {
+                Reference<? extends ThingVertex> reference;
+                while ((reference = collected.poll()) != null) {
+                    Evicted garbage = (Evicted) reference;
+                    evicted.remove(garbage.iid, garbage);
+                }
+            }
+
+            private static class Entry {
+
+                private final ThingVertex vertex;
+                private long weight;
+
+                private Entry(ThingVertex vertex) {
+                    this.vertex = vertex;
+                    this.weight = 1;
+                }
+            }
+
+            private static class Evicted extends WeakReference<ThingVertex> {
+
+                private final VertexIID.Thing iid;
+
+                private Evicted(ThingVertex vertex, ReferenceQueue<ThingVertex> queue) {
+                    super(vertex, queue);
+                    this.iid = vertex.iid();
+                }
+            }
+        }
+
+        @ThreadSafe
+        public static class Metrics {
+
+            private final LongAdder hits;
+            private final LongAdder misses;
+            private final LongAdder evictions;
+
+            public Metrics() {
+                hits = new LongAdder();
+                misses = new LongAdder();
+                evictions = new LongAdder();
+            }
+
+            public long hits() {
+                return hits.sum();
+            }
+
+            public long misses() {
+                return misses.sum();
+            }
+
+            public long evictions() {
+                return evictions.sum();
+            }
+
+            @Override
+            public String toString() {
+                return String.format("thing-cache: hits=%d, misses=%d, evictions=%d", hits(), misses(), evictions());
+            }
+        }
+    }
+
     public static class Statistics {
 
-        private static int COUNT_JOB_BATCH_SIZE = 10000;
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedVertexTransitiveCount;
         private final ConcurrentMap<VertexIID.Type, Long> deltaVertexCount;
         private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, Long> persistedHasEdgeCount;
         private final ConcurrentMap<VertexIID.Type, Long> persistedHasEdgeTotalCount;
-        private final ConcurrentMap<VertexIID.Attribute<?>, Encoding.Statistics.JobOperation> attributeVertexCountJobs;
-        private final ConcurrentMap<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.JobOperation> hasEdgeCountJobs;
-        private boolean needsBackgroundCounting;
+        private final ConcurrentMap<VertexIID.Attribute<?>, Encoding.Statistics.CountChange> attributeVertexCountChanges;
+        private final ConcurrentMap<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.CountChange> hasEdgeCountChanges;
+        private final ConcurrentMap<Pair<VertexIID.Thing, Pair<Encoding.Infix, VertexIID.Type>>, Long> degreeChanges;
+        private final ConcurrentMap<Pair<VertexIID.Type, Pair<Encoding.Infix, VertexIID.Type>>, DegreeHistogram> persistedDegreeHistograms;
+        private final ConcurrentMap<VertexIID.Type, ValueHistogram> persistedValueHistograms;
+        private final ConcurrentSet<VertexIID.Type> modifiedTypes;
+        private final ConcurrentMap<Pair<VertexIID.Type, VertexIID.Type>, TopValues> persistedTopValues;
         private final SchemaGraph schemaGraph;
-        private final Storage storage;
+        private final Storage.Data storage;
+        private final Samples samples;
         private final long snapshot;
 
-        public Statistics(SchemaGraph schemaGraph, Storage storage) {
+        public Statistics(SchemaGraph schemaGraph, Storage.Data storage, Samples samples) {
             persistedVertexCount = new ConcurrentHashMap<>();
             persistedVertexTransitiveCount = new ConcurrentHashMap<>();
             deltaVertexCount = new ConcurrentHashMap<>();
             persistedHasEdgeCount = new ConcurrentHashMap<>();
             persistedHasEdgeTotalCount = new ConcurrentHashMap<>();
-            attributeVertexCountJobs = new ConcurrentHashMap<>();
-            hasEdgeCountJobs = new ConcurrentHashMap<>();
-            needsBackgroundCounting = false;
+            attributeVertexCountChanges = new ConcurrentHashMap<>();
+            hasEdgeCountChanges = new ConcurrentHashMap<>();
+            degreeChanges = new ConcurrentHashMap<>();
+            persistedDegreeHistograms = new ConcurrentHashMap<>();
+            persistedValueHistograms = new ConcurrentHashMap<>();
+            modifiedTypes = new ConcurrentSet<>();
+            persistedTopValues = new ConcurrentHashMap<>();
             snapshot = bytesToLongOrZero(storage.get(snapshotKey()));
             this.schemaGraph = schemaGraph;
             this.storage = storage;
+            this.samples = samples;
         }
 
         public long snapshot() {
             return snapshot;
         }
 
+        /**
+         * Returns true if the counts of things and has edges are exact for this
+         * transaction. The persisted counts are exact as of the snapshot of this
+         * transaction, and the counts of entities and relations include the changes
+         * of this transaction, but the counts of attributes and has edges only
+         * change on commit. They are therefore only exact as long as this
+         * transaction has not created or deleted any attribute or has edge.
+         *
+         * @return true if the counts reflect the data seen by this transaction
+         */
+        public boolean isExact() {
+            return attributeVertexCountChanges.isEmpty() && hasEdgeCountChanges.isEmpty();
+        }
+
         public long hasEdgeSum(TypeVertex owner, Set<TypeVertex> attributes) {
             return attributes.stream().map(att -> hasEdgeCount(owner, att)).mapToLong(l -> l).sum();
         }
@@ -613,36 +946,120 @@ public class DataGraph implements Graph {
             ).max().orElse(0);
         }
 
-        public boolean needsBackgroundCounting() {
-            return needsBackgroundCounting;
+        /**
+         * Returns the distribution of the degrees of the things of a type, over
+         * their edges of a given encoding to the things of an adjacent type. The
+         * sum of the degrees is exact as of the last commit before this transaction
+         * was opened, while their distribution is estimated from a sample that may
+         * have been taken by an earlier transaction, see {@link Samples}.
+         *
+         * @param type         of the things whose degrees are counted
+         * @param infix        of the edges that are counted, including their direction
+         * @param adjacentType of the things at the other end of the counted edges
+         * @return the histogram of the degrees
+         */
+        public DegreeHistogram degreeHistogram(TypeVertex type, Encoding.Infix infix, TypeVertex adjacentType) {
+            return persistedDegreeHistograms.computeIfAbsent(
+                    pair(type.iid(), pair(infix, adjacentType.iid())),
+                    k -> samples.histogram(storage, type.iid(), infix, adjacentType.iid())
+            );
+        }
+
+        /**
+         * Returns the degree of a thing, over its edges of a given encoding to the
+         * things of an adjacent type, as of the last commit before this transaction
+         * was opened.
+         *
+         * @param thingIID        of the thing whose degree is counted
+         * @param infix           of the edges that are counted, including their direction
+         * @param adjacentTypeIID of the things at the other end of the counted edges
+         * @return the degree of the thing
+         */
+        public long degree(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID) {
+            return bytesToLongOrZero(storage.get(degreeKey(thingIID, infix, adjacentTypeIID)));
+        }
+
+        public long degreeSum(Set<TypeVertex> types, Encoding.Infix infix, Set<TypeVertex> adjacentTypes) {
+            long sum = 0;
+            for (TypeVertex type : types) {
+                for (TypeVertex adjacentType : adjacentTypes) {
+                    sum += degreeHistogram(type, infix, adjacentType).edgeCount();
+                }
+            }
+            return sum;
+        }
+
+        public ValueHistogram valueHistogram(TypeVertex attributeType) {
+            return persistedValueHistograms.computeIfAbsent(
+                    attributeType.iid(), k -> ValueHistogram.of(storage, valueHistogramKey(attributeType.iid()))
+            );
+        }
+
+        public TopValues topValues(TypeVertex attributeType, TypeVertex ownerType) {
+            return persistedTopValues.computeIfAbsent(
+                    pair(attributeType.iid(), ownerType.iid()),
+                    k -> samples.topValues(storage, attributeType.iid(), ownerType.iid())
+            );
+        }
+
+        /**
+         * Returns the labels of the types whose things, or whose edges to other
+         * things, have been created or deleted by this transaction.
+         *
+         * @return the labels of the types of the things modified by this transaction
+         */
+        public Set<Label> modifiedTypes() {
+            return iterate(modifiedTypes).map(iid -> schemaGraph.convert(iid).properLabel()).toSet();
         }
 
         public void vertexCreated(VertexIID.Type typeIID) {
             deltaVertexCount.compute(typeIID, (k, v) -> (v == null ? 0 : v) + 1);
+            modifiedTypes.add(typeIID);
         }
 
         public void vertexDeleted(VertexIID.Type typeIID) {
             deltaVertexCount.compute(typeIID, (k, v) -> (v == null ? 0 : v) - 1);
+            modifiedTypes.add(typeIID);
         }
 
         public void attributeVertexCreated(VertexIID.Attribute<?> attIID) {
-            attributeVertexCountJobs.put(attIID, CREATED);
-            needsBackgroundCounting = true;
+            attributeVertexCountChanges.put(attIID, CREATED);
+            modifiedTypes.add(attIID.type());
         }
 
         public void attributeVertexDeleted(VertexIID.Attribute<?> attIID) {
-            attributeVertexCountJobs.put(attIID, DELETED);
-            needsBackgroundCounting = true;
+            attributeVertexCountChanges.put(attIID, DELETED);
+            modifiedTypes.add(attIID.type());
+        }
+
+        public void thingEdgeCreated(Encoding.Edge.Thing encoding, VertexIID.Thing fromIID, VertexIID.Thing toIID) {
+            modifiedTypes.add(fromIID.type());
+            modifiedTypes.add(toIID.type());
+            if (encoding == Encoding.Edge.Thing.HAS) hasEdgeCreated(fromIID, toIID.asAttribute());
+            else if (encoding == Encoding.Edge.Thing.PLAYING || encoding == Encoding.Edge.Thing.RELATING) {
+                degreeChanged(fromIID, encoding.out(), toIID.type(), 1);
+            }
+        }
+
+        public void thingEdgeDeleted(Encoding.Edge.Thing encoding, VertexIID.Thing fromIID, VertexIID.Thing toIID) {
+            modifiedTypes.add(fromIID.type());
+            modifiedTypes.add(toIID.type());
+            if (encoding == Encoding.Edge.Thing.HAS) hasEdgeDeleted(fromIID, toIID.asAttribute());
+            else if (encoding == Encoding.Edge.Thing.PLAYING || encoding == Encoding.Edge.Thing.RELATING) {
+                degreeChanged(fromIID, encoding.out(), toIID.type(), -1);
+            }
         }
 
         public void hasEdgeCreated(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
-            hasEdgeCountJobs.put(pair(thingIID, attIID), CREATED);
-            needsBackgroundCounting = true;
+            hasEdgeCountChanges.put(pair(thingIID, attIID), CREATED);
         }
 
         public void hasEdgeDeleted(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
-            hasEdgeCountJobs.put(pair(thingIID, attIID), DELETED);
-            needsBackgroundCounting = true;
+            hasEdgeCountChanges.put(pair(thingIID, attIID), DELETED);
+        }
+
+        private void degreeChanged(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID, long delta) {
+            degreeChanges.merge(pair(thingIID, pair(infix, adjacentTypeIID)), delta, Long::sum);
         }
 
         private long vertexCount(VertexIID.Type typeIID, boolean isTransitive) {
@@ -713,6 +1130,22 @@ public class DataGraph implements Graph {
                     typeIID.equals(schemaGraph.rootRoleType().iid());
         }
 
+        /**
+         * Writes the changes to the statistics into the storage.
+         *
+         * Attributes, and has edges to attributes, may be created or deleted by many
+         * concurrent transactions at once, so each of them is counted exactly once
+         * by marking it with a "counted" key. Each marker rewrites the latest committed
+         * value of its key, so the markers are only written once every other write of
+         * this transaction is ready to be committed, while exactly the marker keys are
+         * locked, so that the counts are exact and visible as soon as the transaction
+         * is committed, without any write conflicts between transactions.
+         *
+         * Every count, and every degree, is otherwise merged as a delta, which needs
+         * no lock. Has edges only change the degrees of their owner and attribute when
+         * they change the has edge count. The distributions of the degrees are not
+         * maintained on commit, but sampled from the degrees when they are read.
+         */
         private void commit(Map<VertexIID.Thing, VertexIID.Thing> IIDMap) {
             deltaVertexCount.forEach((typeIID, delta) -> {
                 storage.mergeUntracked(vertexCountKey(typeIID), longToBytes(delta));
@@ -724,206 +1157,562 @@ public class DataGraph implements Graph {
                     storage.mergeUntracked(vertexTransitiveCountKey(schemaGraph.rootRoleType().iid()), longToBytes(delta));
                 }
             });
-            attributeVertexCountJobs.forEach((attIID, countWorkValue) -> storage.putUntracked(
-                    attributeCountJobKey(attIID), countWorkValue.bytes()
-            ));
-            hasEdgeCountJobs.forEach((hasEdge, countWorkValue) -> storage.putUntracked(
-                    hasEdgeCountJobKey(IIDMap.getOrDefault(hasEdge.first(), hasEdge.first()), hasEdge.second()), countWorkValue.bytes()
+            degreeChanges.forEach((degree, delta) -> mergeDegree(
+                    IIDMap.getOrDefault(degree.first(), degree.first()), degree.second().first(), degree.second().second(), delta
             ));
-            if (!deltaVertexCount.isEmpty()) {
+            if (!attributeVertexCountChanges.isEmpty() || !hasEdgeCountChanges.isEmpty()) {
+                Map<VertexIID.Attribute<?>, Encoding.Statistics.CountChange> attributes = new HashMap<>(attributeVertexCountChanges);
+                Map<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.CountChange> hasEdges = new HashMap<>();
+                hasEdgeCountChanges.forEach((hasEdge, change) -> hasEdges.put(
+                        pair(IIDMap.getOrDefault(hasEdge.first(), hasEdge.first()), hasEdge.second()), change
+                ));
+                new CountedChanges(attributes, hasEdges).writeOnCommit();
+            }
+            if (!deltaVertexCount.isEmpty() || !attributeVertexCountChanges.isEmpty() ||
+                    !hasEdgeCountChanges.isEmpty() || !degreeChanges.isEmpty()) {
                 storage.mergeUntracked(snapshotKey(), longToBytes(1));
             }
         }
 
-        private void clear() {
-            persistedVertexCount.clear();
-            persistedVertexTransitiveCount.clear();
-            deltaVertexCount.clear();
-            persistedHasEdgeCount.clear();
-            attributeVertexCountJobs.clear();
-            hasEdgeCountJobs.clear();
-        }
-
-        public boolean processCountJobs() {
-            ResourceIterator<CountJob> countJobs = storage.iterate(StatisticsBytes.countJobKey(), CountJob::of);
-            for (long processed = 0; processed < COUNT_JOB_BATCH_SIZE && countJobs.hasNext(); processed++) {
-                CountJob countJob = countJobs.next();
-                if (countJob instanceof CountJob.Attribute) {
-                    processAttributeCountJob(countJob);
-                } else if (countJob instanceof CountJob.HasEdge) {
-                    processHasEdgeCountJob(countJob);
-                } else {
-                    assert false;
+        /**
+         * Migrates the count jobs left behind by older versions, which counted
+         * attributes and has edges in the background, by treating each of them as a
+         * change of this transaction and deleting it. The changes are then counted
+         * exactly once when this transaction commits, like any other change.
+         *
+         * @return true if there were any count jobs to migrate
+         */
+        public boolean migrateCountJobs() {
+            ResourceIterator<Pair<byte[], byte[]>> jobs = storage.iterate(countJobKey(), Pair::new);
+            boolean isMigrated = false;
+            while (jobs.hasNext()) {
+                Pair<byte[], byte[]> job = jobs.next();
+                byte[] key = job.first();
+                Encoding.Statistics.CountChange change = Encoding.Statistics.CountChange.of(job.second());
+                int from = PrefixIID.LENGTH + 1;
+                switch (Encoding.Statistics.CountJob.of(key[PrefixIID.LENGTH])) {
+                    case ATTRIBUTE_VERTEX:
+                        VertexIID.Attribute<?> attIID = VertexIID.Attribute.extract(key, from);
+                        attributeVertexCountChanges.put(attIID, change);
+                        break;
+                    case HAS_EDGE:
+                        VertexIID.Thing thingIID = VertexIID.Thing.extract(key, from);
+                        VertexIID.Attribute<?> hasIID = VertexIID.Attribute.extract(key, from + thingIID.bytes().length);
+                        hasEdgeCountChanges.put(pair(thingIID, hasIID), change);
+                        break;
+                    default:
+                        throw GraknException.of(UNRECOGNISED_VALUE);
                 }
-                storage.delete(countJob.key());
+                storage.deleteUntracked(key);
+                isMigrated = true;
             }
-            storage.mergeUntracked(snapshotKey(), longToBytes(1));
-            return countJobs.hasNext();
+            return isMigrated;
         }
 
-        private void processAttributeCountJob(CountJob countJob) {
-            VertexIID.Attribute<?> attIID = countJob.asAttribute().attIID();
-            if (countJob.value() == CREATED) {
-                processAttributeCreatedCountJob(attIID);
-            } else if (countJob.value() == DELETED) {
-                processAttributeDeletedCountJob(attIID);
-            } else {
-                assert false;
+        /**
+         * The attributes and has edges created or deleted by a transaction, which
+         * are counted once the keys that mark them as counted are locked. The keys,
+         * and their latest values, are in the order of the attributes and then the
+         * has edges.
+         */
+        private class CountedChanges {
+
+            private final Map<VertexIID.Attribute<?>, Encoding.Statistics.CountChange> attributes;
+            private final Map<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.CountChange> hasEdges;
+            private final List<VertexIID.Attribute<?>> attributeOrder;
+            private final List<Pair<VertexIID.Thing, VertexIID.Attribute<?>>> hasEdgeOrder;
+
+            private CountedChanges(Map<VertexIID.Attribute<?>, Encoding.Statistics.CountChange> attributes,
+                                   Map<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.CountChange> hasEdges) {
+                this.attributes = attributes;
+                this.hasEdges = hasEdges;
+                this.attributeOrder = new ArrayList<>(attributes.keySet());
+                this.hasEdgeOrder = new ArrayList<>(hasEdges.keySet());
             }
-        }
 
-        private void processAttributeCreatedCountJob(VertexIID.Attribute<?> attIID) {
-            byte[] countedKey = attributeCountedKey(attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted == null) {
-                storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(1));
-                storage.mergeUntracked(vertexTransitiveCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(1));
-                storage.put(countedKey);
+            private void writeOnCommit() {
+                List<byte[]> keys = new ArrayList<>();
+                attributeOrder.forEach(attIID -> keys.add(attributeCountedKey(attIID)));
+                hasEdgeOrder.forEach(hasEdge -> keys.add(hasEdgeCountedKey(hasEdge.first(), hasEdge.second())));
+                storage.writeOnCommit(keys, this::write);
+            }
+
+            private void write(List<byte[]> latest) {
+                Iterator<byte[]> values = latest.iterator();
+                attributeOrder.forEach(attIID -> commitAttributeVertexCount(
+                        attIID, attributes.get(attIID), values.next() != null
+                ));
+                hasEdgeOrder.forEach(hasEdge -> {
+                    VertexIID.Thing thingIID = hasEdge.first();
+                    VertexIID.Attribute<?> attIID = hasEdge.second();
+                    long delta = commitHasEdgeCount(thingIID, attIID, hasEdges.get(hasEdge), values.next() != null);
+                    if (delta != 0) {
+                        mergeDegree(thingIID, EDGE_HAS_OUT, attIID.type(), delta);
+                        mergeDegree(attIID, EDGE_HAS_IN, thingIID.type(), delta);
+                    }
+                });
             }
         }
 
-        private void processAttributeDeletedCountJob(VertexIID.Attribute<?> attIID) {
+        private void commitAttributeVertexCount(VertexIID.Attribute<?> attIID, Encoding.Statistics.CountChange change,
+                                                boolean isCounted) {
             byte[] countedKey = attributeCountedKey(attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted != null) {
-                storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(-1));
-                storage.mergeUntracked(vertexTransitiveCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(-1));
-                storage.delete(countedKey);
+            if (change == CREATED && !isCounted) {
+                mergeAttributeVertexCount(attIID, 1);
+                storage.putUntracked(countedKey);
+            } else if (change == DELETED && isCounted) {
+                mergeAttributeVertexCount(attIID, -1);
+                storage.deleteUntracked(countedKey);
             }
         }
 
-        private void processHasEdgeCountJob(CountJob countJob) {
-            VertexIID.Thing thingIID = countJob.asHasEdge().thingIID();
-            VertexIID.Attribute<?> attIID = countJob.asHasEdge().attIID();
-            if (countJob.value() == CREATED) {
-                processHasEdgeCreatedCountJob(thingIID, attIID);
-            } else if (countJob.value() == DELETED) {
-                processHasEdgeDeletedCountJob(thingIID, attIID);
-            } else {
-                assert false;
+        private void mergeAttributeVertexCount(VertexIID.Attribute<?> attIID, long delta) {
+            storage.mergeUntracked(vertexCountKey(attIID.type()), longToBytes(delta));
+            storage.mergeUntracked(vertexTransitiveCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(delta));
+            if (ValueHistogram.isNumeric(attIID.valueType())) {
+                storage.mergeUntracked(valueBucketKey(attIID.type(), ValueHistogram.bucket(ValueHistogram.numeric(attIID))),
+                                       longToBytes(delta));
             }
         }
 
-        private void processHasEdgeCreatedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
+        private long commitHasEdgeCount(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID,
+                                        Encoding.Statistics.CountChange change, boolean isCounted) {
             byte[] countedKey = hasEdgeCountedKey(thingIID, attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted == null) {
-                storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(1));
-                if (thingIID.type().encoding().prefix() == VERTEX_ENTITY_TYPE) {
-                    storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootEntityType().iid()), longToBytes(1));
-                } else if (thingIID.type().encoding().prefix() == VERTEX_RELATION_TYPE) {
-                    storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootRelationType().iid()), longToBytes(1));
-                } else if (thingIID.type().encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
-                    storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(1));
-                }
-                storage.put(countedKey);
+            if (change == CREATED && !isCounted) {
+                mergeHasEdgeCount(thingIID, attIID, 1);
+                storage.putUntracked(countedKey);
+                return 1;
+            } else if (change == DELETED && isCounted) {
+                mergeHasEdgeCount(thingIID, attIID, -1);
+                storage.deleteUntracked(countedKey);
+                return -1;
+            } else {
+                return 0;
             }
         }
 
-        private void processHasEdgeDeletedCountJob(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
-            byte[] countedKey = hasEdgeCountedKey(thingIID, attIID);
-            byte[] counted = storage.get(countedKey);
-            if (counted != null) {
-                storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(-1));
-                if (thingIID.type().encoding().prefix() == VERTEX_ENTITY_TYPE) {
-                    storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootEntityType().iid()), longToBytes(-1));
-                } else if (thingIID.type().encoding().prefix() == VERTEX_RELATION_TYPE) {
-                    storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootRelationType().iid()), longToBytes(-1));
-                } else if (thingIID.type().encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
-                    storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(-1));
-                }
-                storage.delete(countedKey);
+        private void mergeHasEdgeCount(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID, long delta) {
+            storage.mergeUntracked(hasEdgeCountKey(thingIID.type(), attIID.type()), longToBytes(delta));
+            if (thingIID.type().encoding().prefix() == VERTEX_ENTITY_TYPE) {
+                storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootEntityType().iid()), longToBytes(delta));
+            } else if (thingIID.type().encoding().prefix() == VERTEX_RELATION_TYPE) {
+                storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootRelationType().iid()), longToBytes(delta));
+            } else if (thingIID.type().encoding().prefix() == VERTEX_ATTRIBUTE_TYPE) {
+                storage.mergeUntracked(hasEdgeTotalCountKey(schemaGraph.rootAttributeType().iid()), longToBytes(delta));
             }
         }
 
-        private long bytesToLongOrZero(byte[] bytes) {
+        /**
+         * Merges a change into the degree of a thing, and into the sum of the degrees
+         * of its type. A degree that a decrease brings down to zero is deleted rather
+         * than kept as a zero, so that the degrees of deleted things do not pile up.
+         * The delete is tracked, unlike the merges, so that if another transaction
+         * committed a change to the same degree after this one was opened, this
+         * transaction fails to commit rather than deleting the degree changed by the
+         * other one.
+         */
+        private void mergeDegree(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID, long delta) {
+            if (delta == 0) return;
+            byte[] degreeKey = degreeKey(thingIID, infix, adjacentTypeIID);
+            if (delta < 0 && bytesToLongOrZero(storage.get(degreeKey)) + delta <= 0) storage.delete(degreeKey);
+            else storage.mergeUntracked(degreeKey, longToBytes(delta));
+            storage.mergeUntracked(degreeSumKey(thingIID.type(), infix, adjacentTypeIID), longToBytes(delta));
+        }
+
+        private void clear() {
+            persistedVertexCount.clear();
+            persistedVertexTransitiveCount.clear();
+            deltaVertexCount.clear();
+            persistedHasEdgeCount.clear();
+            attributeVertexCountChanges.clear();
+            hasEdgeCountChanges.clear();
+            degreeChanges.clear();
+            persistedDegreeHistograms.clear();
+            persistedValueHistograms.clear();
+            persistedTopValues.clear();
+            modifiedTypes.clear();
+        }
+
+        private static long bytesToLongOrZero(byte[] bytes) {
             return bytes != null ? bytesToLong(bytes) : 0;
         }
 
-        public abstract static class CountJob {
-            private final Encoding.Statistics.JobOperation value;
-            private final byte[] key;
+        /**
+         * The samples of the degrees of the things of every type, shared by every
+         * transaction of a database until its schema changes. The degrees of a type
+         * are sampled when a transaction first reads their distribution, and the
+         * sample is reused by later transactions until the exact sum of the degrees
+         * has drifted from the sum it was taken at by more than {@link #RESAMPLE_DRIFT}.
+         * This keeps the distributions of the degrees off the commit path entirely.
+         */
+        @ThreadSafe
+        public static class Samples {
 
-            private CountJob(byte[] key, Encoding.Statistics.JobOperation value) {
-                this.key = key;
-                this.value = value;
+            private static final double RESAMPLE_DRIFT = 0.1;
+
+            private final ConcurrentMap<Pair<VertexIID.Type, Pair<Encoding.Infix, VertexIID.Type>>, DegreeSample> samples;
+
+            public Samples() {
+                samples = new ConcurrentHashMap<>();
             }
 
-            public static CountJob of(byte[] key, byte[] value) {
-                byte[] countJobKey = stripPrefix(key, PrefixIID.LENGTH);
-                Encoding.Statistics.JobType jobType = Encoding.Statistics.JobType.of(new byte[]{countJobKey[0]});
-                Encoding.Statistics.JobOperation jobOperation = Encoding.Statistics.JobOperation.of(value);
-                byte[] countJobIID = stripPrefix(countJobKey, PrefixIID.LENGTH);
-                if (jobType == Encoding.Statistics.JobType.ATTRIBUTE_VERTEX) {
-                    VertexIID.Attribute<?> attIID = VertexIID.Attribute.of(countJobIID);
-                    return new Attribute(key, attIID, jobOperation);
-                } else if (jobType == Encoding.Statistics.JobType.HAS_EDGE) {
-                    VertexIID.Thing thingIID = VertexIID.Thing.extract(countJobIID, 0);
-                    VertexIID.Attribute<?> attIID = VertexIID.Attribute.extract(countJobIID, thingIID.bytes().length);
-                    return new HasEdge(key, thingIID, attIID, jobOperation);
-                } else {
-                    assert false;
-                    return null;
+            private DegreeHistogram histogram(Storage storage, VertexIID.Type typeIID, Encoding.Infix infix,
+                                              VertexIID.Type adjacentTypeIID) {
+                long edgeCount = bytesToLongOrZero(storage.get(degreeSumKey(typeIID, infix, adjacentTypeIID)));
+                return new DegreeHistogram(sample(storage, typeIID, infix, adjacentTypeIID, edgeCount).buckets, edgeCount);
+            }
+
+            private TopValues topValues(Storage storage, VertexIID.Type attTypeIID, VertexIID.Type ownerTypeIID) {
+                long edgeCount = bytesToLongOrZero(storage.get(degreeSumKey(attTypeIID, EDGE_HAS_IN, ownerTypeIID)));
+                return sample(storage, attTypeIID, EDGE_HAS_IN, ownerTypeIID, edgeCount).topValues;
+            }
+
+            private DegreeSample sample(Storage storage, VertexIID.Type typeIID, Encoding.Infix infix,
+                                        VertexIID.Type adjacentTypeIID, long edgeCount) {
+                Pair<VertexIID.Type, Pair<Encoding.Infix, VertexIID.Type>> key = pair(typeIID, pair(infix, adjacentTypeIID));
+                DegreeSample sample = samples.get(key);
+                if (sample == null || Math.abs(edgeCount - sample.edgeCount) > RESAMPLE_DRIFT * sample.edgeCount) {
+                    sample = DegreeSample.of(storage, typeIID, infix, adjacentTypeIID, edgeCount);
+                    samples.put(key, sample);
                 }
+                return sample;
             }
+        }
 
-            public byte[] key() {
-                return key;
+        /**
+         * The degrees of up to {@link #SIZE} things of a type, over their edges of
+         * one encoding to the things of an adjacent type. The degree keys of the
+         * type, encoding and adjacent type share a prefix, and the sample is spread
+         * across their range by reading an equal share of the sample from each of
+         * {@link #STRIDES} strides between the first and last key, where a stride
+         * that holds fewer keys than its share leaves the rest to the strides after
+         * it. The histogram counts every thing of the type if the sample is
+         * exhaustive, and is otherwise scaled so that the sum of its degrees is the
+         * exact sum of the degrees of the type. The top values are only ranked for
+         * the has edges of string attributes, among the sampled attributes.
+         */
+        private static class DegreeSample {
+
+            private static final int SIZE = 1 << 16;
+            private static final int STRIDES = 16;
+            private static final int STRIDE_KEY_LENGTH = Long.BYTES;
+
+            private final long edgeCount;
+            private final long[] buckets;
+            private final TopValues topValues;
+
+            private DegreeSample(long edgeCount, long[] buckets, TopValues topValues) {
+                this.edgeCount = edgeCount;
+                this.buckets = buckets;
+                this.topValues = topValues;
             }
 
-            public Encoding.Statistics.JobOperation value() {
-                return value;
+            private static DegreeSample of(Storage storage, VertexIID.Type typeIID, Encoding.Infix infix,
+                                           VertexIID.Type adjacentTypeIID, long edgeCount) {
+                byte[] prefix = degreeKeyPrefix(typeIID, infix, adjacentTypeIID);
+                int thingOffset = PrefixIID.LENGTH + infix.bytes().length + adjacentTypeIID.bytes().length;
+                boolean isRanked = infix == EDGE_HAS_IN && typeIID.encoding() == Encoding.Vertex.Type.ATTRIBUTE_TYPE;
+                long[] buckets = new long[DegreeHistogram.BUCKETS];
+                long sampledEdgeCount = 0;
+                boolean isExhaustive = true;
+                TopValues topValues = new TopValues();
+
+                byte[] firstKey = storage.iterate(prefix, (key, value) -> key, SHORT).firstOrNull();
+                byte[] lastKey = storage.getLastKey(prefix);
+                if (firstKey == null || lastKey == null) return new DegreeSample(edgeCount, buckets, topValues);
+                BigInteger first = strideKey(firstKey, prefix.length);
+                BigInteger range = strideKey(lastKey, prefix.length).subtract(first);
+                byte[] lower = firstKey;
+                int sampled = 0;
+                for (int stride = 1; stride <= STRIDES; stride++) {
+                    byte[] upper = stride < STRIDES
+                            ? join(prefix, strideBytes(first.add(range.multiply(BigInteger.valueOf(stride))
+                                                                      .divide(BigInteger.valueOf(STRIDES)))))
+                            : join(lastKey, new byte[]{0});
+                    int share = (SIZE - sampled) / (STRIDES - stride + 1);
+                    ResourceIterator<Pair<byte[], byte[]>> degrees = storage.iterate(lower, upper, Pair::new, LONG);
+                    try {
+                        for (int taken = 0; taken < share && degrees.hasNext(); ) {
+                            Pair<byte[], byte[]> entry = degrees.next();
+                            long degree = bytesToLong(entry.second());
+                            if (degree <= 0) continue;
+                            taken++;
+                            sampled++;
+                            buckets[DegreeHistogram.bucket(degree)]++;
+                            sampledEdgeCount += degree;
+                            if (isRanked) {
+                                VertexIID.Attribute<?> attIID = VertexIID.Attribute.extract(entry.first(), thingOffset);
+                                if (attIID.valueType() == Encoding.ValueType.STRING) topValues.update(attIID, degree);
+                            }
+                        }
+                        if (degrees.hasNext()) isExhaustive = false;
+                    } finally {
+                        degrees.recycle();
+                    }
+                    lower = upper;
+                }
+                if (!isExhaustive && sampledEdgeCount > 0) {
+                    double scale = (double) edgeCount / sampledEdgeCount;
+                    for (int b = 0; b < buckets.length; b++) {
+                        if (buckets[b] > 0) buckets[b] = Math.max(1, Math.round(buckets[b] * scale));
+                    }
+                }
+                return new DegreeSample(edgeCount, buckets, topValues);
             }
 
-            public Attribute asAttribute() {
-                throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Attribute.class));
+            private static BigInteger strideKey(byte[] key, int from) {
+                byte[] bytes = new byte[STRIDE_KEY_LENGTH];
+                System.arraycopy(key, from, bytes, 0, Math.min(STRIDE_KEY_LENGTH, key.length - from));
+                return new BigInteger(1, bytes);
             }
 
-            public HasEdge asHasEdge() {
-                throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(HasEdge.class));
+            private static byte[] strideBytes(BigInteger strideKey) {
+                byte[] bytes = strideKey.toByteArray();
+                byte[] padded = new byte[STRIDE_KEY_LENGTH];
+                int length = Math.min(bytes.length, STRIDE_KEY_LENGTH);
+                System.arraycopy(bytes, bytes.length - length, padded, STRIDE_KEY_LENGTH - length, length);
+                return padded;
             }
+        }
 
-            public static class Attribute extends CountJob {
-                private final VertexIID.Attribute<?> attIID;
+        /**
+         * The distribution of the degrees of the things of a type, over their edges
+         * of one encoding to the things of an adjacent type. Things are counted into
+         * buckets of powers of two, where bucket {@code b} counts the things with a
+         * degree in {@code [2^b, 2^(b+1))}, alongside the exact sum of all degrees.
+         * Things without any such edge are not counted. The buckets are estimated
+         * from a sample of the degrees, see {@link DegreeSample}.
+         */
+        public static class DegreeHistogram {
+
+            static final int BUCKETS = Long.SIZE - 1;
+
+            private final long[] buckets;
+            private final long vertexCount;
+            private final long edgeCount;
+
+            private DegreeHistogram(long[] buckets, long edgeCount) {
+                this.buckets = buckets;
+                this.vertexCount = Arrays.stream(buckets).sum();
+                this.edgeCount = edgeCount;
+            }
 
-                private Attribute(byte[] key, VertexIID.Attribute<?> attIID, Encoding.Statistics.JobOperation value) {
-                    super(key, value);
-                    this.attIID = attIID;
-                }
+            static int bucket(long degree) {
+                assert degree > 0;
+                return Long.SIZE - 1 - Long.numberOfLeadingZeros(degree);
+            }
 
-                public VertexIID.Attribute<?> attIID() {
-                    return attIID;
-                }
+            public long vertexCount() {
+                return vertexCount;
+            }
 
-                @Override
-                public Attribute asAttribute() {
-                    return this;
-                }
+            public long edgeCount() {
+                return edgeCount;
             }
 
-            public static class HasEdge extends CountJob {
-                private final VertexIID.Thing thingIID;
-                private final VertexIID.Attribute<?> attIID;
+            public double mean() {
+                return vertexCount > 0 ? (double) edgeCount / vertexCount : 0;
+            }
 
-                private HasEdge(byte[] key, VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID,
-                                Encoding.Statistics.JobOperation value) {
-                    super(key, value);
-                    this.thingIID = thingIID;
-                    this.attIID = attIID;
+            /**
+             * Returns the mean of the degrees of the counted things, where every
+             * degree is capped at the given maximum, e.g. at the number of adjacent
+             * things looked up in the reverse direction, beyond which the edges of
+             * a thing are not scanned. The degree
+             * of every bucket is estimated by its midpoint, scaled so that the
+             * uncapped mean is exact.
+             *
+             * @param cap the maximum degree of every thing
+             * @return the mean of the capped degrees
+             */
+            public double cappedMean(double cap) {
+                if (vertexCount == 0) return 0;
+                double estimated = 0, capped = 0;
+                for (int b = 0; b < BUCKETS; b++) {
+                    if (buckets[b] == 0) continue;
+                    double midpoint = 1.5 * (1L << b);
+                    estimated += buckets[b] * midpoint;
+                    capped += buckets[b] * Math.min(midpoint, cap);
                 }
+                return Math.min(capped * edgeCount / estimated / vertexCount, cap);
+            }
 
-                public VertexIID.Thing thingIID() {
-                    return thingIID;
+            /**
+             * Returns an upper bound of the degree below which the given fraction of
+             * the counted things lie, e.g. {@code quantile(0.99)} bounds the degree
+             * of all but the 1% most connected things.
+             *
+             * @param fraction of the counted things, between 0 and 1
+             * @return the upper bound of the bucket that holds the quantile
+             */
+            public long quantile(double fraction) {
+                assert 0 <= fraction && fraction <= 1;
+                long cumulative = 0;
+                for (int b = 0; b < BUCKETS; b++) {
+                    cumulative += buckets[b];
+                    if (cumulative > 0 && cumulative >= fraction * vertexCount) {
+                        return b < BUCKETS - 1 ? (1L << (b + 1)) - 1 : Long.MAX_VALUE;
+                    }
                 }
+                return 0;
+            }
+        }
+
+        /**
+         * The distribution of the values of the attributes of a numeric or datetime
+         * attribute type. The buckets are bounded by signed powers of two, so that
+         * they can be maintained incrementally as attributes are created and deleted,
+         * at the cost of being coarser than equi-depth buckets. Datetimes are
+         * counted by their milliseconds since the epoch.
+         */
+        public static class ValueHistogram {
+
+            static final int BUCKETS = 256;
+            private static final int ZERO_BUCKET = 128;
+            private static final int MAX_EXPONENT = 63;
+
+            private final long[] buckets;
+            private final long count;
+
+            private ValueHistogram(long[] buckets) {
+                this.buckets = buckets;
+                this.count = Arrays.stream(buckets).sum();
+            }
+
+            static ValueHistogram of(Storage storage, byte[] histogramKey) {
+                long[] buckets = new long[BUCKETS];
+                storage.iterate(histogramKey, (key, value) -> pair(key, value)).forEachRemaining(
+                        entry -> buckets[entry.first()[histogramKey.length] & 0xFF] = bytesToLong(entry.second())
+                );
+                return new ValueHistogram(buckets);
+            }
 
-                public VertexIID.Attribute<?> attIID() {
-                    return attIID;
+            public static boolean isNumeric(Encoding.ValueType valueType) {
+                return valueType == Encoding.ValueType.LONG || valueType == Encoding.ValueType.DOUBLE ||
+                        valueType == Encoding.ValueType.DATETIME;
+            }
+
+            public static double numeric(VertexIID.Attribute<?> attIID) {
+                switch (attIID.valueType()) {
+                    case LONG:
+                        return attIID.asLong().value();
+                    case DOUBLE:
+                        return attIID.asDouble().value();
+                    case DATETIME:
+                        return numeric(attIID.asDateTime().value());
+                    default:
+                        assert false;
+                        throw GraknException.of(UNRECOGNISED_VALUE);
                 }
+            }
+
+            public static double numeric(LocalDateTime dateTime) {
+                return dateTime.atZone(Encoding.ValueType.TIME_ZONE_ID).toInstant().toEpochMilli();
+            }
+
+            public static int bucket(double value) {
+                if (value == 0 || Double.isNaN(value)) return ZERO_BUCKET;
+                int exponent = Math.max(-MAX_EXPONENT, Math.min(MAX_EXPONENT, Math.getExponent(value)));
+                if (value > 0) return ZERO_BUCKET + 1 + exponent + MAX_EXPONENT;
+                else return ZERO_BUCKET - 1 - exponent - MAX_EXPONENT;
+            }
+
+            private static double lowerBound(int bucket) {
+                if (bucket == ZERO_BUCKET) return 0;
+                else if (bucket > ZERO_BUCKET) return bucket == ZERO_BUCKET + 1 ? 0 : Math.scalb(1.0, exponent(bucket));
+                else return -Math.scalb(1.0, exponent(bucket) + 1);
+            }
+
+            private static double upperBound(int bucket) {
+                if (bucket == ZERO_BUCKET) return 0;
+                else if (bucket > ZERO_BUCKET) return Math.scalb(1.0, exponent(bucket) + 1);
+                else return bucket == ZERO_BUCKET - 1 ? 0 : -Math.scalb(1.0, exponent(bucket));
+            }
+
+            private static int exponent(int bucket) {
+                if (bucket > ZERO_BUCKET) return bucket - ZERO_BUCKET - 1 - MAX_EXPONENT;
+                else return ZERO_BUCKET - 1 - bucket - MAX_EXPONENT;
+            }
+
+            public long count() {
+                return count;
+            }
+
+            /**
+             * Estimates the fraction of attributes whose value is lower than the given
+             * value, interpolating linearly within the bucket that holds the value.
+             *
+             * @param value to compare the values of the attributes against
+             * @return the estimated fraction, or 1 if there are no attributes counted
+             */
+            public double fractionBelow(double value) {
+                if (count <= 0) return 1;
+                int bucket = bucket(value);
+                long below = 0;
+                for (int b = 0; b < bucket; b++) below += buckets[b];
+                double lower = lowerBound(bucket), upper = upperBound(bucket);
+                double within = upper > lower ? Math.max(0, Math.min(1, (value - lower) / (upper - lower))) : 0;
+                return Math.max(0, Math.min(1, (below + within * buckets[bucket]) / count));
+            }
+        }
+
+        /**
+         * The string attributes of an attribute type that are owned by the most
+         * things of an owner type, with the number of things that own each of them.
+         * The attributes are ranked among a sample of the attributes of the type,
+         * see {@link DegreeSample}, so the ranking is approximate.
+         */
+        public static class TopValues {
 
-                @Override
-                public HasEdge asHasEdge() {
-                    return this;
+            static final int SIZE = 16;
+
+            private final List<Pair<VertexIID.Attribute<?>, Long>> entries;
+
+            private TopValues() {
+                this.entries = new ArrayList<>();
+            }
+
+            void update(VertexIID.Attribute<?> attIID, long degree) {
+                entries.removeIf(entry -> entry.first().equals(attIID));
+                if (degree <= 0 || (isFull() && degree <= minDegree())) return;
+                int index = 0;
+                while (index < entries.size() && entries.get(index).second() >= degree) index++;
+                entries.add(index, pair(attIID, degree));
+                if (entries.size() > SIZE) entries.remove(SIZE);
+            }
+
+            public boolean isFull() {
+                return entries.size() >= SIZE;
+            }
+
+            public long minDegree() {
+                return entries.isEmpty() ? 0 : entries.get(entries.size() - 1).second();
+            }
+
+            /**
+             * Returns the number of owners of the attribute with the given value, if
+             * the attribute is one of the top values.
+             *
+             * @param value of the attribute
+             * @return the number of owners, or null if the attribute is not ranked
+             */
+            @Nullable
+            public Long degree(String value) {
+                for (Pair<VertexIID.Attribute<?>, Long> entry : entries) {
+                    if (entry.first().asString().value().equals(value)) return entry.second();
                 }
+                return null;
+            }
+
+            /**
+             * Returns the values of the top attributes, which must be strings.
+             *
+             * @return the values of the ranked attributes
+             */
+            public Set<String> strings() {
+                Set<String> strings = new HashSet<>();
+                for (Pair<VertexIID.Attribute<?>, Long> entry : entries) strings.add(entry.first().asString().value());
+                return strings;
             }
         }
     }
@@ -22,6 +22,7 @@ import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.iid.IID;
+import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.vertex.ThingVertex;
 
 public interface ThingAdjacency {
@@ -71,6 +72,33 @@ public interface ThingAdjacency {
      */
     ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised);
 
+    /**
+     * Returns the optimisation edges of type {@code encoding} that connect to an
+     * {@code adjacent} vertex, over any vertex of a given {@code optimisedType}.
+     *
+     * Only the edges to the {@code adjacent} vertex are read, rather than every
+     * edge to a vertex of the same type as the {@code adjacent} vertex.
+     *
+     * @param encoding      type of the edge to filter by, which is an optimisation edge
+     * @param adjacent      vertex that the edges connect to
+     * @param optimisedType type of the vertices that the edges are compressing
+     * @return an iterator over the edges of type {@code encoding} that connect to {@code adjacent}
+     */
+    ResourceIterator<ThingEdge> edges(Encoding.Edge.Thing encoding, ThingVertex adjacent, IID optimisedType);
+
+    /**
+     * Returns a {@code SeekableIterator} over the vertices adjacent through edges
+     * of a given {@code encoding}, in the order of their IIDs.
+     *
+     * This method allows us to intersect the adjacent vertices of many vertices,
+     * by seeking every iterator forward to the largest IID of the others, rather
+     * than looking up every adjacent vertex of one vertex in the others.
+     *
+     * @param encoding type of the edge to filter by, which is not an optimisation edge
+     * @return a {@code SeekableIterator} over the adjacent vertices, in the order of their IIDs
+     */
+    SeekableIterator seekable(Encoding.Edge.Thing encoding);
+
     /**
      * Puts an adjacent vertex over an edge with a given encoding.
      *
@@ -138,4 +166,17 @@ public interface ThingAdjacency {
 
         ResourceIterator<ThingEdge> get();
     }
+
+    interface SeekableIterator extends ResourceIterator<ThingVertex> {
+
+        ThingVertex peek();
+
+        /**
+         * Moves the iterator forward to the first adjacent vertex whose IID is
+         * no smaller than the given IID.
+         *
+         * @param iid to seek to, which is no smaller than the IID of the last vertex returned
+         */
+        void seek(VertexIID.Thing iid);
+    }
 }
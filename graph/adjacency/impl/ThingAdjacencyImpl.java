@@ -18,10 +18,12 @@
 
 package grakn.core.graph.adjacency.impl;
 
+import grakn.core.common.iterator.AbstractResourceIterator;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.concurrent.common.ConcurrentSet;
 import grakn.core.graph.adjacency.ThingAdjacency;
 import grakn.core.graph.common.Encoding;
+import grakn.core.graph.common.Storage;
 import grakn.core.graph.edge.Edge;
 import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.edge.impl.ThingEdgeImpl;
@@ -29,14 +31,20 @@ import grakn.core.graph.iid.EdgeIID;
 import grakn.core.graph.iid.IID;
 import grakn.core.graph.iid.InfixIID;
 import grakn.core.graph.iid.SuffixIID;
+import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.vertex.ThingVertex;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.LongAdder;
 
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.iterator.Iterators.empty;
 import static grakn.core.common.iterator.Iterators.iterate;
@@ -49,12 +57,14 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     final Encoding.Direction.Adjacency direction;
     final ConcurrentMap<InfixIID.Thing, ConcurrentSet<InfixIID.Thing>> infixes;
     final ConcurrentMap<InfixIID.Thing, ConcurrentMap<EdgeIID.Thing, ThingEdge>> edges;
+    final ConcurrentMap<Encoding.Edge.Thing, ConcurrentSet<ThingEdge>> uncommitted;
 
     ThingAdjacencyImpl(ThingVertex owner, Encoding.Direction.Adjacency direction) {
         this.owner = owner;
         this.direction = direction;
         this.infixes = new ConcurrentHashMap<>();
         this.edges = new ConcurrentHashMap<>();
+        this.uncommitted = new ConcurrentHashMap<>();
     }
 
     InfixIID.Thing infixIID(Encoding.Edge.Thing encoding, IID... lookAhead) {
@@ -62,16 +72,17 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         return InfixIID.Thing.of(infix, lookAhead);
     }
 
+    /**
+     * Returns the infix tails of the given edge, read from the IIDs of the edge
+     * rather than from its vertices, as converting the adjacent vertex of a
+     * persisted edge would cache the edge on that vertex in turn.
+     */
     IID[] infixTails(ThingEdge edge) {
+        EdgeIID.Thing iid = direction.isOut() ? edge.outIID() : edge.inIID();
         if (edge.encoding().isOptimisation()) {
-            if (direction.isOut()) {
-                return new IID[]{edge.outIID().infix().asRolePlayer().tail(), edge.to().iid().prefix(), edge.to().iid().type()};
-            } else {
-                return new IID[]{edge.inIID().infix().asRolePlayer().tail(), edge.from().iid().prefix(), edge.from().iid().type()};
-            }
+            return new IID[]{iid.infix().asRolePlayer().tail(), iid.end().prefix(), iid.end().type()};
         } else {
-            if (direction.isOut()) return new IID[]{edge.to().iid().prefix(), edge.to().iid().type()};
-            else return new IID[]{edge.from().iid().prefix(), edge.from().iid().type()};
+            return new IID[]{iid.end().prefix(), iid.end().type()};
         }
     }
 
@@ -100,38 +111,67 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         });
     }
 
+    /**
+     * Returns the adjacent vertices of the edges of the given encoding that are
+     * not in the storage yet, sorted by their IIDs, without the persisted edges
+     * that are only cached in this adjacency, as those are read from the storage.
+     */
+    List<ThingVertex> bufferedAdjacents(Encoding.Edge.Thing encoding) {
+        assert !encoding.isOptimisation();
+        ConcurrentSet<ThingEdge> uncommittedEdges = uncommitted.get(encoding);
+        if (uncommittedEdges == null) return new ArrayList<>();
+        List<ThingVertex> adjacents = iterate(uncommittedEdges).map(this::adjacent).toList();
+        adjacents.sort((v1, v2) -> compareBytes(v1.iid().bytes(), v2.iid().bytes()));
+        return adjacents;
+    }
+
+    ThingVertex adjacent(ThingEdge edge) {
+        return direction.isOut() ? edge.to() : edge.from();
+    }
+
+    /**
+     * Returns the buffered edge with the given IID, out of the buffered edges
+     * with the given infix, which are keyed by the IIDs of their outwards edges,
+     * so that an edge between two given vertices is found with a single lookup.
+     */
+    private ThingEdge bufferedEdge(InfixIID.Thing infixIID, EdgeIID.Thing outIID) {
+        ConcurrentMap<EdgeIID.Thing, ThingEdge> result;
+        return (result = edges.get(infixIID)) != null ? result.get(outIID) : null;
+    }
+
+    EdgeIID.Thing outIID(Encoding.Edge.Thing encoding, ThingVertex adjacent) {
+        InfixIID.Thing infixIID = InfixIID.Thing.of(encoding.out());
+        if (direction.isOut()) return EdgeIID.Thing.of(owner.iid(), infixIID, adjacent.iid());
+        else return EdgeIID.Thing.of(adjacent.iid(), infixIID, owner.iid());
+    }
+
+    EdgeIID.Thing outIID(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised) {
+        InfixIID.Thing infixIID = InfixIID.Thing.of(encoding.out(), optimised.iid().type());
+        SuffixIID suffixIID = SuffixIID.of(optimised.iid().key());
+        if (direction.isOut()) return EdgeIID.Thing.of(owner.iid(), infixIID, adjacent.iid(), suffixIID);
+        else return EdgeIID.Thing.of(adjacent.iid(), infixIID, owner.iid(), suffixIID);
+    }
+
+    ResourceIterator<ThingEdge> bufferedEdges(Encoding.Edge.Thing encoding, ThingVertex adjacent, IID optimisedType) {
+        assert encoding.isOptimisation();
+        return bufferedEdgeIterator(encoding, new IID[]{optimisedType, adjacent.iid().prefix(), adjacent.iid().type()})
+                .filter(e -> adjacent(e).equals(adjacent));
+    }
+
     @Override
     public ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised) {
         assert encoding.isOptimisation();
-        Predicate<ThingEdge> predicate = direction.isOut()
-                ? e -> e.to().equals(adjacent) && e.outIID().suffix().equals(SuffixIID.of(optimised.iid().key()))
-                : e -> e.from().equals(adjacent) && e.inIID().suffix().equals(SuffixIID.of(optimised.iid().key()));
-        ResourceIterator<ThingEdge> iterator = bufferedEdgeIterator(
-                encoding, new IID[]{optimised.iid().type(), adjacent.iid().prefix(), adjacent.iid().type()}
+        InfixIID.Thing infixIID = infixIID(
+                encoding, optimised.iid().type(), adjacent.iid().prefix(), adjacent.iid().type()
         );
-        ThingEdge edge = null;
-        while (iterator.hasNext()) {
-            if (predicate.test(edge = iterator.next())) break;
-            else edge = null;
-        }
-        iterator.recycle();
-        return edge;
+        return bufferedEdge(infixIID, outIID(encoding, adjacent, optimised));
     }
 
     @Override
     public ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent) {
         assert !encoding.isOptimisation();
-        Predicate<ThingEdge> predicate =
-                direction.isOut() ? e -> e.to().equals(adjacent) : e -> e.from().equals(adjacent);
-        ResourceIterator<ThingEdge> iterator =
-                bufferedEdgeIterator(encoding, new IID[]{adjacent.iid().prefix(), adjacent.iid().type()});
-        ThingEdge edge = null;
-        while (iterator.hasNext()) {
-            if (predicate.test(edge = iterator.next())) break;
-            else edge = null;
-        }
-        iterator.recycle();
-        return edge;
+        InfixIID.Thing infixIID = infixIID(encoding, adjacent.iid().prefix(), adjacent.iid().type());
+        return bufferedEdge(infixIID, outIID(encoding, adjacent));
     }
 
     private ThingEdgeImpl put(Encoding.Edge.Thing encoding, ThingEdgeImpl edge, IID[] infixes,
@@ -151,6 +191,9 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
                 if (thingEdge.isInferred() && !edge.isInferred()) thingEdge.isInferred(false);
             } else {
                 edgesByOutIID.put(edge.outIID(), edge);
+                if (!(edge instanceof ThingEdgeImpl.Persisted)) {
+                    uncommitted.computeIfAbsent(encoding, e -> new ConcurrentSet<>()).add(edge);
+                }
             }
             return edgesByOutIID;
         });
@@ -169,8 +212,8 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     @Override
     public ThingEdgeImpl put(Encoding.Edge.Thing encoding, ThingVertex adjacent, boolean isInferred) {
         assert !encoding.isOptimisation();
-        if (encoding == Encoding.Edge.Thing.HAS && direction.isOut() && !isInferred) {
-            owner.graph().stats().hasEdgeCreated(owner.iid(), adjacent.iid().asAttribute());
+        if (direction.isOut() && !isInferred) {
+            owner.graph().stats().thingEdgeCreated(encoding, owner.iid(), adjacent.iid());
         }
         ThingEdgeImpl edge = direction.isOut()
                 ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, isInferred)
@@ -205,6 +248,8 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             edges.get(infixIID).remove(edge.outIID());
             owner.setModified();
         }
+        ConcurrentSet<ThingEdge> uncommittedEdges = uncommitted.get(edge.encoding());
+        if (uncommittedEdges != null) uncommittedEdges.remove(edge);
     }
 
     @Override
@@ -242,6 +287,87 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         }
     }
 
+    /**
+     * Merges the buffered adjacent vertices, which are sorted in memory, with
+     * the persisted adjacent vertices, which are sorted in the storage, and
+     * seeks both of them forward together. The persisted adjacent vertices are
+     * decoded from the ends of the keys of their edges, without the edges.
+     */
+    class SeekableIteratorImpl extends AbstractResourceIterator<ThingVertex> implements SeekableIterator {
+
+        private final List<ThingVertex> buffered;
+        private final Storage.Seekable<ThingVertex> persisted;
+        private final byte[] prefix;
+        private int bufferedPos;
+        private ThingVertex next;
+
+        SeekableIteratorImpl(List<ThingVertex> buffered, @Nullable Storage.Seekable<ThingVertex> persisted,
+                             @Nullable byte[] prefix) {
+            assert persisted == null || prefix != null;
+            this.buffered = buffered;
+            this.persisted = persisted;
+            this.prefix = prefix;
+            this.bufferedPos = 0;
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            ThingVertex fromBuffer = bufferedPos < buffered.size() ? buffered.get(bufferedPos) : null;
+            ThingVertex fromStorage = persisted != null && persisted.hasNext() ? persisted.peek() : null;
+            if (fromBuffer == null && fromStorage == null) return false;
+
+            int cmp;
+            if (fromBuffer == null) cmp = 1;
+            else if (fromStorage == null) cmp = -1;
+            else cmp = compareBytes(fromBuffer.iid().bytes(), fromStorage.iid().bytes());
+            if (cmp <= 0) {
+                next = fromBuffer;
+                bufferedPos++;
+            }
+            if (cmp >= 0) {
+                next = fromStorage;
+                persisted.next();
+            }
+            return true;
+        }
+
+        @Override
+        public ThingVertex peek() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return next;
+        }
+
+        @Override
+        public ThingVertex next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            ThingVertex vertex = next;
+            next = null;
+            return vertex;
+        }
+
+        @Override
+        public void seek(VertexIID.Thing iid) {
+            byte[] target = iid.bytes();
+            if (next != null && compareBytes(next.iid().bytes(), target) >= 0) return;
+            next = null;
+            int low = bufferedPos, high = buffered.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compareBytes(buffered.get(mid).iid().bytes(), target) < 0) low = mid + 1;
+                else high = mid;
+            }
+            bufferedPos = low;
+            if (persisted != null) persisted.seek(join(prefix, target));
+        }
+
+        @Override
+        public void recycle() {
+            if (persisted != null) persisted.recycle();
+        }
+    }
+
     public static class Buffered extends ThingAdjacencyImpl implements ThingAdjacency {
 
         public Buffered(ThingVertex owner, Encoding.Direction.Adjacency direction) {
@@ -258,6 +384,16 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             return new ThingIteratorBuilderImpl(bufferedEdgeIterator(encoding, lookAhead));
         }
 
+        @Override
+        public ResourceIterator<ThingEdge> edges(Encoding.Edge.Thing encoding, ThingVertex adjacent, IID optimisedType) {
+            return bufferedEdges(encoding, adjacent, optimisedType);
+        }
+
+        @Override
+        public SeekableIterator seekable(Encoding.Edge.Thing encoding) {
+            return new SeekableIteratorImpl(bufferedAdjacents(encoding), null, null);
+        }
+
         @Override
         public void delete(Encoding.Edge.Thing encoding) {
             bufferedEdgeIterator(encoding, new IID[0]).forEachRemaining(Edge::delete);
@@ -271,15 +407,48 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
 
     public static class Persisted extends ThingAdjacencyImpl implements ThingAdjacency {
 
+        private final ConcurrentSet<InfixIID.Thing> fetched;
+        private final boolean isReadOnly;
+
         public Persisted(ThingVertex owner, Encoding.Direction.Adjacency direction) {
             super(owner, direction);
+            fetched = new ConcurrentSet<>();
+            isReadOnly = owner.graph().isReadOnly();
+        }
+
+        /**
+         * In a read transaction, the edges of an infix that have been read from
+         * the storage to the end remain cached, and are only read again from the
+         * cache, until the owner is evicted from the cache of persisted vertices.
+         */
+        private boolean isFetched(Encoding.Edge.Thing encoding, IID... lookahead) {
+            if (!isReadOnly || fetched.isEmpty()) return false;
+            for (int i = 0; i <= lookahead.length; i++) {
+                if (fetched.contains(infixIID(encoding, copyOfRange(lookahead, 0, i)))) return true;
+            }
+            return false;
         }
 
         private ResourceIterator<ThingEdge> edgeIterator(Encoding.Edge.Thing encoding, IID... lookahead) {
-            byte[] iid = join(owner.iid().bytes(), infixIID(encoding, lookahead).bytes());
-            ResourceIterator<ThingEdge> storageIterator = owner.graph().storage()
-                    .iterate(iid, (key, value) -> cache(newPersistedEdge(EdgeIID.Thing.of(key))));
             ResourceIterator<ThingEdge> bufferedIterator = bufferedEdgeIterator(encoding, lookahead);
+            if (isFetched(encoding, lookahead)) return bufferedIterator;
+
+            InfixIID.Thing infixIID = infixIID(encoding, lookahead);
+            byte[] iid = join(owner.iid().bytes(), infixIID.bytes());
+            ResourceIterator<ThingEdge> storageIterator;
+            if (!isReadOnly) {
+                storageIterator = owner.graph().storage()
+                        .iterateKeys(iid, key -> cache(newPersistedEdge(EdgeIID.Thing.of(key.bytes()))));
+            } else {
+                LongAdder count = new LongAdder();
+                storageIterator = owner.graph().storage().iterateKeys(iid, key -> {
+                    count.increment();
+                    return cache(newPersistedEdge(EdgeIID.Thing.of(key.bytes())));
+                }).onConsumed(() -> {
+                    fetched.add(infixIID);
+                    owner.graph().weigh(owner, count.sum());
+                });
+            }
             return link(bufferedIterator, storageIterator).distinct();
         }
 
@@ -297,17 +466,38 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             return new ThingIteratorBuilderImpl(edgeIterator(encoding, lookAhead));
         }
 
+        @Override
+        public SeekableIterator seekable(Encoding.Edge.Thing encoding) {
+            assert !encoding.isOptimisation();
+            List<ThingVertex> buffered = bufferedAdjacents(encoding);
+            byte[] prefix = join(owner.iid().bytes(), infixIID(encoding).bytes());
+            Storage.Seekable<ThingVertex> persisted = owner.graph().storage().iterateSeekableKeys(
+                    prefix, key -> owner.graph().convert(VertexIID.Thing.of(key.bytes(prefix.length, key.length())))
+            );
+            return new SeekableIteratorImpl(buffered, persisted, prefix);
+        }
+
         @Override
         public ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent) {
             assert !encoding.isOptimisation();
             ThingEdge edge = super.edge(encoding, adjacent);
-            if (edge != null) return edge;
+            if (edge != null || isFetched(encoding, adjacent.iid().prefix(), adjacent.iid().type())) return edge;
 
             EdgeIID.Thing edgeIID = EdgeIID.Thing.of(owner.iid(), infixIID(encoding), adjacent.iid());
             if (owner.graph().storage().get(edgeIID.bytes()) == null) return null;
             else return cache(newPersistedEdge(edgeIID));
         }
 
+        @Override
+        public ResourceIterator<ThingEdge> edges(Encoding.Edge.Thing encoding, ThingVertex adjacent, IID optimisedType) {
+            assert encoding.isOptimisation();
+            byte[] prefix = join(owner.iid().bytes(), infixIID(encoding, optimisedType).bytes(), adjacent.iid().bytes());
+            ResourceIterator<ThingEdge> storageIterator = owner.graph().storage()
+                    .iterateKeys(prefix, key -> cache(newPersistedEdge(EdgeIID.Thing.of(key.bytes()))))
+                    .filter(e -> adjacent(e).equals(adjacent));
+            return link(bufferedEdges(encoding, adjacent, optimisedType), storageIterator).distinct();
+        }
+
         @Override
         public ThingEdge edge(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised) {
             assert encoding.isOptimisation();
@@ -45,6 +45,7 @@ public class Encoding {
 
     public static final String ROCKS_DATA = "data";
     public static final String ROCKS_SCHEMA = "schema";
+    public static final String ROCKS_BULK_LOAD = "bulk-load";
 
     public enum Key {
         PERSISTED(0, true),
@@ -152,9 +153,12 @@ public class Encoding {
         INDEX_RULE(10, PrefixType.INDEX),
         INDEX_ATTRIBUTE(20, PrefixType.INDEX),
         STATISTICS_THINGS(50, PrefixType.STATISTICS),
-        STATISTICS_COUNT_JOB(51, PrefixType.STATISTICS),
+        STATISTICS_COUNT_JOB(51, PrefixType.STATISTICS), // only left behind by older versions, to be migrated
         STATISTICS_COUNTED(52, PrefixType.STATISTICS),
         STATISTICS_SNAPSHOT(53, PrefixType.STATISTICS),
+        STATISTICS_DEGREE(54, PrefixType.STATISTICS),
+        STATISTICS_DEGREE_HISTOGRAM(55, PrefixType.STATISTICS),
+        STATISTICS_VALUE_HISTOGRAM(56, PrefixType.STATISTICS),
         VERTEX_THING_TYPE(100, PrefixType.TYPE),
         VERTEX_ENTITY_TYPE(110, PrefixType.TYPE),
         VERTEX_ATTRIBUTE_TYPE(120, PrefixType.TYPE),
@@ -782,23 +786,25 @@ public class Encoding {
     public interface Statistics {
 
         /**
+         * The change of an attribute, or of a has edge, that is yet to be counted.
+         *
          * The size of a prefix is 1 unsigned byte; i.e. min-value = 0 and max-value = 255.
          */
-        enum JobType {
-            ATTRIBUTE_VERTEX(0),
-            HAS_EDGE(1);
+        enum CountChange {
+            CREATED(0),
+            DELETED(1);
 
             private final byte key;
             private final byte[] bytes;
 
-            JobType(int key) {
+            CountChange(int key) {
                 this.key = unsignedByte(key);
                 this.bytes = new byte[]{this.key};
             }
 
-            public static JobType of(byte[] key) {
+            public static CountChange of(byte[] key) {
                 if (key.length == 1) {
-                    for (JobType i : JobType.values()) {
+                    for (CountChange i : CountChange.values()) {
                         if (i.key == key[0]) return i;
                     }
                 }
@@ -815,36 +821,27 @@ public class Encoding {
         }
 
         /**
+         * The kind of a count job, as left behind under {@link Prefix#STATISTICS_COUNT_JOB}
+         * by older versions, which counted attributes and has edges in the background.
+         *
          * The size of a prefix is 1 unsigned byte; i.e. min-value = 0 and max-value = 255.
          */
-        enum JobOperation {
-            CREATED(0),
-            DELETED(1);
+        enum CountJob {
+            ATTRIBUTE_VERTEX(0),
+            HAS_EDGE(1);
 
             private final byte key;
-            private final byte[] bytes;
 
-            JobOperation(int key) {
+            CountJob(int key) {
                 this.key = unsignedByte(key);
-                this.bytes = new byte[]{this.key};
             }
 
-            public static JobOperation of(byte[] key) {
-                if (key.length == 1) {
-                    for (JobOperation i : JobOperation.values()) {
-                        if (i.key == key[0]) return i;
-                    }
+            public static CountJob of(byte key) {
+                for (CountJob i : CountJob.values()) {
+                    if (i.key == key) return i;
                 }
                 throw GraknException.of(UNRECOGNISED_VALUE);
             }
-
-            public byte key() {
-                return key;
-            }
-
-            public byte[] bytes() {
-                return bytes;
-            }
         }
 
         /**
@@ -854,7 +851,8 @@ public class Encoding {
             VERTEX_COUNT(0),
             VERTEX_TRANSITIVE_COUNT(1),
             HAS_EDGE_COUNT(2),
-            HAS_EDGE_TOTAL_COUNT(3);
+            HAS_EDGE_TOTAL_COUNT(3),
+            DEGREE_SUM(5);
 
             private final byte key;
             private final byte[] bytes;
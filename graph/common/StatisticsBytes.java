@@ -57,28 +57,12 @@ public class StatisticsBytes {
                 Encoding.Prefix.STATISTICS_COUNT_JOB.bytes());
     }
 
-    public static byte[] attributeCountJobKey(VertexIID.Attribute<?> attIID) {
-        return join(
-                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
-                Encoding.Statistics.JobType.ATTRIBUTE_VERTEX.bytes(),
-                attIID.bytes());
-    }
-
     public static byte[] attributeCountedKey(VertexIID.Attribute<?> attIID) {
         return join(
                 Encoding.Prefix.STATISTICS_COUNTED.bytes(),
                 attIID.bytes());
     }
 
-    public static byte[] hasEdgeCountJobKey(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
-        return join(
-                Encoding.Prefix.STATISTICS_COUNT_JOB.bytes(),
-                Encoding.Statistics.JobType.HAS_EDGE.bytes(),
-                thingIID.bytes(),
-                attIID.bytes()
-        );
-    }
-
     public static byte[] hasEdgeCountedKey(VertexIID.Thing thingIID, VertexIID.Attribute<?> attIID) {
         return join(
                 Encoding.Prefix.STATISTICS_COUNTED.bytes(),
@@ -88,6 +72,49 @@ public class StatisticsBytes {
         );
     }
 
+    public static byte[] degreeKey(VertexIID.Thing thingIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_DEGREE.bytes(),
+                infix.bytes(),
+                adjacentTypeIID.bytes(),
+                thingIID.bytes());
+    }
+
+    public static byte[] degreeKeyPrefix(VertexIID.Type typeIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_DEGREE.bytes(),
+                infix.bytes(),
+                adjacentTypeIID.bytes(),
+                typeIID.encoding().instance().prefix().bytes(),
+                typeIID.bytes());
+    }
+
+    public static byte[] degreeHistogramKey(VertexIID.Type typeIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_DEGREE_HISTOGRAM.bytes(),
+                typeIID.bytes(),
+                infix.bytes(),
+                adjacentTypeIID.bytes());
+    }
+
+    public static byte[] degreeSumKey(VertexIID.Type typeIID, Encoding.Infix infix, VertexIID.Type adjacentTypeIID) {
+        return join(
+                degreeHistogramKey(typeIID, infix, adjacentTypeIID),
+                Encoding.Statistics.Infix.DEGREE_SUM.bytes());
+    }
+
+    public static byte[] valueHistogramKey(VertexIID.Type attTypeIID) {
+        return join(
+                Encoding.Prefix.STATISTICS_VALUE_HISTOGRAM.bytes(),
+                attTypeIID.bytes());
+    }
+
+    public static byte[] valueBucketKey(VertexIID.Type attTypeIID, int bucket) {
+        return join(
+                valueHistogramKey(attTypeIID),
+                new byte[]{(byte) bucket});
+    }
+
     public static byte[] snapshotKey() {
         return Encoding.Prefix.STATISTICS_SNAPSHOT.bytes();
     }
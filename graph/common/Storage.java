@@ -21,8 +21,12 @@ package grakn.core.graph.common;
 import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.iid.IIDView;
 
+import java.util.List;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
@@ -49,6 +53,62 @@ public interface Storage {
 
     <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor);
 
+    /**
+     * Iterates over every key that starts with the given prefix, hinting the
+     * storage on how much of the storage the iteration is expected to read.
+     *
+     * @param prefix      of the keys to iterate over
+     * @param constructor of the elements from each key and value
+     * @param scan        hint on the expected length of the iteration
+     * @param <G>         type of the elements returned by the iterator
+     * @return an iterator over the elements constructed from each key and value
+     */
+    <G> ResourceIterator<G> iterate(byte[] prefix, BiFunction<byte[], byte[], G> constructor, Scan scan);
+
+    /**
+     * Iterates over every key from {@code lowerBound}, inclusive, up to
+     * {@code upperBound}, exclusive, where the storage does not read past the
+     * upper bound.
+     *
+     * @param lowerBound  of the keys to iterate over, inclusive
+     * @param upperBound  of the keys to iterate over, exclusive
+     * @param constructor of the elements from each key and value
+     * @param scan        hint on the expected length of the iteration
+     * @param <G>         type of the elements returned by the iterator
+     * @return an iterator over the elements constructed from each key and value
+     */
+    <G> ResourceIterator<G> iterate(byte[] lowerBound, byte[] upperBound,
+                                    BiFunction<byte[], byte[], G> constructor, Scan scan);
+
+    /**
+     * Iterates over every key that starts with the given prefix, without reading
+     * the values, and without copying each key onto the heap. The elements are
+     * constructed from an {@code IIDView} over each key, which is only valid
+     * during the call to the {@code constructor}, and must not be retained. Only
+     * the bytes that the {@code constructor} reads from the view are copied, which
+     * are the whole key if the element is identified by its key, e.g. an edge.
+     *
+     * @param prefix      of the keys to iterate over
+     * @param constructor of the elements from a view over each key
+     * @param <G>         type of the elements returned by the iterator
+     * @return an iterator over the elements constructed from each key
+     */
+    <G> ResourceIterator<G> iterateKeys(byte[] prefix, Function<IIDView, G> constructor);
+
+    <G> ResourceIterator<G> iterateKeys(byte[] prefix, Function<IIDView, G> constructor, Scan scan);
+
+    /**
+     * Iterates over every key that starts with the given prefix, like
+     * {@link #iterateKeys(byte[], Function)}, with an iterator that can seek
+     * forward to a key within the prefix, without reading the keys in between.
+     *
+     * @param prefix      of the keys to iterate over
+     * @param constructor of the elements from a view over each key
+     * @param <G>         type of the elements returned by the iterator
+     * @return a seekable iterator over the elements constructed from each key
+     */
+    <G> Seekable<G> iterateSeekableKeys(byte[] prefix, Function<IIDView, G> constructor);
+
     GraknException exception(ErrorMessage error);
 
     GraknException exception(Exception exception);
@@ -61,6 +121,27 @@ public interface Storage {
         throw exception(GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(Schema.class)));
     }
 
+    /**
+     * Hint on the length of an iteration. A {@code LONG} scan is expected to
+     * read a large range of keys, e.g. every instance of a type, so it reads
+     * ahead from disk and does not pollute the block cache with its blocks.
+     */
+    enum Scan {SHORT, LONG}
+
+    /**
+     * An iterator over the elements of a range of keys, in the order of the
+     * keys, which can be moved forward to the element of the first key that is
+     * no smaller than a given key.
+     *
+     * @param <G> type of the elements returned by the iterator
+     */
+    interface Seekable<G> extends ResourceIterator<G> {
+
+        G peek();
+
+        void seek(byte[] key);
+    }
+
     interface Schema extends Storage {
 
         KeyGenerator.Schema schemaKeyGenerator();
@@ -73,5 +154,35 @@ public interface Storage {
     interface Data extends Storage {
 
         KeyGenerator.Data dataKeyGenerator();
+
+        /**
+         * Runs the {@code writer} over every item of the given partitions, with
+         * each partition written concurrently to the others. The writes performed
+         * by the {@code writer} are buffered per thread, and only written into the
+         * storage once every partition is complete.
+         *
+         * @param partitions of items to be written, where each partition runs on one thread
+         * @param writer     that writes a single item into this storage
+         * @param <T>        type of the items to be written
+         */
+        <T> void writeParallel(List<List<T>> partitions, Consumer<T> writer);
+
+        /**
+         * Registers a writer to run when this storage is committed, while the given
+         * keys are locked against every other transaction of the database that locks
+         * any of the same keys. The keys are only locked once every other write of
+         * this storage is ready to be committed, and are released as soon as the
+         * commit is visible, so that the writer can rewrite the latest committed
+         * value of each key exactly, while holding the locks as briefly as possible.
+         * The latest committed values of the keys are read in a single batch, and
+         * passed to the writer in the same order as the keys.
+         *
+         * @param keys   to be locked while the writer runs and this storage is committed
+         * @param writer that receives the latest committed value of each key, or null
+         *               for a key that does not exist, and writes into this storage
+         */
+        void writeOnCommit(List<byte[]> keys, Consumer<List<byte[]>> writer);
+
+        void deleteUntracked(byte[] key);
     }
 }
@@ -157,9 +157,7 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                     graph.storage().delete(outIID().bytes());
                     graph.storage().delete(inIID().bytes());
                 }
-                if (encoding == Encoding.Edge.Thing.HAS && !isInferred) {
-                    graph.stats().hasEdgeDeleted(from.iid(), to.iid().asAttribute());
-                }
+                if (!isInferred) graph.stats().thingEdgeDeleted(encoding, from.iid(), to.iid());
             }
         }
 
@@ -277,27 +275,38 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             return inIID;
         }
 
+        /**
+         * In a read transaction, the vertices of the edge are converted from their
+         * IIDs every time, rather than held by the edge, so that a vertex evicted
+         * from the cache of persisted vertices is not kept alive by the edges that
+         * its adjacent vertices cache, and so that the vertex returned is always
+         * the one held by the graph for its IID.
+         */
         @Override
         public ThingVertex from() {
             if (from != null) return from;
-            from = graph.convert(fromIID);
-            from.outs().cache(this);
-            return from;
+            ThingVertex vertex = graph.convert(fromIID);
+            vertex.outs().cache(this);
+            if (!graph.isReadOnly()) from = vertex;
+            return vertex;
         }
 
         @Override
         public ThingVertex to() {
             if (to != null) return to;
-            to = graph.convert(toIID);
-            to.ins().cache(this);
-            return to;
+            ThingVertex vertex = graph.convert(toIID);
+            vertex.ins().cache(this);
+            if (!graph.isReadOnly()) to = vertex;
+            return vertex;
         }
 
         @Override
         public Optional<ThingVertex> optimised() {
             if (optimised != null) return Optional.of(optimised);
-            if (optimisedIID != null) optimised = graph.convert(optimisedIID);
-            return Optional.ofNullable(optimised);
+            if (optimisedIID == null) return Optional.empty();
+            ThingVertex vertex = graph.convert(optimisedIID);
+            if (!graph.isReadOnly()) optimised = vertex;
+            return Optional.of(vertex);
         }
 
         @Override
@@ -321,9 +330,7 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                 to().ins().remove(this);
                 graph.storage().delete(this.outIID.bytes());
                 graph.storage().delete(this.inIID.bytes());
-                if (encoding == Encoding.Edge.Thing.HAS && !isInferred) {
-                    graph.stats().hasEdgeDeleted(fromIID, toIID.asAttribute());
-                }
+                if (!isInferred) graph.stats().thingEdgeDeleted(encoding, fromIID, toIID);
             }
         }
 
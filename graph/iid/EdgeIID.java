@@ -115,6 +115,12 @@ public abstract class EdgeIID<
 
     public static class Thing extends EdgeIID<Encoding.Edge.Thing, InfixIID.Thing, VertexIID.Thing, VertexIID.Thing> {
 
+        /**
+         * The length of the prefix shared by every edge of a thing vertex that
+         * has the same encoding and direction: the start vertex IID and the infix.
+         */
+        public static final int PREFIX_LENGTH = VertexIID.Thing.DEFAULT_LENGTH + InfixIID.LENGTH;
+
         Thing(byte[] bytes) {
             super(bytes);
         }
@@ -184,6 +190,17 @@ public abstract class EdgeIID<
             return new InwardsISA(join(start.bytes, Encoding.Edge.ISA.in().bytes(), end.bytes));
         }
 
+        /**
+         * Decodes the end of an inward ISA edge from a view over its key,
+         * copying only the bytes of the end vertex IID.
+         *
+         * @param view over the key of an inward ISA edge
+         * @return the IID of the thing vertex at the end of the edge
+         */
+        public static VertexIID.Thing end(IIDView view) {
+            return VertexIID.Thing.of(view.bytes(VertexIID.Type.LENGTH + InfixIID.LENGTH, view.length()));
+        }
+
         @Override
         public InfixIID.Thing infix() {
             return InfixIID.Thing.of(Encoding.Edge.ISA.in());
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.iid;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A read-only view over the bytes of a key held in a buffer, which is reused
+ * for every key of an iteration. A view is only valid until the iteration moves
+ * on to the next key, so it must never be retained: an {@code IID} should be
+ * decoded from the view, copying only the bytes the {@code IID} needs.
+ */
+@NotThreadSafe
+public final class IIDView {
+
+    private final ByteBuffer buffer;
+
+    private IIDView(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates a view over the bytes of the given buffer, from index 0 up to the
+     * limit of the buffer. The view reflects the content and limit of the
+     * buffer at the time of each call to the view.
+     *
+     * @param buffer that holds the key
+     * @return a view over the key held in the buffer
+     */
+    public static IIDView of(ByteBuffer buffer) {
+        return new IIDView(buffer);
+    }
+
+    public int length() {
+        return buffer.limit();
+    }
+
+    public byte get(int index) {
+        return buffer.get(index);
+    }
+
+    public boolean hasPrefix(byte[] prefix) {
+        if (length() < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    public byte[] bytes() {
+        return bytes(0, length());
+    }
+
+    public byte[] bytes(int from, int to) {
+        assert 0 <= from && from <= to && to <= length();
+        byte[] bytes = new byte[to - from];
+        for (int i = from; i < to; i++) bytes[i - from] = buffer.get(i);
+        return bytes;
+    }
+
+    @Override
+    public String toString() { // for debugging
+        return "[" + length() + ": " + Arrays.toString(bytes()) + "]";
+    }
+}
@@ -115,8 +115,12 @@ public abstract class AttributeVertexImpl<VALUE> extends ThingVertexImpl impleme
     /**
      * Commits this vertex to be persisted onto storage.
      *
-     * This method is not thread-safe. It uses needs to access and manipulate
-     * {@code AttributeSync} which is not a thread-safe object.
+     * This method is safe to call concurrently with the commits of other vertices,
+     * as {@code DataGraph.commit()} does: every attribute vertex is committed once,
+     * and only writes the keys of its own IID, index and edges. An edge between two
+     * vertices committed on different threads is written once, by whichever thread
+     * commits it first, and every write goes through the storage, which buffers the
+     * writes of each thread during a parallel commit.
      */
     @Override
     public void commit() {
@@ -207,6 +207,12 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
             return new ThingAdjacencyImpl.Persisted(this, direction);
         }
 
+        @Override
+        public void setModified() {
+            if (!isModified) graph.retain(this);
+            super.setModified();
+        }
+
         @Override
         public void isInferred(boolean isInferred) {
             throw GraknException.of(ILLEGAL_OPERATION);
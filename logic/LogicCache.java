@@ -19,10 +19,12 @@
 package grakn.core.logic;
 
 import grakn.core.common.cache.CommonCache;
+import grakn.common.collection.Pair;
 import grakn.core.common.parameters.Label;
 import grakn.core.traversal.Traversal;
 import graql.lang.pattern.variable.Reference;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,18 +32,33 @@ public class LogicCache {
 
     private CommonCache<Traversal, Map<Reference, Set<Label>>> typeResolverCache;
     private CommonCache<String, Rule> ruleCache;
+    private CommonCache<String, List<String>> planCache;
+    private CommonCache<String, Pair<Long, Long>> inferredCountCache;
+    private final Materialisations materialisations;
 
     public LogicCache() {
         this.ruleCache = new CommonCache<>();
         this.typeResolverCache = new CommonCache<>();
+        this.planCache = new CommonCache<>();
+        this.inferredCountCache = new CommonCache<>();
+        this.materialisations = new Materialisations();
     }
 
     public LogicCache(int size, int timeOutMinutes) {
         this.ruleCache = new CommonCache<>(size, timeOutMinutes);
         this.typeResolverCache = new CommonCache<>(size, timeOutMinutes);
+        this.planCache = new CommonCache<>(size, timeOutMinutes);
+        this.inferredCountCache = new CommonCache<>(size, timeOutMinutes);
+        this.materialisations = new Materialisations();
     }
 
     public CommonCache<Traversal, Map<Reference, Set<Label>>> resolver() { return typeResolverCache; }
 
+    public CommonCache<String, List<String>> plan() { return planCache; }
+
+    public CommonCache<String, Pair<Long, Long>> inferredCount() { return inferredCountCache; }
+
+    public Materialisations materialisations() { return materialisations; }
+
     CommonCache<String, Rule> rule() { return ruleCache; }
 }
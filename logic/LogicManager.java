@@ -101,6 +101,8 @@ public class LogicManager {
 
     GraphManager graph() { return graphMgr; }
 
+    public LogicCache cache() { return logicCache; }
+
     private Rule fromStructure(RuleStructure ruleStructure) {
         return logicCache.rule().get(ruleStructure.label(), l -> Rule.of(this, ruleStructure));
     }
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.logic;
+
+import grakn.core.common.cache.CommonCache;
+import grakn.core.common.parameters.Label;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.type.ThingType;
+import graql.lang.pattern.variable.Reference;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The answers inferred by rules for the bound patterns of concludables, shared
+ * by the read transactions of a database for as long as its rules do not change.
+ *
+ * Answers are held by the IIDs of their things and the labels of their types.
+ * Inferred things only exist in the transaction that infers them, so a bound
+ * pattern is only kept if every one of its answers binds stored things alone.
+ * Every bound pattern is kept with the labels of the types in the rules that it
+ * was inferred from, or with none if they may be of any type.
+ *
+ * A commit of data invalidates the types of the things and edges it changes,
+ * once before and once after its writes become visible, by advancing the epoch
+ * of the materialisations. A transaction takes the epoch before it opens its
+ * storage, and only reads or writes a bound pattern whose types have not been
+ * invalidated after the epoch of the bound pattern or of the transaction. The
+ * answers of a bound pattern whose types were changed are therefore inferred
+ * again by the next query that asks for them.
+ */
+@ThreadSafe
+public class Materialisations {
+
+    private final CommonCache<Key, Entry> entries;
+    private final ConcurrentMap<Label, Long> invalidated;
+    private final AtomicLong anyInvalidated;
+    private final AtomicLong epoch;
+
+    public Materialisations() {
+        entries = new CommonCache<>();
+        invalidated = new ConcurrentHashMap<>();
+        anyInvalidated = new AtomicLong(0);
+        epoch = new AtomicLong(0);
+    }
+
+    public View view() {
+        return new View(epoch.get());
+    }
+
+    public void invalidate(Set<Label> types) {
+        if (types.isEmpty()) return;
+        long invalidation = epoch.incrementAndGet();
+        types.forEach(type -> invalidated.merge(type, invalidation, Math::max));
+        anyInvalidated.accumulateAndGet(invalidation, Math::max);
+    }
+
+    private boolean isValid(@Nullable Set<Label> types, long epoch) {
+        if (types == null) return anyInvalidated.get() <= epoch;
+        for (Label type : types) {
+            if (invalidated.getOrDefault(type, 0L) > epoch) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The materialisations as seen by a transaction, from the epoch at which the
+     * transaction was opened.
+     */
+    public class View {
+
+        private final long epoch;
+
+        private View(long epoch) {
+            this.epoch = epoch;
+        }
+
+        public Optional<List<ConceptMap>> get(String pattern, ConceptMap bounds, ConceptManager conceptMgr) {
+            Optional<Map<Reference.Name, Object>> encodedBounds = encode(bounds);
+            if (!encodedBounds.isPresent()) return Optional.empty();
+            Key key = new Key(pattern, encodedBounds.get());
+            Entry entry = entries.getIfPresent(key);
+            if (entry == null) return Optional.empty();
+            else if (!isValid(entry.types, Math.min(entry.epoch, epoch))) {
+                if (!isValid(entry.types, entry.epoch)) entries.invalidate(key);
+                return Optional.empty();
+            }
+
+            List<ConceptMap> answers = new ArrayList<>(entry.answers.size());
+            for (Map<Reference.Name, Object> answer : entry.answers) {
+                Optional<ConceptMap> decoded = decode(answer, conceptMgr);
+                if (!decoded.isPresent()) return Optional.empty();
+                answers.add(decoded.get());
+            }
+            return Optional.of(answers);
+        }
+
+        public void put(String pattern, ConceptMap bounds, Collection<ConceptMap> answers, @Nullable Set<Label> types) {
+            if (!isValid(types, epoch)) return;
+            Optional<Map<Reference.Name, Object>> encodedBounds = encode(bounds);
+            if (!encodedBounds.isPresent()) return;
+            List<Map<Reference.Name, Object>> encodedAnswers = new ArrayList<>(answers.size());
+            for (ConceptMap answer : answers) {
+                Optional<Map<Reference.Name, Object>> encoded = encode(answer);
+                if (!encoded.isPresent()) return;
+                encodedAnswers.add(encoded.get());
+            }
+            entries.put(new Key(pattern, encodedBounds.get()), new Entry(encodedAnswers, types, epoch));
+        }
+    }
+
+    private static Optional<Map<Reference.Name, Object>> encode(ConceptMap conceptMap) {
+        Map<Reference.Name, Object> encoded = new HashMap<>();
+        for (Map.Entry<Reference.Name, ? extends Concept> entry : conceptMap.concepts().entrySet()) {
+            Concept concept = entry.getValue();
+            if (concept.isThing()) {
+                if (concept.asThing().isInferred()) return Optional.empty();
+                encoded.put(entry.getKey(), ByteBuffer.wrap(concept.asThing().getIID()));
+            } else {
+                encoded.put(entry.getKey(), concept.asType().getLabel());
+            }
+        }
+        return Optional.of(encoded);
+    }
+
+    private static Optional<ConceptMap> decode(Map<Reference.Name, Object> encoded, ConceptManager conceptMgr) {
+        Map<Reference.Name, Concept> concepts = new HashMap<>();
+        for (Map.Entry<Reference.Name, Object> entry : encoded.entrySet()) {
+            Concept concept;
+            if (entry.getValue() instanceof ByteBuffer) {
+                concept = conceptMgr.getThing(((ByteBuffer) entry.getValue()).array());
+            } else {
+                Label label = (Label) entry.getValue();
+                if (!label.scope().isPresent()) concept = conceptMgr.getThingType(label.name());
+                else {
+                    ThingType relationType = conceptMgr.getThingType(label.scope().get());
+                    concept = relationType != null ? relationType.asRelationType().getRelates(label.name()) : null;
+                }
+            }
+            if (concept == null) return Optional.empty();
+            concepts.put(entry.getKey(), concept);
+        }
+        return Optional.of(new ConceptMap(concepts));
+    }
+
+    private static class Key {
+
+        private final String pattern;
+        private final Map<Reference.Name, Object> bounds;
+        private final int hash;
+
+        private Key(String pattern, Map<Reference.Name, Object> bounds) {
+            this.pattern = pattern;
+            this.bounds = bounds;
+            this.hash = Objects.hash(pattern, bounds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return pattern.equals(that.pattern) && bounds.equals(that.bounds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Entry {
+
+        private final List<Map<Reference.Name, Object>> answers;
+        private final Set<Label> types;
+        private final long epoch;
+
+        private Entry(List<Map<Reference.Name, Object>> answers, @Nullable Set<Label> types, long epoch) {
+            this.answers = answers;
+            this.types = types;
+            this.epoch = epoch;
+        }
+    }
+}
@@ -116,6 +116,8 @@ public abstract class Concludable extends Resolvable<Conjunction> {
 
     public abstract AlphaEquivalence alphaEquals(Concludable that);
 
+    public abstract int alphaHash();
+
     public boolean isRelation() { return false; }
 
     public boolean isHas() { return false; }
@@ -440,6 +442,11 @@ public abstract class Concludable extends Resolvable<Conjunction> {
             if (!that.isRelation()) return AlphaEquivalence.invalid();
             return relation().owner().alphaEquals(that.asRelation().relation().owner());
         }
+
+        @Override
+        public int alphaHash() {
+            return relation().owner().alphaHash();
+        }
     }
 
     /**
@@ -568,6 +575,11 @@ public abstract class Concludable extends Resolvable<Conjunction> {
             return has().owner().alphaEquals(that.asHas().has().owner());
         }
 
+        @Override
+        public int alphaHash() {
+            return has().owner().alphaHash();
+        }
+
     }
 
     /**
@@ -681,6 +693,11 @@ public abstract class Concludable extends Resolvable<Conjunction> {
             if (!that.isIsa()) return AlphaEquivalence.invalid();
             return isa().owner().alphaEquals(that.asIsa().isa().owner());
         }
+
+        @Override
+        public int alphaHash() {
+            return isa().owner().alphaHash();
+        }
     }
 
     /**
@@ -781,6 +798,11 @@ public abstract class Concludable extends Resolvable<Conjunction> {
             if (!that.isAttribute()) return AlphaEquivalence.invalid();
             return attribute.alphaEquals(that.asAttribute().attribute);
         }
+
+        @Override
+        public int alphaHash() {
+            return attribute.alphaHash();
+        }
     }
 
     private static class Extractor {
@@ -96,6 +96,12 @@ public class HasConstraint extends ThingConstraint implements AlphaEquivalent<Ha
         return AlphaEquivalence.valid().validIfAlphaEqual(attribute, that.attribute);
     }
 
+    @Override
+    public int alphaHash() {
+        // the attribute is only hashed by what it is compared by first, as its own constraints may lead back to the owner
+        return Objects.hash(attribute.id().isName(), attribute.resolvedTypes());
+    }
+
     @Override
     public HasConstraint clone(Conjunction.Cloner cloner) {
         return cloner.cloneVariable(owner).has(cloner.cloneVariable(attribute));
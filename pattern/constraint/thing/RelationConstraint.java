@@ -151,6 +151,14 @@ public class RelationConstraint extends ThingConstraint implements AlphaEquivale
                 }).filter(AlphaEquivalence::isValid).findFirst().orElse(AlphaEquivalence.invalid()));
     }
 
+    @Override
+    public int alphaHash() {
+        // the role players are matched in any permutation, so their hashes are combined independently of their order
+        int hash = 0;
+        for (RolePlayer rolePlayer : players()) hash += rolePlayer.alphaHash();
+        return 31 * players().size() + hash;
+    }
+
     public static class RolePlayer implements AlphaEquivalent<RolePlayer> {
 
         private final TypeVariable roleType;
@@ -224,6 +232,11 @@ public class RelationConstraint extends ThingConstraint implements AlphaEquivale
                     .validIfAlphaEqual(player, that.player);
         }
 
+        @Override
+        public int alphaHash() {
+            return Objects.hash(AlphaEquivalence.alphaHash(roleType), player.id().isName(), player.resolvedTypes());
+        }
+
         public RolePlayer clone(Conjunction.Cloner cloner) {
             TypeVariable roleTypeClone = roleType == null ? null : cloner.cloneVariable(roleType);
             ThingVariable playerClone = cloner.cloneVariable(player);
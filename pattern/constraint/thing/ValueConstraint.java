@@ -193,6 +193,11 @@ public abstract class ValueConstraint<T> extends ThingConstraint implements Alph
                 .validIf(this.value.equals(that.value));
     }
 
+    @Override
+    public int alphaHash() {
+        return Objects.hash(isLong(), isDouble(), isBoolean(), isString(), isDateTime(), predicate, value);
+    }
+
     public static class Long extends ValueConstraint<java.lang.Long> {
 
         public Long(ThingVariable owner, GraqlToken.Predicate.Equality predicate, long value) {
@@ -397,6 +402,11 @@ public abstract class ValueConstraint<T> extends ThingConstraint implements Alph
             return alphaEquivalence;
         }
 
+        @Override
+        public int alphaHash() {
+            return Objects.hash(predicate, value.id().isName(), value.resolvedTypes());
+        }
+
         @Override
         public Variable clone(Conjunction.Cloner cloner) {
             return cloner.cloneVariable(owner).valueVariable(predicate(), cloner.cloneVariable(value));
@@ -24,6 +24,7 @@ import javax.annotation.Nullable;
 import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -58,6 +59,14 @@ public abstract class AlphaEquivalence {
 
     protected abstract AlphaEquivalence addOrInvalidate(AlphaEquivalence mapping);
 
+    public static int alphaHash(@Nullable AlphaEquivalent<?> member) {
+        return member == null ? 0 : member.alphaHash();
+    }
+
+    public static <T extends AlphaEquivalent<T>> int alphaHash(Set<T> set) {
+        return EquivalenceSet.of(set).alphaHash();
+    }
+
     static AlphaEquivalence create(Map<Variable, Variable> map) {
         Map<Variable, Variable> reverseMap = new HashMap<>();
         for (Map.Entry<Variable, Variable> e : map.entrySet()) {
@@ -242,6 +251,17 @@ public abstract class AlphaEquivalence {
             }
         }
 
+        /**
+         * The members of alpha-equivalent sets are matched one to one, as the mapping of their variables is a
+         * bijection, so the sets are hashed by their sizes and the distinct hashes of their members.
+         */
+        @Override
+        public int alphaHash() {
+            Set<Integer> hashes = new HashSet<>();
+            for (T member : set) hashes.add(member.alphaHash());
+            return 31 * size() + hashes.hashCode();
+        }
+
         private int size() {
             return set.size();
         }
@@ -380,6 +380,7 @@ public class AlphaEquivalenceTest {
         assertTrue(varB.alphaEquals(varB).isValid());
         assertEquals("Variable:\n" + varA + "\n=?\n" + varB, isValid, varA.alphaEquals(varB).isValid());
         assertEquals("Variable:\n" + varB + "\n=?\n" + varA, isValid, varB.alphaEquals(varA).isValid());
+        if (isValid) assertEquals("Variable:\n" + varA + "\n#=\n" + varB, varA.alphaHash(), varB.alphaHash());
     }
 
     private void testAlphaEquivalenceSymmetricReflexive(ThingVariable sourceVar, List<ThingVariable> toCheck, Set<Integer> validVars){
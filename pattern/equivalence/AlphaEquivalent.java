@@ -20,4 +20,10 @@ package grakn.core.pattern.equivalence;
 public interface AlphaEquivalent<T extends AlphaEquivalent<T>> {
 
     AlphaEquivalence alphaEquals(T that);
+
+    /**
+     * @return a hash that is invariant to the names of the variables, and is equal for any two members that are
+     * alpha-equivalent to each other
+     */
+    int alphaHash();
 }
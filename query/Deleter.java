@@ -72,7 +72,7 @@ public class Deleter {
         this.context.producer(EXHAUSTIVE);
     }
 
-    public static Deleter create(Reasoner reasoner, GraqlDelete query, Context.Query context) {
+    public static Deleter create(Reasoner reasoner, Spill spill, GraqlDelete query, Context.Query context) {
         try (GrablTracingThreadStatic.ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "create")) {
             VariableRegistry registry = VariableRegistry.createFromThings(query.variables(), false);
             iterate(registry.types()).filter(t -> !t.reference().isLabel()).forEachRemaining(t -> {
@@ -80,7 +80,7 @@ public class Deleter {
             });
 
             assert query.match().namedVariablesUnbound().containsAll(query.namedVariablesUnbound());
-            Matcher matcher = Matcher.create(reasoner, query.match().get(query.namedVariablesUnbound()));
+            Matcher matcher = Matcher.create(reasoner, spill, query.match().get(query.namedVariablesUnbound()));
             return new Deleter(matcher, registry.things(), context);
         }
     }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.query;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.concept.Concept;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.ConceptMapGroup;
+import graql.lang.pattern.variable.Reference;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.stream.Collector;
+
+/**
+ * Groups the answers of a match query by the concept of a variable.
+ *
+ * If the answers of every concept are known to be contiguous, because the
+ * traversal starts from the variable, every group is returned as soon as the
+ * answers move on to the next concept. Otherwise, the answers are grouped in a
+ * hash table, which is partitioned by the hash of the concepts and spilled to
+ * disk once it holds more than {@link #SPILL_SIZE} answers. Every partition is
+ * then read back and grouped in memory, one at a time. The output streams of the
+ * partitions are closed even if spilling fails, and the partitions themselves are
+ * deleted once read, recycled, or when the transaction closes.
+ */
+@NotThreadSafe
+class Grouper {
+
+    static final int SPILL_SIZE = Sorter.RUN_SIZE;
+    static final int PARTITIONS = 16;
+
+    /**
+     * Groups answers whose answers of every concept of the variable are
+     * contiguous, returning every group as soon as it is complete.
+     *
+     * @param answers   to be grouped, contiguous by the concepts of the variable
+     * @param var       the variable to group the answers by
+     * @param collector to reduce the answers of every group
+     * @param group     to create a group out of a concept and its reduced answers
+     * @return the groups, in the order of the concepts in the answers
+     */
+    static <A, R, G> ResourceIterator<G> contiguous(ResourceIterator<ConceptMap> answers, Reference.Name var,
+                                                    Collector<ConceptMap, A, R> collector,
+                                                    BiFunction<Concept, R, G> group) {
+        return new ContiguousIterator<>(answers, var, collector, group);
+    }
+
+    /**
+     * Groups answers in any order, spilling them to disk if there are too many to
+     * be held in memory.
+     *
+     * @param spill   to write the answers that do not fit in memory to disk
+     * @param answers to be grouped
+     * @param var     the variable to group the answers by
+     * @return the groups, in no particular order
+     */
+    static ResourceIterator<ConceptMapGroup> partitioned(Spill spill, ResourceIterator<ConceptMap> answers,
+                                                         Reference.Name var) {
+        return partitioned(spill, answers, var, SPILL_SIZE);
+    }
+
+    static ResourceIterator<ConceptMapGroup> partitioned(Spill spill, ResourceIterator<ConceptMap> answers,
+                                                         Reference.Name var, int spillSize) {
+        return new PartitionedIterator(spill, answers, var, spillSize);
+    }
+
+    private static class ContiguousIterator<A, R, G> extends AbstractResourceIterator<G> {
+
+        private final ResourceIterator<ConceptMap> answers;
+        private final Reference.Name var;
+        private final Collector<ConceptMap, A, R> collector;
+        private final BiFunction<Concept, R, G> group;
+        private ConceptMap first;
+        private G next;
+
+        private ContiguousIterator(ResourceIterator<ConceptMap> answers, Reference.Name var,
+                                   Collector<ConceptMap, A, R> collector, BiFunction<Concept, R, G> group) {
+            this.answers = answers;
+            this.var = var;
+            this.collector = collector;
+            this.group = group;
+            this.first = null;
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            if (first == null && answers.hasNext()) first = answers.next();
+            if (first == null) return false;
+
+            Concept concept = first.get(var);
+            A partial = collector.supplier().get();
+            collector.accumulator().accept(partial, first);
+            first = null;
+            while (answers.hasNext()) {
+                ConceptMap answer = answers.next();
+                if (!answer.get(var).equals(concept)) {
+                    first = answer;
+                    break;
+                }
+                collector.accumulator().accept(partial, answer);
+            }
+            next = group.apply(concept, collector.finisher().apply(partial));
+            return true;
+        }
+
+        @Override
+        public G next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            G group = next;
+            next = null;
+            return group;
+        }
+
+        @Override
+        public void recycle() {
+            answers.recycle();
+        }
+    }
+
+    private static class PartitionedIterator extends AbstractResourceIterator<ConceptMapGroup> {
+
+        private final Spill spill;
+        private final ResourceIterator<ConceptMap> answers;
+        private final Reference.Name var;
+        private final List<Path> partitions;
+        private final int spillSize;
+        private Iterator<ConceptMapGroup> groups;
+        private int nextPartition;
+
+        private PartitionedIterator(Spill spill, ResourceIterator<ConceptMap> answers, Reference.Name var, int spillSize) {
+            this.spill = spill;
+            this.answers = answers;
+            this.var = var;
+            this.spillSize = spillSize;
+            this.partitions = new ArrayList<>();
+            this.groups = null;
+            this.nextPartition = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (groups == null) initialise();
+            while (!groups.hasNext() && nextPartition < partitions.size()) groups = load(nextPartition++);
+            if (!groups.hasNext()) {
+                recycle();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public ConceptMapGroup next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return groups.next();
+        }
+
+        private void initialise() {
+            Map<Concept, List<ConceptMap>> table = new HashMap<>();
+            int size = 0;
+            while (answers.hasNext() && size < spillSize) {
+                ConceptMap answer = answers.next();
+                table.computeIfAbsent(answer.get(var), c -> new ArrayList<>()).add(answer);
+                size++;
+            }
+            if (!answers.hasNext()) {
+                groups = groups(table);
+                return;
+            }
+
+            List<DataOutputStream> outputs = new ArrayList<>();
+            try (Closeable ignored = () -> close(outputs)) {
+                for (int i = 0; i < PARTITIONS; i++) {
+                    Path partition = spill.file();
+                    partitions.add(partition);
+                    outputs.add(Spill.output(partition));
+                }
+                for (Map.Entry<Concept, List<ConceptMap>> entry : table.entrySet()) {
+                    DataOutputStream output = outputs.get(partition(entry.getKey()));
+                    for (ConceptMap answer : entry.getValue()) spill.write(output, answer);
+                }
+                table.clear();
+                while (answers.hasNext()) {
+                    ConceptMap answer = answers.next();
+                    spill.write(outputs.get(partition(answer.get(var))), answer);
+                }
+            } catch (IOException e) {
+                throw GraknException.of(e);
+            }
+            groups = Collections.emptyIterator();
+        }
+
+        private static void close(List<DataOutputStream> outputs) throws IOException {
+            IOException exception = null;
+            for (DataOutputStream output : outputs) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    if (exception == null) exception = e;
+                    else exception.addSuppressed(e);
+                }
+            }
+            if (exception != null) throw exception;
+        }
+
+        private Iterator<ConceptMapGroup> load(int index) {
+            Path partition = partitions.get(index);
+            Map<Concept, List<ConceptMap>> table = new HashMap<>();
+            try (DataInputStream input = Spill.input(partition)) {
+                while (true) {
+                    ConceptMap answer = spill.read(input);
+                    table.computeIfAbsent(answer.get(var), c -> new ArrayList<>()).add(answer);
+                }
+            } catch (EOFException e) {
+                // every answer of the partition has been read
+            } catch (IOException e) {
+                throw GraknException.of(e);
+            }
+            spill.delete(partition);
+            return groups(table);
+        }
+
+        private Iterator<ConceptMapGroup> groups(Map<Concept, List<ConceptMap>> table) {
+            List<ConceptMapGroup> groups = new ArrayList<>(table.size());
+            table.forEach((concept, answers) -> groups.add(new ConceptMapGroup(concept, answers)));
+            return groups.iterator();
+        }
+
+        private static int partition(Concept concept) {
+            return Math.floorMod(concept.hashCode(), PARTITIONS);
+        }
+
+        @Override
+        public void recycle() {
+            answers.recycle();
+            for (int i = nextPartition; i < partitions.size(); i++) spill.delete(partitions.get(i));
+            nextPartition = partitions.size();
+        }
+    }
+}
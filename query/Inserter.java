@@ -92,7 +92,8 @@ public class Inserter {
         this.context.producer(EXHAUSTIVE);
     }
 
-    public static Inserter create(Reasoner reasoner, ConceptManager conceptMgr, GraqlInsert query, Context.Query context) {
+    public static Inserter create(Reasoner reasoner, Spill spill, ConceptManager conceptMgr, GraqlInsert query,
+                                  Context.Query context) {
         try (GrablTracingThreadStatic.ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "create")) {
             VariableRegistry registry = VariableRegistry.createFromThings(query.variables());
             iterate(registry.types()).filter(t -> !t.reference().isLabel()).forEachRemaining(t -> {
@@ -105,7 +106,7 @@ public class Inserter {
                 List<UnboundVariable> filter = new ArrayList<>(match.namedVariablesUnbound());
                 filter.retainAll(query.namedVariablesUnbound());
                 assert !filter.isEmpty();
-                matcher = Matcher.create(reasoner, match.get(filter));
+                matcher = Matcher.create(reasoner, spill, match.get(filter));
             }
 
             return new Inserter(matcher, conceptMgr, registry.things(), context);
@@ -21,6 +21,7 @@ package grakn.core.query;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Context;
+import grakn.core.concept.Concept;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.ConceptMapGroup;
 import grakn.core.concept.answer.Numeric;
@@ -29,18 +30,19 @@ import grakn.core.concept.thing.Attribute;
 import grakn.core.pattern.Disjunction;
 import grakn.core.reasoner.Reasoner;
 import grakn.core.traversal.common.Identifier;
-import graql.lang.common.GraqlArg;
 import graql.lang.common.GraqlToken;
 import graql.lang.pattern.variable.Reference;
 import graql.lang.pattern.variable.UnboundVariable;
 import graql.lang.query.GraqlMatch;
-import graql.lang.query.builder.Sortable;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -51,62 +53,61 @@ import java.util.function.Supplier;
 import java.util.stream.Collector;
 
 import static grakn.common.collection.Collections.set;
-import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
-import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
 import static grakn.core.common.exception.ErrorMessage.ThingRead.AGGREGATE_ATTRIBUTE_NOT_NUMBER;
-import static grakn.core.common.exception.ErrorMessage.ThingRead.INVALID_THING_CASTING;
-import static grakn.core.common.exception.ErrorMessage.ThingRead.SORT_ATTRIBUTE_NOT_COMPARABLE;
-import static grakn.core.common.exception.ErrorMessage.ThingRead.SORT_VARIABLE_NOT_ATTRIBUTE;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
 import static grakn.core.common.parameters.Arguments.Query.Producer.INCREMENTAL;
 import static grakn.core.query.Matcher.Aggregator.aggregator;
 import static java.lang.Math.sqrt;
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
 
 public class Matcher {
 
     private final Reasoner reasoner;
+    private final Spill spill;
     private final GraqlMatch query;
     private final Disjunction disjunction;
     private final Context.Query context;
 
-    public Matcher(Reasoner reasoner, GraqlMatch query) {
-        this(reasoner, query, null);
+    public Matcher(Reasoner reasoner, Spill spill, GraqlMatch query) {
+        this(reasoner, spill, query, null);
     }
 
-    public Matcher(Reasoner reasoner, GraqlMatch query, @Nullable Context.Query context) {
+    public Matcher(Reasoner reasoner, Spill spill, GraqlMatch query, @Nullable Context.Query context) {
         this.reasoner = reasoner;
+        this.spill = spill;
         this.query = query;
         this.disjunction = Disjunction.create(query.conjunction().normalise());
         this.context = context;
         if (context != null) {
-            if (query.modifiers().sort().isPresent()) this.context.producer(EXHAUSTIVE); // TODO: remove this once sort is optimised
+            if (query.modifiers().sort().isPresent()) this.context.producer(EXHAUSTIVE); // every answer is read before the first is sorted
             else this.context.producer(INCREMENTAL);
         }
     }
 
-    public static Matcher create(Reasoner reasoner, GraqlMatch query) {
-        return new Matcher(reasoner, query);
+    public static Matcher create(Reasoner reasoner, Spill spill, GraqlMatch query) {
+        return new Matcher(reasoner, spill, query);
     }
 
-    public static Matcher create(Reasoner reasoner, GraqlMatch query, Context.Query context) {
-        return new Matcher(reasoner, query, context);
+    public static Matcher create(Reasoner reasoner, Spill spill, GraqlMatch query, Context.Query context) {
+        return new Matcher(reasoner, spill, query, context);
     }
 
-    public static Matcher.Aggregator create(Reasoner reasoner, GraqlMatch.Aggregate query, Context.Query context) {
-        Matcher matcher = new Matcher(reasoner, query.match());
+    public static Matcher.Aggregator create(Reasoner reasoner, Spill spill, GraqlMatch.Aggregate query, Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, spill, query.match());
         return new Aggregator(matcher, query, context);
     }
 
-    public static Matcher.Group create(Reasoner reasoner, GraqlMatch.Group query, Context.Query context) {
-        Matcher matcher = new Matcher(reasoner, query.match());
+    public static Matcher.Group create(Reasoner reasoner, Spill spill, GraqlMatch.Group query, Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, spill, query.match());
         return new Group(matcher, query, context);
     }
 
-    public static Matcher.Group.Aggregator create(Reasoner reasoner, GraqlMatch.Group.Aggregate query, Context.Query context) {
-        Matcher matcher = new Matcher(reasoner, query.group().match());
+    public static Matcher.Group.Aggregator create(Reasoner reasoner, Spill spill, GraqlMatch.Group.Aggregate query,
+                                                  Context.Query context) {
+        Matcher matcher = new Matcher(reasoner, spill, query.group().match());
         Group group = new Group(matcher, query.group(), context);
         return new Group.Aggregator(group, query);
     }
@@ -118,50 +119,29 @@ public class Matcher {
 
     ResourceIterator<ConceptMap> execute(Context.Query context) {
         ResourceIterator<ConceptMap> answers = reasoner.execute(disjunction, query.modifiers(), context);
-        // TODO: we should remove these and handle them in the traversal engine or reasoner ONLY. Currently in reasoner already
-        if (query.modifiers().sort().isPresent()) answers = sort(answers, query.modifiers().sort().get());
+        if (query.modifiers().sort().isPresent()) {
+            Long limit = query.modifiers().limit().isPresent()
+                    ? query.modifiers().offset().orElse(0L) + query.modifiers().limit().get() : null;
+            answers = Sorter.sort(spill, answers, query.modifiers().sort().get(), limit);
+        }
         if (query.modifiers().offset().isPresent()) answers = answers.offset(query.modifiers().offset().get());
         if (query.modifiers().limit().isPresent()) answers = answers.limit(query.modifiers().limit().get());
         return answers;
     }
 
-    private ResourceIterator<ConceptMap> sort(ResourceIterator<ConceptMap> answers, Sortable.Sorting sorting) {
-        // TODO: Replace this temporary implementation of Graql Match Sort query with a native sorting traversal
-        Reference.Name var = sorting.var().reference().asName();
-        Comparator<ConceptMap> comparator = (answer1, answer2) -> {
-            Attribute att1, att2;
-            try {
-                att1 = answer1.get(var).asAttribute();
-                att2 = answer2.get(var).asAttribute();
-            } catch (GraknException e) {
-                if (e.code().isPresent() || e.code().get().equals(INVALID_THING_CASTING.code())) {
-                    throw GraknException.of(SORT_VARIABLE_NOT_ATTRIBUTE, var);
-                } else {
-                    throw e;
-                }
-            }
+    <A, R> R collect(Context.Query context, Collector<ConceptMap, A, R> collector) {
+        if (isPaged()) return execute(context).stream().collect(collector);
+        else return reasoner.collect(disjunction, query.modifiers(), context, collector);
+    }
 
-            if (!att1.getType().getValueType().comparables().contains(att2.getType().getValueType())) {
-                throw GraknException.of(SORT_ATTRIBUTE_NOT_COMPARABLE, var);
-            }
-            if (att1.isString()) {
-                return att1.asString().getValue().compareToIgnoreCase(att2.asString().getValue());
-            } else if (att1.isBoolean()) {
-                return att1.asBoolean().getValue().compareTo(att2.asBoolean().getValue());
-            } else if (att1.isLong() && att2.isLong()) {
-                return att1.asLong().getValue().compareTo(att2.asLong().getValue());
-            } else if (att1.isDouble() || att2.isDouble()) {
-                Double double1 = att1.isLong() ? att1.asLong().getValue() : att1.asDouble().getValue();
-                Double double2 = att2.isLong() ? att2.asLong().getValue() : att2.asDouble().getValue();
-                return double1.compareTo(double2);
-            } else if (att1.isDateTime()) {
-                return (att1.asDateTime().getValue()).compareTo(att2.asDateTime().getValue());
-            } else {
-                throw GraknException.of(ILLEGAL_STATE);
-            }
-        };
-        comparator = (sorting.order() == GraqlArg.Order.DESC) ? comparator.reversed() : comparator;
-        return iterate(answers.stream().sorted(comparator).iterator());
+    Optional<ResourceIterator<ConceptMap>> executeGrouped(Context.Query context, Reference.Name var) {
+        if (isPaged()) return Optional.empty();
+        else return reasoner.executeGrouped(disjunction, query.modifiers(), context, var);
+    }
+
+    private boolean isPaged() {
+        GraqlMatch.Modifiers modifiers = query.modifiers();
+        return modifiers.sort().isPresent() || modifiers.offset().isPresent() || modifiers.limit().isPresent();
     }
 
     public static class Aggregator {
@@ -178,18 +158,15 @@ public class Matcher {
         }
 
         public Numeric execute() {
-            ResourceIterator<ConceptMap> answers = matcher.execute(context);
-            GraqlToken.Aggregate.Method method = query.method();
-            UnboundVariable var = query.var();
-            return aggregate(answers, method, var);
-        }
-
-        static Numeric aggregate(ResourceIterator<ConceptMap> answers,
-                                 GraqlToken.Aggregate.Method method, UnboundVariable var) {
-            return answers.stream().collect(aggregator(method, var));
+            if (query.method() == GraqlToken.Aggregate.Method.COUNT && !matcher.isPaged()) {
+                return Numeric.ofLong(matcher.reasoner.count(matcher.disjunction, matcher.query.modifiers(), context));
+            }
+            boolean approximate = context.options().approximateAggregate();
+            return matcher.collect(context, aggregator(query.method(), query.var(), approximate));
         }
 
-        static Collector<ConceptMap, ?, Numeric> aggregator(GraqlToken.Aggregate.Method method, UnboundVariable var) {
+        static Collector<ConceptMap, ?, Numeric> aggregator(GraqlToken.Aggregate.Method method, UnboundVariable var,
+                                                            boolean approximate) {
             Collector<ConceptMap, ?, Numeric> aggregator;
             switch (method) {
                 case COUNT:
@@ -202,7 +179,7 @@ public class Matcher {
                     aggregator = mean(var);
                     break;
                 case MEDIAN:
-                    aggregator = median(var);
+                    aggregator = approximate ? approximateMedian(var) : median(var);
                     break;
                 case MIN:
                     aggregator = min(var);
@@ -343,7 +320,7 @@ public class Matcher {
 
                 @Override
                 public BinaryOperator<MedianCalculator> combiner() {
-                    return (t, u) -> { throw GraknException.of(ILLEGAL_OPERATION); };
+                    return MedianCalculator::combine;
                 }
 
                 @Override
@@ -358,6 +335,36 @@ public class Matcher {
             };
         }
 
+        static Collector<ConceptMap, ?, Numeric> approximateMedian(UnboundVariable var) {
+            return new Collector<ConceptMap, MedianSketch, Numeric>() {
+
+                @Override
+                public Supplier<MedianSketch> supplier() {
+                    return MedianSketch::new;
+                }
+
+                @Override
+                public BiConsumer<MedianSketch, ConceptMap> accumulator() {
+                    return (sketch, answer) -> sketch.accumulate(numeric(answer, var).asNumber().doubleValue());
+                }
+
+                @Override
+                public BinaryOperator<MedianSketch> combiner() {
+                    return MedianSketch::combine;
+                }
+
+                @Override
+                public Function<MedianSketch, Numeric> finisher() {
+                    return MedianSketch::median;
+                }
+
+                @Override
+                public Set<Characteristics> characteristics() {
+                    return set();
+                }
+            };
+        }
+
         static Collector<ConceptMap, ?, Numeric> min(UnboundVariable var) {
             return new Collector<ConceptMap, OptionalAccumulator<Numeric>, Numeric>() {
 
@@ -409,7 +416,7 @@ public class Matcher {
 
                 @Override
                 public BinaryOperator<STDCalculator> combiner() {
-                    return (t, u) -> { throw GraknException.of(ILLEGAL_OPERATION); };
+                    return STDCalculator::combine;
                 }
 
                 @Override
@@ -475,7 +482,7 @@ public class Matcher {
             else return Numeric.ofDouble(x.asDouble() + y.asDouble());
         }
 
-        private static class MedianCalculator {
+        static class MedianCalculator {
 
             PriorityQueue<Numeric> maxHeap; //lower half
             PriorityQueue<Numeric> minHeap; //higher half
@@ -494,6 +501,12 @@ public class Matcher {
                 }
             }
 
+            MedianCalculator combine(MedianCalculator other) {
+                other.maxHeap.forEach(this::accumulate);
+                other.minHeap.forEach(this::accumulate);
+                return this;
+            }
+
             Numeric median() {
                 if (maxHeap.isEmpty() && minHeap.isEmpty()) {
                     return Numeric.ofNaN();
@@ -507,12 +520,115 @@ public class Matcher {
             }
         }
 
+        /**
+         * Approximates the median in bounded memory, in the style of a KLL sketch.
+         *
+         * Values are buffered in a hierarchy of compactors, where every value of
+         * the compactor at level i stands for 2^i values. Once a compactor holds
+         * {@link #CAPACITY} values, it is sorted and every other value is promoted
+         * to the next level, alternating between the odd and even values so that
+         * the error of successive compactions cancels out. Two sketches are merged
+         * by merging their compactors level by level. The rank of the median is
+         * off by a fraction of the values that decreases with the capacity.
+         */
+        static class MedianSketch {
+
+            private static final int CAPACITY = 256;
+
+            private final List<Compactor> compactors;
+
+            MedianSketch() {
+                compactors = new ArrayList<>();
+            }
+
+            void accumulate(double value) {
+                compactor(0).add(value);
+                compact();
+            }
+
+            MedianSketch combine(MedianSketch other) {
+                for (int level = 0; level < other.compactors.size(); level++) {
+                    compactor(level).addAll(other.compactors.get(level));
+                }
+                compact();
+                return this;
+            }
+
+            Numeric median() {
+                long total = 0;
+                int size = 0;
+                for (int level = 0; level < compactors.size(); level++) {
+                    total += (long) compactors.get(level).size << level;
+                    size += compactors.get(level).size;
+                }
+                if (total == 0) return Numeric.ofNaN();
+
+                double[][] weighted = new double[size][];
+                int i = 0;
+                for (int level = 0; level < compactors.size(); level++) {
+                    Compactor compactor = compactors.get(level);
+                    for (int j = 0; j < compactor.size; j++) weighted[i++] = new double[]{compactor.values[j], 1L << level};
+                }
+                Arrays.sort(weighted, Comparator.comparingDouble(w -> w[0]));
+                double rank = 0;
+                for (double[] w : weighted) {
+                    rank += w[1];
+                    if (2 * rank >= total) return Numeric.ofDouble(w[0]);
+                }
+                return Numeric.ofDouble(weighted[size - 1][0]);
+            }
+
+            private Compactor compactor(int level) {
+                while (compactors.size() <= level) compactors.add(new Compactor());
+                return compactors.get(level);
+            }
+
+            private void compact() {
+                for (int level = 0; level < compactors.size(); level++) {
+                    if (compactors.get(level).size >= CAPACITY) compactors.get(level).compactInto(compactor(level + 1));
+                }
+            }
+
+            private static class Compactor {
+
+                private double[] values;
+                private int size;
+                private boolean isOdd;
+
+                private Compactor() {
+                    values = new double[CAPACITY];
+                    size = 0;
+                    isOdd = false;
+                }
+
+                private void add(double value) {
+                    if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                    values[size++] = value;
+                }
+
+                private void addAll(Compactor other) {
+                    for (int i = 0; i < other.size; i++) add(other.values[i]);
+                }
+
+                private void compactInto(Compactor next) {
+                    Arrays.sort(values, 0, size);
+                    int pairs = size & ~1;
+                    for (int i = isOdd ? 1 : 0; i < pairs; i += 2) next.add(values[i]);
+                    isOdd = !isOdd;
+                    if (pairs < size) values[0] = values[size - 1];
+                    size -= pairs;
+                }
+            }
+        }
+
         /**
          * Online algorithm to calculate unbiased sample standard deviation
          * https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Online_algorithm
+         * Partial results are combined with the parallel algorithm of Chan et al.
+         * https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Parallel_algorithm
          * // TODO: We may find a faster algorithm that does not cost so much as the division in the loop
          */
-        private static class STDCalculator {
+        static class STDCalculator {
             long n = 0;
             double mean = 0d, M2 = 0d;
 
@@ -524,6 +640,16 @@ public class Matcher {
                 M2 += delta * delta2;
             }
 
+            STDCalculator combine(STDCalculator other) {
+                if (other.n == 0) return this;
+                long total = n + other.n;
+                double delta = other.mean - mean;
+                M2 += other.M2 + delta * delta * ((double) n * other.n / total);
+                mean += delta * other.n / total;
+                n = total;
+                return this;
+            }
+
             Numeric std() {
                 if (n < 2) return Numeric.ofNaN();
                 else return Numeric.ofDouble(sqrt(M2 / (double) (n - 1)));
@@ -595,11 +721,10 @@ public class Matcher {
         }
 
         public ResourceIterator<ConceptMapGroup> execute() {
-            // TODO: Replace this temporary implementation of Graql Match Group query with a native grouping traversal
-            List<ConceptMapGroup> answerGroups = new ArrayList<>();
-            matcher.execute(context).stream().collect(groupingBy(a -> a.get(query.var())))
-                    .forEach((o, cm) -> answerGroups.add(new ConceptMapGroup(o, cm)));
-            return iterate(answerGroups);
+            Reference.Name var = query.var().reference().asName();
+            Optional<ResourceIterator<ConceptMap>> grouped = matcher.executeGrouped(context, var);
+            if (grouped.isPresent()) return Grouper.contiguous(grouped.get(), var, toList(), ConceptMapGroup::new);
+            else return Grouper.partitioned(matcher.spill, matcher.execute(context), var);
         }
 
         public static class Aggregator {
@@ -613,12 +738,14 @@ public class Matcher {
             }
 
             public ResourceIterator<NumericGroup> execute() {
-                // TODO: Replace this temporary implementation of Graql Match Group query with a native grouping traversal
-                List<NumericGroup> numericGroups = new ArrayList<>();
-                group.matcher.execute(group.context).stream()
-                        .collect(groupingBy(a -> a.get(query.group().var()), aggregator(query.method(), query.var())))
-                        .forEach((o, n) -> numericGroups.add(new NumericGroup(o, n)));
-                return iterate(numericGroups);
+                Reference.Name var = query.group().var().reference().asName();
+                boolean approximate = group.context.options().approximateAggregate();
+                Collector<ConceptMap, ?, Numeric> aggregator = aggregator(query.method(), query.var(), approximate);
+                Optional<ResourceIterator<ConceptMap>> grouped = group.matcher.executeGrouped(group.context, var);
+                if (grouped.isPresent()) return Grouper.contiguous(grouped.get(), var, aggregator, NumericGroup::new);
+
+                Map<Concept, Numeric> numerics = group.matcher.collect(group.context, groupingBy(a -> a.get(var), aggregator));
+                return iterate(numerics.entrySet()).map(e -> new NumericGroup(e.getKey(), e.getValue()));
             }
         }
     }
@@ -53,22 +53,37 @@ public class QueryManager {
     private final LogicManager logicMgr;
     private final Reasoner reasoner;
     private final ConceptManager conceptMgr;
+    private final Spill spill;
     private final Context.Query defaultContext;
 
     public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction context) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
         this.reasoner = reasoner;
+        this.spill = new Spill(conceptMgr);
         this.defaultContext = new Context.Query(context, new Options.Query());
     }
 
+    /**
+     * Deletes the files that the queries of the transaction have spilled to disk,
+     * and that have not been deleted yet because their answers were never read to
+     * the end nor recycled.
+     */
+    public void close() {
+        spill.close();
+    }
+
+    Spill spill() {
+        return spill;
+    }
+
     public ResourceIterator<ConceptMap> match(GraqlMatch query) {
         return match(query, defaultContext);
     }
 
     public ResourceIterator<ConceptMap> match(GraqlMatch query, Context.Query context) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match")) {
-            return Matcher.create(reasoner, query, context).execute().onError(conceptMgr::exception);
+            return Matcher.create(reasoner, spill, query, context).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -80,7 +95,7 @@ public class QueryManager {
 
     public Numeric match(GraqlMatch.Aggregate query, Context.Query queryContext) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_aggregate")) {
-            return Matcher.create(reasoner, query, queryContext).execute();
+            return Matcher.create(reasoner, spill, query, queryContext).execute();
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -92,7 +107,7 @@ public class QueryManager {
 
     public ResourceIterator<ConceptMapGroup> match(GraqlMatch.Group query, Context.Query queryContext) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_group")) {
-            return Matcher.create(reasoner, query, queryContext).execute().onError(conceptMgr::exception);
+            return Matcher.create(reasoner, spill, query, queryContext).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -104,7 +119,7 @@ public class QueryManager {
 
     public ResourceIterator<NumericGroup> match(GraqlMatch.Group.Aggregate query, Context.Query queryContext) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match_group_aggregate")) {
-            return Matcher.create(reasoner, query, queryContext).execute().onError(conceptMgr::exception);
+            return Matcher.create(reasoner, spill, query, queryContext).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -118,7 +133,7 @@ public class QueryManager {
         if (context.sessionType().isSchema()) throw conceptMgr.exception(SESSION_SCHEMA_VIOLATION);
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "insert")) {
-            return Inserter.create(reasoner, conceptMgr, query, context).execute().onError(conceptMgr::exception);
+            return Inserter.create(reasoner, spill, conceptMgr, query, context).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -132,7 +147,7 @@ public class QueryManager {
         if (context.sessionType().isSchema()) throw conceptMgr.exception(SESSION_SCHEMA_VIOLATION);
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "delete")) {
-            Deleter.create(reasoner, query, context).execute();
+            Deleter.create(reasoner, spill, query, context).execute();
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -146,7 +161,7 @@ public class QueryManager {
         if (context.sessionType().isSchema()) throw conceptMgr.exception(SESSION_SCHEMA_VIOLATION);
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "update")) {
-            return Updater.create(reasoner, conceptMgr, query, context).execute().onError(conceptMgr::exception);
+            return Updater.create(reasoner, spill, conceptMgr, query, context).execute().onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.query;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.concept.Concept;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graph.common.Encoding;
+import grakn.core.graph.iid.VertexIID;
+import graql.lang.common.GraqlArg;
+import graql.lang.pattern.variable.Reference;
+import graql.lang.query.builder.Sortable;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import static grakn.core.common.exception.ErrorMessage.ThingRead.SORT_ATTRIBUTE_NOT_COMPARABLE;
+import static grakn.core.common.exception.ErrorMessage.ThingRead.SORT_VARIABLE_NOT_ATTRIBUTE;
+import static grakn.core.common.iterator.Iterators.iterate;
+import static grakn.core.graph.iid.VertexIID.Attribute.VALUE_INDEX;
+
+/**
+ * Sorts the answers of a match query by the value of an attribute variable,
+ * comparing the values as they are encoded in the IIDs of the attributes.
+ *
+ * Longs, doubles, datetimes and booleans are encoded so that their bytes sort
+ * in the same order as their values, so two values of the same value type are
+ * compared byte by byte, without being decoded. Strings are compared ignoring
+ * case, and longs are compared with doubles, on their decoded values.
+ *
+ * When the number of answers needed is bounded by a limit, only the best answers
+ * seen so far are kept, in a bounded heap. Otherwise, answers are buffered and
+ * spilled to disk in sorted runs of {@link #RUN_SIZE} answers, which are merged
+ * once every answer has been read. The runs are deleted once the sorted answers
+ * are exhausted or recycled, or otherwise once the transaction is closed.
+ */
+@NotThreadSafe
+class Sorter {
+
+    static final int RUN_SIZE = 100_000;
+
+    private final Spill spill;
+    private final Reference.Name var;
+    private final Comparator<Key> comparator;
+    private final int runSize;
+
+    private Sorter(Spill spill, Sortable.Sorting sorting, int runSize) {
+        this.spill = spill;
+        this.runSize = runSize;
+        this.var = sorting.var().reference().asName();
+        Comparator<Key> comparator = this::compare;
+        this.comparator = sorting.order() == GraqlArg.Order.DESC ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * Sorts the given answers.
+     *
+     * @param spill   to write the answers that do not fit in memory to disk
+     * @param answers to be sorted
+     * @param sorting of the query
+     * @param limit   the number of sorted answers that will be read, or null if unbounded
+     * @return the sorted answers
+     */
+    static ResourceIterator<ConceptMap> sort(Spill spill, ResourceIterator<ConceptMap> answers,
+                                             Sortable.Sorting sorting, @Nullable Long limit) {
+        return sort(spill, answers, sorting, limit, RUN_SIZE);
+    }
+
+    static ResourceIterator<ConceptMap> sort(Spill spill, ResourceIterator<ConceptMap> answers,
+                                             Sortable.Sorting sorting, @Nullable Long limit, int runSize) {
+        Sorter sorter = new Sorter(spill, sorting, runSize);
+        if (limit != null && limit <= runSize) return sorter.top(answers, limit.intValue());
+        else return new MergeIterator(sorter, answers);
+    }
+
+    private ResourceIterator<ConceptMap> top(ResourceIterator<ConceptMap> answers, int limit) {
+        if (limit == 0) {
+            answers.recycle();
+            return iterate(new ArrayList<ConceptMap>());
+        }
+        PriorityQueue<Pair> heap = new PriorityQueue<>(limit, comparing().reversed());
+        answers.forEachRemaining(answer -> {
+            Pair pair = new Pair(key(answer), answer);
+            if (heap.size() < limit) {
+                heap.add(pair);
+            } else if (comparing().compare(pair, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(pair);
+            }
+        });
+        List<Pair> sorted = new ArrayList<>(heap);
+        sorted.sort(comparing());
+        return iterate(sorted).map(pair -> pair.answer);
+    }
+
+    private Comparator<Pair> comparing() {
+        return (pair1, pair2) -> comparator.compare(pair1.key, pair2.key);
+    }
+
+    private Key key(ConceptMap answer) {
+        Concept concept = answer.get(var);
+        if (!concept.isAttribute()) throw GraknException.of(SORT_VARIABLE_NOT_ATTRIBUTE, var);
+        return new Key(VertexIID.Attribute.of(concept.asAttribute().getIID()));
+    }
+
+    private int compare(Key key1, Key key2) {
+        Encoding.ValueType valueType1 = key1.iid.valueType(), valueType2 = key2.iid.valueType();
+        if (!valueType1.comparables().contains(valueType2)) throw GraknException.of(SORT_ATTRIBUTE_NOT_COMPARABLE, var);
+        if (valueType1 == Encoding.ValueType.STRING) {
+            return key1.iid.asString().value().compareToIgnoreCase(key2.iid.asString().value());
+        } else if (valueType1 == valueType2) {
+            return compareValueBytes(key1.iid.bytes(), key2.iid.bytes());
+        } else {
+            return Double.compare(key1.numeric(), key2.numeric());
+        }
+    }
+
+    private static int compareValueBytes(byte[] iid1, byte[] iid2) {
+        for (int i = VALUE_INDEX; i < iid1.length && i < iid2.length; i++) {
+            int cmp = Integer.compare(iid1[i] & 0xFF, iid2[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(iid1.length, iid2.length);
+    }
+
+    private static class Key {
+
+        private final VertexIID.Attribute<?> iid;
+
+        private Key(VertexIID.Attribute<?> iid) {
+            this.iid = iid;
+        }
+
+        private double numeric() {
+            if (iid.valueType() == Encoding.ValueType.LONG) return iid.asLong().value();
+            else return iid.asDouble().value();
+        }
+    }
+
+    private static class Pair {
+
+        private final Key key;
+        private final ConceptMap answer;
+
+        private Pair(Key key, ConceptMap answer) {
+            this.key = key;
+            this.answer = answer;
+        }
+    }
+
+    private void write(DataOutputStream output, Pair pair) throws IOException {
+        byte[] iid = pair.key.iid.bytes();
+        output.writeShort(iid.length);
+        output.write(iid);
+        spill.write(output, pair.answer);
+    }
+
+    private Pair read(DataInputStream input) throws IOException {
+        byte[] iid = new byte[input.readUnsignedShort()];
+        input.readFully(iid);
+        return new Pair(new Key(VertexIID.Attribute.of(iid)), spill.read(input));
+    }
+
+    /**
+     * Sorts answers in runs of {@link #RUN_SIZE}, spilling every full run to a
+     * file, and merges the runs on the first call to {@link #hasNext()}. If every
+     * answer fits in a single run, the run is sorted in memory and never spilled.
+     */
+    private static class MergeIterator extends AbstractResourceIterator<ConceptMap> {
+
+        private final Sorter sorter;
+        private final ResourceIterator<ConceptMap> answers;
+        private final List<Path> files;
+        private final List<DataInputStream> inputs;
+        private PriorityQueue<Run> runs;
+
+        private MergeIterator(Sorter sorter, ResourceIterator<ConceptMap> answers) {
+            this.sorter = sorter;
+            this.answers = answers;
+            this.files = new ArrayList<>();
+            this.inputs = new ArrayList<>();
+            this.runs = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (runs == null) initialise();
+            if (runs.isEmpty()) {
+                recycle();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public ConceptMap next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Run run = runs.poll();
+            assert run != null;
+            ConceptMap answer = run.current.answer;
+            if (run.advance()) runs.add(run);
+            return answer;
+        }
+
+        private void initialise() {
+            List<Pair> buffer = new ArrayList<>();
+            while (answers.hasNext()) {
+                ConceptMap answer = answers.next();
+                buffer.add(new Pair(sorter.key(answer), answer));
+                if (buffer.size() >= sorter.runSize) {
+                    spill(buffer);
+                    buffer.clear();
+                }
+            }
+            buffer.sort(sorter.comparing());
+            Comparator<Run> byCurrent = (run1, run2) -> sorter.comparing().compare(run1.current, run2.current);
+            runs = new PriorityQueue<>(Math.max(1, files.size() + 1), byCurrent.thenComparingInt(run -> run.index));
+            Run memoryRun = new Run(files.size(), buffer.iterator(), null);
+            if (memoryRun.advance()) runs.add(memoryRun);
+            try {
+                for (int i = 0; i < files.size(); i++) {
+                    DataInputStream input = Spill.input(files.get(i));
+                    inputs.add(input);
+                    Run fileRun = new Run(i, null, input);
+                    if (fileRun.advance()) runs.add(fileRun);
+                }
+            } catch (IOException e) {
+                throw GraknException.of(e);
+            }
+        }
+
+        private void spill(List<Pair> buffer) {
+            buffer.sort(sorter.comparing());
+            try {
+                Path file = sorter.spill.file();
+                files.add(file);
+                try (DataOutputStream output = Spill.output(file)) {
+                    for (Pair pair : buffer) sorter.write(output, pair);
+                }
+            } catch (IOException e) {
+                throw GraknException.of(e);
+            }
+        }
+
+        @Override
+        public void recycle() {
+            answers.recycle();
+            try {
+                for (DataInputStream input : inputs) input.close();
+            } catch (IOException e) {
+                throw GraknException.of(e);
+            }
+            for (Path file : files) sorter.spill.delete(file);
+            inputs.clear();
+            files.clear();
+        }
+
+        private class Run {
+
+            private final int index;
+            private final java.util.Iterator<Pair> memory;
+            private final DataInputStream file;
+            private Pair current;
+
+            private Run(int index, @Nullable java.util.Iterator<Pair> memory, @Nullable DataInputStream file) {
+                this.index = index;
+                this.memory = memory;
+                this.file = file;
+            }
+
+            private boolean advance() {
+                if (memory != null) {
+                    current = memory.hasNext() ? memory.next() : null;
+                } else {
+                    try {
+                        current = sorter.read(file);
+                    } catch (EOFException e) {
+                        current = null;
+                    } catch (IOException e) {
+                        throw GraknException.of(e);
+                    }
+                }
+                return current != null;
+            }
+        }
+    }
+}
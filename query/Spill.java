@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.query;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Label;
+import grakn.core.concept.Concept;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concurrent.common.ConcurrentSet;
+import graql.lang.pattern.variable.Reference;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes answers to temporary files, and reads them back, for the operators of
+ * a query whose intermediate answers may not fit in memory. A thing is written
+ * as its IID and a type as its label, and both are retrieved from the concept
+ * manager of the transaction when the answer is read.
+ *
+ * Every file is owned by the spill of its transaction until it is deleted, so
+ * that the files of answers that were abandoned before being read to the end
+ * are deleted when the transaction closes. The files are also deleted when the
+ * JVM exits, should the transaction never be closed.
+ */
+@ThreadSafe
+class Spill {
+
+    private static final String FILE_PREFIX = "grakn-spill-";
+    private static final String FILE_SUFFIX = ".tmp";
+    private static final byte THING = 0;
+    private static final byte TYPE = 1;
+
+    private final ConceptManager conceptMgr;
+    private final ConcurrentSet<Path> files;
+
+    Spill(ConceptManager conceptMgr) {
+        this.conceptMgr = conceptMgr;
+        this.files = new ConcurrentSet<>();
+    }
+
+    Path file() throws IOException {
+        Path file = Files.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+        file.toFile().deleteOnExit();
+        files.add(file);
+        return file;
+    }
+
+    void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+        files.remove(file);
+    }
+
+    Set<Path> files() {
+        return files;
+    }
+
+    void close() {
+        files.forEach(this::delete);
+    }
+
+    static DataOutputStream output(Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    static DataInputStream input(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    }
+
+    void write(DataOutputStream output, ConceptMap answer) throws IOException {
+        output.writeInt(answer.concepts().size());
+        for (Map.Entry<Reference.Name, ? extends Concept> entry : answer.concepts().entrySet()) {
+            output.writeUTF(entry.getKey().name());
+            Concept concept = entry.getValue();
+            if (concept.isThing()) {
+                byte[] iid = concept.asThing().getIID();
+                output.writeByte(THING);
+                output.writeShort(iid.length);
+                output.write(iid);
+            } else {
+                Label label = concept.asType().getLabel();
+                output.writeByte(TYPE);
+                output.writeUTF(label.name());
+                output.writeBoolean(label.scope().isPresent());
+                if (label.scope().isPresent()) output.writeUTF(label.scope().get());
+            }
+        }
+    }
+
+    ConceptMap read(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        Map<Reference.Name, Concept> concepts = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Reference.Name name = Reference.name(input.readUTF());
+            if (input.readByte() == THING) {
+                byte[] iid = new byte[input.readUnsignedShort()];
+                input.readFully(iid);
+                concepts.put(name, conceptMgr.getThing(iid));
+            } else {
+                String label = input.readUTF();
+                if (input.readBoolean()) {
+                    concepts.put(name, conceptMgr.getThingType(input.readUTF()).asRelationType().getRelates(label));
+                } else {
+                    concepts.put(name, conceptMgr.getThingType(label));
+                }
+            }
+        }
+        return new ConceptMap(concepts);
+    }
+}
@@ -65,7 +65,8 @@ public class Updater {
         this.context = context;
     }
 
-    public static Updater create(Reasoner reasoner, ConceptManager conceptMgr, GraqlUpdate query, Context.Query context) {
+    public static Updater create(Reasoner reasoner, Spill spill, ConceptManager conceptMgr, GraqlUpdate query,
+                                 Context.Query context) {
 
         try (GrablTracingThreadStatic.ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "create")) {
             VariableRegistry deleteRegistry = VariableRegistry.createFromThings(query.deleteVariables(), false);
@@ -81,7 +82,7 @@ public class Updater {
             assert query.match().namedVariablesUnbound().containsAll(query.namedDeleteVariablesUnbound());
             HashSet<UnboundVariable> filter = new HashSet<>(query.namedDeleteVariablesUnbound());
             filter.addAll(query.namedInsertVariablesUnbound());
-            Matcher matcher = Matcher.create(reasoner, query.match().get(list(filter)));
+            Matcher matcher = Matcher.create(reasoner, spill, query.match().get(list(filter)));
             return new Updater(matcher, conceptMgr, deleteRegistry.things(), insertRegistry.things(), context);
         }
     }
@@ -30,21 +30,32 @@ import grakn.core.concept.thing.Thing;
 import grakn.core.concept.type.Type;
 import grakn.core.concurrent.actor.Actor;
 import grakn.core.concurrent.producer.Producer;
+import grakn.core.concurrent.producer.Producers;
+import grakn.core.graph.DataGraph;
+import grakn.core.graph.SchemaGraph;
+import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.logic.LogicManager;
+import grakn.core.logic.Materialisations;
 import grakn.core.pattern.Conjunction;
 import grakn.core.pattern.Disjunction;
 import grakn.core.pattern.Negation;
+import grakn.core.pattern.variable.ThingVariable;
 import grakn.core.pattern.variable.Variable;
 import grakn.core.reasoner.resolution.ResolutionRecorder;
 import grakn.core.reasoner.resolution.ResolverRegistry;
 import grakn.core.traversal.TraversalEngine;
 import grakn.core.traversal.common.Identifier;
+import graql.lang.pattern.variable.Reference;
 import graql.lang.query.GraqlMatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collector;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.set;
@@ -55,6 +66,7 @@ import static grakn.core.concurrent.common.Executors.PARALLELISATION_FACTOR;
 import static grakn.core.concurrent.common.Executors.asyncPool1;
 import static grakn.core.concurrent.common.Executors.eventLoopGroup;
 import static grakn.core.concurrent.producer.Producers.produce;
+import static java.util.stream.Collectors.counting;
 
 public class Reasoner {
     private static final Logger LOG = LoggerFactory.getLogger(Reasoner.class);
@@ -67,30 +79,150 @@ public class Reasoner {
     private final Context.Query defaultContext;
 
     public Reasoner(ConceptManager conceptMgr, LogicManager logicMgr,
-                    TraversalEngine traversalEng, Context.Transaction context) {
+                    TraversalEngine traversalEng, Context.Transaction context,
+                    @Nullable Materialisations.View materialisations) {
         this.conceptMgr = conceptMgr;
         this.traversalEng = traversalEng;
         this.logicMgr = logicMgr;
         this.defaultContext = new Context.Query(context, new Options.Query());
         this.defaultContext.producer(EXHAUSTIVE);
         this.resolutionRecorder = Actor.create(eventLoopGroup(), ResolutionRecorder::new);
-        this.resolverRegistry = new ResolverRegistry(eventLoopGroup(), resolutionRecorder, traversalEng, conceptMgr, logicMgr);
+        // materialisations are only shared with read transactions, whose answers are never changed by their own writes
+        boolean isMaterialised = materialisations != null && context.options().materialise() &&
+                context.transactionType().isRead();
+        this.resolverRegistry = new ResolverRegistry(eventLoopGroup(), resolutionRecorder, traversalEng, conceptMgr, logicMgr,
+                                                     isMaterialised ? materialisations : null);
     }
 
     ResolverRegistry resolverRegistry() {
         return resolverRegistry;
     }
 
+    public ConceptManager concepts() {
+        return conceptMgr;
+    }
+
     public ResourceIterator<ConceptMap> execute(Disjunction disjunction, GraqlMatch.Modifiers modifiers,
                                                 Context.Query context) {
+        Set<Identifier.Variable.Name> filter = prepare(disjunction, modifiers);
+        return execute(disjunction, modifiers, context, filter);
+    }
 
+    /**
+     * Collects every answer of a disjunction. If the answers are produced in
+     * parallel, every thread accumulates the answers it produces into its own
+     * partial result, so the collector must support combining partial results.
+     */
+    public <A, R> R collect(Disjunction disjunction, GraqlMatch.Modifiers modifiers, Context.Query context,
+                            Collector<ConceptMap, A, R> collector) {
+        Set<Identifier.Variable.Name> filter = prepare(disjunction, modifiers);
+        return collect(disjunction, modifiers, context, filter, collector);
+    }
+
+    private <A, R> R collect(Disjunction disjunction, GraqlMatch.Modifiers modifiers, Context.Query context,
+                             Set<Identifier.Variable.Name> filter, Collector<ConceptMap, A, R> collector) {
+        if (isInfer(disjunction, context) || !context.options().parallel() || disjunction.conjunctions().size() > 1) {
+            return execute(disjunction, modifiers, context, filter).stream().collect(collector);
+        }
+        return Producers.collect(producer(disjunction.conjunctions().get(0), filter, context), collector, asyncPool1());
+    }
+
+    /**
+     * Returns the answers of a disjunction such that the answers of every concept
+     * of the given variable are contiguous, if the traversal of the disjunction
+     * starts from that variable. This is only possible for a single conjunction
+     * that is not resolved through rules, and whose answers are not produced in
+     * parallel.
+     */
+    public Optional<ResourceIterator<ConceptMap>> executeGrouped(Disjunction disjunction, GraqlMatch.Modifiers modifiers,
+                                                                 Context.Query context, Reference.Name var) {
+        Set<Identifier.Variable.Name> filter = prepare(disjunction, modifiers);
+        if (isInfer(disjunction, context) || disjunction.conjunctions().size() > 1) return Optional.empty();
+        Conjunction conjunction = disjunction.conjunctions().get(0);
+        if (!conjunction.isSatisfiable()) return Optional.empty();
+        return traversalEng.iterator(conjunction.traversal(filter), Identifier.Variable.of(var))
+                .map(vertexMaps -> negated(conjunction, vertexMaps.map(conceptMgr::conceptMap)));
+    }
+
+    /**
+     * Counts the answers of a disjunction from the statistics of the data graph,
+     * without traversing it, if the statistics are exact for this transaction and
+     * the disjunction is a single conjunction of one of the following shapes:
+     *
+     * - a thing of some types, such as {@code $x isa person}, whose answers are
+     * counted by the number of things of every type;
+     * - a thing of some types owning an attribute of some types, such as
+     * {@code $x isa person, has name $n}, whose answers are counted by the number
+     * of has edges between every pair of types.
+     *
+     * Otherwise, the answers are collected and counted, from the same prepared
+     * disjunction.
+     *
+     * @return the number of answers
+     */
+    public long count(Disjunction disjunction, GraqlMatch.Modifiers modifiers, Context.Query context) {
+        Set<Identifier.Variable.Name> filter = prepare(disjunction, modifiers);
+        Optional<Long> count = countFromStatistics(disjunction, context, filter);
+        if (count.isPresent()) return count.get();
+        else return collect(disjunction, modifiers, context, filter, counting());
+    }
+
+    private Optional<Long> countFromStatistics(Disjunction disjunction, Context.Query context,
+                                               Set<Identifier.Variable.Name> filter) {
+        if (isInfer(disjunction, context) || disjunction.conjunctions().size() > 1) return Optional.empty();
+        Conjunction conjunction = disjunction.conjunctions().get(0);
+        if (!conjunction.isSatisfiable() || !conjunction.negations().isEmpty()) return Optional.empty();
+        DataGraph.Statistics stats = traversalEng.graph().data().stats();
+        if (!stats.isExact()) return Optional.empty();
+
+        List<ThingVariable> things = new ArrayList<>();
+        for (Variable var : conjunction.variables()) {
+            if (var.isThing() && isCountable(var.asThing(), filter)) things.add(var.asThing());
+            else if (!var.isType() || !var.id().isLabel() || var.asType().constraints().size() > 1) return Optional.empty();
+        }
+        if (things.size() == 1 && things.get(0).isa().isPresent() && things.get(0).has().isEmpty()) {
+            long count = 0;
+            for (TypeVertex type : types(things.get(0))) count += stats.thingVertexCount(type);
+            return Optional.of(count);
+        } else if (things.size() == 2) {
+            ThingVariable owner = things.get(0).has().isEmpty() ? things.get(1) : things.get(0);
+            ThingVariable attribute = owner == things.get(0) ? things.get(1) : things.get(0);
+            if (owner.has().size() != 1 || !attribute.has().isEmpty() ||
+                    !owner.has().iterator().next().attribute().equals(attribute)) {
+                return Optional.empty();
+            }
+            long count = 0;
+            for (TypeVertex ownerType : types(owner)) {
+                for (TypeVertex attributeType : types(attribute)) count += stats.hasEdgeCount(ownerType, attributeType);
+            }
+            return Optional.of(count);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isCountable(ThingVariable var, Set<Identifier.Variable.Name> filter) {
+        if (!var.id().isName() || (!filter.isEmpty() && !filter.contains(var.id().asName()))) return false;
+        return !var.resolvedTypes().isEmpty() && iterate(var.constraints()).allMatch(c -> c.isIsa() || c.isHas());
+    }
+
+    private Set<TypeVertex> types(ThingVariable var) {
+        SchemaGraph schemaGraph = traversalEng.graph().schema();
+        return iterate(var.resolvedTypes()).map(schemaGraph::getType).filter(type -> !type.isAbstract()).toSet();
+    }
+
+    private Set<Identifier.Variable.Name> prepare(Disjunction disjunction, GraqlMatch.Modifiers modifiers) {
         resolveTypes(disjunction, list());
         Set<Identifier.Variable.Name> filter = iterate(modifiers.filter())
                 .map(v -> Identifier.Variable.of(v.reference().asName())).toSet();
         disjunction.conjunctions().forEach(conj -> {
             if (!conj.isSatisfiable() && !isSchemaQuery(conj, filter)) throw GraknException.of(UNSATISFIABLE_CONJUNCTION, conj);
         });
+        return filter;
+    }
 
+    private ResourceIterator<ConceptMap> execute(Disjunction disjunction, GraqlMatch.Modifiers modifiers,
+                                                 Context.Query context, Set<Identifier.Variable.Name> filter) {
         if (isInfer(disjunction, context)) return resolve(disjunction, modifiers, context);
 
         ResourceIterator<ConceptMap> answers;
@@ -182,8 +314,10 @@ public class Reasoner {
     private ResourceIterator<ConceptMap> iterator(Conjunction conjunction, Set<Identifier.Variable.Name> filter,
                                                   Context.Query context) {
         if (!conjunction.isSatisfiable()) return Iterators.empty();
-        ResourceIterator<ConceptMap> answers = traversalEng.iterator(conjunction.traversal(filter))
-                .map(conceptMgr::conceptMap);
+        return negated(conjunction, traversalEng.iterator(conjunction.traversal(filter)).map(conceptMgr::conceptMap));
+    }
+
+    private ResourceIterator<ConceptMap> negated(Conjunction conjunction, ResourceIterator<ConceptMap> answers) {
         if (conjunction.negations().isEmpty()) return answers;
         else return answers.filter(answer -> !iterate(conjunction.negations()).flatMap(
                 negation -> iterator(negation.disjunction(), answer)
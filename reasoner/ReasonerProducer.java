@@ -47,6 +47,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     private static final Logger LOG = LoggerFactory.getLogger(ReasonerProducer.class);
 
     private final Actor<? extends Resolver<?>> rootResolver;
+    private final ResolverRegistry resolverRegistry;
     private Queue<ConceptMap> queue;
     private Request resolveRequest;
     private boolean iterationInferredAnswer;
@@ -58,6 +59,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
                                                              modifiers.limit().orElse(null), this::requestAnswered, this::requestFailed);
         AnswerState.DownstreamVars.Identity downstream = Initial.of(new ConceptMap()).toDownstreamVars();
         this.resolveRequest = Request.create(new Request.Path(rootResolver, downstream), downstream, EMPTY);
+        this.resolverRegistry = resolverRegistry;
         this.queue = null;
         this.iteration = 0;
         this.done = false;
@@ -68,6 +70,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
                                                              modifiers.limit().orElse(null), this::requestAnswered, this::requestFailed);
         AnswerState.DownstreamVars.Identity downstream = Initial.of(new ConceptMap()).toDownstreamVars();
         this.resolveRequest = Request.create(new Request.Path(rootResolver, downstream), downstream, EMPTY);
+        this.resolverRegistry = resolverRegistry;
         this.queue = null;
         this.iteration = 0;
         this.done = false;
@@ -77,9 +80,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     public void produce(Queue<ConceptMap> queue, int request, ExecutorService executor) {
         assert this.queue == null || this.queue == queue;
         this.queue = queue;
-        for (int i = 0; i < request; i++) {
-            requestAnswer();
-        }
+        requestAnswers(request);
     }
 
     @Override
@@ -102,6 +103,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
             // query is completely terminated
             done = true;
             queue.done();
+            resolverRegistry.terminated(rootResolver);
             return;
         }
 
@@ -134,10 +136,10 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     }
 
     private void retryInNewIteration() {
-        requestAnswer();
+        requestAnswers(1);
     }
 
-    private void requestAnswer() {
-        rootResolver.tell(actor -> actor.receiveRequest(resolveRequest, iteration));
+    private void requestAnswers(int count) {
+        rootResolver.tell(actor -> actor.receiveRequests(resolveRequest, iteration, count));
     }
 }
@@ -17,12 +17,23 @@
 
 package grakn.core.reasoner.resolution;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Label;
 import grakn.core.concept.ConceptManager;
+import grakn.core.graph.DataGraph;
+import grakn.core.graph.SchemaGraph;
 import grakn.core.logic.LogicManager;
 import grakn.core.logic.resolvable.Concludable;
 import grakn.core.logic.resolvable.Resolvable;
+import grakn.core.pattern.Conjunction;
+import grakn.core.pattern.constraint.thing.HasConstraint;
+import grakn.core.pattern.constraint.thing.RelationConstraint;
+import grakn.core.pattern.constraint.thing.ValueConstraint;
+import grakn.core.pattern.variable.ThingVariable;
+import grakn.core.pattern.variable.TypeVariable;
 import grakn.core.pattern.variable.Variable;
+import grakn.core.traversal.TraversalEngine;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -32,24 +43,83 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static grakn.common.collection.Collections.set;
+import static grakn.common.collection.Collections.pair;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.iterator.Iterators.iterate;
+import static graql.lang.common.GraqlToken.Predicate.Equality.EQ;
 
+/**
+ * Plans the order in which the resolvables of a conjunction are resolved, by
+ * the estimated cost of resolving every resolvable given the variables that are
+ * answered by the resolvables before it.
+ *
+ * The answers of a pattern are estimated from the statistics of the data graph,
+ * as the product of the number of things of every unanswered variable and the
+ * selectivity of every edge between them. A concludable is further estimated to
+ * infer as many answers as it has inferred on average before, or as many as are
+ * stored if it has never been resolved, and to cost more for every rule that it
+ * needs to resolve. Plans are cached in the logic cache by the patterns of the
+ * resolvables and by the power of two of the estimated cost of each of them, so
+ * that a conjunction is planned again once the statistics of the data graph, or
+ * the answers inferred by its concludables, change any of its costs twofold.
+ */
 public class Planner {
+
     private final ConceptManager conceptMgr;
     private final LogicManager logicMgr;
+    private final SchemaGraph schemaGraph;
+    private final DataGraph.Statistics statistics;
 
-    Planner(ConceptManager conceptMgr, LogicManager logicMgr) {
+    Planner(ConceptManager conceptMgr, LogicManager logicMgr, TraversalEngine traversalEng) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
+        this.schemaGraph = traversalEng.graph().schema();
+        this.statistics = traversalEng.graph().data().stats();
     }
 
     public List<Resolvable<?>> plan(Set<Resolvable<?>> resolvables) {
-        return new Plan(resolvables).plan;
+        Plan plan = new Plan(resolvables);
+        Map<String, Resolvable<?>> patterns = new HashMap<>();
+        resolvables.forEach(resolvable -> patterns.put(pattern(resolvable), resolvable));
+        if (patterns.size() < resolvables.size()) return plan.plan();
+
+        String key = patterns.keySet().stream().sorted()
+                .map(pattern -> pattern + " @" + Math.getExponent(Math.max(plan.cost(patterns.get(pattern)), 1)))
+                .collect(Collectors.joining("; "));
+        List<String> cached = logicMgr.cache().plan().get(key, k -> iterate(plan.plan())
+                .map(Planner::pattern).stream().collect(Collectors.toList()));
+        return cached.stream().map(patterns::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Records the number of answers inferred for a bound pattern of a concludable,
+     * into the running average of the answers inferred for the concludable, kept
+     * as the sum of the counts and the number of counts. The sum and number are
+     * updated atomically, as concludables are resolved concurrently.
+     */
+    public void recordInferred(Concludable concludable, long count) {
+        logicMgr.cache().inferredCount().compute(
+                concludable.pattern().toString(),
+                (key, inferred) -> inferred == null ? pair(count, 1L) : pair(inferred.first() + count, inferred.second() + 1)
+        );
+    }
+
+    /**
+     * @return the average number of answers inferred for the bound patterns of the concludable, if any were recorded
+     */
+    OptionalDouble averageInferred(Concludable concludable) {
+        Pair<Long, Long> inferred = logicMgr.cache().inferredCount().getIfPresent(concludable.pattern().toString());
+        if (inferred == null) return OptionalDouble.empty();
+        else return OptionalDouble.of((double) inferred.first() / inferred.second());
+    }
+
+    private static String pattern(Resolvable<?> resolvable) {
+        return (resolvable.isConcludable() ? "concludable " : "retrievable ") + resolvable.pattern();
     }
 
     class Plan {
@@ -57,6 +127,7 @@ public class Planner {
         private final Map<Resolvable<?>, Set<Variable>> dependencies;
         private final Set<Variable> varsAnswered;
         private final Set<Resolvable<?>> remaining;
+        private final Map<Set<Label>, Long> counts;
 
         Plan(Set<Resolvable<?>> resolvables) {
             assert resolvables.size() > 0;
@@ -64,9 +135,13 @@ public class Planner {
             this.varsAnswered = new HashSet<>();
             this.dependencies = dependencies(resolvables);
             this.remaining = new HashSet<>(resolvables);
-            computePlan();
-            assert plan.size() == resolvables.size();
-            assert set(plan).equals(resolvables);
+            this.counts = new HashMap<>();
+        }
+
+        private List<Resolvable<?>> plan() {
+            if (!remaining.isEmpty()) computePlan();
+            assert remaining.isEmpty();
+            return plan;
         }
 
         private void add(Resolvable<?> resolvable) {
@@ -77,57 +152,35 @@ public class Planner {
 
         private void computePlan() {
             while (remaining.size() != 0) {
-                Optional<Concludable> concludable;
-                Optional<Resolvable<?>> retrievable;
+                Optional<Resolvable<?>> resolvable;
 
-                // Retrievable where:
+                // Resolvable where:
                 // all of it's dependencies are already satisfied,
-                // which will answer the most variables
-                retrievable = mostUnansweredVars(dependenciesSatisfied(connected(remaining.stream().filter(Resolvable::isRetrievable))));
-                if (retrievable.isPresent()) {
-                    add(retrievable.get());
+                // it is connected to the variables already answered,
+                // which is the cheapest to resolve given those variables
+                resolvable = cheapest(dependenciesSatisfied(connected(remaining.stream())));
+                if (resolvable.isPresent()) {
+                    add(resolvable.get());
                     continue;
                 }
 
-                // Concludable where:
+                // Resolvable where:
                 // all of it's dependencies are already satisfied,
-                // which has the least applicable rules,
-                // and of those the least unsatisfied variables
-                concludable = fewestRules(dependenciesSatisfied(connected(remaining.stream().filter(Resolvable::isConcludable))));
-                if (concludable.isPresent()) {
-                    add(concludable.get());
-                    continue;
-                }
-
-                // Retrievable where:
-                // all of it's dependencies are already satisfied (should be moot),
                 // it can be disconnected
-                // which will answer the most variables
-                retrievable = mostUnansweredVars(dependenciesSatisfied(remaining.stream().filter(Resolvable::isRetrievable)));
-                if (retrievable.isPresent()) {
-                    add(retrievable.get());
-                    continue;
-                }
-
-                // Concludable where:
-                // it can be disconnected
-                // all of it's dependencies are already satisfied,
-                // which has the least applicable rules,
-                // and of those the least unsatisfied variables
-                concludable = fewestRules(dependenciesSatisfied(remaining.stream().filter(Resolvable::isConcludable)));
-                if (concludable.isPresent()) {
-                    add(concludable.get());
+                // which is the cheapest to resolve
+                resolvable = cheapest(dependenciesSatisfied(remaining.stream()));
+                if (resolvable.isPresent()) {
+                    add(resolvable.get());
                     continue;
                 }
 
                 // Concludable where:
                 // it can be disconnected
                 // all of it's dependencies are NOT already satisfied,
-                // which has the least applicable rules,
-                // and of those the least unsatisfied variables
-                concludable = fewestRules(remaining.stream().filter(Resolvable::isConcludable));
-                if (concludable.isPresent()) {
-                    add(concludable.get());
+                // which is the cheapest to resolve
+                resolvable = cheapest(remaining.stream().filter(Resolvable::isConcludable));
+                if (resolvable.isPresent()) {
+                    add(resolvable.get());
                     continue;
                 }
                 throw GraknException.of(ILLEGAL_STATE);
@@ -142,15 +195,73 @@ public class Planner {
             return resolvableStream.filter(r -> !Collections.disjoint(r.namedVariables(), varsAnswered));
         }
 
-        private Optional<Concludable> fewestRules(Stream<Resolvable<?>> resolvableStream) {
-            // TODO: Tie-break for Concludables with the same number of applicable rules
-            return resolvableStream.map(Resolvable::asConcludable)
-                    .min(Comparator.comparingInt(c -> (int)c.getApplicableRules(conceptMgr, logicMgr).count()));
+        private Optional<Resolvable<?>> cheapest(Stream<Resolvable<?>> resolvableStream) {
+            return resolvableStream.min(Comparator.comparingDouble(this::cost));
+        }
+
+        private double cost(Resolvable<?> resolvable) {
+            Conjunction pattern = resolvable.isRetrievable() ? resolvable.asRetrievable().pattern() :
+                    resolvable.asConcludable().pattern();
+            double answers = answers(pattern);
+            if (resolvable.isRetrievable()) return answers;
+
+            Concludable concludable = resolvable.asConcludable();
+            double inferred = averageInferred(concludable).orElse(answers);
+            long rules = concludable.getApplicableRules(conceptMgr, logicMgr).count();
+            return Math.max(answers + inferred, 1) * (1 + rules);
+        }
+
+        private double answers(Conjunction conjunction) {
+            double answers = 1;
+            for (Variable variable : conjunction.variables()) {
+                if (!variable.isThing()) continue;
+                ThingVariable thing = variable.asThing();
+                if (!varsAnswered.contains(thing)) answers *= count(thing);
+                for (HasConstraint has : thing.has()) {
+                    answers *= selectivity(hasCount(thing, has.attribute()),
+                                           count(thing.resolvedTypes()) * count(has.attribute().resolvedTypes()));
+                }
+                for (RelationConstraint relation : thing.relation()) {
+                    for (RelationConstraint.RolePlayer rolePlayer : relation.players()) {
+                        Optional<TypeVariable> roleType = rolePlayer.roleType();
+                        if (!roleType.isPresent() || roleType.get().resolvedTypes().isEmpty()) continue;
+                        answers *= selectivity(count(roleType.get().resolvedTypes()),
+                                               count(thing.resolvedTypes()) * count(rolePlayer.player().resolvedTypes()));
+                    }
+                }
+            }
+            return answers;
+        }
+
+        private double count(ThingVariable thing) {
+            boolean isEqual = iterate(thing.value()).anyMatch(value -> !value.isVariable() && value.predicate().equals(EQ));
+            if (isEqual && !thing.resolvedTypes().isEmpty()) {
+                // an attribute of a given value is unique to its type
+                return Math.min(count(thing.resolvedTypes()), thing.resolvedTypes().size());
+            }
+            return count(thing.resolvedTypes());
+        }
+
+        private long count(Set<Label> types) {
+            if (types.isEmpty()) return statistics.thingVertexTransitiveCount(schemaGraph.rootThingType());
+            return counts.computeIfAbsent(types, statistics::thingVertexSum);
+        }
+
+        private long hasCount(ThingVariable owner, ThingVariable attribute) {
+            if (owner.resolvedTypes().isEmpty() || attribute.resolvedTypes().isEmpty()) {
+                return Math.min(count(owner.resolvedTypes()), count(attribute.resolvedTypes()));
+            }
+            long count = 0;
+            for (Label ownerType : owner.resolvedTypes()) {
+                for (Label attributeType : attribute.resolvedTypes()) {
+                    count += statistics.hasEdgeCount(ownerType, attributeType);
+                }
+            }
+            return count;
         }
 
-        private Optional<Resolvable<?>> mostUnansweredVars(Stream<Resolvable<?>> resolvableStream) {
-            return resolvableStream.max(Comparator.comparingInt(r -> iterate(r.namedVariables())
-                    .filter(var -> !varsAnswered.contains(var)).toSet().size()));
+        private double selectivity(double edges, double pairs) {
+            return pairs == 0 ? 0 : Math.min(edges / pairs, 1);
         }
 
         /**
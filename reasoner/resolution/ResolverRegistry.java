@@ -23,6 +23,7 @@ import grakn.core.concept.ConceptManager;
 import grakn.core.concurrent.actor.Actor;
 import grakn.core.concurrent.actor.EventLoopGroup;
 import grakn.core.logic.LogicManager;
+import grakn.core.logic.Materialisations;
 import grakn.core.logic.Rule;
 import grakn.core.logic.resolvable.Concludable;
 import grakn.core.logic.resolvable.Negated;
@@ -48,6 +49,8 @@ import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -57,28 +60,80 @@ import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 public class ResolverRegistry {
 
     private final static Logger LOG = LoggerFactory.getLogger(ResolverRegistry.class);
+    private static final int DEFAULT_MAX_DEMAND = 64;
 
     private final ConceptManager conceptMgr;
-    private final HashMap<Concludable, Actor<ConcludableResolver>> concludableActors;
+    private final ConcurrentMap<Integer, Map<Concludable, Actor<ConcludableResolver>>> concludableActors;
     private final LogicManager logicMgr;
     private boolean explanations;
     private final HashMap<Rule, Actor<RuleResolver>> rules;
     private final Actor<ResolutionRecorder> resolutionRecorder;
     private final TraversalEngine traversalEngine;
     private EventLoopGroup elg;
+    private int maxDemand;
+    private boolean isTabling;
     private final Planner planner;
+    private final RuleDependencies ruleDependencies;
+    private final Materialisations.View materialisations;
 
     public ResolverRegistry(EventLoopGroup elg, Actor<ResolutionRecorder> resolutionRecorder, TraversalEngine traversalEngine,
-                            ConceptManager conceptMgr, LogicManager logicMgr) {
+                            ConceptManager conceptMgr, LogicManager logicMgr,
+                            @Nullable Materialisations.View materialisations) {
         this.elg = elg;
         this.resolutionRecorder = resolutionRecorder;
         this.traversalEngine = traversalEngine;
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
         this.explanations = false; // TODO: enable/disable explanations from transaction context
-        concludableActors = new HashMap<>();
+        concludableActors = new ConcurrentHashMap<>();
         rules = new HashMap<>();
-        planner = new Planner(conceptMgr, logicMgr);
+        planner = new Planner(conceptMgr, logicMgr, traversalEngine);
+        ruleDependencies = new RuleDependencies(conceptMgr, logicMgr);
+        this.materialisations = materialisations;
+        this.maxDemand = DEFAULT_MAX_DEMAND;
+        this.isTabling = true;
+    }
+
+    /**
+     * @return the largest number of answers that a resolver may demand from another in a single request
+     */
+    public int maxDemand() {
+        return maxDemand;
+    }
+
+    /**
+     * @return true if the concludable resolvers answer bound patterns from the answers tabled for them,
+     * and stop re-resolving the bound patterns that have reached their fixpoint
+     */
+    public boolean isTabling() {
+        return isTabling;
+    }
+
+    public Planner planner() {
+        return planner;
+    }
+
+    public RuleDependencies ruleDependencies() {
+        return ruleDependencies;
+    }
+
+    @Nullable
+    public Materialisations.View materialisations() {
+        return materialisations;
+    }
+
+    /**
+     * Notifies the concludable resolvers that the resolution of a root has
+     * terminated, so that the answers they have resolved to their fixpoint can be
+     * materialised for the transactions to come.
+     */
+    public void terminated(Actor<? extends Resolver<?>> root) {
+        if (materialisations == null) return;
+        for (Map<Concludable, Actor<ConcludableResolver>> alphaClass : concludableActors.values()) {
+            synchronized (alphaClass) {
+                alphaClass.values().forEach(actor -> actor.tell(resolver -> resolver.materialise(root)));
+            }
+        }
     }
 
     public MappedResolver registerResolvable(Resolvable resolvable) {
@@ -123,21 +178,25 @@ public class ResolverRegistry {
         return MappedResolver.of(retrievableActor, identity(retrievable));
     }
 
-    // note: must be thread safe. We could move to a ConcurrentHashMap if we create an alpha-equivalence wrapper
-    private synchronized MappedResolver registerConcludable(Concludable concludable) {
+    // note: must be thread safe. Concludables are bucketed by their alpha hash, and only the concludables of the
+    // same bucket are checked for alpha-equivalence, while holding the lock of the bucket alone
+    private MappedResolver registerConcludable(Concludable concludable) {
         LOG.debug("Register ConcludableResolver: '{}'", concludable.pattern());
-        for (Map.Entry<Concludable, Actor<ConcludableResolver>> c : concludableActors.entrySet()) {
-            // TODO: This needs to be optimised from a linear search to use an alpha hash
-            AlphaEquivalence alphaEquality = concludable.alphaEquals(c.getKey());
-            if (alphaEquality.isValid()) {
-                return MappedResolver.of(c.getValue(), alphaEquality.asValid().namedVariableMapping());
+        Map<Concludable, Actor<ConcludableResolver>> alphaClass =
+                concludableActors.computeIfAbsent(concludable.alphaHash(), hash -> new HashMap<>());
+        synchronized (alphaClass) {
+            for (Map.Entry<Concludable, Actor<ConcludableResolver>> c : alphaClass.entrySet()) {
+                AlphaEquivalence alphaEquality = concludable.alphaEquals(c.getKey());
+                if (alphaEquality.isValid()) {
+                    return MappedResolver.of(c.getValue(), alphaEquality.asValid().namedVariableMapping());
+                }
             }
+            Actor<ConcludableResolver> concludableActor = Actor.create(elg, self ->
+                    new ConcludableResolver(self, concludable, resolutionRecorder, this, traversalEngine, conceptMgr,
+                                            logicMgr, explanations));
+            alphaClass.put(concludable, concludableActor);
+            return MappedResolver.of(concludableActor, identity(concludable));
         }
-        Actor<ConcludableResolver> concludableActor = Actor.create(elg, self ->
-                new ConcludableResolver(self, concludable, resolutionRecorder, this, traversalEngine, conceptMgr,
-                                        logicMgr, explanations));
-        concludableActors.put(concludable, concludableActor);
-        return MappedResolver.of(concludableActor, identity(concludable));
     }
 
     public Actor<ConjunctionResolver.Nested> conjunction(Conjunction conjunction) {
@@ -177,6 +236,15 @@ public class ResolverRegistry {
         this.elg = eventLoopGroup;
     }
 
+    public void setMaxDemand(int maxDemand) {
+        assert maxDemand >= 1;
+        this.maxDemand = maxDemand;
+    }
+
+    public void setTabling(boolean isTabling) {
+        this.isTabling = isTabling;
+    }
+
     public static class MappedResolver {
         private final Actor<? extends Resolver<?>> resolver;
         private final Map<Reference.Name, Reference.Name> mapping;
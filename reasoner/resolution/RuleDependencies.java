@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.reasoner.resolution;
+
+import grakn.core.common.parameters.Label;
+import grakn.core.concept.ConceptManager;
+import grakn.core.concurrent.actor.Actor;
+import grakn.core.logic.LogicManager;
+import grakn.core.logic.Rule;
+import grakn.core.logic.resolvable.Concludable;
+import grakn.core.pattern.Conjunction;
+import grakn.core.pattern.Negation;
+import grakn.core.pattern.variable.Variable;
+import grakn.core.reasoner.resolution.framework.Resolver;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The dependencies between rules, where a rule depends on every rule that is
+ * applicable to a concludable in its condition, including the concludables of
+ * its negations. The rules are partitioned into the strongly connected
+ * components of their dependencies, which are found with Tarjan's algorithm as
+ * the rules are first asked for.
+ *
+ * The rules of a component depend on each other recursively, and reach their
+ * fixpoint together: once no rule of a component, nor of any component that
+ * it depends on, infers a new answer in an iteration of a root resolver, none
+ * of them can infer a new answer in the following iterations either. The last
+ * iteration in which every component inferred a new answer is therefore
+ * recorded per root resolver.
+ */
+@ThreadSafe
+public class RuleDependencies {
+
+    private final ConceptManager conceptMgr;
+    private final LogicManager logicMgr;
+    private final Map<Rule, Component> components;
+    private final ConcurrentMap<Actor<? extends Resolver<?>>, ConcurrentMap<Component, Integer>> inferred;
+
+    RuleDependencies(ConceptManager conceptMgr, LogicManager logicMgr) {
+        this.conceptMgr = conceptMgr;
+        this.logicMgr = logicMgr;
+        this.components = new HashMap<>();
+        this.inferred = new ConcurrentHashMap<>();
+    }
+
+    public synchronized Component component(Rule rule) {
+        if (!components.containsKey(rule)) new Tarjan().visit(rule);
+        return components.get(rule);
+    }
+
+    public void recordInferred(Actor<? extends Resolver<?>> root, Component component, int iteration) {
+        inferred.computeIfAbsent(root, r -> new ConcurrentHashMap<>()).merge(component, iteration, Math::max);
+    }
+
+    /**
+     * @param root       the root resolver of the iterations
+     * @param components the components of the rules to check
+     * @param iteration  the earliest iteration to check
+     * @return true if any of the components, or the components they depend on, has inferred a new answer
+     * in the given iteration of the root resolver or after it
+     */
+    public boolean hasInferredSince(Actor<? extends Resolver<?>> root, Collection<Component> components, int iteration) {
+        ConcurrentMap<Component, Integer> inferredByComponent = inferred.get(root);
+        if (inferredByComponent == null) return false;
+        for (Component component : components) {
+            for (Component dependency : component.dependencies) {
+                Integer last = inferredByComponent.get(dependency);
+                if (last != null && last >= iteration) return true;
+            }
+        }
+        return false;
+    }
+
+    private Set<Rule> dependencies(Rule rule) {
+        Set<Rule> dependencies = new HashSet<>();
+        dependencies(rule.when(), dependencies);
+        return dependencies;
+    }
+
+    private void dependencies(Conjunction conjunction, Set<Rule> dependencies) {
+        for (Concludable concludable : Concludable.create(conjunction)) {
+            concludable.getApplicableRules(conceptMgr, logicMgr).forEachRemaining(dependencies::add);
+        }
+        for (Negation negation : conjunction.negations()) {
+            negation.disjunction().conjunctions().forEach(c -> dependencies(c, dependencies));
+        }
+    }
+
+    public static class Component {
+
+        private final Set<Rule> rules;
+        private final Set<Component> dependencies;
+        private Set<Label> types;
+
+        private Component(Set<Rule> rules) {
+            this.rules = rules;
+            this.dependencies = new HashSet<>();
+            this.dependencies.add(this);
+            this.types = null;
+        }
+
+        public Set<Rule> rules() {
+            return rules;
+        }
+
+        /**
+         * @return the labels of the types of the things in the rules of this component and of the components
+         * it depends on, or null if any of the things may be of any type
+         */
+        @Nullable
+        public Set<Label> types() {
+            return types;
+        }
+
+        private void resolveTypes() {
+            Set<Label> types = new HashSet<>();
+            for (Rule rule : rules) {
+                if (!types(rule.when(), types) || !types(rule.then(), types)) return;
+            }
+            for (Component dependency : dependencies) {
+                if (dependency == this) continue;
+                if (dependency.types == null) return;
+                types.addAll(dependency.types);
+            }
+            this.types = types;
+        }
+
+        private static boolean types(Conjunction conjunction, Set<Label> types) {
+            for (Variable variable : conjunction.variables()) {
+                if (!variable.isThing()) continue;
+                if (variable.resolvedTypes().isEmpty()) return false;
+                types.addAll(variable.resolvedTypes());
+            }
+            for (Negation negation : conjunction.negations()) {
+                for (Conjunction c : negation.disjunction().conjunctions()) {
+                    if (!types(c, types)) return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private class Tarjan {
+
+        private final Map<Rule, Integer> index;
+        private final Map<Rule, Integer> lowLink;
+        private final Map<Rule, Set<Rule>> successors;
+        private final Deque<Rule> stack;
+        private final Set<Rule> onStack;
+
+        private Tarjan() {
+            index = new HashMap<>();
+            lowLink = new HashMap<>();
+            successors = new HashMap<>();
+            stack = new ArrayDeque<>();
+            onStack = new HashSet<>();
+        }
+
+        private void visit(Rule rule) {
+            index.put(rule, index.size());
+            lowLink.put(rule, index.get(rule));
+            stack.push(rule);
+            onStack.add(rule);
+            successors.put(rule, dependencies(rule));
+            for (Rule successor : successors.get(rule)) {
+                if (components.containsKey(successor)) continue;
+                if (!index.containsKey(successor)) {
+                    visit(successor);
+                    lowLink.put(rule, Math.min(lowLink.get(rule), lowLink.get(successor)));
+                } else if (onStack.contains(successor)) {
+                    lowLink.put(rule, Math.min(lowLink.get(rule), index.get(successor)));
+                }
+            }
+            if (lowLink.get(rule).equals(index.get(rule))) {
+                Set<Rule> rules = new HashSet<>();
+                Rule member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    rules.add(member);
+                } while (!member.equals(rule));
+                Component component = new Component(rules);
+                for (Rule r : rules) components.put(r, component);
+                for (Rule r : rules) {
+                    for (Rule successor : successors.get(r)) {
+                        if (!rules.contains(successor)) component.dependencies.addAll(components.get(successor).dependencies);
+                    }
+                }
+                component.resolveTypes();
+            }
+        }
+    }
+}
@@ -35,18 +35,37 @@ import graql.lang.pattern.variable.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 
+/**
+ * A resolver answers every request that it receives with a single response, but
+ * a request may demand more than one answer, which the resolver is then free to
+ * send in a batch when it has them at hand. The answers of a batch beyond the
+ * first are buffered by the requester, and are received from the buffer without
+ * another message when the same request is sent again, in whichever iteration
+ * that is, as the resolver will not produce them again. The demand of a request
+ * is doubled whenever the requester asks again after its buffer ran out, and is
+ * halved whenever a new iteration starts before the buffer ran out, so that the
+ * batches follow the rate at which the answers are consumed.
+ */
 public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
     private static final Logger LOG = LoggerFactory.getLogger(Resolver.class);
 
     private final String name;
     private final Map<Request, Request> requestRouter;
+    private final Map<Request, Integer> demands;
+    private final Map<Request, Integer> demanded;
+    private final Map<Request, Batch> batches;
+    private final Deque<Runnable> received;
+    private boolean isReceiving;
     protected final ResolverRegistry registry;
     protected final TraversalEngine traversalEngine;
     private final boolean explanations;
@@ -58,6 +77,11 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
         this.traversalEngine = traversalEngine;
         this.explanations = explanations;
         this.requestRouter = new HashMap<>();
+        this.demands = new HashMap<>();
+        this.demanded = new HashMap<>();
+        this.batches = new HashMap<>();
+        this.received = new ArrayDeque<>();
+        this.isReceiving = false;
         // Note: initialising downstream actors in constructor will create all actors ahead of time, so it is non-lazy
         // additionally, it can cause deadlock within ResolverRegistry as different threads initialise actors
     }
@@ -80,6 +104,22 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
 
     protected abstract ResponseProducer responseProducerReiterate(Request fromUpstream, ResponseProducer responseProducer, int newIteration);
 
+    /**
+     * Receives a number of the same request from outside of the resolvers, in a single message
+     */
+    public void receiveRequests(Request fromUpstream, int iteration, int count) {
+        receive(() -> {
+            for (int i = 0; i < count; i++) receiveRequest(fromUpstream, iteration);
+        });
+    }
+
+    /**
+     * @return the number of answers that the upstream demanded with the request, which may be answered in a batch
+     */
+    protected int demand(Request fromUpstream) {
+        return demanded.getOrDefault(fromUpstream, 1);
+    }
+
     protected Request fromUpstream(Request toDownstream) {
         assert requestRouter.containsKey(toDownstream);
         return requestRouter.get(toDownstream);
@@ -89,23 +129,82 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
         LOG.trace("{} : Sending a new answer Request to downstream: {}", name, request);
         // TODO: we may overwrite if multiple identical requests are sent, when to clean up?
         requestRouter.put(request, fromUpstream);
+        Batch batch = batches.remove(request);
+        if (batch != null) {
+            if (batch.iteration != iteration) {
+                // more answers were demanded than the last iteration consumed
+                demands.computeIfPresent(request, (r, demand) -> Math.max(demand / 2, 1));
+                batch.iteration = iteration;
+            }
+            // the downstream recorded every answer of the batch as produced when it sent it, so answers that are
+            // left in the batch when a new iteration starts are delivered in the new iteration rather than dropped
+            Response.Answer answer = Response.Answer.create(request, batch.answers.poll());
+            if (!batch.answers.isEmpty()) batches.put(request, batch);
+            LOG.trace("{} : Receiving a batched Response.Answer from downstream", name);
+            receiveLocally(() -> receiveAnswer(answer, iteration));
+            return;
+        }
+
+        int demand = demands.merge(request, 1, (previous, unused) -> Math.min(previous * 2, registry.maxDemand()));
         Actor<? extends Resolver<?>> receiver = request.receiver();
-        receiver.tell(actor -> actor.receiveRequest(request, iteration));
+        receiver.tell(actor -> receiveRequest(actor, request, iteration, demand));
     }
 
     protected void respondToUpstream(Response response, int iteration) {
         Actor<? extends Resolver<?>> receiver = response.sourceRequest().sender();
         if (response.isAnswer()) {
             LOG.trace("{} : Sending a new Response.Answer to upstream", name());
-            receiver.tell(actor -> actor.receiveAnswer(response.asAnswer(), iteration));
+            receiver.tell(actor -> receiveAnswer(actor, response.asAnswer(), iteration));
         } else if (response.isFail()) {
             LOG.trace("{}: Sending a new Response.Fail to upstream", name());
-            receiver.tell(actor -> actor.receiveExhausted(response.asFail(), iteration));
+            receiver.tell(actor -> receiveExhausted(actor, response.asFail(), iteration));
         } else {
             throw new RuntimeException(("Unknown response type " + response.getClass().getSimpleName()));
         }
     }
 
+    private static void receiveRequest(Resolver<?> resolver, Request fromUpstream, int iteration, int demand) {
+        if (demand > 1) resolver.demanded.put(fromUpstream, demand);
+        else resolver.demanded.remove(fromUpstream);
+        resolver.receive(() -> resolver.receiveRequest(fromUpstream, iteration));
+    }
+
+    private static void receiveAnswer(Resolver<?> resolver, Response.Answer fromDownstream, int iteration) {
+        if (!fromDownstream.batched().isEmpty()) {
+            resolver.batches.put(fromDownstream.sourceRequest(), new Batch(fromDownstream.batched(), iteration));
+        }
+        resolver.receive(() -> resolver.receiveAnswer(fromDownstream, iteration));
+    }
+
+    private static void receiveExhausted(Resolver<?> resolver, Response.Fail fromDownstream, int iteration) {
+        resolver.batches.remove(fromDownstream.sourceRequest());
+        resolver.receive(() -> resolver.receiveExhausted(fromDownstream, iteration));
+    }
+
+    /**
+     * Receives a message, and then every answer that was taken from a batch while receiving it, in turn
+     */
+    private void receive(Runnable message) {
+        assert !isReceiving;
+        isReceiving = true;
+        try {
+            message.run();
+            while (!received.isEmpty()) received.poll().run();
+        } finally {
+            received.clear();
+            isReceiving = false;
+        }
+    }
+
+    private static void receive(Resolver<?> resolver, Runnable message) {
+        resolver.receive(message);
+    }
+
+    private void receiveLocally(Runnable message) {
+        if (isReceiving) received.add(message);
+        else self().tell(actor -> receive(actor, message));
+    }
+
     protected ResourceIterator<ConceptMap> compatibleBoundAnswers(ConceptManager conceptMgr, Conjunction conjunction, ConceptMap bounds) {
         return compatibleBounds(conjunction, bounds).map(b -> {
             Traversal traversal = boundTraversal(conjunction.traversal(), b);
@@ -150,4 +249,15 @@ public abstract class Resolver<T extends Resolver<T>> extends Actor.State<T> {
         });
         return traversal;
     }
+
+    private static class Batch {
+
+        private final Deque<ResolutionAnswer> answers;
+        private int iteration;
+
+        private Batch(List<ResolutionAnswer> answers, int iteration) {
+            this.answers = new ArrayDeque<>(answers);
+            this.iteration = iteration;
+        }
+    }
 }
@@ -20,6 +20,9 @@ package grakn.core.reasoner.resolution.framework;
 
 import grakn.core.common.exception.GraknException;
 
+import java.util.Collections;
+import java.util.List;
+
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Pattern.INVALID_CASTING;
 
@@ -41,16 +44,29 @@ public interface Response {
     class Answer implements Response {
         private final Request sourceRequest;
         private final ResolutionAnswer answer;
+        private final List<ResolutionAnswer> batched;
 
         private Answer(Request sourceRequest,
-                       ResolutionAnswer answer) {
+                       ResolutionAnswer answer,
+                       List<ResolutionAnswer> batched) {
             this.sourceRequest = sourceRequest;
             this.answer = answer;
+            this.batched = batched;
         }
 
         public static Answer create(Request sourceRequest,
                                     ResolutionAnswer answer) {
-            return new Answer(sourceRequest, answer);
+            return new Answer(sourceRequest, answer, Collections.emptyList());
+        }
+
+        /**
+         * Creates a response with a batch of answers to a request, of which only the first is the response to the
+         * request, and the rest are received by the requester ahead of its next requests
+         */
+        public static Answer create(Request sourceRequest,
+                                    List<ResolutionAnswer> answers) {
+            assert !answers.isEmpty();
+            return new Answer(sourceRequest, answers.get(0), answers.subList(1, answers.size()));
         }
 
         @Override
@@ -62,6 +78,10 @@ public interface Response {
             return answer;
         }
 
+        public List<ResolutionAnswer> batched() {
+            return batched;
+        }
+
         public int planIndex() {
             return sourceRequest.planIndex();
         }
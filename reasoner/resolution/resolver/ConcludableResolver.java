@@ -22,11 +22,14 @@ import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concurrent.actor.Actor;
+import grakn.core.common.parameters.Label;
 import grakn.core.logic.LogicManager;
+import grakn.core.logic.Materialisations;
 import grakn.core.logic.resolvable.Concludable;
 import grakn.core.logic.resolvable.Unifier;
 import grakn.core.reasoner.resolution.ResolutionRecorder;
 import grakn.core.reasoner.resolution.ResolverRegistry;
+import grakn.core.reasoner.resolution.RuleDependencies;
 import grakn.core.reasoner.resolution.answer.AnswerState;
 import grakn.core.reasoner.resolution.answer.AnswerState.UpstreamVars;
 import grakn.core.reasoner.resolution.framework.Request;
@@ -39,26 +42,32 @@ import grakn.core.traversal.TraversalEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static grakn.common.collection.Collections.map;
 import static grakn.common.collection.Collections.pair;
+import static grakn.core.common.iterator.Iterators.iterate;
+import static grakn.core.common.iterator.Iterators.link;
 
 public class ConcludableResolver extends Resolver<ConcludableResolver> {
     private static final Logger LOG = LoggerFactory.getLogger(ConcludableResolver.class);
 
     private final LinkedHashMap<Actor<RuleResolver>, Set<Unifier>> applicableRules;
+    private final Map<Actor<RuleResolver>, RuleDependencies.Component> ruleComponents;
     private final Concludable concludable;
     private final ConceptManager conceptMgr;
     private final LogicManager logicMgr;
     private final Map<Actor<? extends Resolver<?>>, RecursionState> recursionStates;
     private final Actor<ResolutionRecorder> resolutionRecorder;
     private final Map<Request, ResponseProducer> responseProducers;
+    private final Set<Request> tabling;
     private boolean isInitialised;
 
     public ConcludableResolver(Actor<ConcludableResolver> self, Concludable concludable,
@@ -72,8 +81,10 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         this.resolutionRecorder = resolutionRecorder;
         this.concludable = concludable;
         this.applicableRules = new LinkedHashMap<>();
+        this.ruleComponents = new HashMap<>();
         this.recursionStates = new HashMap<>();
         this.responseProducers = new HashMap<>();
+        this.tabling = new HashSet<>();
         this.isInitialised = false;
     }
 
@@ -105,6 +116,10 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         ResponseProducer responseProducer = responseProducers.get(fromUpstream);
 
         ConceptMap conceptMap = fromDownstream.answer().derived().withInitialFiltered();
+        Actor<? extends Resolver<?>> root = fromUpstream.path().root();
+        if (recursionStates.get(root).table(fromUpstream.partialAnswer().conceptMap()).record(conceptMap)) {
+            registry.ruleDependencies().recordInferred(root, ruleComponents.get(toDownstream.receiver()), iteration);
+        }
         UpstreamVars.Derived upstreamAnswer = fromUpstream.partialAnswer().asMapped().mapToUpstream(conceptMap);
         if (!responseProducer.hasProduced(upstreamAnswer.withInitialFiltered())) {
             responseProducer.recordProduced(upstreamAnswer.withInitialFiltered());
@@ -158,6 +173,7 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         concludable.getApplicableRules(conceptMgr, logicMgr).forEachRemaining(rule -> concludable.getUnifiers(rule)
                 .forEachRemaining(unifier -> {
                     Actor<RuleResolver> ruleActor = registry.registerRule(rule);
+                    ruleComponents.putIfAbsent(ruleActor, registry.ruleDependencies().component(rule));
                     applicableRules.putIfAbsent(ruleActor, new HashSet<>());
                     applicableRules.get(ruleActor).add(unifier);
                 }));
@@ -171,11 +187,15 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         RecursionState iterationState = recursionStates.get(root);
 
         assert fromUpstream.partialAnswer().isMapped();
-        ResourceIterator<UpstreamVars.Derived> upstreamAnswers =
-                compatibleBoundAnswers(conceptMgr, concludable.pattern(), fromUpstream.partialAnswer().conceptMap())
-                        .map(conceptMap -> fromUpstream.partialAnswer().asMapped().mapToUpstream(conceptMap));
+        ConceptMap bounds = fromUpstream.partialAnswer().conceptMap();
+        if (mayLoadMaterialised(bounds, iterationState, iteration)) {
+            // the bound pattern was resolved to its fixpoint by a prior transaction, so no rules need to be resolved
+            LOG.debug("{}: Answering a bound pattern from its materialised answers: {}", name(), bounds);
+            iterationState.recordReceived(bounds);
+            return new ResponseProducer(upstreamAnswers(fromUpstream, iterationState), iteration);
+        }
 
-        ResponseProducer responseProducer = new ResponseProducer(upstreamAnswers, iteration);
+        ResponseProducer responseProducer = new ResponseProducer(upstreamAnswers(fromUpstream, iterationState), iteration);
         mayRegisterRules(fromUpstream, iterationState, responseProducer);
         return responseProducer;
     }
@@ -194,15 +214,78 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
         }
 
         assert fromUpstream.partialAnswer().isMapped();
-        ResourceIterator<UpstreamVars.Derived> upstreamAnswers =
-                compatibleBoundAnswers(conceptMgr, concludable.pattern(), fromUpstream.partialAnswer().conceptMap())
-                .map(conceptMap -> fromUpstream.partialAnswer().asMapped().mapToUpstream(conceptMap));
+        ConceptMap bounds = fromUpstream.partialAnswer().conceptMap();
+        Table table = iterationState.tables.get(bounds);
+        if (table != null && table.completed >= 0 && (table.isMaterialised || registry.isTabling() &&
+                !registry.ruleDependencies().hasInferredSince(root, ruleComponents.values(), table.completed))) {
+            // the bound pattern has reached its fixpoint, so the only new answers are the ones tabled since they were produced
+            LOG.debug("{}: Reusing the tabled answers of a bound pattern at its fixpoint: {}", name(), bounds);
+            ResourceIterator<UpstreamVars.Derived> tabledAnswers = table.answers()
+                    .map(conceptMap -> fromUpstream.partialAnswer().asMapped().mapToUpstream(conceptMap));
+            return responseProducerPrevious.newIteration(tabledAnswers, newIteration);
+        }
 
-        ResponseProducer responseProducerNewIter = responseProducerPrevious.newIteration(upstreamAnswers, newIteration);
+        ResponseProducer responseProducerNewIter = responseProducerPrevious.newIteration(
+                upstreamAnswers(fromUpstream, iterationState), newIteration
+        );
         mayRegisterRules(fromUpstream, iterationState, responseProducerNewIter);
         return responseProducerNewIter;
     }
 
+    private ResourceIterator<UpstreamVars.Derived> upstreamAnswers(Request fromUpstream, RecursionState recursionState) {
+        assert fromUpstream.partialAnswer().isMapped();
+        ConceptMap bounds = fromUpstream.partialAnswer().conceptMap();
+        ResourceIterator<ConceptMap> answers = compatibleBoundAnswers(conceptMgr, concludable.pattern(), bounds);
+        Table table = recursionState.tables.get(bounds);
+        if (table != null && recursionState.hasReceived(bounds) && (registry.isTabling() || table.isMaterialised)) {
+            // the bound pattern is already being resolved by the rules, so we answer with what they have inferred so far
+            answers = link(table.answers(), answers);
+        }
+        return answers.map(conceptMap -> fromUpstream.partialAnswer().asMapped().mapToUpstream(conceptMap));
+    }
+
+    private boolean mayLoadMaterialised(ConceptMap bounds, RecursionState recursionState, int iteration) {
+        Materialisations.View materialisations = registry.materialisations();
+        if (materialisations == null) return false;
+        Table table = recursionState.tables.get(bounds);
+        if (table != null) return table.isMaterialised;
+        if (recursionState.hasReceived(bounds)) return false;
+
+        Optional<List<ConceptMap>> answers = materialisations.get(concludable.pattern().toString(), bounds, conceptMgr);
+        if (!answers.isPresent()) return false;
+        table = recursionState.table(bounds);
+        answers.get().forEach(table::record);
+        table.completed = iteration;
+        table.isMaterialised = true;
+        return true;
+    }
+
+    /**
+     * Materialises the answers of every bound pattern that has been resolved to
+     * its fixpoint for a root, once the resolution of the root has terminated
+     */
+    public void materialise(Actor<? extends Resolver<?>> root) {
+        Materialisations.View materialisations = registry.materialisations();
+        RecursionState recursionState = recursionStates.get(root);
+        if (materialisations == null || recursionState == null) return;
+
+        Set<Label> types = new HashSet<>();
+        for (RuleDependencies.Component component : ruleComponents.values()) {
+            if (component.types() == null) {
+                types = null;
+                break;
+            }
+            types.addAll(component.types());
+        }
+        for (Map.Entry<ConceptMap, Table> entry : recursionState.tables.entrySet()) {
+            Table table = entry.getValue();
+            if (table.completed >= 0 && !table.isMaterialised &&
+                    !registry.ruleDependencies().hasInferredSince(root, ruleComponents.values(), table.completed)) {
+                materialisations.put(concludable.pattern().toString(), entry.getKey(), table.answers, types);
+            }
+        }
+    }
+
     @Override
     protected void exception(Throwable e) {
         LOG.error("Actor exception", e);
@@ -211,15 +294,26 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
 
     private void tryAnswer(Request fromUpstream, ResponseProducer responseProducer, int iteration) {
         if (responseProducer.hasUpstreamAnswer()) {
-            UpstreamVars.Derived upstreamAnswer = responseProducer.upstreamAnswers().next();
-            responseProducer.recordProduced(upstreamAnswer.withInitialFiltered());
-            ResolutionAnswer answer = new ResolutionAnswer(upstreamAnswer, concludable.toString(),
-                                                           new ResolutionAnswer.Derivation(map()), self(), false);
-            respondToUpstream(Answer.create(fromUpstream, answer), iteration);
+            // the answers that are already known are sent in a batch, as many as the upstream demanded
+            List<ResolutionAnswer> answers = new ArrayList<>();
+            int demand = demand(fromUpstream);
+            while (answers.size() < demand && responseProducer.hasUpstreamAnswer()) {
+                UpstreamVars.Derived upstreamAnswer = responseProducer.upstreamAnswers().next();
+                responseProducer.recordProduced(upstreamAnswer.withInitialFiltered());
+                answers.add(new ResolutionAnswer(upstreamAnswer, concludable.toString(),
+                                                 new ResolutionAnswer.Derivation(map()), self(), false));
+            }
+            respondToUpstream(Answer.create(fromUpstream, answers), iteration);
         } else {
             if (responseProducer.hasDownstreamProducer()) {
                 requestFromDownstream(responseProducer.nextDownstreamProducer(), fromUpstream, iteration);
             } else {
+                if (iteration == responseProducer.iteration() && tabling.remove(fromUpstream)) {
+                    Table table = recursionStates.get(fromUpstream.path().root())
+                            .table(fromUpstream.partialAnswer().conceptMap());
+                    table.completed = iteration;
+                    registry.planner().recordInferred(concludable, table.answers.size());
+                }
                 respondToUpstream(new Response.Fail(fromUpstream), iteration);
             }
         }
@@ -259,6 +353,7 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
                 }
             }
             recursionState.recordReceived(fromUpstream.partialAnswer().conceptMap());
+            tabling.add(fromUpstream);
         }
     }
 
@@ -266,14 +361,21 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
      * Maintain iteration state per root query
      * This allows us to share actors across different queries
      * while maintaining the ability to do loop termination within a single query
+     * The answers inferred for every bound pattern are tabled across iterations
      */
     private static class RecursionState {
+        private final Map<ConceptMap, Table> tables;
         private Set<ConceptMap> receivedMaps;
         private int iteration;
 
         RecursionState(int iteration) {
             this.iteration = iteration;
             this.receivedMaps = new HashSet<>();
+            this.tables = new HashMap<>();
+        }
+
+        public Table table(ConceptMap bounds) {
+            return tables.computeIfAbsent(bounds, b -> new Table());
         }
 
         public int iteration() {
@@ -294,5 +396,30 @@ public class ConcludableResolver extends Resolver<ConcludableResolver> {
             return receivedMaps.contains(conceptMap);
         }
     }
+
+    /**
+     * The answers inferred by the rules for a bound pattern, and the last iteration
+     * in which the bound pattern was resolved by the rules until it was exhausted,
+     * or loaded from the answers materialised by a prior transaction
+     */
+    private static class Table {
+        private final Set<ConceptMap> answers;
+        private int completed;
+        private boolean isMaterialised;
+
+        Table() {
+            this.answers = new HashSet<>();
+            this.completed = -1;
+            this.isMaterialised = false;
+        }
+
+        public boolean record(ConceptMap answer) {
+            return answers.add(answer);
+        }
+
+        public ResourceIterator<ConceptMap> answers() {
+            return iterate(new ArrayList<>(answers));
+        }
+    }
 }
 
@@ -34,7 +34,9 @@ import grakn.core.traversal.TraversalEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
@@ -123,11 +125,15 @@ public class RetrievableResolver extends Resolver<RetrievableResolver> {
 
     private void tryAnswer(Request fromUpstream, ResponseProducer responseProducer, int iteration) {
         if (responseProducer.hasUpstreamAnswer()) {
-            UpstreamVars.Derived upstreamAnswer = responseProducer.upstreamAnswers().next();
-            responseProducer.recordProduced(upstreamAnswer.withInitialFiltered());
-            ResolutionAnswer answer = new ResolutionAnswer(upstreamAnswer, retrievable.pattern().toString(),
-                                                           ResolutionAnswer.Derivation.EMPTY, self(), false);
-            respondToUpstream(Answer.create(fromUpstream, answer), iteration);
+            List<ResolutionAnswer> answers = new ArrayList<>();
+            int demand = demand(fromUpstream);
+            while (answers.size() < demand && responseProducer.hasUpstreamAnswer()) {
+                UpstreamVars.Derived upstreamAnswer = responseProducer.upstreamAnswers().next();
+                responseProducer.recordProduced(upstreamAnswer.withInitialFiltered());
+                answers.add(new ResolutionAnswer(upstreamAnswer, retrievable.pattern().toString(),
+                                                 ResolutionAnswer.Derivation.EMPTY, self(), false));
+            }
+            respondToUpstream(Answer.create(fromUpstream, answers), iteration);
         } else {
             respondToUpstream(new Response.Fail(fromUpstream), iteration);
         }
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.exception.GraknException;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileReader;
+import org.rocksdb.SstFileReaderIterator;
+import org.rocksdb.SstFileWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Writes the data of a bulk-load transaction straight into SST files, which
+ * are then ingested into the data storage, bypassing the memtable, the WAL
+ * and most of the compaction that the same writes would otherwise cause.
+ *
+ * Keys are buffered in memory in sorted order. Whenever the buffer grows past
+ * {@link #SPILL_THRESHOLD_BYTES}, it is written to disk as a sorted run in its
+ * own SST file. Before the transaction commits, {@link #prepare()} merges the
+ * runs into a single SST file, in which a later write of the same key overrides
+ * an earlier one. Only once the transaction has committed is that file ingested,
+ * by {@link #ingest()}, in a single and therefore atomic call to RocksDB.
+ */
+@NotThreadSafe
+class BulkLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkLoader.class);
+
+    private static final long SPILL_THRESHOLD_BYTES = 64L * 1024 * 1024;
+    private static final String SST_FILE_SUFFIX = ".sst";
+    private static final String PENDING_FILE_SUFFIX = ".pending";
+    private static final Comparator<byte[]> UNSIGNED_BYTES_COMPARATOR = (bytes1, bytes2) -> {
+        for (int i = 0; i < bytes1.length && i < bytes2.length; i++) {
+            int cmp = Integer.compare(bytes1[i] & 0xFF, bytes2[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(bytes1.length, bytes2.length);
+    };
+
+    private final OptimisticTransactionDB rocksDB;
+    private final org.rocksdb.Options rocksDBOptions;
+    private final Path directory;
+    private final String filePrefix;
+    private final List<Path> files;
+    private final TreeMap<byte[], byte[]> buffer;
+    private long bufferBytes;
+
+    BulkLoader(OptimisticTransactionDB rocksDB, org.rocksdb.Options rocksDBOptions, Path directory) {
+        this.rocksDB = rocksDB;
+        this.rocksDBOptions = rocksDBOptions;
+        this.directory = directory;
+        this.filePrefix = UUID.randomUUID().toString();
+        this.files = new ArrayList<>();
+        this.buffer = new TreeMap<>(UNSIGNED_BYTES_COMPARATOR);
+        this.bufferBytes = 0;
+    }
+
+    /**
+     * Ingests the SST files left behind by a bulk-load transaction whose
+     * RocksDB transaction committed, but whose ingestion did not complete,
+     * and deletes the files of every bulk-load transaction that never committed.
+     * This must be called when the database is opened, before any transaction.
+     *
+     * @param rocksDB   the data storage into which the files are ingested
+     * @param directory the bulk-load directory of the database
+     */
+    static void recover(OptimisticTransactionDB rocksDB, Path directory) {
+        if (!Files.isDirectory(directory)) return;
+        List<String> pending = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                if (file.toString().endsWith(PENDING_FILE_SUFFIX)) pending.add(file.toString());
+                else Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+        for (String file : pending) {
+            LOG.warn("Recovering the ingestion of bulk-loaded data from '{}'", file);
+            try (IngestExternalFileOptions options = new IngestExternalFileOptions().setMoveFiles(true)) {
+                rocksDB.ingestExternalFile(singletonList(file), options);
+            } catch (RocksDBException e) {
+                throw GraknException.of(e);
+            }
+        }
+    }
+
+    void put(byte[] key, byte[] value) {
+        byte[] previous = buffer.put(key, value);
+        if (previous == null) bufferBytes += key.length + value.length;
+        else bufferBytes += value.length - previous.length;
+        if (bufferBytes >= SPILL_THRESHOLD_BYTES) spill();
+    }
+
+    /**
+     * Writes every key written to this {@code BulkLoader} into a single SST file,
+     * without making any of them visible in the data storage. This is done before
+     * the RocksDB transaction commits, so that a failure here leaves nothing behind.
+     */
+    void prepare() {
+        spill();
+        if (files.size() > 1) merge();
+    }
+
+    /**
+     * Ingests the file written by {@link #prepare()} into the data storage, as
+     * a single SST file, so that either every key of the transaction becomes
+     * visible or none does. This must only be called after the RocksDB transaction
+     * committed. The file is marked as pending beforehand, so that if the ingestion
+     * fails, it is retried by {@link #recover(OptimisticTransactionDB, Path)} when
+     * the database is next opened.
+     */
+    void ingest() throws RocksDBException {
+        assert buffer.isEmpty() && files.size() <= 1;
+        if (files.isEmpty()) return;
+        Path pending = files.get(0).resolveSibling(files.get(0).getFileName() + PENDING_FILE_SUFFIX);
+        try {
+            Files.move(files.get(0), pending);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+        files.clear();
+        try (IngestExternalFileOptions options = new IngestExternalFileOptions().setMoveFiles(true)) {
+            rocksDB.ingestExternalFile(singletonList(pending.toString()), options);
+        }
+        try {
+            Files.deleteIfExists(pending);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+    }
+
+    void clear() {
+        buffer.clear();
+        bufferBytes = 0;
+        try {
+            for (Path file : files) Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+        files.clear();
+    }
+
+    private Path nextFile() {
+        return directory.resolve(filePrefix + "-" + files.size() + SST_FILE_SUFFIX);
+    }
+
+    private void spill() {
+        if (buffer.isEmpty()) return;
+        Path file = nextFile();
+        try (EnvOptions envOptions = new EnvOptions();
+             SstFileWriter writer = new SstFileWriter(envOptions, rocksDBOptions)) {
+            Files.createDirectories(directory);
+            writer.open(file.toString());
+            files.add(file);
+            for (Map.Entry<byte[], byte[]> entry : buffer.entrySet()) writer.put(entry.getKey(), entry.getValue());
+            writer.finish();
+        } catch (RocksDBException | IOException e) {
+            throw GraknException.of(e);
+        }
+        buffer.clear();
+        bufferBytes = 0;
+    }
+
+    /**
+     * Merges the sorted runs into a single SST file. When a key was written
+     * into more than one run, only the value from the latest run is kept.
+     */
+    private void merge() {
+        List<Path> runs = new ArrayList<>(files);
+        Path merged = nextFile();
+        files.add(merged);
+        List<SstFileReader> readers = new ArrayList<>();
+        SstFileReaderIterator[] iterators = new SstFileReaderIterator[runs.size()];
+        byte[][] keys = new byte[runs.size()][];
+        PriorityQueue<Integer> queue = new PriorityQueue<>((run1, run2) -> {
+            int cmp = UNSIGNED_BYTES_COMPARATOR.compare(keys[run1], keys[run2]);
+            if (cmp != 0) return cmp;
+            else return Integer.compare(run2, run1);
+        });
+        try (EnvOptions envOptions = new EnvOptions();
+             ReadOptions readOptions = new ReadOptions();
+             SstFileWriter writer = new SstFileWriter(envOptions, rocksDBOptions)) {
+            for (int run = 0; run < runs.size(); run++) {
+                SstFileReader reader = new SstFileReader(rocksDBOptions);
+                readers.add(reader);
+                reader.open(runs.get(run).toString());
+                iterators[run] = reader.newIterator(readOptions);
+                iterators[run].seekToFirst();
+                if (iterators[run].isValid()) {
+                    keys[run] = iterators[run].key();
+                    queue.add(run);
+                }
+            }
+            writer.open(merged.toString());
+            byte[] lastKey = null;
+            while (!queue.isEmpty()) {
+                int run = queue.poll();
+                if (lastKey == null || UNSIGNED_BYTES_COMPARATOR.compare(lastKey, keys[run]) != 0) {
+                    writer.put(keys[run], iterators[run].value());
+                    lastKey = keys[run];
+                }
+                iterators[run].next();
+                if (iterators[run].isValid()) {
+                    keys[run] = iterators[run].key();
+                    queue.add(run);
+                }
+            }
+            writer.finish();
+        } catch (RocksDBException e) {
+            throw GraknException.of(e);
+        } finally {
+            for (SstFileReaderIterator iterator : iterators) if (iterator != null) iterator.close();
+            readers.forEach(SstFileReader::close);
+        }
+        try {
+            for (Path run : runs) Files.deleteIfExists(run);
+        } catch (IOException e) {
+            throw GraknException.of(e);
+        }
+        files.removeAll(runs);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.exception.GraknException;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.RocksDBException;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Merges the durability step of concurrent commits into a single WAL sync.
+ *
+ * Every commit writes its batch into the WAL without syncing it, and RocksDB
+ * already merges the WAL writes of concurrent committers into one write group.
+ * Each committer then waits in {@link #awaitDurable()} until the WAL is synced
+ * past its own ticket. The first committer that finds no sync in progress becomes
+ * the leader of a batch: it waits until the batch window elapses or the batch is
+ * full, and then performs a single {@code syncWal()} on behalf of every committer
+ * that joined the batch.
+ */
+@ThreadSafe
+class GroupCommitter {
+
+    private final OptimisticTransactionDB rocksDB;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ReentrantLock lock;
+    private final Condition batchChanged;
+    private final Metrics metrics;
+    private long enqueued;
+    private long synced;
+    private boolean isSyncing;
+
+    GroupCommitter(OptimisticTransactionDB rocksDB, long windowMillis, int maxBatchSize) {
+        assert windowMillis >= 0 && maxBatchSize > 0;
+        this.rocksDB = rocksDB;
+        this.windowNanos = MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.lock = new ReentrantLock();
+        this.batchChanged = lock.newCondition();
+        this.metrics = new Metrics();
+        this.enqueued = 0;
+        this.synced = 0;
+        this.isSyncing = false;
+    }
+
+    Metrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Blocks until every write committed by the calling thread before this call
+     * has been synced to the WAL on disk.
+     *
+     * @throws RocksDBException if the WAL sync performed by this thread failed
+     */
+    void awaitDurable() throws RocksDBException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            long ticket = ++enqueued;
+            if (enqueued - synced >= maxBatchSize) batchChanged.signalAll();
+            while (synced < ticket) {
+                if (!isSyncing) syncBatch();
+                else batchChanged.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        metrics.commitCompleted(System.nanoTime() - start);
+    }
+
+    private void syncBatch() throws RocksDBException {
+        assert lock.isHeldByCurrentThread() && !isSyncing;
+        isSyncing = true;
+        try {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining;
+            while (enqueued - synced < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                batchChanged.awaitNanos(remaining);
+            }
+            long target = enqueued;
+            lock.unlock();
+            try {
+                rocksDB.syncWal();
+            } finally {
+                lock.lock();
+            }
+            metrics.batchSynced(target - synced);
+            synced = target;
+        } catch (InterruptedException e) {
+            throw GraknException.of(UNEXPECTED_INTERRUPTION);
+        } finally {
+            isSyncing = false;
+            batchChanged.signalAll();
+        }
+    }
+
+    @ThreadSafe
+    static class Metrics {
+
+        private final LongAdder commits;
+        private final LongAdder commitLatencyNanos;
+        private final AtomicLong commitLatencyMaxNanos;
+        private final LongAdder batches;
+        private final AtomicLong batchSizeMax;
+
+        private Metrics() {
+            commits = new LongAdder();
+            commitLatencyNanos = new LongAdder();
+            commitLatencyMaxNanos = new AtomicLong(0);
+            batches = new LongAdder();
+            batchSizeMax = new AtomicLong(0);
+        }
+
+        private void commitCompleted(long latencyNanos) {
+            commits.increment();
+            commitLatencyNanos.add(latencyNanos);
+            commitLatencyMaxNanos.accumulateAndGet(latencyNanos, Math::max);
+        }
+
+        private void batchSynced(long size) {
+            batches.increment();
+            batchSizeMax.accumulateAndGet(size, Math::max);
+        }
+
+        long commits() {
+            return commits.sum();
+        }
+
+        long batches() {
+            return batches.sum();
+        }
+
+        double meanBatchSize() {
+            long batches = batches();
+            return batches == 0 ? 0 : (double) commits() / batches;
+        }
+
+        long maxBatchSize() {
+            return batchSizeMax.get();
+        }
+
+        double meanCommitLatencyMillis() {
+            long commits = commits();
+            return commits == 0 ? 0 : (double) NANOSECONDS.toMicros(commitLatencyNanos.sum()) / commits / 1000;
+        }
+
+        double maxCommitLatencyMillis() {
+            return (double) NANOSECONDS.toMicros(commitLatencyMaxNanos.get()) / 1000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("group-commit: commits=%d, batches=%d, batch-size[mean=%.2f, max=%d], " +
+                                         "commit-latency-ms[mean=%.3f, max=%.3f]",
+                                 commits(), batches(), meanBatchSize(), maxBatchSize(),
+                                 meanCommitLatencyMillis(), maxCommitLatencyMillis());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Locks over individual keys, shared by every transaction of a database.
+ *
+ * A set of keys is locked by claiming each of its keys in ascending order, so
+ * that two transactions locking overlapping sets of keys can never deadlock,
+ * while transactions locking disjoint sets of keys never wait for each other.
+ * A key is only held in memory while it is locked. The locks are not owned by
+ * a thread, so they can be released by whichever thread closes the transaction.
+ */
+@ThreadSafe
+class KeyLocks {
+
+    private final ConcurrentMap<ByteBuffer, Locked> locks;
+
+    KeyLocks() {
+        locks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Blocks until every key in the given collection is locked.
+     *
+     * @param keys to be locked
+     * @return the keys that were locked, to be released through {@link Locked#unlock()}
+     */
+    Locked lock(Collection<byte[]> keys) {
+        TreeSet<ByteBuffer> sorted = new TreeSet<>();
+        for (byte[] key : keys) sorted.add(ByteBuffer.wrap(key));
+        Locked locked = new Locked(sorted.size());
+        for (ByteBuffer key : sorted) {
+            Locked holder;
+            while ((holder = locks.putIfAbsent(key, locked)) != null) holder.await();
+            locked.keys.add(key);
+        }
+        return locked;
+    }
+
+    class Locked {
+
+        private final List<ByteBuffer> keys;
+        private boolean isUnlocked;
+
+        private Locked(int size) {
+            keys = new ArrayList<>(size);
+            isUnlocked = false;
+        }
+
+        void unlock() {
+            for (ByteBuffer key : keys) locks.remove(key, this);
+            synchronized (this) {
+                isUnlocked = true;
+                notifyAll();
+            }
+        }
+
+        private synchronized void await() {
+            boolean isInterrupted = false;
+            while (!isUnlocked) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) Thread.currentThread().interrupt();
+        }
+    }
+}
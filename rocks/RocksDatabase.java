@@ -19,11 +19,11 @@
 package grakn.core.rocks;
 
 import grakn.common.collection.Pair;
-import grakn.common.concurrent.NamedThreadFactory;
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.common.parameters.Options;
+import grakn.core.graph.DataGraph;
 import grakn.core.graph.SchemaGraph;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.common.KeyGenerator;
@@ -31,8 +31,8 @@ import grakn.core.logic.LogicCache;
 import grakn.core.traversal.TraversalCache;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDBException;
-import org.rocksdb.Status;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -40,7 +40,6 @@ import java.nio.file.Path;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Stream;
@@ -48,8 +47,8 @@ import java.util.stream.Stream;
 import static grakn.core.common.exception.ErrorMessage.Database.DATABASE_CLOSED;
 import static grakn.core.common.exception.ErrorMessage.Internal.DIRTY_INITIALISATION;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
-import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
 import static grakn.core.common.exception.ErrorMessage.Session.SCHEMA_ACQUIRE_LOCK_TIMEOUT;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
 import static grakn.core.common.parameters.Arguments.Session.Type.SCHEMA;
 import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
 import static java.util.Comparator.reverseOrder;
@@ -61,12 +60,14 @@ public class RocksDatabase implements Grakn.Database {
     protected final OptimisticTransactionDB rocksData;
     protected final ConcurrentMap<UUID, Pair<RocksSession, Long>> sessions;
     protected final String name;
-    protected StatisticsBackgroundCounter statisticsBackgroundCounter;
-    protected RocksSession.Data statisticsBackgroundCounterSession;
     private final KeyGenerator.Schema.Persisted schemaKeyGenerator;
     private final KeyGenerator.Data.Persisted dataKeyGenerator;
     private final StampedLock schemaLock;
     private final RocksGrakn grakn;
+    private final GroupCommitter groupCommitter;
+    private final KeyLocks keyLocks;
+    private final TraversalCache.Metrics plannerMetrics;
+    private final DataGraph.ThingCache.Metrics thingCacheMetrics;
     private Cache cache;
 
     private final Factory.Session sessionFactory;
@@ -82,15 +83,26 @@ public class RocksDatabase implements Grakn.Database {
         dataKeyGenerator = new KeyGenerator.Data.Persisted();
         sessions = new ConcurrentHashMap<>();
         schemaLock = new StampedLock();
+        keyLocks = new KeyLocks();
+        plannerMetrics = new TraversalCache.Metrics();
+        thingCacheMetrics = new DataGraph.ThingCache.Metrics();
 
         try {
             String schemaDirPath = directory().resolve(Encoding.ROCKS_SCHEMA).toString();
             String dataDirPath = directory().resolve(Encoding.ROCKS_DATA).toString();
-            rocksSchema = OptimisticTransactionDB.open(this.grakn.rocksDBOptions(), schemaDirPath);
-            rocksData = OptimisticTransactionDB.open(this.grakn.rocksDBOptions(), dataDirPath);
+            rocksSchema = OptimisticTransactionDB.open(this.grakn.rocksSchemaOptions(), schemaDirPath);
+            rocksData = OptimisticTransactionDB.open(this.grakn.rocksDataOptions(), dataDirPath);
         } catch (RocksDBException e) {
             throw GraknException.of(e);
         }
+        BulkLoader.recover(rocksData, directory().resolve(Encoding.ROCKS_BULK_LOAD));
+        if (options().groupCommit()) {
+            groupCommitter = new GroupCommitter(
+                    rocksData, options().groupCommitWindowMillis(), options().groupCommitMaxBatchSize()
+            );
+        } else {
+            groupCommitter = null;
+        }
         isOpen = new AtomicBoolean(true);
     }
 
@@ -103,14 +115,12 @@ public class RocksDatabase implements Grakn.Database {
 
         RocksDatabase database = new RocksDatabase(grakn, name, sessionFactory, transactionSchemaFactory);
         database.initialise();
-        database.statisticsBgCounterStart();
         return database;
     }
 
     static RocksDatabase loadAndOpen(RocksGrakn grakn, String name, Factory.Session sessionFactory, Factory.TransactionSchema transactionSchemaFactory) {
         RocksDatabase database = new RocksDatabase(grakn, name, sessionFactory, transactionSchemaFactory);
         database.load();
-        database.statisticsBgCounterStart();
         return database;
     }
 
@@ -131,6 +141,11 @@ public class RocksDatabase implements Grakn.Database {
                 dataKeyGenerator.sync(txn.schemaStorage(), txn.dataStorage());
             }
         }
+        try (RocksSession.Data session = createAndOpenSession(DATA, new Options.Session()).asData()) {
+            try (RocksTransaction.Data txn = session.transaction(WRITE)) {
+                if (txn.traversal().graph().data().stats().migrateCountJobs()) txn.commit();
+            }
+        }
     }
 
     RocksSession createAndOpenSession(Arguments.Session.Type type, Options.Session options) {
@@ -182,24 +197,6 @@ public class RocksDatabase implements Grakn.Database {
         if (cache != null) cache.close();
     }
 
-    protected void statisticsBgCounterStart() {
-        assert statisticsBackgroundCounterSession == null;
-        assert statisticsBackgroundCounter == null;
-
-        statisticsBackgroundCounterSession = sessionFactory.sessionData(this, new Options.Session());
-        statisticsBackgroundCounter = new StatisticsBackgroundCounter(statisticsBackgroundCounterSession);
-    }
-
-    protected void statisticsBgCounterStop() {
-        assert statisticsBackgroundCounterSession != null;
-        assert statisticsBackgroundCounter != null;
-
-        statisticsBackgroundCounter.stop();
-        statisticsBackgroundCounter = null;
-        statisticsBackgroundCounterSession.close();
-        statisticsBackgroundCounterSession = null;
-    }
-
     protected Path directory() {
         return grakn.directory().resolve(name);
     }
@@ -220,10 +217,62 @@ public class RocksDatabase implements Grakn.Database {
         return schemaKeyGenerator;
     }
 
+    /**
+     * Get the {@code GroupCommitter} that merges the WAL syncs of concurrent data
+     * commits, if this database requires durable commits.
+     *
+     * @return the {@code GroupCommitter} of this database, or null if commits are not durable
+     */
+    @Nullable
+    GroupCommitter groupCommitter() {
+        return groupCommitter;
+    }
+
+    /**
+     * Get the metrics of the planners of this database, which outlive the cache
+     * of planners that is rebuilt whenever the schema changes.
+     *
+     * @return the {@code TraversalCache.Metrics} shared by every cache of planners of this database
+     */
+    TraversalCache.Metrics plannerMetrics() {
+        return plannerMetrics;
+    }
+
+    /**
+     * Get the metrics of the caches of persisted vertices of the read
+     * transactions of this database.
+     *
+     * @return the {@code DataGraph.ThingCache.Metrics} shared by every read transaction of this database
+     */
+    DataGraph.ThingCache.Metrics thingCacheMetrics() {
+        return thingCacheMetrics;
+    }
+
     KeyGenerator.Data dataKeyGenerator() {
         return dataKeyGenerator;
     }
 
+    /**
+     * Get the locks that serialise the commits of data transactions that update
+     * the same statistics, so that each transaction can check the latest committed
+     * statistics before writing its own.
+     *
+     * @return the {@code KeyLocks} shared by every data transaction of this database
+     */
+    KeyLocks keyLocks() {
+        return keyLocks;
+    }
+
+    /**
+     * Create a {@code BulkLoader} that writes its SST files into the bulk-load
+     * directory of this database, from which they are ingested into {@code rocksData}.
+     *
+     * @return a new {@code BulkLoader} for a single bulk-load transaction
+     */
+    BulkLoader bulkLoader() {
+        return new BulkLoader(rocksData, grakn.rocksDataOptions(), directory().resolve(Encoding.ROCKS_BULK_LOAD));
+    }
+
     /**
      * Get the lock that guarantees that the schema is not modified at the same
      * time as data being written to the database. When a schema session is
@@ -259,10 +308,8 @@ public class RocksDatabase implements Grakn.Database {
     }
 
     void remove(RocksSession session) {
-        if (statisticsBackgroundCounterSession != session) {
-            long lock = sessions.remove(session.uuid()).second();
-            if (session.type().isSchema()) schemaLock().unlockWrite(lock);
-        }
+        long lock = sessions.remove(session.uuid()).second();
+        if (session.type().isSchema()) schemaLock().unlockWrite(lock);
     }
 
     void close() {
@@ -277,7 +324,6 @@ public class RocksDatabase implements Grakn.Database {
      */
     protected void closeResources() {
         sessions.values().forEach(p -> p.first().close());
-        statisticsBgCounterStop();
         cacheClose();
         rocksData.close();
         rocksSchema.close();
@@ -298,6 +344,7 @@ public class RocksDatabase implements Grakn.Database {
 
         private final TraversalCache traversalCache;
         private final LogicCache logicCache;
+        private final DataGraph.Statistics.Samples statisticsSamples;
         private final SchemaGraph schemaGraph;
         private final RocksStorage schemaStorage;
         private long borrowerCount;
@@ -306,8 +353,9 @@ public class RocksDatabase implements Grakn.Database {
         private Cache(RocksDatabase database) {
             schemaStorage = new RocksStorage.Cache(database.rocksSchema());
             schemaGraph = new SchemaGraph(schemaStorage, true);
-            traversalCache = new TraversalCache();
+            traversalCache = new TraversalCache(database.plannerMetrics());
             logicCache = new LogicCache();
+            statisticsSamples = new DataGraph.Statistics.Samples();
             borrowerCount = 0L;
             invalidated = false;
         }
@@ -320,6 +368,10 @@ public class RocksDatabase implements Grakn.Database {
             return logicCache;
         }
 
+        public DataGraph.Statistics.Samples statisticsSamples() {
+            return statisticsSamples;
+        }
+
         public SchemaGraph schemaGraph() {
             return schemaGraph;
         }
@@ -348,66 +400,4 @@ public class RocksDatabase implements Grakn.Database {
             schemaStorage.close();
         }
     }
-
-    public static class StatisticsBackgroundCounter {
-        private final RocksSession.Data session;
-        private final Thread thread;
-        private final Semaphore countJobNotifications;
-        private boolean isStopped;
-
-        StatisticsBackgroundCounter(RocksSession.Data session) {
-            this.session = session;
-            countJobNotifications = new Semaphore(0);
-            thread = NamedThreadFactory.create(session.database().name + "::statistics-background-counter")
-                    .newThread(this::countFn);
-            thread.start();
-        }
-
-        public void needsBackgroundCounting() {
-            countJobNotifications.release();
-        }
-
-        private void countFn() {
-            do {
-                try (RocksTransaction.Data tx = session.transaction(WRITE)) {
-                    boolean shouldRestart = tx.graphMgr.data().stats().processCountJobs();
-                    if (shouldRestart) countJobNotifications.release();
-                    tx.commit();
-                } catch (GraknException e) {
-                    if (e.code().isPresent() && e.code().get().equals(DATABASE_CLOSED.code())) {
-                        break;
-                    } else {
-                        // TODO: Add specific code indicating rocksdb conflict to GraknException status code
-                        boolean txConflicted = e.getCause() instanceof RocksDBException &&
-                                ((RocksDBException) e.getCause()).getStatus().getCode() == Status.Code.Busy;
-                        if (txConflicted) {
-                            countJobNotifications.release();
-                        } else {
-                            throw e;
-                        }
-                    }
-                }
-                waitForCountJob();
-            } while (!isStopped);
-        }
-
-        private void waitForCountJob() {
-            try {
-                countJobNotifications.acquire();
-            } catch (InterruptedException e) {
-                throw GraknException.of(UNEXPECTED_INTERRUPTION);
-            }
-            countJobNotifications.drainPermits();
-        }
-
-        public void stop() {
-            try {
-                isStopped = true;
-                countJobNotifications.release();
-                thread.join();
-            } catch (InterruptedException e) {
-                throw GraknException.of(UNEXPECTED_INTERRUPTION);
-            }
-        }
-    }
 }
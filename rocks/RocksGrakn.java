@@ -25,10 +25,11 @@ import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.common.parameters.Options;
 import grakn.core.concurrent.common.Executors;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.MergeOperator;
 import org.rocksdb.RocksDB;
 import org.rocksdb.Statistics;
-import org.rocksdb.UInt64AddOperator;
-import org.rocksdb.util.SizeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,7 +53,11 @@ public class RocksGrakn implements Grakn {
     private final Path directory;
     private final Options.Database graknDBOptions;
     private final Statistics rocksDBStatistics;
-    private final org.rocksdb.Options rocksDBOptions;
+    private final Cache rocksBlockCache;
+    private final BloomFilter rocksBloomFilter;
+    private final MergeOperator rocksMergeOperator;
+    private final org.rocksdb.Options rocksSchemaOptions;
+    private final org.rocksdb.Options rocksDataOptions;
     private final RocksDatabaseManager databaseMgr;
     private final AtomicBoolean isOpen;
 
@@ -61,15 +66,15 @@ public class RocksGrakn implements Grakn {
         this.directory = directory;
         this.graknDBOptions = options;
         this.rocksDBStatistics = new Statistics();
-        this.rocksDBOptions = new org.rocksdb.Options()
-                .setCreateIfMissing(true)
-                .setStatistics(rocksDBStatistics)
-                .setWriteBufferSize(128 * SizeUnit.MB)
-                .setMaxWriteBufferNumber(4)
-                .setMaxWriteBufferNumberToMaintain(4)
-                .setMinWriteBufferNumberToMerge(2)
-                .setMaxBackgroundJobs(MAX_THREADS)
-                .setMergeOperator(new UInt64AddOperator());
+        this.rocksBlockCache = RocksOptions.blockCache(options);
+        this.rocksBloomFilter = RocksOptions.bloomFilter();
+        this.rocksMergeOperator = RocksOptions.mergeOperator();
+        this.rocksSchemaOptions = RocksOptions.schema(
+                rocksBlockCache, rocksBloomFilter, rocksMergeOperator, rocksDBStatistics
+        );
+        this.rocksDataOptions = RocksOptions.data(
+                options, rocksBlockCache, rocksBloomFilter, rocksMergeOperator, rocksDBStatistics
+        );
         this.databaseMgr = databaseMgrFactory.databaseManager(this);
         this.databaseMgr.loadAll();
         this.isOpen = new AtomicBoolean(true);
@@ -79,6 +84,10 @@ public class RocksGrakn implements Grakn {
         return open(directory, new Options.Database(), new RocksFactory());
     }
 
+    public static RocksGrakn open(Path directory, Options.Database options) {
+        return open(directory, options, new RocksFactory());
+    }
+
     public static RocksGrakn open(Path directory, Factory graknFactory) {
         return open(directory, new Options.Database(), graknFactory);
     }
@@ -91,8 +100,12 @@ public class RocksGrakn implements Grakn {
         return directory;
     }
 
-    org.rocksdb.Options rocksDBOptions() {
-        return rocksDBOptions;
+    org.rocksdb.Options rocksSchemaOptions() {
+        return rocksSchemaOptions;
+    }
+
+    org.rocksdb.Options rocksDataOptions() {
+        return rocksDataOptions;
     }
 
     public Options.Database options() {
@@ -130,7 +143,15 @@ public class RocksGrakn implements Grakn {
 
     @Override
     public String statistics() {
-        return rocksDBStatistics.toString();
+        StringBuilder statistics = new StringBuilder(rocksDBStatistics.toString());
+        databaseMgr.all().forEach(database -> {
+            statistics.append(database.name()).append(" ").append(database.plannerMetrics()).append("\n");
+            statistics.append(database.name()).append(" ").append(database.thingCacheMetrics()).append("\n");
+            if (database.groupCommitter() != null) {
+                statistics.append(database.name()).append(" ").append(database.groupCommitter().metrics()).append("\n");
+            }
+        });
+        return statistics.toString();
     }
 
     /**
@@ -139,6 +160,10 @@ public class RocksGrakn implements Grakn {
      */
     protected void closeResources() {
         databaseMgr.all().parallelStream().forEach(RocksDatabase::close);
-        rocksDBOptions.close();
+        rocksSchemaOptions.close();
+        rocksDataOptions.close();
+        rocksBlockCache.close();
+        rocksBloomFilter.close();
+        rocksMergeOperator.close();
     }
 }
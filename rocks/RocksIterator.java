@@ -19,58 +19,181 @@
 package grakn.core.rocks;
 
 import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.graph.common.Storage;
+import grakn.core.graph.iid.IIDView;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.Slice;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
 
-public final class RocksIterator<T> extends AbstractResourceIterator<T> implements AutoCloseable {
+public final class RocksIterator<T> extends AbstractResourceIterator<T> implements Storage.Seekable<T>, AutoCloseable {
 
+    private final byte[] seekKey;
     private final byte[] prefix;
     private final RocksStorage storage;
+    private final boolean isPrefixSeek;
+    private final Slice upperBound;
+    private final ReadOptions readOptions;
     private final AtomicBoolean isOpen;
     private final BiFunction<byte[], byte[], T> constructor;
+    private final Function<IIDView, T> keyConstructor;
     private org.rocksdb.RocksIterator internalRocksIterator;
+    private ByteBuffer keyBuffer;
+    private IIDView keyView;
     private State state;
     private T next;
 
     private enum State {INIT, EMPTY, FETCHED, COMPLETED}
 
-    RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor) {
+    RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor, Storage.Scan scan) {
+        this(storage, prefix, constructor, null, scan);
+    }
+
+    /**
+     * Creates an iterator over every key with the given prefix, which reads each
+     * key into a direct buffer that is reused for every key, and never reads the
+     * values. The elements are constructed from an {@code IIDView} over the buffer,
+     * so that only the bytes needed by each element are copied onto the heap.
+     */
+    RocksIterator(RocksStorage storage, byte[] prefix, Function<IIDView, T> keyConstructor, Storage.Scan scan) {
+        this(storage, prefix, null, keyConstructor, scan);
+    }
+
+    /**
+     * Creates an iterator over every key with the given prefix. A short scan
+     * shares the read options of the storage, and stops once it reads a key
+     * without the prefix. A long scan is given its own read options, bounded
+     * by the first key after every key with the prefix.
+     */
+    private RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor,
+                          Function<IIDView, T> keyConstructor, Storage.Scan scan) {
+        assert constructor != null ^ keyConstructor != null;
         this.storage = storage;
+        this.seekKey = prefix;
+        this.constructor = constructor;
+        this.keyConstructor = keyConstructor;
+        if (scan == Storage.Scan.LONG) {
+            byte[] upperBoundBytes = upperBound(prefix);
+            this.upperBound = upperBoundBytes != null ? new Slice(upperBoundBytes) : null;
+            this.readOptions = storage.newReadOptions(upperBound, scan);
+            this.isPrefixSeek = false;
+        } else {
+            this.upperBound = null;
+            this.readOptions = null;
+            this.isPrefixSeek = storage.isPrefixSeekable(prefix);
+        }
         this.prefix = prefix;
+
+        isOpen = new AtomicBoolean(true);
+        state = State.INIT;
+    }
+
+    /**
+     * Creates an iterator over every key from the lower bound, inclusive, up to
+     * the upper bound, exclusive, with its own read options bounded by the upper bound.
+     */
+    RocksIterator(RocksStorage storage, byte[] lowerBound, byte[] upperBound,
+                  BiFunction<byte[], byte[], T> constructor, Storage.Scan scan) {
+        this.storage = storage;
+        this.seekKey = lowerBound;
+        this.prefix = null;
         this.constructor = constructor;
+        this.keyConstructor = null;
+        this.upperBound = new Slice(upperBound);
+        this.readOptions = storage.newReadOptions(this.upperBound, scan);
+        this.isPrefixSeek = false;
 
         isOpen = new AtomicBoolean(true);
         state = State.INIT;
     }
 
+    private static byte[] upperBound(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] upperBound = Arrays.copyOf(prefix, i + 1);
+                upperBound[i]++;
+                return upperBound;
+            }
+        }
+        return null;
+    }
+
     private void initalise() {
-        this.internalRocksIterator = storage.getInternalRocksIterator();
-        this.internalRocksIterator.seek(prefix);
+        if (readOptions != null) this.internalRocksIterator = storage.getInternalRocksIterator(readOptions);
+        else this.internalRocksIterator = storage.getInternalRocksIterator(isPrefixSeek);
+        this.internalRocksIterator.seek(seekKey);
+        if (keyConstructor != null) {
+            keyBuffer = storage.borrowKeyBuffer();
+            keyView = IIDView.of(keyBuffer);
+        }
     }
 
     private boolean fetchAndCheck() {
-        byte[] key;
-        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix)) {
-            state = State.COMPLETED;
-            recycle();
-            return false;
+        if (!internalRocksIterator.isValid()) return complete();
+        if (keyConstructor != null) {
+            IIDView key = readKeyView();
+            if (prefix != null && !key.hasPrefix(prefix)) return complete();
+            next = keyConstructor.apply(key);
+        } else {
+            byte[] key = internalRocksIterator.key();
+            if (prefix != null && !bytesHavePrefix(key, prefix)) return complete();
+            next = constructor.apply(key, internalRocksIterator.value());
         }
-
-        next = constructor.apply(key, internalRocksIterator.value());
         internalRocksIterator.next();
         state = State.FETCHED;
         return true;
     }
 
+    /**
+     * Reads the current key into the key buffer. A key longer than the buffer
+     * is read again into a larger buffer, and the smaller buffer is returned to
+     * the storage, while the larger one is returned once this iterator closes.
+     */
+    private IIDView readKeyView() {
+        keyBuffer.clear();
+        int length = internalRocksIterator.key(keyBuffer);
+        if (length > keyBuffer.capacity()) {
+            storage.unborrowKeyBuffer(keyBuffer);
+            keyBuffer = ByteBuffer.allocateDirect(Math.max(length, keyBuffer.capacity() * 2));
+            keyView = IIDView.of(keyBuffer);
+            internalRocksIterator.key(keyBuffer);
+        }
+        return keyView;
+    }
+
+    private boolean complete() {
+        state = State.COMPLETED;
+        recycle();
+        return false;
+    }
+
+    @Override
     public final T peek() {
         if (!hasNext()) throw new NoSuchElementException();
         return next;
     }
 
+    /**
+     * Moves the iterator forward to the first key that is no smaller than the
+     * given key, which must not be smaller than the last key that was returned.
+     * An element that was fetched but not returned is discarded, and fetched
+     * again if its key is no smaller than the given key.
+     */
+    @Override
+    public final void seek(byte[] key) {
+        if (state == State.COMPLETED) return;
+        else if (state == State.INIT) initalise();
+        internalRocksIterator.seek(key);
+        state = State.EMPTY;
+    }
+
     @Override
     public final boolean hasNext() {
         switch (state) {
@@ -103,7 +226,13 @@ public final class RocksIterator<T> extends AbstractResourceIterator<T> implemen
     @Override
     public void close() {
         if (isOpen.compareAndSet(true, false)) {
-            if (state != State.INIT) storage.recycle(internalRocksIterator);
+            if (state != State.INIT) {
+                if (readOptions != null) internalRocksIterator.close();
+                else storage.recycle(internalRocksIterator, isPrefixSeek);
+            }
+            if (keyBuffer != null) storage.unborrowKeyBuffer(keyBuffer);
+            if (readOptions != null) readOptions.close();
+            if (upperBound != null) upperBound.close();
             state = State.COMPLETED;
             storage.remove(this);
         }
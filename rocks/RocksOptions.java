@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.iid.EdgeIID;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.MergeOperator;
+import org.rocksdb.Statistics;
+import org.rocksdb.UInt64AddOperator;
+import org.rocksdb.util.SizeUnit;
+
+/**
+ * Builds the RocksDB options of the schema and data storage of every database,
+ * following the storage profile selected in the {@code Options.Database}.
+ *
+ * Both storages of every database share the same LRU block cache, so that the
+ * memory spent on caching blocks is bounded by a single configurable budget.
+ * The schema storage is small and rarely written, so it is given small write
+ * buffers regardless of the profile, whereas the data storage is tuned for the
+ * workload of the profile.
+ *
+ * Every storage has a bloom filter on whole keys, to skip SST files on point
+ * lookups. The data storage also extracts a prefix from every key, capped to
+ * the length of a thing vertex IID followed by an edge infix, and keeps a bloom
+ * filter on those prefixes. This allows the adjacency seeks of thing vertices
+ * to skip every SST file and memtable that holds no edge of the vertex.
+ *
+ * The block cache, bloom filter and merge operator are native objects that are
+ * shared by the options of every database, so they are created here but owned
+ * and closed by the caller, once every database using them is closed.
+ */
+class RocksOptions {
+
+    private static final int MAX_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final long SCHEMA_WRITE_BUFFER_SIZE = 4 * SizeUnit.MB;
+    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
+    private static final double MEMTABLE_PREFIX_BLOOM_SIZE_RATIO = 0.1;
+    static final int DATA_PREFIX_LENGTH = EdgeIID.Thing.PREFIX_LENGTH;
+
+    private RocksOptions() {}
+
+    static org.rocksdb.Options schema(Cache blockCache, BloomFilter bloomFilter, MergeOperator mergeOperator,
+                                      Statistics statistics) {
+        return base(mergeOperator, statistics)
+                .setWriteBufferSize(SCHEMA_WRITE_BUFFER_SIZE)
+                .setMaxWriteBufferNumber(2)
+                .setMinWriteBufferNumberToMerge(1)
+                .setMaxBackgroundJobs(2)
+                .setCompactionStyle(CompactionStyle.LEVEL)
+                .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                .setTableFormatConfig(tableConfig(blockCache, bloomFilter).setCacheIndexAndFilterBlocks(true));
+    }
+
+    static org.rocksdb.Options data(Options.Database options, Cache blockCache, BloomFilter bloomFilter,
+                                    MergeOperator mergeOperator, Statistics statistics) {
+        long writeBufferSize = options.storageWriteBufferSizeMB() * SizeUnit.MB;
+        org.rocksdb.Options rocksOptions = base(mergeOperator, statistics).setWriteBufferSize(writeBufferSize);
+        BlockBasedTableConfig tableConfig = tableConfig(blockCache, bloomFilter);
+        switch (options.storageProfile()) {
+            case DEFAULT:
+                rocksOptions.setMaxWriteBufferNumber(4)
+                        .setMaxWriteBufferNumberToMaintain(4)
+                        .setMinWriteBufferNumberToMerge(2)
+                        .setMaxBackgroundJobs(MAX_THREADS)
+                        .setCompactionStyle(CompactionStyle.LEVEL)
+                        .setCompressionType(CompressionType.LZ4_COMPRESSION);
+                break;
+            case READ_HEAVY:
+                rocksOptions.setMaxWriteBufferNumber(2)
+                        .setMinWriteBufferNumberToMerge(1)
+                        .setMaxBackgroundJobs(MAX_THREADS)
+                        .setCompactionStyle(CompactionStyle.LEVEL)
+                        .setLevelCompactionDynamicLevelBytes(true)
+                        .setCompressionType(CompressionType.LZ4_COMPRESSION);
+                tableConfig.setBlockSize(16 * SizeUnit.KB)
+                        .setCacheIndexAndFilterBlocks(true)
+                        .setPinL0FilterAndIndexBlocksInCache(true);
+                break;
+            case WRITE_HEAVY:
+                rocksOptions.setMaxWriteBufferNumber(6)
+                        .setMaxWriteBufferNumberToMaintain(6)
+                        .setMinWriteBufferNumberToMerge(2)
+                        .setMaxBackgroundJobs(MAX_THREADS * 2)
+                        .setCompactionStyle(CompactionStyle.LEVEL)
+                        .setLevelCompactionDynamicLevelBytes(true)
+                        .setLevel0SlowdownWritesTrigger(40)
+                        .setLevel0StopWritesTrigger(56)
+                        .setCompressionType(CompressionType.LZ4_COMPRESSION)
+                        .setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+                break;
+            case BULK_LOAD:
+                rocksOptions.setMaxWriteBufferNumber(6)
+                        .setMinWriteBufferNumberToMerge(2)
+                        .setMaxBackgroundJobs(MAX_THREADS * 2)
+                        .setCompactionStyle(CompactionStyle.UNIVERSAL)
+                        .setLevel0SlowdownWritesTrigger(64)
+                        .setLevel0StopWritesTrigger(128)
+                        .setCompressionType(CompressionType.NO_COMPRESSION)
+                        .setBottommostCompressionType(CompressionType.LZ4_COMPRESSION);
+                break;
+            case LOW_MEMORY:
+                rocksOptions.setMaxWriteBufferNumber(2)
+                        .setMinWriteBufferNumberToMerge(1)
+                        .setMaxBackgroundJobs(Math.min(2, MAX_THREADS))
+                        .setCompactionStyle(CompactionStyle.LEVEL)
+                        .setCompressionType(CompressionType.LZ4_COMPRESSION);
+                tableConfig.setCacheIndexAndFilterBlocks(true);
+                break;
+            default:
+                assert false;
+        }
+        return rocksOptions.useCappedPrefixExtractor(DATA_PREFIX_LENGTH)
+                .setMemtablePrefixBloomSizeRatio(MEMTABLE_PREFIX_BLOOM_SIZE_RATIO)
+                .setTableFormatConfig(tableConfig);
+    }
+
+    private static org.rocksdb.Options base(MergeOperator mergeOperator, Statistics statistics) {
+        return new org.rocksdb.Options()
+                .setCreateIfMissing(true)
+                .setStatistics(statistics)
+                .setMergeOperator(mergeOperator);
+    }
+
+    private static BlockBasedTableConfig tableConfig(Cache blockCache, BloomFilter bloomFilter) {
+        return new BlockBasedTableConfig().setBlockCache(blockCache)
+                .setFilterPolicy(bloomFilter)
+                .setWholeKeyFiltering(true);
+    }
+
+    static Cache blockCache(Options.Database options) {
+        return new LRUCache(options.storageBlockCacheSizeMB() * SizeUnit.MB);
+    }
+
+    static BloomFilter bloomFilter() {
+        return new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
+    }
+
+    static MergeOperator mergeOperator() {
+        return new UInt64AddOperator();
+    }
+}
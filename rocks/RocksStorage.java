@@ -20,61 +20,89 @@ package grakn.core.rocks;
 
 import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.Iterators;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.concurrent.common.ConcurrentSet;
+import grakn.core.concurrent.producer.ProducerIterator;
 import grakn.core.graph.common.KeyGenerator;
 import grakn.core.graph.common.Storage;
+import grakn.core.graph.iid.IIDView;
 import org.rocksdb.AbstractImmutableNativeReference;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.OptimisticTransactionOptions;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Slice;
 import org.rocksdb.Snapshot;
 import org.rocksdb.Transaction;
 import org.rocksdb.WriteOptions;
+import org.rocksdb.util.SizeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_LOAD_DELETE_VIOLATION;
+import static grakn.core.common.exception.ErrorMessage.Transaction.BULK_LOAD_INGEST_FAILURE;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_CLOSED;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_DATA_READ_VIOLATION;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_SCHEMA_READ_VIOLATION;
+import static grakn.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
+import static grakn.core.concurrent.common.Executors.PARALLELISATION_FACTOR;
+import static grakn.core.concurrent.common.Executors.asyncPool1;
+import static grakn.core.concurrent.producer.Producers.async;
+import static grakn.core.concurrent.producer.Producers.produce;
 
 public abstract class RocksStorage implements Storage {
 
     private static final Logger LOG = LoggerFactory.getLogger(RocksStorage.class);
     private static final byte[] EMPTY_ARRAY = new byte[]{};
+    private static final long LONG_SCAN_READAHEAD_SIZE = 2 * SizeUnit.MB;
+    private static final int KEY_BUFFER_SIZE = 256;
 
     protected final ConcurrentSet<RocksIterator<?>> iterators;
     protected final Transaction storageTransaction;
     protected final ReadOptions readOptions;
+    protected final ReadOptions prefixReadOptions;
     protected final boolean isReadOnly;
 
     private final ConcurrentLinkedQueue<org.rocksdb.RocksIterator> recycled;
+    private final ConcurrentLinkedQueue<org.rocksdb.RocksIterator> recycledPrefixSeek;
+    private final ConcurrentLinkedQueue<ByteBuffer> keyBuffers;
     private final OptimisticTransactionOptions transactionOptions;
     private final WriteOptions writeOptions;
     private final AtomicBoolean isOpen;
     private final Snapshot snapshot;
 
-    private RocksStorage(OptimisticTransactionDB rocksDB, boolean isReadOnly) {
+    private RocksStorage(OptimisticTransactionDB rocksDB, boolean isReadOnly, WriteOptions writeOptions) {
         this.isReadOnly = isReadOnly;
+        this.writeOptions = writeOptions;
         iterators = new ConcurrentSet<>();
         recycled = new ConcurrentLinkedQueue<>();
-        writeOptions = new WriteOptions().setDisableWAL(true);
+        recycledPrefixSeek = new ConcurrentLinkedQueue<>();
+        keyBuffers = new ConcurrentLinkedQueue<>();
         transactionOptions = new OptimisticTransactionOptions().setSetSnapshot(true);
         storageTransaction = rocksDB.beginTransaction(writeOptions, transactionOptions);
         snapshot = storageTransaction.getSnapshot();
-        readOptions = new ReadOptions().setSnapshot(snapshot);
+        readOptions = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(true);
+        prefixReadOptions = new ReadOptions().setSnapshot(snapshot).setPrefixSameAsStart(true);
         isOpen = new AtomicBoolean(true);
     }
 
@@ -118,16 +146,108 @@ public abstract class RocksStorage implements Storage {
         throw exception(ILLEGAL_OPERATION);
     }
 
+    /**
+     * Returns true if an iteration over the given prefix can be served by a
+     * prefix seek, i.e. if the prefix is at least as long as the prefix that
+     * the prefix extractor of the underlying RocksDB extracts from every key.
+     * Shorter prefixes must be iterated with a total order seek instead, as
+     * their keys do not share the same extracted prefix.
+     *
+     * @param prefix of the keys to iterate over
+     * @return true if the prefix can be iterated with a prefix seek
+     */
+    boolean isPrefixSeekable(byte[] prefix) {
+        return false;
+    }
+
+    @Override
+    public <G> ResourceIterator<G> iterate(byte[] prefix, BiFunction<byte[], byte[], G> constructor) {
+        return iterate(prefix, constructor, Scan.SHORT);
+    }
+
+    @Override
+    public <G> ResourceIterator<G> iterate(byte[] prefix, BiFunction<byte[], byte[], G> constructor, Scan scan) {
+        return iterate(new RocksIterator<>(this, prefix, constructor, scan));
+    }
+
+    @Override
+    public <G> ResourceIterator<G> iterate(byte[] lowerBound, byte[] upperBound,
+                                           BiFunction<byte[], byte[], G> constructor, Scan scan) {
+        return iterate(new RocksIterator<>(this, lowerBound, upperBound, constructor, scan));
+    }
+
+    @Override
+    public <G> ResourceIterator<G> iterateKeys(byte[] prefix, Function<IIDView, G> constructor) {
+        return iterateKeys(prefix, constructor, Scan.SHORT);
+    }
+
+    @Override
+    public <G> ResourceIterator<G> iterateKeys(byte[] prefix, Function<IIDView, G> constructor, Scan scan) {
+        return iterate(new RocksIterator<>(this, prefix, constructor, scan));
+    }
+
+    @Override
+    public <G> Storage.Seekable<G> iterateSeekableKeys(byte[] prefix, Function<IIDView, G> constructor) {
+        RocksIterator<G> iterator = new RocksIterator<>(this, prefix, constructor, Scan.SHORT);
+        iterate(iterator);
+        return iterator;
+    }
+
+    abstract <G> ResourceIterator<G> iterate(RocksIterator<G> iterator);
+
+    /**
+     * Borrows a direct buffer for an iterator to read its keys into, which is
+     * reused across the iterators of this storage, as direct buffers are
+     * expensive to allocate.
+     *
+     * @return a direct buffer to be returned through {@link #unborrowKeyBuffer(ByteBuffer)}
+     */
+    ByteBuffer borrowKeyBuffer() {
+        ByteBuffer buffer = keyBuffers.poll();
+        if (buffer != null) return buffer;
+        else return ByteBuffer.allocateDirect(KEY_BUFFER_SIZE);
+    }
+
+    void unborrowKeyBuffer(ByteBuffer buffer) {
+        keyBuffers.add(buffer);
+    }
+
+    /**
+     * Creates the {@code ReadOptions} of an iterator that does not share the
+     * read options of this storage, as it has its own upper bound or is a long
+     * scan. A long scan reads ahead from disk, and does not fill the block cache
+     * with blocks that are unlikely to be read again.
+     *
+     * @param upperBound of the iterator, or null if the iterator is not bounded
+     * @param scan       hint on the expected length of the iteration
+     * @return new {@code ReadOptions} on the snapshot of this storage, to be closed by the iterator
+     */
+    ReadOptions newReadOptions(@Nullable Slice upperBound, Scan scan) {
+        ReadOptions options = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(true);
+        if (upperBound != null) options.setIterateUpperBound(upperBound);
+        if (scan == Scan.LONG) options.setReadaheadSize(LONG_SCAN_READAHEAD_SIZE).setFillCache(false);
+        return options;
+    }
+
+    org.rocksdb.RocksIterator getInternalRocksIterator(ReadOptions readOptions) {
+        return storageTransaction.getIterator(readOptions);
+    }
+
     org.rocksdb.RocksIterator getInternalRocksIterator() {
+        return getInternalRocksIterator(false);
+    }
+
+    org.rocksdb.RocksIterator getInternalRocksIterator(boolean isPrefixSeek) {
         if (isReadOnly) {
-            org.rocksdb.RocksIterator iterator = recycled.poll();
+            org.rocksdb.RocksIterator iterator = isPrefixSeek ? recycledPrefixSeek.poll() : recycled.poll();
             if (iterator != null) return iterator;
         }
-        return storageTransaction.getIterator(readOptions);
+        return storageTransaction.getIterator(isPrefixSeek ? prefixReadOptions : readOptions);
     }
 
-    void recycle(org.rocksdb.RocksIterator rocksIterator) {
-        recycled.add(rocksIterator);
+    void recycle(org.rocksdb.RocksIterator rocksIterator, boolean isPrefixSeek) {
+        if (isPrefixSeek) recycledPrefixSeek.add(rocksIterator);
+        else recycled.add(rocksIterator);
     }
 
     void remove(RocksIterator<?> iterator) {
@@ -155,10 +275,12 @@ public abstract class RocksStorage implements Storage {
         if (isOpen.compareAndSet(true, false)) {
             iterators.parallelStream().forEach(RocksIterator::close);
             recycled.forEach(AbstractImmutableNativeReference::close);
+            recycledPrefixSeek.forEach(AbstractImmutableNativeReference::close);
             snapshot.close();
             storageTransaction.close();
             transactionOptions.close();
             readOptions.close();
+            prefixReadOptions.close();
             writeOptions.close();
         }
     }
@@ -166,7 +288,7 @@ public abstract class RocksStorage implements Storage {
     static class Cache extends RocksStorage {
 
         public Cache(OptimisticTransactionDB rocksDB) {
-            super(rocksDB, true);
+            super(rocksDB, true, new WriteOptions().setDisableWAL(true));
         }
 
         @Override
@@ -180,9 +302,8 @@ public abstract class RocksStorage implements Storage {
         }
 
         @Override
-        public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+        <G> ResourceIterator<G> iterate(RocksIterator<G> iterator) {
             assert isOpen();
-            RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
             iterators.add(iterator);
             return iterator.onFinalise(iterator::close);
         }
@@ -193,8 +314,8 @@ public abstract class RocksStorage implements Storage {
         protected final ReadWriteLock readWriteLock;
         protected final RocksTransaction transaction;
 
-        TransactionBounded(OptimisticTransactionDB rocksDB, RocksTransaction transaction) {
-            super(rocksDB, transaction.type().isRead());
+        TransactionBounded(OptimisticTransactionDB rocksDB, RocksTransaction transaction, WriteOptions writeOptions) {
+            super(rocksDB, transaction.type().isRead(), writeOptions);
             this.transaction = transaction;
             readWriteLock = new StampedLock().asReadWriteLock();
         }
@@ -245,9 +366,8 @@ public abstract class RocksStorage implements Storage {
         }
 
         @Override
-        public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+        <G> ResourceIterator<G> iterate(RocksIterator<G> iterator) {
             if (!isOpen()) throw GraknException.of(TRANSACTION_CLOSED);
-            RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
             iterators.add(iterator);
             return iterator;
         }
@@ -281,10 +401,19 @@ public abstract class RocksStorage implements Storage {
         private final KeyGenerator.Schema schemaKeyGenerator;
 
         public Schema(RocksDatabase database, RocksTransaction transaction) {
-            super(database.rocksSchema, transaction);
+            super(database.rocksSchema, transaction, schemaWriteOptions(database));
             this.schemaKeyGenerator = database.schemaKeyGenerator();
         }
 
+        /**
+         * Schema commits are rare, so when the database requires durable commits,
+         * each schema commit syncs the WAL on its own rather than joining a group commit.
+         */
+        private static WriteOptions schemaWriteOptions(RocksDatabase database) {
+            if (database.options().groupCommit()) return new WriteOptions().setSync(true);
+            else return new WriteOptions().setDisableWAL(true);
+        }
+
         @Override
         public KeyGenerator.Schema schemaKeyGenerator() {
             return schemaKeyGenerator;
@@ -317,14 +446,126 @@ public abstract class RocksStorage implements Storage {
         }
     }
 
+    /**
+     * Data storage of a transaction, which is not thread-safe for writes,
+     * except for the writes performed inside {@link #writeParallel(List, Consumer)}.
+     */
     @NotThreadSafe
     public static class Data extends TransactionBounded implements Storage.Data {
 
         private final KeyGenerator.Data dataKeyGenerator;
+        private final GroupCommitter groupCommitter;
+        private final BulkLoader bulkLoader;
+        private final KeyLocks keyLocks;
+        private final ReadOptions latestReadOptions;
+        private volatile ConcurrentMap<Thread, WriteBuffer> writeBuffers;
+        private List<byte[]> lockedKeys;
+        private Consumer<List<byte[]>> lockedWriter;
+        private KeyLocks.Locked locked;
+        private boolean isWritingLocked;
 
         public Data(RocksDatabase database, RocksTransaction transaction) {
-            super(database.rocksData, transaction);
+            super(database.rocksData, transaction, new WriteOptions().setDisableWAL(database.groupCommitter() == null));
             this.dataKeyGenerator = database.dataKeyGenerator();
+            this.groupCommitter = database.groupCommitter();
+            this.keyLocks = database.keyLocks();
+            this.latestReadOptions = new ReadOptions();
+            this.writeBuffers = null;
+            this.lockedKeys = null;
+            this.lockedWriter = null;
+            this.locked = null;
+            this.isWritingLocked = false;
+            if (transaction.isData() && transaction.type().isWrite() && transaction.context().options().bulkLoad()) {
+                this.bulkLoader = database.bulkLoader();
+            } else {
+                this.bulkLoader = null;
+            }
+        }
+
+        /**
+         * Commits the writes of this storage transaction into RocksDB.
+         *
+         * If this is a bulk-load transaction, the data written to the {@code BulkLoader}
+         * is prepared into a single SST file first, and only the statistics merges are
+         * committed through the RocksDB transaction. The SST file is only ingested once
+         * that commit succeeded, so a failed commit leaves none of the data visible.
+         * If the database requires durable commits, the writes are appended to the WAL
+         * without syncing it, and we then wait for the {@code GroupCommitter} to sync
+         * the WAL once for every commit that joined the same batch.
+         *
+         * The keys registered through {@link #writeOnCommit(List, Consumer)} are only
+         * locked once everything else is ready to be committed, and are released as
+         * soon as the writes are visible, without waiting for the ingestion of any
+         * bulk-loaded data or for the WAL to be synced.
+         */
+        @Override
+        public void commit() throws RocksDBException {
+            try {
+                if (bulkLoader != null) bulkLoader.prepare();
+                if (lockedWriter != null) writeLocked();
+                super.commit();
+            } finally {
+                unlockKeys();
+            }
+            if (bulkLoader != null) {
+                try {
+                    bulkLoader.ingest();
+                } catch (RocksDBException e) {
+                    LOG.error(e.getMessage(), e);
+                    throw exception(BULK_LOAD_INGEST_FAILURE);
+                }
+            }
+            if (groupCommitter != null) groupCommitter.awaitDurable();
+        }
+
+        @Override
+        public void rollback() throws RocksDBException {
+            try {
+                if (bulkLoader != null) bulkLoader.clear();
+                super.rollback();
+            } finally {
+                unlockKeys();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (bulkLoader != null && isOpen()) bulkLoader.clear();
+            unlockKeys();
+            if (isOpen()) latestReadOptions.close();
+            super.close();
+        }
+
+        @Override
+        public void writeOnCommit(List<byte[]> keys, Consumer<List<byte[]>> writer) {
+            assert isOpen() && !isReadOnly && lockedWriter == null;
+            lockedKeys = keys;
+            lockedWriter = writer;
+        }
+
+        /**
+         * Locks the keys registered for the commit, reads their latest committed
+         * values in a single batch, and runs the writer registered with them. The
+         * writes of the writer go straight into the RocksDB transaction, even in a
+         * bulk-load transaction, as they must be visible to the next transaction to
+         * lock the same keys as soon as the locks are released.
+         */
+        private void writeLocked() throws RocksDBException {
+            locked = keyLocks.lock(lockedKeys);
+            byte[][] latest = storageTransaction.multiGet(latestReadOptions, lockedKeys.toArray(new byte[0][]));
+            isWritingLocked = true;
+            try {
+                lockedWriter.accept(Arrays.asList(latest));
+            } finally {
+                isWritingLocked = false;
+            }
+        }
+
+        private void unlockKeys() {
+            if (locked != null) {
+                locked.unlock();
+                locked = null;
+            }
         }
 
         @Override
@@ -332,33 +573,165 @@ public abstract class RocksStorage implements Storage {
             return dataKeyGenerator;
         }
 
+        @Override
+        boolean isPrefixSeekable(byte[] prefix) {
+            return prefix.length >= RocksOptions.DATA_PREFIX_LENGTH;
+        }
+
+        /**
+         * Runs the {@code writer} over the partitions concurrently, on the async pool.
+         *
+         * A RocksDB {@code Transaction} cannot be written to concurrently, and an
+         * optimistic transaction cannot absorb a {@code WriteBatch} without losing
+         * its conflict tracking. So while the partitions are being written, every
+         * write is captured in a {@code WriteBuffer} owned by the writing thread,
+         * and once all partitions are complete, the buffers are replayed into the
+         * storage transaction from the calling thread.
+         */
+        @Override
+        public <T> void writeParallel(List<List<T>> partitions, Consumer<T> writer) {
+            assert isOpen() && !isReadOnly && writeBuffers == null;
+            if (partitions.size() == 1) {
+                partitions.get(0).forEach(writer);
+                return;
+            }
+
+            ConcurrentMap<Thread, WriteBuffer> buffers = new ConcurrentHashMap<>();
+            writeBuffers = buffers;
+            try {
+                ProducerIterator<Void> writes = produce(async(Iterators.iterate(partitions).map(
+                        partition -> Iterators.iterate(partition).map(item -> {
+                            writer.accept(item);
+                            return (Void) null;
+                        })
+                ), PARALLELISATION_FACTOR), EXHAUSTIVE, asyncPool1());
+                while (writes.hasNext()) writes.next();
+            } finally {
+                writeBuffers = null;
+            }
+            for (WriteBuffer buffer : buffers.values()) buffer.writeTo(this);
+        }
+
+        private WriteBuffer writeBuffer() {
+            ConcurrentMap<Thread, WriteBuffer> buffers = writeBuffers;
+            if (buffers == null) return null;
+            else return buffers.computeIfAbsent(Thread.currentThread(), thread -> new WriteBuffer());
+        }
+
+        @Override
+        public void delete(byte[] key) {
+            WriteBuffer buffer = writeBuffer();
+            if (bulkLoader != null) throw exception(BULK_LOAD_DELETE_VIOLATION);
+            else if (buffer != null) buffer.add(WriteBuffer.Operation.DELETE, key, null);
+            else super.delete(key);
+        }
+
+        @Override
+        public void deleteUntracked(byte[] key) {
+            assert isOpen() && !isReadOnly;
+            WriteBuffer buffer = writeBuffer();
+            if (bulkLoader != null && !isWritingLocked) throw exception(BULK_LOAD_DELETE_VIOLATION);
+            else if (buffer != null) buffer.add(WriteBuffer.Operation.DELETE_UNTRACKED, key, null);
+            else {
+                try {
+                    storageTransaction.deleteUntracked(key);
+                } catch (RocksDBException e) {
+                    throw exception(e);
+                }
+            }
+        }
+
         @Override
         public void put(byte[] key, byte[] value) {
             assert isOpen() && !isReadOnly;
-            try {
-                storageTransaction.put(key, value);
-            } catch (RocksDBException e) {
-                throw exception(e);
+            WriteBuffer buffer = writeBuffer();
+            if (buffer != null) buffer.add(WriteBuffer.Operation.PUT, key, value);
+            else if (bulkLoader != null) bulkLoader.put(key, value);
+            else {
+                try {
+                    storageTransaction.put(key, value);
+                } catch (RocksDBException e) {
+                    throw exception(e);
+                }
             }
         }
 
         @Override
         public void putUntracked(byte[] key, byte[] value) {
             assert isOpen() && !isReadOnly;
-            try {
-                storageTransaction.putUntracked(key, value);
-            } catch (RocksDBException e) {
-                throw exception(e);
+            WriteBuffer buffer = writeBuffer();
+            if (buffer != null) buffer.add(WriteBuffer.Operation.PUT_UNTRACKED, key, value);
+            else if (bulkLoader != null && !isWritingLocked) bulkLoader.put(key, value);
+            else {
+                try {
+                    storageTransaction.putUntracked(key, value);
+                } catch (RocksDBException e) {
+                    throw exception(e);
+                }
             }
         }
 
         @Override
         public void mergeUntracked(byte[] key, byte[] value) {
             assert isOpen() && !isReadOnly;
-            try {
-                storageTransaction.mergeUntracked(key, value);
-            } catch (RocksDBException e) {
-                throw exception(e);
+            WriteBuffer buffer = writeBuffer();
+            if (buffer != null) buffer.add(WriteBuffer.Operation.MERGE_UNTRACKED, key, value);
+            else {
+                try {
+                    storageTransaction.mergeUntracked(key, value);
+                } catch (RocksDBException e) {
+                    throw exception(e);
+                }
+            }
+        }
+
+        /**
+         * The writes performed by a single thread during a parallel write,
+         * kept in the order in which the thread performed them.
+         */
+        @NotThreadSafe
+        private static class WriteBuffer {
+
+            private enum Operation {PUT, PUT_UNTRACKED, MERGE_UNTRACKED, DELETE, DELETE_UNTRACKED}
+
+            private final List<Operation> operations;
+            private final List<byte[]> keys;
+            private final List<byte[]> values;
+
+            private WriteBuffer() {
+                operations = new ArrayList<>();
+                keys = new ArrayList<>();
+                values = new ArrayList<>();
+            }
+
+            private void add(Operation operation, byte[] key, byte[] value) {
+                operations.add(operation);
+                keys.add(key);
+                values.add(value);
+            }
+
+            private void writeTo(RocksStorage.Data storage) {
+                for (int i = 0; i < operations.size(); i++) {
+                    switch (operations.get(i)) {
+                        case PUT:
+                            storage.put(keys.get(i), values.get(i));
+                            break;
+                        case PUT_UNTRACKED:
+                            storage.putUntracked(keys.get(i), values.get(i));
+                            break;
+                        case MERGE_UNTRACKED:
+                            storage.mergeUntracked(keys.get(i), values.get(i));
+                            break;
+                        case DELETE:
+                            storage.delete(keys.get(i));
+                            break;
+                        case DELETE_UNTRACKED:
+                            storage.deleteUntracked(keys.get(i));
+                            break;
+                        default:
+                            assert false;
+                    }
+                }
             }
         }
     }
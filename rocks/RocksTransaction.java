@@ -22,6 +22,7 @@ import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.Label;
 import grakn.core.common.parameters.Options;
 import grakn.core.concept.ConceptManager;
 import grakn.core.graph.DataGraph;
@@ -29,12 +30,15 @@ import grakn.core.graph.GraphManager;
 import grakn.core.graph.SchemaGraph;
 import grakn.core.logic.LogicCache;
 import grakn.core.logic.LogicManager;
+import grakn.core.logic.Materialisations;
 import grakn.core.query.QueryManager;
 import grakn.core.reasoner.Reasoner;
 import grakn.core.traversal.TraversalCache;
 import grakn.core.traversal.TraversalEngine;
 import org.rocksdb.RocksDBException;
 
+import javax.annotation.Nullable;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static grakn.common.util.Objects.className;
@@ -62,10 +66,15 @@ public abstract class RocksTransaction implements Grakn.Transaction {
     }
 
     void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache) {
+        initialise(graphMgr, traversalCache, logicCache, null);
+    }
+
+    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache,
+                    @Nullable Materialisations.View materialisations) {
         traversalEng = new TraversalEngine(graphMgr, traversalCache);
         conceptMgr = new ConceptManager(graphMgr);
         logicMgr = new LogicManager(graphMgr, conceptMgr, traversalEng, logicCache);
-        reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, context);
+        reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, context, materialisations);
         queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context);
         isOpen = new AtomicBoolean(true);
     }
@@ -118,6 +127,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
     }
 
     protected void closeResources() {
+        queryMgr.close();
         closeStorage();
         session.remove(this);
     }
@@ -153,7 +163,8 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             SchemaGraph schemaGraph = new SchemaGraph(schemaStorage, type().isRead());
 
             dataStorage = storageFactory.storageData(session.database(), this);
-            DataGraph dataGraph = new DataGraph(dataStorage, schemaGraph);
+            DataGraph dataGraph = new DataGraph(dataStorage, schemaGraph, type().isRead(),
+                                                session.database().thingCacheMetrics());
 
             graphMgr = new GraphManager(schemaGraph, dataGraph);
             initialise(graphMgr, new TraversalCache(), new LogicCache());
@@ -251,11 +262,14 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             super(session, type, options);
 
             cache = session.database().cacheBorrow();
+            // the view of the materialisations must be taken before the storage, to never be newer than its data
+            Materialisations.View materialisations = cache.logic().materialisations().view();
             dataStorage = storageFactory.storageData(session.database(), this);
-            DataGraph dataGraph = new DataGraph(dataStorage, cache.schemaGraph());
+            DataGraph dataGraph = new DataGraph(dataStorage, cache.schemaGraph(), type().isRead(),
+                                                session.database().thingCacheMetrics(), cache.statisticsSamples());
             graphMgr = new GraphManager(cache.schemaGraph(), dataGraph);
 
-            initialise(graphMgr, cache.traversal(), cache.logic());
+            initialise(graphMgr, cache.traversal(), cache.logic(), materialisations);
         }
 
         @Override
@@ -293,9 +307,11 @@ public abstract class RocksTransaction implements Grakn.Transaction {
                     else if (graphMgr.schema().isModified()) throw GraknException.of(SESSION_DATA_VIOLATION);
 
                     conceptMgr.validateThings();
+                    Set<Label> modifiedTypes = graphMgr.data().stats().modifiedTypes();
+                    cache.logic().materialisations().invalidate(modifiedTypes);
                     graphMgr.data().commit();
                     dataStorage.commit();
-                    triggerStatisticBgCounter();
+                    cache.logic().materialisations().invalidate(modifiedTypes);
                 } catch (RocksDBException e) {
                     rollback();
                     throw GraknException.of(e);
@@ -323,15 +339,5 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             session.database().cacheUnborrow(cache);
             dataStorage.close();
         }
-
-        /**
-         * Responsible for triggering {@link RocksDatabase.StatisticsBackgroundCounter}, if necessary.
-         * A different implementation of this class may override it.
-         */
-        protected void triggerStatisticBgCounter() {
-            if (graphMgr.data().stats().needsBackgroundCounting()) {
-                session.database().statisticsBackgroundCounter.needsBackgroundCounting();
-            }
-        }
     }
 }
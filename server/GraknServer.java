@@ -88,7 +88,7 @@ public class GraknServer implements AutoCloseable {
 
         if (command.debug()) LOG.info("Running Grakn Core Server in debug mode.");
 
-        grakn = RocksGrakn.open(command.dataDir());
+        grakn = RocksGrakn.open(command.dataDir(), command.databaseOptions());
         graknRPCService = new GraknRPCService(grakn);
         migratorRPCService = new MigratorRPCService(grakn);
 
@@ -23,6 +23,7 @@ import grakn.common.collection.Pair;
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
 import grakn.core.concept.thing.Attribute;
 import grakn.core.concept.thing.Entity;
 import grakn.core.concept.thing.Relation;
@@ -78,7 +79,7 @@ public class Importer implements Migrator {
     private Grakn.Transaction tx;
 
     public Importer(Grakn grakn, String database, Path filename, Map<String, String> remapLabels) {
-        this.session = grakn.session(database, Arguments.Session.Type.DATA);
+        this.session = grakn.session(database, Arguments.Session.Type.DATA, new Options.Session().bulkLoad(true));
         this.filename = filename;
         this.remapLabels = remapLabels;
     }
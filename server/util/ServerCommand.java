@@ -19,6 +19,8 @@
 package grakn.core.server.util;
 
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
 import grakn.core.server.Version;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -31,6 +33,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
+import static grakn.core.common.exception.ErrorMessage.Server.UNRECOGNISED_STORAGE_PROFILE;
 
 public interface ServerCommand {
     default boolean isStart() {
@@ -106,6 +109,41 @@ public interface ServerCommand {
                 description = "Debug mode")
         private boolean debug;
 
+        @Option(descriptionKey = "storage.group-commit",
+                names = {"--storage-group-commit"},
+                negatable = true,
+                defaultValue = "false",
+                description = "Make data commits durable, merging the WAL syncs of concurrent commits")
+        private boolean groupCommit;
+
+        @Option(descriptionKey = "storage.group-commit.window-millis",
+                names = {"--storage-group-commit-window-millis"},
+                defaultValue = Options.DEFAULT_GROUP_COMMIT_WINDOW_MILLIS + "",
+                description = "Maximum time in milliseconds a commit waits for other commits to join its WAL sync")
+        private int groupCommitWindowMillis;
+
+        @Option(descriptionKey = "storage.group-commit.max-batch-size",
+                names = {"--storage-group-commit-max-batch-size"},
+                defaultValue = Options.DEFAULT_GROUP_COMMIT_MAX_BATCH_SIZE + "",
+                description = "Maximum number of commits merged into one WAL sync")
+        private int groupCommitMaxBatchSize;
+
+        @Option(descriptionKey = "storage.profile",
+                names = {"--storage-profile"},
+                defaultValue = "default",
+                description = "Storage tuning profile: default, read-heavy, write-heavy, bulk-load or low-memory")
+        private String storageProfile;
+
+        @Option(descriptionKey = "storage.block-cache-size-mb",
+                names = {"--storage-block-cache-size-mb"},
+                description = "Size in megabytes of the block cache shared by all databases, overriding the storage profile")
+        private Integer storageBlockCacheSizeMB;
+
+        @Option(descriptionKey = "storage.write-buffer-size-mb",
+                names = {"--storage-write-buffer-size-mb"},
+                description = "Size in megabytes of each write buffer of the data storage, overriding the storage profile")
+        private Integer storageWriteBufferSizeMB;
+
         public Path dataDir() {
             if (data == null) return ServerDefaults.DATA_DIR;
             return Paths.get(data).isAbsolute()
@@ -125,6 +163,19 @@ public interface ServerCommand {
             return grablTrace;
         }
 
+        public Options.Database databaseOptions() {
+            Arguments.Storage.Profile profile = Arguments.Storage.Profile.of(storageProfile);
+            if (profile == null) throw GraknException.of(UNRECOGNISED_STORAGE_PROFILE, storageProfile);
+            Options.Database options = new Options.Database()
+                    .groupCommit(groupCommit)
+                    .groupCommitWindowMillis(groupCommitWindowMillis)
+                    .groupCommitMaxBatchSize(groupCommitMaxBatchSize)
+                    .storageProfile(profile);
+            if (storageBlockCacheSizeMB != null) options.storageBlockCacheSizeMB(storageBlockCacheSizeMB);
+            if (storageWriteBufferSizeMB != null) options.storageWriteBufferSizeMB(storageWriteBufferSizeMB);
+            return options;
+        }
+
         public URI grablURI() {
             return grablURI;
         }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static grakn.core.graph.common.Encoding.Edge.Thing.HAS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class AttributeCommitTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("attribute-commit-test");
+    private static final String database = "attribute-commit-test";
+    private static final int THREADS = 8;
+    private static final int AGES = 1000;
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery("define person sub entity, owns age; age sub attribute, value long;").asDefine());
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    @Test
+    public void attributes_put_concurrently_are_committed_once_each() throws ExecutionException, InterruptedException {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                TypeVertex person = graphMgr.schema().getType("person");
+                TypeVertex age = graphMgr.schema().getType("age");
+                List<CompletableFuture<Void>> puts = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int offset = t;
+                    puts.add(CompletableFuture.runAsync(() -> {
+                        for (int i = 0; i < AGES; i++) graphMgr.data().put(age, (i + offset * 7) % AGES, false);
+                    }));
+                }
+                for (CompletableFuture<Void> put : puts) put.get();
+                for (int i = 0; i < AGES; i += 10) {
+                    ThingVertex owner = graphMgr.data().create(person, false);
+                    owner.outs().put(HAS, graphMgr.data().get(age, (long) i), false);
+                }
+                txn.commit();
+            }
+            assertAges(session, AGES, AGES / 10);
+        }
+    }
+
+    @Test
+    public void attributes_committed_concurrently_by_many_transactions_are_counted_once_each()
+            throws ExecutionException, InterruptedException {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            List<CompletableFuture<Void>> commits = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                commits.add(CompletableFuture.runAsync(() -> {
+                    try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        GraphManager graphMgr = txn.traversal().graph();
+                        TypeVertex age = graphMgr.schema().getType("age");
+                        for (int i = 0; i < AGES; i++) graphMgr.data().put(age, (i + offset * 7) % AGES, false);
+                        txn.commit();
+                    }
+                }));
+            }
+            for (CompletableFuture<Void> commit : commits) commit.get();
+            assertAges(session, AGES, 0);
+        }
+    }
+
+    private static void assertAges(RocksSession session, int ageCount, int ownerCount) {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            GraphManager graphMgr = txn.traversal().graph();
+            TypeVertex age = graphMgr.schema().getType("age");
+            assertEquals(ageCount, graphMgr.data().get(age).count());
+            assertEquals(ageCount, graphMgr.data().stats().thingVertexCount(age));
+            long owned = 0;
+            for (int i = 0; i < ageCount; i++) {
+                AttributeVertex<Long> attribute = graphMgr.data().get(age, (long) i);
+                assertNotNull(attribute);
+                assertEquals(Long.valueOf(i), attribute.value());
+                owned += attribute.ins().edge(HAS).from().count();
+            }
+            assertEquals(ownerCount, owned);
+        }
+    }
+}
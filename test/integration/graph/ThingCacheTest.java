@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.graph.common.Encoding;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ThingCacheTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("thing-cache-test");
+    private static final String database = "thing-cache-test";
+    private static final int PERSONS = 256;
+    private static final int CACHE_SIZE = 16;
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery("define person sub entity, owns name; name sub attribute, value string;").asDefine());
+                txn.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(Graql.parseQuery("insert $x 'other' isa name;").asInsert());
+                for (int i = 0; i < PERSONS; i++) {
+                    txn.query().insert(Graql.parseQuery("insert $x isa person, has name 'shared';").asInsert());
+                }
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    private DataGraph smallCacheGraph(RocksTransaction txn) {
+        GraphManager graphMgr = txn.traversal().graph();
+        return new DataGraph(graphMgr.data().storage(), graphMgr.schema(), true,
+                             new DataGraph.ThingCache.Metrics(), new DataGraph.Statistics.Samples(),
+                             CACHE_SIZE, DataGraph.ThingCache.WEIGHT);
+    }
+
+    @Test
+    public void evicted_vertices_are_not_kept_alive_by_the_edges_of_cached_vertices() throws InterruptedException {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                DataGraph graph = smallCacheGraph(txn);
+                TypeVertex nameType = graph.schema().getType("name");
+                AttributeVertex<String> shared = graph.get(nameType, "shared");
+                assertNotNull(shared);
+
+                List<WeakReference<ThingVertex>> owners = new ArrayList<>();
+                shared.ins().edge(Encoding.Edge.Thing.HAS).get().forEachRemaining(edge -> owners.add(new WeakReference<>(edge.from())));
+                assertEquals(PERSONS, owners.size());
+
+                // the attribute vertex is held by the graph, and caches a persisted edge to every owner
+                int collected = 0;
+                for (int i = 0; i < 20 && collected < PERSONS - CACHE_SIZE; i++) {
+                    System.gc();
+                    Thread.sleep(50);
+                    collected = (int) owners.stream().filter(owner -> owner.get() == null).count();
+                }
+                assertTrue(collected >= PERSONS - CACHE_SIZE);
+            }
+        }
+    }
+
+    @Test
+    public void a_vertex_converted_after_eviction_is_the_vertex_that_was_modified() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                DataGraph graph = smallCacheGraph(txn);
+                TypeVertex personType = graph.schema().getType("person");
+                TypeVertex nameType = graph.schema().getType("name");
+                AttributeVertex<String> other = graph.get(nameType, "other");
+                assertNotNull(other);
+
+                List<ThingVertex> persons = graph.get(personType).toList();
+                assertEquals(PERSONS, persons.size());
+
+                // every person but the last few has been evicted, but is still held by the list
+                ThingVertex first = persons.get(0);
+                assertSame(first, graph.convert(first.iid()));
+
+                first.outs().put(Encoding.Edge.Thing.HAS, other, true);
+                graph.get(personType).forEachRemaining(person -> {});
+                ThingVertex converted = graph.convert(first.iid());
+                assertSame(first, converted);
+                assertNotNull(converted.outs().edge(Encoding.Edge.Thing.HAS, other));
+
+                ThingVertex second = persons.get(1);
+                graph.convert(second.iid()).outs().put(Encoding.Edge.Thing.HAS, other, true);
+                assertNotNull(graph.convert(second.iid()).outs().edge(Encoding.Edge.Thing.HAS, other));
+                assertEquals(2, other.ins().edge(Encoding.Edge.Thing.HAS).from().filter(v -> v.equals(first) || v.equals(second)).count());
+            }
+        }
+    }
+
+    @Test
+    public void a_vertex_looked_up_after_eviction_is_the_vertex_that_is_still_held() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                DataGraph graph = smallCacheGraph(txn);
+                TypeVertex personType = graph.schema().getType("person");
+                TypeVertex nameType = graph.schema().getType("name");
+                AttributeVertex<String> other = graph.get(nameType, "other");
+                assertNotNull(other);
+
+                // every person but the last few has been evicted, but is still held by the list
+                List<ThingVertex> persons = graph.get(personType).toList();
+                assertEquals(PERSONS, persons.size());
+                ThingVertex first = persons.get(0);
+                assertSame(first, graph.get(first.iid()));
+                assertSame(first, graph.get(first.iid()));
+
+                first.outs().put(Encoding.Edge.Thing.HAS, other, true);
+                graph.get(personType).forEachRemaining(person -> {});
+                ThingVertex looked = graph.get(first.iid());
+                assertSame(first, looked);
+                assertNotNull(looked.outs().edge(Encoding.Edge.Thing.HAS, other));
+                assertSame(first, graph.convert(first.iid()));
+            }
+        }
+    }
+}
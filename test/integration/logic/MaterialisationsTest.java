@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.logic;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
+import grakn.core.common.parameters.Options;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import graql.lang.pattern.variable.Reference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.map;
+import static grakn.common.collection.Collections.pair;
+import static grakn.common.collection.Collections.set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MaterialisationsTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("materialisations-test");
+    private static final String database = "materialisations-test";
+    private static final String PATTERN = "{ $p isa person, has name $n; }";
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession schemaSession = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = schemaSession.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery(
+                        "define person sub entity, owns name, plays friendship:friend, plays knowing:acquaintance;" +
+                                "dog sub entity, owns name;" +
+                                "name sub attribute, value string;" +
+                                "friendship sub relation, relates friend;" +
+                                "knowing sub relation, relates acquaintance;" +
+                                "rule friends-know-each-other: when {" +
+                                "(friend:$x, friend:$y) isa friendship;" +
+                                "} then {" +
+                                "(acquaintance:$x, acquaintance:$y) isa knowing;" +
+                                "};").asDefine());
+                txn.commit();
+            }
+        }
+        session = grakn.session(database, Arguments.Session.Type.DATA);
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            txn.query().insert(Graql.parseQuery("insert $p isa person, has name \"alice\";").asInsert());
+            txn.commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+        grakn.close();
+    }
+
+    @Test
+    public void answers_are_reused_across_read_transactions() {
+        Materialisations materialisations;
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            materialisations = txn.logic().cache().materialisations();
+            ConceptMap answer = alice(txn);
+            materialisations.view().put(PATTERN, bounds(answer), list(answer), set(Label.of("person"), Label.of("name")));
+        }
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            assertEquals(materialisations, txn.logic().cache().materialisations());
+            ConceptMap answer = alice(txn);
+            Optional<List<ConceptMap>> materialised = materialisations.view().get(PATTERN, bounds(answer), txn.concepts());
+            assertTrue(materialised.isPresent());
+            assertEquals(list(answer), materialised.get());
+        }
+    }
+
+    @Test
+    public void answers_are_invalidated_by_data_writes_to_their_types() {
+        Materialisations materialisations;
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            materialisations = txn.logic().cache().materialisations();
+            ConceptMap answer = alice(txn);
+            materialisations.view().put(PATTERN, bounds(answer), list(answer), set(Label.of("person"), Label.of("name")));
+            materialisations.view().put(PATTERN + " any", bounds(answer), list(answer), null);
+        }
+
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            txn.query().insert(Graql.parseQuery("insert $d isa dog;").asInsert());
+            txn.commit();
+        }
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            ConceptMap answer = alice(txn);
+            assertTrue(materialisations.view().get(PATTERN, bounds(answer), txn.concepts()).isPresent());
+            assertFalse(materialisations.view().get(PATTERN + " any", bounds(answer), txn.concepts()).isPresent());
+        }
+
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            txn.query().insert(Graql.parseQuery("insert $p isa person, has name \"bob\";").asInsert());
+            txn.commit();
+        }
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            ConceptMap answer = alice(txn);
+            assertFalse(materialisations.view().get(PATTERN, bounds(answer), txn.concepts()).isPresent());
+        }
+    }
+
+    @Test
+    public void answers_are_not_served_to_snapshots_older_than_their_epoch() {
+        try (RocksTransaction oldTxn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Materialisations materialisations = oldTxn.logic().cache().materialisations();
+            Materialisations.View oldView = materialisations.view();
+
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(Graql.parseQuery("insert $p isa person, has name \"bob\";").asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                ConceptMap answer = alice(txn);
+                materialisations.view().put(PATTERN, bounds(answer), list(answer), set(Label.of("person"), Label.of("name")));
+                assertTrue(materialisations.view().get(PATTERN, bounds(answer), txn.concepts()).isPresent());
+            }
+
+            ConceptMap answer = alice(oldTxn);
+            assertFalse(oldView.get(PATTERN, bounds(answer), oldTxn.concepts()).isPresent());
+        }
+    }
+
+    @Test
+    public void materialised_queries_answer_as_their_snapshot_and_see_later_writes() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            txn.query().insert(Graql.parseQuery(
+                    "match $a isa person, has name \"alice\"; " +
+                            "insert $b isa person, has name \"bob\"; (friend:$a, friend:$b) isa friendship;").asInsert());
+            txn.commit();
+        }
+        String query = "match (acquaintance:$x, acquaintance:$y) isa knowing;";
+        assertEquals(2, countMaterialised(query));
+        assertEquals(2, countMaterialised(query));
+
+        try (RocksTransaction oldTxn = materialisedRead()) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().insert(Graql.parseQuery(
+                        "match $b isa person, has name \"bob\"; " +
+                                "insert $c isa person, has name \"carol\"; (friend:$b, friend:$c) isa friendship;").asInsert());
+                txn.commit();
+            }
+            assertEquals(4, countMaterialised(query));
+            assertEquals(2, oldTxn.query().match(Graql.parseQuery(query).asMatch()).count());
+        }
+        assertEquals(4, countMaterialised(query));
+    }
+
+    private static RocksTransaction materialisedRead() {
+        return session.transaction(Arguments.Transaction.Type.READ, new Options.Transaction().infer(true).materialise(true));
+    }
+
+    private static long countMaterialised(String query) {
+        try (RocksTransaction txn = materialisedRead()) {
+            return txn.query().match(Graql.parseQuery(query).asMatch()).count();
+        }
+    }
+
+    private static ConceptMap alice(RocksTransaction txn) {
+        return txn.query().match(Graql.parseQuery("match $p isa person, has name $n; $n \"alice\";").asMatch()).next();
+    }
+
+    private static ConceptMap bounds(ConceptMap answer) {
+        return new ConceptMap(map(pair(Reference.name("p"), answer.get("p"))));
+    }
+}
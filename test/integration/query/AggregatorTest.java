@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.query;
+
+import grakn.core.concept.answer.Numeric;
+import grakn.core.query.Matcher.Aggregator.MedianCalculator;
+import grakn.core.query.Matcher.Aggregator.MedianSketch;
+import grakn.core.query.Matcher.Aggregator.STDCalculator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AggregatorTest {
+
+    private static final int VALUES = 1000;
+    private static final double DELTA = 1e-9;
+
+    /**
+     * The ways the values are split into partials before being combined, by the
+     * sizes of the partials, where the last partial takes every remaining value.
+     */
+    private static final int[][] PARTITIONS = {
+            {0},
+            {0, 0, 0},
+            {1},
+            {1, 1, 1},
+            {0, 1, 0, VALUES / 2},
+            {VALUES / 3, 0, VALUES / 3},
+            {VALUES - 1},
+            {1, 0, 7, 64, 1, 300, 0, 2}
+    };
+
+    @Test
+    public void combined_standard_deviations_match_the_sequential_standard_deviation() {
+        double[] values = values(new Random(0));
+        STDCalculator sequential = new STDCalculator();
+        for (double value : values) sequential.accumulate(value);
+        assertEquals(std(values), sequential.std().asDouble(), DELTA);
+
+        for (int[] partition : PARTITIONS) {
+            STDCalculator combined = new STDCalculator();
+            for (double[] part : split(values, partition)) {
+                STDCalculator partial = new STDCalculator();
+                for (double value : part) partial.accumulate(value);
+                combined = combined.combine(partial);
+            }
+            assertEquals(sequential.std().asDouble(), combined.std().asDouble(), DELTA);
+        }
+    }
+
+    @Test
+    public void combined_standard_deviations_of_fewer_than_two_values_are_nan() {
+        STDCalculator empty = new STDCalculator();
+        assertTrue(empty.combine(new STDCalculator()).std().isNaN());
+
+        STDCalculator single = new STDCalculator();
+        single.accumulate(3.5);
+        assertTrue(new STDCalculator().combine(single).std().isNaN());
+
+        STDCalculator other = new STDCalculator();
+        other.accumulate(5.5);
+        assertEquals(Math.sqrt(2), single.combine(other).std().asDouble(), DELTA);
+    }
+
+    @Test
+    public void combined_medians_match_the_sequential_median() {
+        Random random = new Random(0);
+        for (int size : new int[]{VALUES, VALUES - 1}) {
+            double[] values = Arrays.copyOf(values(random), size);
+            MedianCalculator sequential = new MedianCalculator();
+            for (double value : values) sequential.accumulate(Numeric.ofDouble(value));
+            assertEquals(median(values), sequential.median().asDouble(), DELTA);
+
+            for (int[] partition : PARTITIONS) {
+                MedianCalculator combined = new MedianCalculator();
+                for (double[] part : split(values, partition)) {
+                    MedianCalculator partial = new MedianCalculator();
+                    for (double value : part) partial.accumulate(Numeric.ofDouble(value));
+                    combined = combined.combine(partial);
+                }
+                assertEquals(sequential.median().asDouble(), combined.median().asDouble(), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void combined_medians_of_empty_and_single_partials() {
+        assertTrue(new MedianCalculator().combine(new MedianCalculator()).median().isNaN());
+        assertTrue(new MedianSketch().combine(new MedianSketch()).median().isNaN());
+
+        MedianCalculator single = new MedianCalculator();
+        single.accumulate(Numeric.ofLong(4));
+        assertEquals(4L, new MedianCalculator().combine(single).median().asLong());
+        MedianCalculator other = new MedianCalculator();
+        other.accumulate(Numeric.ofLong(7));
+        assertEquals(5.5, single.combine(other).median().asDouble(), DELTA);
+
+        MedianSketch sketch = new MedianSketch();
+        sketch.accumulate(4);
+        assertEquals(4, new MedianSketch().combine(sketch).median().asDouble(), DELTA);
+    }
+
+    @Test
+    public void combined_median_sketches_bound_the_rank_error_of_the_median() {
+        int count = 200_000;
+        double maxRankError = 0.01;
+        List<Double> shuffled = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) shuffled.add((double) i);
+        Collections.shuffle(shuffled, new Random(0));
+        double[] values = shuffled.stream().mapToDouble(Double::doubleValue).toArray();
+
+        MedianSketch sequential = new MedianSketch();
+        for (double value : values) sequential.accumulate(value);
+        // the values are the ranks themselves, so the error of the rank is the error of the value
+        assertEquals(count / 2.0, sequential.median().asDouble(), maxRankError * count);
+
+        for (int[] partition : new int[][]{{0, 1, count / 8, count / 8, count / 4, 0}, {count / 2}, {1, 255, 256, 257}}) {
+            MedianSketch combined = new MedianSketch();
+            for (double[] part : split(values, partition)) {
+                MedianSketch partial = new MedianSketch();
+                for (double value : part) partial.accumulate(value);
+                combined = combined.combine(partial);
+            }
+            assertEquals(count / 2.0, combined.median().asDouble(), maxRankError * count);
+        }
+    }
+
+    private static double[] values(Random random) {
+        double[] values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) values[i] = random.nextGaussian() * 100 + 1_000_000;
+        return values;
+    }
+
+    private static List<double[]> split(double[] values, int[] sizes) {
+        List<double[]> parts = new ArrayList<>();
+        int from = 0;
+        for (int size : sizes) {
+            parts.add(Arrays.copyOfRange(values, from, from + size));
+            from += size;
+        }
+        parts.add(Arrays.copyOfRange(values, from, values.length));
+        return parts;
+    }
+
+    private static double std(double[] values) {
+        double mean = Arrays.stream(values).average().getAsDouble();
+        double squares = Arrays.stream(values).map(value -> (value - mean) * (value - mean)).sum();
+        return Math.sqrt(squares / (values.length - 1));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        if (sorted.length % 2 == 1) return sorted[middle];
+        else return (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.query;
+
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.Concept;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.ConceptMapGroup;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import graql.lang.pattern.variable.Reference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GrouperTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("grouper-test");
+    private static final String database = "grouper-test";
+    private static final int PEOPLE = 60;
+    private static final int AGES = 10;
+    private static final int SPILL_SIZE = 5;
+    private static final Reference.Name AGE = Reference.name("a");
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession schemaSession = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = schemaSession.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery("define person sub entity, owns age; age sub attribute, value long;")
+                                           .asDefine());
+                txn.commit();
+            }
+        }
+        session = grakn.session(database, Arguments.Session.Type.DATA);
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            for (int i = 0; i < PEOPLE; i++) {
+                txn.query().insert(Graql.parseQuery("insert $p isa person, has age " + (i % AGES) + ";").asInsert());
+            }
+            txn.commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+        grakn.close();
+    }
+
+    @Test
+    public void answers_grouped_in_spilled_partitions_are_grouped_as_in_memory() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            Map<Long, Integer> inMemory = sizes(Grouper.partitioned(spill, answers(txn), AGE, PEOPLE * 2));
+            assertTrue(spill.files().isEmpty());
+            assertEquals(AGES, inMemory.size());
+            inMemory.values().forEach(size -> assertEquals(PEOPLE / AGES, (int) size));
+
+            ResourceIterator<ConceptMapGroup> groups = Grouper.partitioned(spill, answers(txn), AGE, SPILL_SIZE);
+            assertTrue(groups.hasNext());
+            assertFalse(spill.files().isEmpty());
+            assertEquals(inMemory, sizes(groups));
+            assertTrue(spill.files().isEmpty());
+        }
+    }
+
+    @Test
+    public void spilled_partitions_are_deleted_when_the_groups_are_recycled() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            ResourceIterator<ConceptMapGroup> groups = Grouper.partitioned(spill, answers(txn), AGE, SPILL_SIZE);
+            groups.next();
+            Set<Path> partitions = new HashSet<>(spill.files());
+            assertFalse(partitions.isEmpty());
+
+            groups.recycle();
+            assertTrue(spill.files().isEmpty());
+            partitions.forEach(partition -> assertFalse(Files.exists(partition)));
+        }
+    }
+
+    @Test
+    public void spilled_partitions_are_closed_and_deleted_when_spilling_fails() throws IOException {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            AtomicInteger read = new AtomicInteger();
+            ResourceIterator<ConceptMap> failing = answers(txn).map(answer -> {
+                if (read.incrementAndGet() > PEOPLE / 2) throw new IllegalStateException();
+                return answer;
+            });
+            ResourceIterator<ConceptMapGroup> groups = Grouper.partitioned(spill, failing, AGE, SPILL_SIZE);
+            try {
+                groups.hasNext();
+                fail();
+            } catch (IllegalStateException e) {
+                // the answers failed while they were being spilled
+            }
+
+            Set<Path> partitions = new HashSet<>(spill.files());
+            assertEquals(Grouper.PARTITIONS, partitions.size());
+            long written = 0;
+            for (Path partition : partitions) written += Files.size(partition);
+            assertTrue(written > 0); // the buffered outputs of the partitions were flushed when they were closed
+
+            groups.recycle();
+            assertTrue(spill.files().isEmpty());
+            partitions.forEach(partition -> assertFalse(Files.exists(partition)));
+        }
+    }
+
+    private static ResourceIterator<ConceptMap> answers(RocksTransaction txn) {
+        return txn.query().match(Graql.parseQuery("match $p isa person, has age $a;").asMatch());
+    }
+
+    private static Map<Long, Integer> sizes(ResourceIterator<ConceptMapGroup> groups) {
+        Map<Long, Integer> sizes = new HashMap<>();
+        groups.forEachRemaining(group -> {
+            Concept owner = group.owner();
+            assertNull(sizes.put(owner.asAttribute().asLong().getValue(), group.conceptMaps().size()));
+        });
+        return sizes;
+    }
+}
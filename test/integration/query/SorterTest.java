@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.query;
+
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.thing.Attribute;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import graql.lang.query.builder.Sortable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static grakn.common.collection.Collections.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SorterTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("sorter-test");
+    private static final String database = "sorter-test";
+    private static final int AGES = 50;
+    private static final int RUN_SIZE = 8;
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession schemaSession = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = schemaSession.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery(
+                        "define age sub attribute, value long; weight sub attribute, value long; " +
+                                "score sub attribute, value double; name sub attribute, value string; " +
+                                "birth sub attribute, value datetime;"
+                ).asDefine());
+                txn.commit();
+            }
+        }
+        session = grakn.session(database, Arguments.Session.Type.DATA);
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+            for (int i = 0; i < AGES; i++) {
+                long age = (i * 17L) % AGES - AGES / 2;
+                txn.query().insert(Graql.parseQuery("insert $a " + age + " isa age;").asInsert());
+            }
+            insert(txn, "weight", "3", "-2", "1");
+            insert(txn, "score", "2.5", "-1.5", "0.5", "-0.25", "10.0");
+            insert(txn, "name", "'cherry'", "'Date'", "'apple'", "'Banana'");
+            insert(txn, "birth", "2020-05-05T10:00", "1960-01-01T00:00", "1970-01-01T00:00", "1969-12-31T23:59");
+            txn.commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+        grakn.close();
+    }
+
+    @Test
+    public void answers_sorted_in_spilled_runs_are_sorted_as_in_memory() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            assertEquals(ascending(), ages(sort(txn, spill, "asc", AGES * 2)));
+            assertTrue(spill.files().isEmpty());
+
+            ResourceIterator<ConceptMap> sorted = sort(txn, spill, "asc", RUN_SIZE);
+            assertTrue(sorted.hasNext());
+            assertEquals(AGES / RUN_SIZE, spill.files().size());
+            assertEquals(ascending(), ages(sorted));
+            assertTrue(spill.files().isEmpty());
+
+            List<Long> descending = ascending();
+            Collections.reverse(descending);
+            assertEquals(descending, ages(sort(txn, spill, "desc", RUN_SIZE)));
+            assertTrue(spill.files().isEmpty());
+        }
+    }
+
+    @Test
+    public void spilled_runs_are_deleted_when_the_sorted_answers_are_recycled() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            ResourceIterator<ConceptMap> sorted = sort(txn, spill, "asc", RUN_SIZE);
+            for (int i = 0; i < 3; i++) sorted.next();
+            Set<Path> files = new HashSet<>(spill.files());
+            assertFalse(files.isEmpty());
+            files.forEach(file -> assertTrue(Files.exists(file)));
+
+            sorted.recycle();
+            assertTrue(spill.files().isEmpty());
+            files.forEach(file -> assertFalse(Files.exists(file)));
+        }
+    }
+
+    @Test
+    public void spilled_runs_of_abandoned_answers_are_deleted_when_the_transaction_closes() {
+        Set<Path> files;
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            ResourceIterator<ConceptMap> sorted = sort(txn, txn.query().spill(), "asc", RUN_SIZE);
+            for (int i = 0; i < 3; i++) sorted.next();
+            files = new HashSet<>(txn.query().spill().files());
+            assertFalse(files.isEmpty());
+        }
+        files.forEach(file -> assertFalse(Files.exists(file)));
+    }
+
+    @Test
+    public void values_of_every_value_type_are_sorted_in_memory_and_in_spilled_runs() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            assertSorted(txn, spill, "match $a isa score;", list(-1.5, -0.25, 0.5, 2.5, 10.0));
+            assertSorted(txn, spill, "match {$a isa weight;} or {$a isa score;};",
+                         list(-2L, -1.5, -0.25, 0.5, 1L, 2.5, 3L, 10.0));
+            assertSorted(txn, spill, "match $a isa name;", list("apple", "Banana", "cherry", "Date"));
+            assertSorted(txn, spill, "match $a isa birth;", list(
+                    LocalDateTime.of(1960, 1, 1, 0, 0), LocalDateTime.of(1969, 12, 31, 23, 59),
+                    LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(2020, 5, 5, 10, 0)
+            ));
+            assertTrue(spill.files().isEmpty());
+        }
+    }
+
+    @Test
+    public void answers_bounded_by_a_limit_are_the_top_of_the_sorted_answers() {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            Spill spill = new Spill(txn.concepts());
+            List<Long> descending = ascending();
+            Collections.reverse(descending);
+            for (long limit : new long[]{0, 1, RUN_SIZE - 3, RUN_SIZE, RUN_SIZE + 1, AGES, AGES + 1}) {
+                List<Long> top = ages(sort(txn, spill, "match $a isa age;", "asc", limit, RUN_SIZE), limit);
+                assertEquals(ascending().subList(0, (int) Math.min(limit, AGES)), top);
+                top = ages(sort(txn, spill, "match $a isa age;", "desc", limit, RUN_SIZE), limit);
+                assertEquals(descending.subList(0, (int) Math.min(limit, AGES)), top);
+                assertTrue(spill.files().isEmpty());
+            }
+            assertEquals(list(-2L, -1.5, -0.25), values(sort(
+                    txn, spill, "match {$a isa weight;} or {$a isa score;};", "asc", 3L, RUN_SIZE
+            ), 3));
+            assertEquals(list("Date", "cherry"), values(sort(txn, spill, "match $a isa name;", "desc", 2L, RUN_SIZE), 2));
+        }
+    }
+
+    private static void insert(RocksTransaction txn, String type, String... values) {
+        for (String value : values) {
+            txn.query().insert(Graql.parseQuery("insert $a " + value + " isa " + type + ";").asInsert());
+        }
+    }
+
+    /**
+     * Asserts that the answers are sorted the same, in both orders, whether they
+     * are sorted in memory or spilled in runs of two answers.
+     */
+    private static void assertSorted(RocksTransaction txn, Spill spill, String match, List<?> ascending) {
+        List<Object> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        for (int runSize : new int[]{ascending.size() * 2, 2}) {
+            assertEquals(ascending, values(sort(txn, spill, match, "asc", null, runSize), Long.MAX_VALUE));
+            assertEquals(descending, values(sort(txn, spill, match, "desc", null, runSize), Long.MAX_VALUE));
+        }
+    }
+
+    private static ResourceIterator<ConceptMap> sort(RocksTransaction txn, Spill spill, String order, int runSize) {
+        return sort(txn, spill, "match $a isa age;", order, null, runSize);
+    }
+
+    private static ResourceIterator<ConceptMap> sort(RocksTransaction txn, Spill spill, String match, String order,
+                                                     @Nullable Long limit, int runSize) {
+        Sortable.Sorting sorting = Graql.parseQuery(match + " sort $a " + order + ";").asMatch()
+                .modifiers().sort().get();
+        ResourceIterator<ConceptMap> answers = txn.query().match(Graql.parseQuery(match).asMatch());
+        return Sorter.sort(spill, answers, sorting, limit, runSize);
+    }
+
+    private static List<Long> ages(ResourceIterator<ConceptMap> answers) {
+        return ages(answers, Long.MAX_VALUE);
+    }
+
+    private static List<Long> ages(ResourceIterator<ConceptMap> answers, long limit) {
+        List<Long> ages = new ArrayList<>();
+        values(answers, limit).forEach(value -> ages.add((Long) value));
+        return ages;
+    }
+
+    private static List<Object> values(ResourceIterator<ConceptMap> answers, long limit) {
+        List<Object> values = new ArrayList<>();
+        while (values.size() < limit && answers.hasNext()) {
+            Attribute attribute = answers.next().get("a").asAttribute();
+            if (attribute.isLong()) values.add(attribute.asLong().getValue());
+            else if (attribute.isDouble()) values.add(attribute.asDouble().getValue());
+            else if (attribute.isString()) values.add(attribute.asString().getValue());
+            else if (attribute.isDateTime()) values.add(attribute.asDateTime().getValue());
+            else values.add(attribute.asBoolean().getValue());
+        }
+        answers.recycle();
+        return values;
+    }
+
+    private static List<Long> ascending() {
+        List<Long> ages = new ArrayList<>();
+        for (long i = 0; i < AGES; i++) ages.add(i - AGES / 2);
+        return ages;
+    }
+}
@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Set;
 
 import static junit.framework.TestCase.assertFalse;
 import static org.junit.Assert.assertEquals;
@@ -183,4 +184,64 @@ public class ReasonerTest {
             }
         }
     }
+
+    @Test
+    public void test_batched_answers_are_not_lost_across_iterations() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                ConceptManager conceptMgr = txn.concepts();
+                LogicManager logicMgr = txn.logic();
+
+                EntityType person = conceptMgr.putEntityType("person");
+                AttributeType name = conceptMgr.putAttributeType("name", AttributeType.ValueType.STRING);
+                person.setOwns(name);
+                RelationType parentship = conceptMgr.putRelationType("parentship");
+                parentship.setRelates("parent");
+                parentship.setRelates("child");
+                RelationType ancestry = conceptMgr.putRelationType("ancestry");
+                ancestry.setRelates("ancestor");
+                ancestry.setRelates("descendant");
+                person.setPlays(parentship.getRelates("parent"));
+                person.setPlays(parentship.getRelates("child"));
+                person.setPlays(ancestry.getRelates("ancestor"));
+                person.setPlays(ancestry.getRelates("descendant"));
+                logicMgr.putRule(
+                        "parent-is-ancestor",
+                        Graql.parsePattern("{ (parent: $x, child: $y) isa parentship; }").asConjunction(),
+                        Graql.parseVariable("(ancestor: $x, descendant: $y) isa ancestry").asThing());
+                logicMgr.putRule(
+                        "ancestry-is-transitive",
+                        Graql.parsePattern("{ (ancestor: $x, descendant: $y) isa ancestry; (ancestor: $y, descendant: $z) isa ancestry; }").asConjunction(),
+                        Graql.parseVariable("(ancestor: $x, descendant: $z) isa ancestry").asThing());
+                txn.commit();
+            }
+        }
+        int generations = 10;
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < generations; i++) {
+                    txn.query().insert(Graql.parseQuery("insert $x isa person, has name 'person-" + i + "';").asInsert());
+                }
+                for (int i = 1; i < generations; i++) {
+                    txn.query().insert(Graql.parseQuery(
+                            "match $x isa person, has name 'person-" + (i - 1) + "'; $y isa person, has name 'person-" + i + "'; " +
+                                    "insert (parent: $x, child: $y) isa parentship;").asInsert());
+                }
+                txn.commit();
+            }
+
+            String query = "match (ancestor: $x, descendant: $y) isa ancestry;";
+            Set<ConceptMap> unbatched;
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                txn.reasoner().resolverRegistry().setMaxDemand(1);
+                unbatched = txn.query().match(Graql.parseQuery(query).asMatch()).toSet();
+            }
+            Set<ConceptMap> batched;
+            try (RocksTransaction txn = singleThreadElgTransaction(session, Arguments.Transaction.Type.READ)) {
+                batched = txn.query().match(Graql.parseQuery(query).asMatch()).toSet();
+            }
+            assertEquals(generations * (generations - 1) / 2, unbatched.size());
+            assertEquals(unbatched, batched);
+        }
+    }
 }
@@ -46,6 +46,7 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -412,6 +413,91 @@ public class ResolutionTest {
         }
     }
 
+    @Test
+    public void test_tabled_transitive_closure_matches_reresolution() throws InterruptedException {
+        try (RocksSession session = schemaSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().define(Graql.parseQuery(
+                        "define location sub entity, plays containment:container, plays containment:contained;" +
+                                "containment sub relation, relates contained, relates container;" +
+                                "rule transitive-containment: when {" +
+                                "(container:$x, contained:$y) isa containment;" +
+                                "(container:$y, contained:$z) isa containment;" +
+                                "} then {" +
+                                "(container:$x, contained:$z) isa containment;" +
+                                "};"));
+                transaction.commit();
+            }
+        }
+        insertChain("location", "containment", "container", "contained", 10);
+        String query = "{ (container:$x, contained:$y) isa containment; }";
+        assertTabledAnswersMatchReresolved(query, 45L);
+    }
+
+    @Test
+    public void test_tabled_mutually_recursive_rules_match_reresolution() throws InterruptedException {
+        try (RocksSession session = schemaSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().define(Graql.parseQuery(
+                        "define node sub entity, plays link:source, plays link:target," +
+                                "plays odd-path:source, plays odd-path:target, plays even-path:source, plays even-path:target;" +
+                                "link sub relation, relates source, relates target;" +
+                                "odd-path sub relation, relates source, relates target;" +
+                                "even-path sub relation, relates source, relates target;" +
+                                "rule odd-link: when {" +
+                                "(source:$x, target:$y) isa link;" +
+                                "} then {" +
+                                "(source:$x, target:$y) isa odd-path;" +
+                                "};" +
+                                "rule odd-after-even: when {" +
+                                "(source:$x, target:$y) isa even-path;" +
+                                "(source:$y, target:$z) isa link;" +
+                                "} then {" +
+                                "(source:$x, target:$z) isa odd-path;" +
+                                "};" +
+                                "rule even-after-odd: when {" +
+                                "(source:$x, target:$y) isa odd-path;" +
+                                "(source:$y, target:$z) isa link;" +
+                                "} then {" +
+                                "(source:$x, target:$z) isa even-path;" +
+                                "};"));
+                transaction.commit();
+            }
+        }
+        insertChain("node", "link", "source", "target", 6);
+        assertTabledAnswersMatchReresolved("{ (source:$x, target:$y) isa odd-path; }", 9L);
+        assertTabledAnswersMatchReresolved("{ (source:$x, target:$y) isa even-path; }", 6L);
+    }
+
+    @Test
+    public void test_tabled_non_recursive_rules_match_reresolution() throws InterruptedException {
+        try (RocksSession session = schemaSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                transaction.query().define(Graql.parseQuery(
+                        "define location sub entity, plays containment:container, plays containment:contained," +
+                                "plays enclosure:outer, plays enclosure:inner, plays deep-enclosure:outer, plays deep-enclosure:inner;" +
+                                "containment sub relation, relates contained, relates container;" +
+                                "enclosure sub relation, relates outer, relates inner;" +
+                                "deep-enclosure sub relation, relates outer, relates inner;" +
+                                "rule containment-encloses: when {" +
+                                "(container:$x, contained:$y) isa containment;" +
+                                "} then {" +
+                                "(outer:$x, inner:$y) isa enclosure;" +
+                                "};" +
+                                "rule enclosure-of-containment-encloses-deeply: when {" +
+                                "(outer:$x, inner:$y) isa enclosure;" +
+                                "(container:$y, contained:$z) isa containment;" +
+                                "} then {" +
+                                "(outer:$x, inner:$z) isa deep-enclosure;" +
+                                "};"));
+                transaction.commit();
+            }
+        }
+        insertChain("location", "containment", "container", "contained", 10);
+        assertTabledAnswersMatchReresolved("{ (outer:$x, inner:$y) isa enclosure; }", 9L);
+        assertTabledAnswersMatchReresolved("{ (outer:$x, inner:$y) isa deep-enclosure; }", 8L);
+    }
+
     @Ignore // TODO: Un-ignore, ignored until explanations are ready to use
     @Test
     public void test_answer_recorder() throws InterruptedException {
@@ -471,6 +557,62 @@ public class ResolutionTest {
         }
     }
 
+    private void insertChain(String entity, String relation, String from, String to, int length) {
+        try (RocksSession session = dataSession()) {
+            try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+                StringBuilder insert = new StringBuilder("insert ");
+                for (int i = 0; i < length; i++) insert.append("$n").append(i).append(" isa ").append(entity).append("; ");
+                for (int i = 0; i + 1 < length; i++) {
+                    insert.append("(").append(from).append(":$n").append(i).append(", ")
+                            .append(to).append(":$n").append(i + 1).append(") isa ").append(relation).append("; ");
+                }
+                transaction.query().insert(Graql.parseQuery(insert.toString()));
+                transaction.commit();
+            }
+        }
+    }
+
+    /**
+     * Asserts that resolving a query with the tabled answers of the bound patterns at their fixpoint finds the
+     * same answers as re-resolving every bound pattern in every iteration
+     */
+    private void assertTabledAnswersMatchReresolved(String query, long answerCount) throws InterruptedException {
+        try (RocksSession session = dataSession()) {
+            assertEquals(answerCount, countAnswers(session, query, false));
+            assertEquals(answerCount, countAnswers(session, query, true));
+        }
+    }
+
+    private long countAnswers(RocksSession session, String query, boolean isTabling) throws InterruptedException {
+        try (RocksTransaction transaction = singleThreadElgTransaction(session)) {
+            ResolverRegistry registry = transaction.reasoner().resolverRegistry();
+            registry.setTabling(isTabling);
+            Conjunction conjunction = parseConjunction(transaction, query);
+            LinkedBlockingQueue<ResolutionAnswer> responses = new LinkedBlockingQueue<>();
+            AtomicLong doneReceived = new AtomicLong(0L);
+            Set<Reference.Name> filter = iterate(conjunction.variables()).map(Variable::reference).filter(Reference::isName)
+                    .map(Reference::asName).toSet();
+            Actor<Root.Conjunction> root =
+                    registry.rootConjunction(conjunction, filter, null, null, responses::add, iterDone -> doneReceived.incrementAndGet());
+            Set<ConceptMap> answers = new HashSet<>();
+            long deadline = System.currentTimeMillis() + 60_000;
+            while (doneReceived.get() == 0) {
+                AnswerState.DownstreamVars.Identity downstream = Initial.of(new ConceptMap()).toDownstreamVars();
+                root.tell(actor -> actor.receiveRequest(Request.create(
+                        new Request.Path(root, downstream), downstream, ResolutionAnswer.Derivation.EMPTY
+                ), 0));
+                ResolutionAnswer answer = null;
+                while (answer == null && doneReceived.get() == 0) {
+                    assertTrue(System.currentTimeMillis() < deadline); // prevents the test hanging
+                    answer = responses.poll(100, TimeUnit.MILLISECONDS);
+                }
+                if (answer != null) assertTrue(answers.add(answer.derived().withInitialFiltered()));
+            }
+            assertTrue(responses.isEmpty());
+            return answers.size();
+        }
+    }
+
     private Disjunction parseDisjunction(RocksTransaction transaction, String query) {
         Disjunction disjunction = Disjunction.create(Graql.parsePattern(query).asConjunction().normalise());
         disjunction.conjunctions().forEach(conj -> transaction.logic().typeResolver().resolve(conj));
@@ -46,6 +46,7 @@ import java.util.Set;
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.set;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 
 public class PlannerTest {
 
@@ -92,7 +93,7 @@ public class PlannerTest {
         Retrievable retrievable = new Retrievable(parse("{ $c($b); }"));
 
         Set<Resolvable<?>> resolvables = set(concludable, retrievable);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
         assertEquals(list(concludable, retrievable), plan);
     }
 
@@ -106,7 +107,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(concludable, retrievable);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
         assertEquals(list(retrievable, concludable), plan);
     }
 
@@ -126,7 +127,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(retrievable, retrievable2, concludable);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
         assertEquals(list(retrievable, concludable, retrievable2), plan);
     }
 
@@ -146,7 +147,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(retrievable, retrievable2, concludable);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
         assertEquals(list(retrievable2, concludable, retrievable), plan);
     }
 
@@ -157,7 +158,7 @@ public class PlannerTest {
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
 
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
         assertEquals(list(concludable, concludable2), plan);
     }
 
@@ -176,18 +177,56 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(parse("{ $e($c, $p2) isa employment; }")).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(retrievable, retrievable2, concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
 
         assertEquals(list(retrievable, concludable, retrievable2, concludable2), plan);
     }
 
+    @Test
+    public void test_planner_replans_when_inferred_answers_change() {
+        EntityType person = conceptMgr.putEntityType("person");
+        AttributeType name = conceptMgr.putAttributeType("name", AttributeType.ValueType.STRING);
+        person.setOwns(name);
+        EntityType company = conceptMgr.putEntityType("company");
+        company.setOwns(name);
+
+        Concludable concludable = Concludable.create(parse("{ $p isa person, has name $n; }")).iterator().next();
+        Concludable concludable2 = Concludable.create(parse("{ $c isa company, has name $m; }")).iterator().next();
+        Set<Resolvable<?>> resolvables = set(concludable, concludable2);
+        Planner planner = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal());
+
+        planner.recordInferred(concludable, 1_000_000);
+        assertEquals(list(concludable2, concludable), planner.plan(resolvables));
+
+        planner.recordInferred(concludable2, 4_000_000);
+        assertEquals(list(concludable, concludable2), planner.plan(resolvables));
+    }
+
+    @Test
+    public void test_planner_averages_inferred_answers() {
+        Concludable concludable = Concludable.create(parse("{ $a has $b; }")).iterator().next();
+        Planner planner = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal());
+
+        assertFalse(planner.averageInferred(concludable).isPresent());
+        planner.recordInferred(concludable, 8);
+        assertEquals(8.0, planner.averageInferred(concludable).getAsDouble(), 0);
+        planner.recordInferred(concludable, 4);
+        assertEquals(6.0, planner.averageInferred(concludable).getAsDouble(), 0);
+        planner.recordInferred(concludable, 2);
+        assertEquals(14.0 / 3, planner.averageInferred(concludable).getAsDouble(), 1e-9);
+        for (int i = 0; i < 96; i++) planner.recordInferred(concludable, 2);
+        // a single outlier only moves the average by its share of the counts
+        planner.recordInferred(concludable, 10_002);
+        assertEquals((14.0 + 96 * 2 + 10_002) / 100, planner.averageInferred(concludable).getAsDouble(), 1e-9);
+    }
+
     @Test
     public void test_planner_two_circular_has_dependencies() {
         Concludable concludable = Concludable.create(parse("{ $a has $b; }")).iterator().next();
         Concludable concludable2 = Concludable.create(parse("{ $b has $a; }")).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
 
         assertEquals(2, plan.size());
         assertEquals(set(concludable, concludable2), set(plan));
@@ -199,7 +238,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(parse("{ $b($a); }")).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
 
         assertEquals(2, plan.size());
         assertEquals(set(concludable, concludable2), set(plan));
@@ -211,7 +250,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(parse("{ $c($d); }")).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
 
         assertEquals(2, plan.size());
         assertEquals(set(concludable, concludable2), set(plan));
@@ -238,7 +277,7 @@ public class PlannerTest {
         Concludable concludable2 = Concludable.create(parse("{ $c($b) isa friendship; }")).iterator().next();
 
         Set<Resolvable<?>> resolvables = set(concludable, concludable2);
-        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr).plan(resolvables);
+        List<Resolvable<?>> plan = new Planner(conceptMgr, logicMgr, rocksTransaction.traversal()).plan(resolvables);
 
         assertEquals(0, concludable.getApplicableRules(conceptMgr, logicMgr).toList().size());
         assertEquals(1, concludable2.getApplicableRules(conceptMgr, logicMgr).toList().size());
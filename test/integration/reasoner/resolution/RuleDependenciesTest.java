@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.reasoner.resolution;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concurrent.actor.Actor;
+import grakn.core.concurrent.actor.EventLoopGroup;
+import grakn.core.logic.LogicManager;
+import grakn.core.pattern.Conjunction;
+import grakn.core.pattern.Disjunction;
+import grakn.core.reasoner.resolution.RuleDependencies.Component;
+import grakn.core.reasoner.resolution.resolver.Root;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.set;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
+import static junit.framework.TestCase.assertTrue;
+
+public class RuleDependenciesTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rule-dependencies-test");
+    private static final String database = "rule-dependencies-test";
+    private static RocksGrakn grakn;
+    private static RocksSession session;
+    private static RocksTransaction transaction;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        session = grakn.session(database, Arguments.Session.Type.SCHEMA);
+        transaction = session.transaction(Arguments.Transaction.Type.WRITE);
+        transaction.query().define(Graql.parseQuery(
+                "define node sub entity, plays link:source, plays link:target," +
+                        "plays path:source, plays path:target, plays odd-path:source, plays odd-path:target," +
+                        "plays even-path:source, plays even-path:target, plays reach:source, plays reach:target;" +
+                        "link sub relation, relates source, relates target;" +
+                        "path sub relation, relates source, relates target;" +
+                        "odd-path sub relation, relates source, relates target;" +
+                        "even-path sub relation, relates source, relates target;" +
+                        "reach sub relation, relates source, relates target;" +
+                        "rule transitive-path: when {" +
+                        "(source:$x, target:$y) isa path; (source:$y, target:$z) isa path;" +
+                        "} then {" +
+                        "(source:$x, target:$z) isa path;" +
+                        "};" +
+                        "rule odd-link: when {" +
+                        "(source:$x, target:$y) isa link;" +
+                        "} then {" +
+                        "(source:$x, target:$y) isa odd-path;" +
+                        "};" +
+                        "rule odd-after-even: when {" +
+                        "(source:$x, target:$y) isa even-path; (source:$y, target:$z) isa link;" +
+                        "} then {" +
+                        "(source:$x, target:$z) isa odd-path;" +
+                        "};" +
+                        "rule even-after-odd: when {" +
+                        "(source:$x, target:$y) isa odd-path; (source:$y, target:$z) isa link;" +
+                        "} then {" +
+                        "(source:$x, target:$z) isa even-path;" +
+                        "};" +
+                        "rule reach-by-even: when {" +
+                        "(source:$x, target:$y) isa even-path;" +
+                        "} then {" +
+                        "(source:$x, target:$y) isa reach;" +
+                        "};").asDefine());
+    }
+
+    @After
+    public void tearDown() {
+        transaction.close();
+        session.close();
+        grakn.close();
+    }
+
+    @Test
+    public void rules_are_partitioned_into_their_strongly_connected_components() {
+        LogicManager logicMgr = transaction.logic();
+        RuleDependencies dependencies = new RuleDependencies(transaction.concepts(), logicMgr);
+
+        Component transitive = dependencies.component(logicMgr.getRule("transitive-path"));
+        assertEquals(set(logicMgr.getRule("transitive-path")), transitive.rules());
+
+        Component oddAfterEven = dependencies.component(logicMgr.getRule("odd-after-even"));
+        Component evenAfterOdd = dependencies.component(logicMgr.getRule("even-after-odd"));
+        assertSame(oddAfterEven, evenAfterOdd);
+        assertEquals(set(logicMgr.getRule("odd-after-even"), logicMgr.getRule("even-after-odd")), oddAfterEven.rules());
+
+        Component oddLink = dependencies.component(logicMgr.getRule("odd-link"));
+        Component reach = dependencies.component(logicMgr.getRule("reach-by-even"));
+        assertEquals(set(logicMgr.getRule("odd-link")), oddLink.rules());
+        assertEquals(set(logicMgr.getRule("reach-by-even")), reach.rules());
+        assertNotSame(oddLink, oddAfterEven);
+        assertNotSame(reach, oddAfterEven);
+    }
+
+    @Test
+    public void inferred_answers_are_seen_by_the_components_that_depend_on_them() {
+        LogicManager logicMgr = transaction.logic();
+        RuleDependencies dependencies = new RuleDependencies(transaction.concepts(), logicMgr);
+        Component transitive = dependencies.component(logicMgr.getRule("transitive-path"));
+        Component oddLink = dependencies.component(logicMgr.getRule("odd-link"));
+        Component recursive = dependencies.component(logicMgr.getRule("even-after-odd"));
+        Component reach = dependencies.component(logicMgr.getRule("reach-by-even"));
+        Actor<Root.Conjunction> root = root("{ (source:$x, target:$y) isa reach; }");
+        Actor<Root.Conjunction> otherRoot = root("{ (source:$x, target:$y) isa path; }");
+
+        dependencies.recordInferred(root, oddLink, 2);
+        assertTrue(dependencies.hasInferredSince(root, list(oddLink), 2));
+        assertFalse(dependencies.hasInferredSince(root, list(oddLink), 3));
+        assertTrue(dependencies.hasInferredSince(root, list(recursive), 2));
+        assertTrue(dependencies.hasInferredSince(root, list(reach), 1));
+        assertFalse(dependencies.hasInferredSince(root, list(transitive), 0));
+        assertFalse(dependencies.hasInferredSince(otherRoot, list(reach), 0));
+
+        dependencies.recordInferred(root, recursive, 4);
+        dependencies.recordInferred(root, recursive, 3);
+        assertTrue(dependencies.hasInferredSince(root, list(reach), 4));
+        assertFalse(dependencies.hasInferredSince(root, list(oddLink), 4));
+        assertFalse(dependencies.hasInferredSince(root, list(reach, transitive), 5));
+    }
+
+    private Actor<Root.Conjunction> root(String query) {
+        Conjunction conjunction = Disjunction.create(Graql.parsePattern(query).asConjunction().normalise()).conjunctions().iterator().next();
+        transaction.logic().typeResolver().resolve(conjunction);
+        ResolverRegistry registry = new ResolverRegistry(new EventLoopGroup(1), null, transaction.traversal(),
+                                                         transaction.concepts(), transaction.logic(), null);
+        return registry.rootConjunction(conjunction, set(), null, null, answer -> {}, iteration -> {});
+    }
+}
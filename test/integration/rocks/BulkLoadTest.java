@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options;
+import grakn.core.graph.common.Encoding;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkLoadTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("bulk-load-test");
+    private static final String database = "bulk-load-test";
+    private static final byte[] CONFLICT_KEY = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1};
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery("define person sub entity, owns name; name sub attribute, value string;").asDefine());
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    private RocksTransaction bulkLoadTransaction(RocksSession session) {
+        return session.transaction(Arguments.Transaction.Type.WRITE, new Options.Transaction().bulkLoad(true));
+    }
+
+    private long countPersons(RocksSession session) {
+        try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+            return txn.query().match(Graql.parseQuery("match $x isa person, has name $n;").asMatch()).count();
+        }
+    }
+
+    private long countBulkLoadFiles() throws IOException {
+        Path bulkLoadDirectory = directory.resolve(database).resolve(Encoding.ROCKS_BULK_LOAD);
+        if (!Files.isDirectory(bulkLoadDirectory)) return 0;
+        try (Stream<Path> files = Files.list(bulkLoadDirectory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void committed_bulk_load_is_visible() throws IOException {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = bulkLoadTransaction(session)) {
+                for (int i = 0; i < 100; i++) {
+                    txn.query().insert(Graql.parseQuery("insert $x isa person, has name 'person-" + i + "';").asInsert());
+                }
+                txn.commit();
+            }
+            assertEquals(100, countPersons(session));
+        }
+        assertEquals(0, countBulkLoadFiles());
+    }
+
+    @Test
+    public void failed_commit_leaves_no_bulk_loaded_data_visible() throws IOException, RocksDBException {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = bulkLoadTransaction(session)) {
+                for (int i = 0; i < 100; i++) {
+                    txn.query().insert(Graql.parseQuery("insert $x isa person, has name 'person-" + i + "';").asInsert());
+                }
+
+                // Force the RocksDB transaction to fail its commit on a write-write conflict
+                RocksStorage.Data storage = ((RocksTransaction.Data) txn).dataStorage;
+                storage.storageTransaction.put(CONFLICT_KEY, new byte[]{1});
+                session.database().rocksData().put(CONFLICT_KEY, new byte[]{2});
+
+                try {
+                    txn.commit();
+                    fail();
+                } catch (GraknException e) {
+                    assertTrue(e.getCause() instanceof RocksDBException);
+                }
+            }
+            assertEquals(0, countPersons(session));
+        }
+        assertEquals(0, countBulkLoadFiles());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.rocks;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.graph.common.Storage;
+import grakn.core.test.integration.util.Util;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static grakn.core.common.collection.Bytes.join;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class RocksIteratorTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("rocks-iterator-test");
+    private static final String database = "rocks-iterator-test";
+    private static final byte[] PREFIX = new byte[]{(byte) 0xFE, 1};
+    private static final byte[] INSIDE_1 = join(PREFIX, new byte[]{1});
+    private static final byte[] INSIDE_2 = join(PREFIX, new byte[]{(byte) 0xFF});
+    private static final byte[] OUTSIDE_1 = new byte[]{(byte) 0xFE, 2};
+    private static final byte[] OUTSIDE_2 = new byte[]{(byte) 0xFE, 2, 1};
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            session.database().rocksData().put(INSIDE_1, new byte[0]);
+            session.database().rocksData().put(OUTSIDE_1, new byte[0]);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    @Test
+    public void scans_of_a_prefix_stop_at_uncommitted_keys_outside_of_the_prefix() throws RocksDBException {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                RocksStorage.Data storage = ((RocksTransaction.Data) txn).dataStorage;
+                storage.storageTransaction.put(INSIDE_2, new byte[0]);
+                storage.storageTransaction.put(OUTSIDE_2, new byte[0]);
+
+                for (Storage.Scan scan : Storage.Scan.values()) {
+                    List<byte[]> keys = storage.iterate(PREFIX, (key, value) -> key, scan).toList();
+                    assertEquals(2, keys.size());
+                    assertArrayEquals(INSIDE_1, keys.get(0));
+                    assertArrayEquals(INSIDE_2, keys.get(1));
+
+                    List<byte[]> viewed = storage.iterateKeys(PREFIX, key -> key.bytes(), scan).toList();
+                    assertEquals(2, viewed.size());
+                    assertArrayEquals(INSIDE_1, viewed.get(0));
+                    assertArrayEquals(INSIDE_2, viewed.get(1));
+                }
+
+                Storage.Seekable<byte[]> seekable = storage.iterateSeekableKeys(PREFIX, key -> key.bytes());
+                seekable.seek(OUTSIDE_1);
+                assertFalse(seekable.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void keys_longer_than_the_key_buffer_are_read_whole_from_a_view() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                RocksStorage.Data storage = ((RocksTransaction.Data) txn).dataStorage;
+                byte[] longKey = join(PREFIX, new byte[1024]);
+                longKey[longKey.length - 1] = 7;
+                storage.putUntracked(longKey);
+
+                for (int i = 0; i < 2; i++) {
+                    List<byte[]> keys = storage.iterateKeys(PREFIX, key -> key.bytes()).toList();
+                    assertEquals(2, keys.size());
+                    assertArrayEquals(longKey, keys.get(0));
+                    assertArrayEquals(INSIDE_1, keys.get(1));
+
+                    List<byte[]> tails = storage.iterateKeys(PREFIX, key -> key.bytes(key.length() - 1, key.length())).toList();
+                    assertArrayEquals(new byte[]{7}, tails.get(0));
+                    assertArrayEquals(new byte[]{1}, tails.get(1));
+                }
+            }
+        }
+    }
+}
@@ -23,10 +23,17 @@ import grakn.core.common.parameters.Arguments;
 import grakn.core.common.parameters.Label;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.thing.Attribute;
+import grakn.core.graph.DataGraph;
+import grakn.core.graph.common.Encoding;
+import grakn.core.graph.common.Encoding.Statistics.CountChange;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.vertex.TypeVertex;
 import grakn.core.test.integration.util.Util;
 import graql.lang.Graql;
 import graql.lang.query.GraqlQuery;
 import org.junit.Test;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.RocksDBException;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -36,7 +43,17 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_IN;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_OUT;
+import static grakn.core.graph.common.StatisticsBytes.attributeCountedKey;
+import static grakn.core.graph.common.StatisticsBytes.countJobKey;
+import static grakn.core.graph.common.StatisticsBytes.vertexCountKey;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 
 public class StatisticsTest {
 
@@ -59,6 +76,239 @@ public class StatisticsTest {
         }
     }
 
+    @Test
+    public void test_count_jobs_of_older_versions_are_migrated_on_load() throws IOException, RocksDBException {
+        Util.resetDirectory(directory);
+        int personCount = 10;
+        Set<Long> ages = new HashSet<>();
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            setupSchema(grakn);
+            insertPersonAndAges(grakn, personCount, ages, new Random(0));
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                VertexIID.Thing personIID;
+                VertexIID.Attribute<?> ageIID;
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    ConceptMap answer = tx.query().match(Graql.parseQuery("match $x isa person, has age $y;").asMatch()).next();
+                    personIID = VertexIID.Thing.of(answer.get("x").asThing().getIID());
+                    ageIID = VertexIID.Attribute.of(answer.get("y").asThing().getIID());
+                }
+                // leave the age as an older version would have: created, but only counted by a pending count job,
+                // next to a count job for a has edge that has already been counted
+                OptimisticTransactionDB rocksData = session.database().rocksData;
+                rocksData.delete(attributeCountedKey(ageIID));
+                rocksData.merge(vertexCountKey(ageIID.type()), longToBytes(-1));
+                rocksData.put(join(countJobKey(), new byte[]{0}, ageIID.bytes()), CountChange.CREATED.bytes());
+                rocksData.put(join(countJobKey(), new byte[]{1}, personIID.bytes(), ageIID.bytes()), CountChange.CREATED.bytes());
+            }
+        }
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            assertStatistics(grakn, personCount, ages);
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction.Data tx = session.asData().transaction(Arguments.Transaction.Type.READ)) {
+                    assertFalse(tx.dataStorage.iterate(countJobKey(), (key, value) -> key).hasNext());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_degree_histograms_and_top_values_are_sampled_from_degrees() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().define(Graql.parseQuery("define person sub entity, owns name; name sub attribute, value string;").asDefine());
+                    tx.commit();
+                }
+            }
+            int commonCount = 50, rareCount = 20;
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < commonCount; i++) {
+                        tx.query().insert(Graql.parseQuery("insert $x isa person, has name 'common';").asInsert());
+                    }
+                    for (int i = 0; i < rareCount; i++) {
+                        tx.query().insert(Graql.parseQuery("insert $x isa person, has name 'rare-" + i + "';").asInsert());
+                    }
+                    tx.commit();
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    TypeVertex person = tx.graphMgr.schema().getType("person");
+                    TypeVertex name = tx.graphMgr.schema().getType("name");
+                    DataGraph.Statistics.DegreeHistogram histogram = tx.graphMgr.data().stats().degreeHistogram(name, EDGE_HAS_IN, person);
+                    assertEquals(commonCount + rareCount, histogram.edgeCount());
+                    assertEquals(1 + rareCount, histogram.vertexCount());
+                    assertEquals(63, histogram.quantile(1));
+                    DataGraph.Statistics.TopValues topValues = tx.graphMgr.data().stats().topValues(name, person);
+                    assertEquals(Long.valueOf(commonCount), topValues.degree("common"));
+                    assertTrue(topValues.isFull());
+                    assertEquals(1, topValues.minDegree());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_degree_histograms_only_sample_the_degrees_of_their_encoding_and_adjacent_type() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().define(Graql.parseQuery(
+                            "define person sub entity, owns name, owns age; " +
+                                    "name sub attribute, value string; age sub attribute, value long;"
+                    ).asDefine());
+                    tx.commit();
+                }
+            }
+            int namedCount = 30, agedCount = 10;
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < namedCount; i++) {
+                        tx.query().insert(Graql.parseQuery(
+                                "insert $x isa person, has name 'n-" + i + "-0', has name 'n-" + i + "-1', has age " + i + ";"
+                        ).asInsert());
+                    }
+                    for (int i = 0; i < agedCount; i++) {
+                        tx.query().insert(Graql.parseQuery(
+                                "insert $x isa person, has age " + (1000 + 3 * i) + ", has age " + (1001 + 3 * i) +
+                                        ", has age " + (1002 + 3 * i) + ";"
+                        ).asInsert());
+                    }
+                    tx.commit();
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    TypeVertex person = tx.graphMgr.schema().getType("person");
+                    TypeVertex name = tx.graphMgr.schema().getType("name");
+                    TypeVertex age = tx.graphMgr.schema().getType("age");
+                    DataGraph.Statistics stats = tx.graphMgr.data().stats();
+
+                    DataGraph.Statistics.DegreeHistogram names = stats.degreeHistogram(person, EDGE_HAS_OUT, name);
+                    assertEquals(namedCount, names.vertexCount());
+                    assertEquals(2 * namedCount, names.edgeCount());
+                    assertEquals(3, names.quantile(1));
+
+                    DataGraph.Statistics.DegreeHistogram ages = stats.degreeHistogram(person, EDGE_HAS_OUT, age);
+                    assertEquals(namedCount + agedCount, ages.vertexCount());
+                    assertEquals(namedCount + 3 * agedCount, ages.edgeCount());
+
+                    DataGraph.Statistics.DegreeHistogram nameOwners = stats.degreeHistogram(name, EDGE_HAS_IN, person);
+                    assertEquals(2 * namedCount, nameOwners.vertexCount());
+                    assertEquals(2 * namedCount, nameOwners.edgeCount());
+
+                    DataGraph.Statistics.DegreeHistogram ageOwners = stats.degreeHistogram(age, EDGE_HAS_IN, person);
+                    assertEquals(namedCount + 3 * agedCount, ageOwners.vertexCount());
+                    assertEquals(namedCount + 3 * agedCount, ageOwners.edgeCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_degrees_that_reach_zero_are_deleted() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().define(Graql.parseQuery(
+                            "define person sub entity, owns name, plays friendship:friend; " +
+                                    "friendship sub relation, relates friend; name sub attribute, value string;"
+                    ).asDefine());
+                    tx.commit();
+                }
+            }
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().insert(Graql.parseQuery(
+                            "insert $x isa person, has name 'alice', has name 'ali'; $y isa person, has name 'bob'; " +
+                                    "(friend: $x, friend: $y) isa friendship;"
+                    ).asInsert());
+                    tx.commit();
+                }
+                List<Long> inserted;
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    inserted = degrees(tx);
+                    assertFalse(inserted.isEmpty());
+                    assertFalse(inserted.contains(0L));
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().delete(Graql.parseQuery(
+                            "match $x isa person, has name $n; $n 'alice'; delete $x has $n;"
+                    ).asDelete());
+                    tx.commit();
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // the degree of 'alice' is deleted, while the degree of its former owner drops to 1
+                    List<Long> degrees = degrees(tx);
+                    assertEquals(inserted.size() - 1, degrees.size());
+                    assertFalse(degrees.contains(0L));
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().delete(Graql.parseQuery("match $r isa friendship; delete $r isa friendship;").asDelete());
+                    tx.query().delete(Graql.parseQuery("match $x isa person; delete $x isa person;").asDelete());
+                    tx.commit();
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertTrue(degrees(tx).isEmpty());
+                }
+            }
+        }
+    }
+
+    private static List<Long> degrees(RocksTransaction tx) {
+        return tx.graphMgr.data().storage().iterate(
+                Encoding.Prefix.STATISTICS_DEGREE.bytes(), (key, value) -> bytesToLong(value)
+        ).toList();
+    }
+
+    @Test
+    public void test_counts_from_statistics_match_counts_from_traversals() throws IOException {
+        Util.resetDirectory(directory);
+        try (RocksGrakn grakn = RocksGrakn.open(directory)) {
+            grakn.databases().create(database);
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    tx.query().define(Graql.parseQuery("define person sub entity, owns name; name sub attribute, value string;").asDefine());
+                    tx.commit();
+                }
+            }
+            String[] queries = {"match $x isa person;", "match $x isa person, has name $n;", "match $n isa name;"};
+            try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < 30; i++) {
+                        tx.query().insert(Graql.parseQuery("insert $x isa person, has name 'name-" + (i % 10) + "';").asInsert());
+                    }
+                    for (int i = 0; i < 5; i++) tx.query().insert(Graql.parseQuery("insert $x isa person;").asInsert());
+                    tx.commit();
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // the statistics are exact, so the answers are counted from them
+                    assertTrue(tx.graphMgr.data().stats().isExact());
+                    assertCounts(tx, queries, 35, 30, 10);
+                }
+                try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // the statistics do not count the uncommitted attributes, so the answers are traversed to be counted
+                    tx.query().insert(Graql.parseQuery("insert $x isa person, has name 'name-10';").asInsert());
+                    assertFalse(tx.graphMgr.data().stats().isExact());
+                    assertCounts(tx, queries, 36, 31, 11);
+                }
+            }
+        }
+    }
+
+    private static void assertCounts(RocksTransaction tx, String[] queries, long... counts) {
+        for (int i = 0; i < queries.length; i++) {
+            long traversed = tx.query().match(Graql.parseQuery(queries[i]).asMatch()).count();
+            long counted = tx.query().match(Graql.parseQuery(queries[i] + " count;").asMatchAggregate()).asLong();
+            assertEquals(counts[i], traversed);
+            assertEquals(traversed, counted);
+        }
+    }
+
     private void updateAges(RocksGrakn grakn, Set<Long> ages) {
         try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
             try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
@@ -93,7 +343,6 @@ public class StatisticsTest {
     }
 
     private void assertStatistics(RocksGrakn grakn, int personCount, Set<Long> ages) {
-        waitForStatisticsCounter();
         try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
             try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
                 assertEquals(personCount, tx.graphMgr.data().stats().thingVertexCount(Label.of("person")));
@@ -116,12 +365,4 @@ public class StatisticsTest {
             }
         }
     }
-
-    private void waitForStatisticsCounter() {
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-    }
 }
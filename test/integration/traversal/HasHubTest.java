@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.traversal.procedure;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graph.DataGraph.Statistics.ValueHistogram;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static grakn.common.collection.Bytes.bytesToHexString;
+import static grakn.core.common.iterator.Iterators.iterate;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_OUT;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HasHubTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("has-hub-test");
+    private static final String database = "has-hub-test";
+    private static final int AGES = 1000;
+    private static final long THRESHOLD = 990;
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery("define person sub entity, owns age; age sub attribute, value long;").asDefine());
+                txn.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                StringBuilder hub = new StringBuilder("insert $x isa person");
+                for (int i = 0; i < AGES; i++) hub.append(", has age ").append(i);
+                txn.query().insert(Graql.parseQuery(hub.append(";").toString()).asInsert());
+                txn.query().insert(Graql.parseQuery("insert $x isa person, has age 995, has age 5;").asInsert());
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    @Test
+    public void test_has_edges_of_a_hub_are_looked_up_in_reverse_from_a_range_of_values() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                TypeVertex person = graphMgr.schema().getType("person");
+                TypeVertex age = graphMgr.schema().getType("age");
+                ThingVertex hub = null, other = null;
+                for (ThingVertex p : graphMgr.data().get(person).toList()) {
+                    if (graphMgr.data().stats().degree(p.iid(), EDGE_HAS_OUT, age.iid()) == AGES) hub = p;
+                    else other = p;
+                }
+                assertTrue(hub != null && other != null);
+
+                ValueHistogram histogram = graphMgr.data().stats().valueHistogram(age);
+                double reverseCount = AGES * (1 - histogram.fractionBelow(THRESHOLD));
+                assertTrue(reverseCount < AGES / 10.0);
+                assertTrue(ProcedureEdge.Native.Thing.Has.isHub(graphMgr, hub, EDGE_HAS_OUT, age, reverseCount));
+                assertFalse(ProcedureEdge.Native.Thing.Has.isHub(graphMgr, other, EDGE_HAS_OUT, age, reverseCount));
+
+                VertexIID.Attribute.Long lower = new VertexIID.Attribute.Long(age.iid(), THRESHOLD + 1);
+                Set<Long> inRange = iterate(graphMgr.data().get(age, lower, null).toList())
+                        .map(a -> a.asAttribute().asLong().value()).toSet();
+                Set<Long> expected = new HashSet<>();
+                for (long i = THRESHOLD + 1; i < AGES; i++) expected.add(i);
+                assertEquals(expected, inRange);
+
+                assertEquals(expected, ages(txn, hub));
+                Set<Long> otherExpected = new HashSet<>();
+                otherExpected.add(995L);
+                assertEquals(otherExpected, ages(txn, other));
+            }
+        }
+    }
+
+    private static Set<Long> ages(RocksTransaction txn, ThingVertex person) {
+        String query = "match $p iid " + bytesToHexString(person.iid().bytes()) + "; $p has age $a; $a > " + THRESHOLD + ";";
+        List<ConceptMap> answers = txn.query().match(Graql.parseQuery(query).asMatch()).toList();
+        return answers.stream().map(a -> a.get("a").asAttribute().asLong().getValue()).collect(toSet());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.traversal;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IntersectionTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("intersection-test");
+    private static final String database = "intersection-test";
+    private static final String TRIANGLE = "match $p isa person, has name $n, has tag $t; $n has $t;";
+    private static final int PERSONS = 30, NAMES = 10;
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery(
+                        "define person sub entity, owns name, owns tag; " +
+                                "name sub attribute, value string, owns tag; tag sub attribute, value string;"
+                ).asDefine());
+                txn.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < NAMES; i++) {
+                    txn.query().insert(Graql.parseQuery(
+                            "insert $n 'n" + i + "' isa name, has tag 't" + (i % 3) + "', has tag 't" + (i % 4 + 3) + "';"
+                    ).asInsert());
+                }
+                for (int i = 0; i < PERSONS; i++) {
+                    txn.query().insert(Graql.parseQuery(
+                            "insert $p isa person, has name 'n" + (i % NAMES) + "', " +
+                                    "has tag 't" + (i % 7) + "', has tag 't" + (i % 5 + 5) + "';"
+                    ).asInsert());
+                }
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    @Test
+    public void test_triangles_of_persisted_edges_match_the_joins_of_their_edges() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                Set<List<String>> expected = joined(txn);
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, triangles(txn));
+                assertEquals(expected, triangles(txn));
+            }
+        }
+    }
+
+    @Test
+    public void test_triangles_of_persisted_and_uncommitted_edges_match_the_joins_of_their_edges() {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                assertEquals(joined(txn), triangles(txn));
+                txn.query().insert(Graql.parseQuery("match $n 'n1' isa name; insert $n has tag 't9';").asInsert());
+                txn.query().insert(Graql.parseQuery(
+                        "insert $p isa person, has name $n, has tag 't0'; $n 'n-new' isa name, has tag 't0';"
+                ).asInsert());
+                for (int i = 0; i < 3; i++) {
+                    txn.query().insert(Graql.parseQuery(
+                            "match $n 'n" + i + "' isa name; insert $p isa person, has $n, has tag 't9', has tag 't0';"
+                    ).asInsert());
+                }
+                Set<List<String>> expected = joined(txn);
+                assertEquals(expected, triangles(txn));
+                txn.query().delete(Graql.parseQuery("match $n 'n0' isa name, has tag $t; $t 't0'; delete $n has $t;").asDelete());
+                expected = joined(txn);
+                assertEquals(expected, triangles(txn));
+            }
+        }
+    }
+
+    private static Set<List<String>> triangles(RocksTransaction txn) {
+        Set<List<String>> triangles = new HashSet<>();
+        for (ConceptMap answer : txn.query().match(Graql.parseQuery(TRIANGLE).asMatch()).toList()) {
+            triangles.add(Arrays.asList(iid(answer, "p"), iid(answer, "n"), iid(answer, "t")));
+        }
+        return triangles;
+    }
+
+    /**
+     * Joins the answers of the three edges of the triangle query, each of which
+     * is traversed on its own, without any intersection.
+     */
+    private static Set<List<String>> joined(RocksTransaction txn) {
+        Set<List<String>> names = pairs(txn, "match $p isa person, has name $n;", "p", "n");
+        Set<List<String>> tags = pairs(txn, "match $p isa person, has tag $t;", "p", "t");
+        Set<List<String>> nameTags = pairs(txn, "match $n isa name, has tag $t;", "n", "t");
+        Set<List<String>> joined = new HashSet<>();
+        for (List<String> name : names) {
+            for (List<String> tag : tags) {
+                if (!name.get(0).equals(tag.get(0))) continue;
+                if (nameTags.contains(Arrays.asList(name.get(1), tag.get(1)))) {
+                    joined.add(Arrays.asList(name.get(0), name.get(1), tag.get(1)));
+                }
+            }
+        }
+        return joined;
+    }
+
+    private static Set<List<String>> pairs(RocksTransaction txn, String query, String first, String second) {
+        Set<List<String>> pairs = new HashSet<>();
+        for (ConceptMap answer : txn.query().match(Graql.parseQuery(query).asMatch()).toList()) {
+            pairs.add(Arrays.asList(iid(answer, first), iid(answer, second)));
+        }
+        return pairs;
+    }
+
+    private static String iid(ConceptMap answer, String variable) {
+        return answer.get(variable).asThing().getIIDForPrinting();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.traversal.iterator;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.concurrent.producer.Producer;
+import grakn.core.concurrent.producer.Producers;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.common.Encoding;
+import grakn.core.graph.vertex.AttributeVertex;
+import grakn.core.graph.vertex.ThingVertex;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.common.Identifier;
+import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.procedure.GraphProcedure;
+import grakn.core.traversal.procedure.ProcedureVertex;
+import graql.lang.Graql;
+import graql.lang.pattern.variable.Reference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeoutException;
+
+import static grakn.common.collection.Collections.set;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MorselIteratorTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("morsel-iterator-test");
+    private static final String database = "morsel-iterator-test";
+    private static final int HUB_AGES = 3 * MorselIterator.MORSEL_SIZE + 8;
+    private static final int PARALLELISATION = 4;
+    private static final Identifier.Variable.Name p = Identifier.Variable.of(Reference.name("p"));
+    private static final Identifier.Variable.Name a = Identifier.Variable.of(Reference.name("a"));
+    private static final Identifier.Variable.Name n = Identifier.Variable.of(Reference.name("n"));
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery(
+                        "define person sub entity, owns age, owns name; " +
+                                "age sub attribute, value long; name sub attribute, value string;"
+                ).asDefine());
+                txn.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                StringBuilder hub = new StringBuilder("insert $x isa person, has name 'a', has name 'b', has name 'c'");
+                for (int i = 0; i < HUB_AGES; i++) hub.append(", has age ").append(i);
+                txn.query().insert(Graql.parseQuery(hub.append(";").toString()).asInsert());
+                txn.query().insert(Graql.parseQuery("insert $x isa person, has age 1, has age 2, has name 'd';").asInsert());
+                txn.query().insert(Graql.parseQuery("insert $x isa person, has age 3;").asInsert());
+                txn.query().insert(Graql.parseQuery("insert $x isa person, has name 'e';").asInsert());
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    @Test
+    public void test_morsels_of_a_single_edge_match_the_graph_iterator() {
+        GraphProcedure.Builder builder = GraphProcedure.builder(1);
+        ProcedureVertex.Thing person = builder.setTypes(builder.namedThing("p", true), set("person"));
+        ProcedureVertex.Thing age = builder.setTypes(builder.namedThing("a"), set("age"));
+        builder.forwardHas(1, person, age);
+        GraphProcedure procedure = builder.build();
+        assertTrue(GraphIterator.isSplittable(procedure));
+
+        assertEquals(HUB_AGES + 3, assertProducerMatchesGraphIterator(procedure, set(p, a), false));
+    }
+
+    @Test
+    public void test_morsels_of_the_first_of_many_edges_match_the_graph_iterator() {
+        GraphProcedure.Builder builder = GraphProcedure.builder(2);
+        ProcedureVertex.Thing person = builder.setTypes(builder.namedThing("p", true), set("person"));
+        ProcedureVertex.Thing age = builder.setTypes(builder.namedThing("a"), set("age"));
+        ProcedureVertex.Thing name = builder.setTypes(builder.namedThing("n"), set("name"));
+        builder.forwardHas(1, person, age);
+        builder.forwardHas(2, person, name);
+        GraphProcedure procedure = builder.build();
+        assertTrue(GraphIterator.isSplittable(procedure));
+
+        assertEquals(HUB_AGES * 3 + 2, assertProducerMatchesGraphIterator(procedure, set(p, a, n), false));
+    }
+
+    @Test
+    public void test_procedures_that_cannot_be_split_match_the_graph_iterator() {
+        GraphProcedure.Builder builder = GraphProcedure.builder(1);
+        ProcedureVertex.Thing person = builder.setTypes(builder.namedThing("p", true), set("person"));
+        ProcedureVertex.Thing age = builder.setTypes(builder.anonymousThing(0), set("age"));
+        builder.forwardHas(1, person, age);
+        GraphProcedure procedure = builder.build();
+        assertFalse(GraphIterator.isSplittable(procedure));
+
+        assertEquals(3, assertProducerMatchesGraphIterator(procedure, set(p), false));
+    }
+
+    @Test
+    public void test_morsels_of_a_single_start_vertex_are_produced_by_many_jobs_at_once() {
+        GraphProcedure.Builder builder = GraphProcedure.builder(1);
+        ProcedureVertex.Thing person = builder.setTypes(builder.namedThing("p", true), set("person"));
+        ProcedureVertex.Thing age = builder.setTypes(builder.namedThing("a"), set("age"));
+        person.props().hasIID(true);
+        builder.forwardHas(1, person, age);
+        GraphProcedure procedure = builder.build();
+        assertTrue(GraphIterator.isSplittable(procedure));
+
+        assertEquals(HUB_AGES, assertProducerMatchesGraphIterator(procedure, set(p, a), true));
+    }
+
+    /**
+     * Produces the answers of the procedure with a producer, as a query would,
+     * and compares them with the answers of a graph iterator of every start
+     * vertex. The producer is given a queue that holds back the first answer of
+     * every job until a second job has put an answer, so the comparison only
+     * completes in time if more than one job runs at once.
+     */
+    private static int assertProducerMatchesGraphIterator(GraphProcedure procedure,
+                                                          Set<Identifier.Variable.Name> filter,
+                                                          boolean startsFromHub) {
+        ExecutorService executor = newFixedThreadPool(PARALLELISATION);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                Traversal.Parameters params = new Traversal.Parameters();
+                if (startsFromHub) {
+                    AttributeVertex<String> name = graphMgr.data().get(graphMgr.schema().getType("name"), "a");
+                    ThingVertex hub = name.ins().edge(Encoding.Edge.Thing.HAS).from().first().get();
+                    params.putIID(p, hub.iid());
+                }
+                Set<VertexMap> expected = procedure.iterator(graphMgr, params, filter).toSet();
+
+                Answers answers = new Answers(startsFromHub ? 2 : 1);
+                Producer<VertexMap> producer = procedure.producer(graphMgr, params, filter, PARALLELISATION);
+                producer.produce(answers, Producers.MAX_BATCH_SIZE, executor);
+                answers.done.get(30, SECONDS);
+                producer.recycle();
+
+                assertEquals(expected.size(), answers.answers.size());
+                assertEquals(expected, new HashSet<>(answers.answers));
+                assertEquals(0, answers.concurrent.getCount());
+                return answers.answers.size();
+            }
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            throw new AssertionError(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Answers implements Producer.Queue<VertexMap> {
+
+        private final List<VertexMap> answers;
+        private final Set<Thread> threads;
+        private final CountDownLatch concurrent;
+        private final CompletableFuture<Void> done;
+
+        private Answers(int concurrency) {
+            this.answers = Collections.synchronizedList(new ArrayList<>());
+            this.threads = ConcurrentHashMap.newKeySet();
+            this.concurrent = new CountDownLatch(concurrency);
+            this.done = new CompletableFuture<>();
+        }
+
+        @Override
+        public void put(VertexMap item) {
+            if (threads.add(Thread.currentThread())) {
+                concurrent.countDown();
+                try {
+                    concurrent.await(10, SECONDS);
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+            answers.add(item);
+        }
+
+        @Override
+        public void done() {
+            done.complete(null);
+        }
+
+        @Override
+        public void done(Throwable e) {
+            done.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal;
+
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Label;
+import grakn.core.graph.GraphManager;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.rocks.RocksSession;
+import grakn.core.rocks.RocksTransaction;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.common.Identifier;
+import grakn.core.traversal.planner.Planner;
+import grakn.core.traversal.predicate.Predicate;
+import grakn.core.traversal.procedure.Procedure;
+import grakn.core.traversal.structure.Structure;
+import graql.lang.Graql;
+import graql.lang.pattern.variable.Reference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static grakn.common.collection.Collections.set;
+import static grakn.core.graph.common.Encoding.Edge.Thing.HAS;
+import static graql.lang.common.GraqlToken.Predicate.Equality.EQ;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TraversalCacheTest {
+
+    private static final Path directory = Paths.get(System.getProperty("user.dir")).resolve("traversal-cache-test");
+    private static final String database = "traversal-cache-test";
+    private static final int TOP_NAMES = 16;
+    private static final long SWAP_TIMEOUT_MILLIS = 10_000;
+    private static final Identifier.Variable.Name p = Identifier.Variable.of(Reference.name("p"));
+    private static final Identifier.Variable.Name n = Identifier.Variable.of(Reference.name("n"));
+    private static final Predicate.Value.String nameEquals = Predicate.Value.String.of(EQ);
+    private static RocksGrakn grakn;
+
+    @Before
+    public void setUp() throws IOException {
+        Util.resetDirectory(directory);
+        grakn = RocksGrakn.open(directory);
+        grakn.databases().create(database);
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                txn.query().define(Graql.parseQuery(
+                        "define person sub entity, owns name; name sub attribute, value string;"
+                ).asDefine());
+                txn.commit();
+            }
+        }
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < TOP_NAMES; i++) {
+                    txn.query().insert(Graql.parseQuery("insert $p isa person, has name 'top" + i + "';").asInsert());
+                    txn.query().insert(Graql.parseQuery("insert $p isa person, has name 'top" + i + "';").asInsert());
+                }
+                txn.query().insert(Graql.parseQuery("insert $p isa person, has name 'rare0';").asInsert());
+                txn.query().insert(Graql.parseQuery("insert $p isa person, has name 'rare1';").asInsert());
+                txn.commit();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        grakn.close();
+    }
+
+    @Test
+    public void test_planner_is_shared_by_equal_structures_and_solved_once() {
+        TraversalCache cache = new TraversalCache();
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                Planner planner = cache.get(structure(false), graphMgr, new Traversal.Parameters());
+                planner.tryOptimise(graphMgr, false);
+                Procedure procedure = planner.procedure();
+
+                Planner cached = cache.get(structure(false), graphMgr, new Traversal.Parameters());
+                assertSame(planner, cached);
+                cached.tryOptimise(graphMgr, false);
+                assertSame(procedure, cached.procedure());
+
+                assertEquals(1, cache.metrics().misses());
+                assertEquals(1, cache.metrics().hits());
+                assertEquals(1, cache.metrics().solves());
+                assertEquals(0, cache.metrics().backgroundSolves());
+            }
+        }
+    }
+
+    @Test
+    public void test_procedure_is_replaced_in_the_background_after_statistics_change() throws InterruptedException {
+        TraversalCache cache = new TraversalCache();
+        Planner planner;
+        Procedure procedure;
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                planner = cache.get(structure(false), graphMgr, new Traversal.Parameters());
+                planner.tryOptimise(graphMgr, false);
+                procedure = planner.procedure();
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                StringBuilder hub = new StringBuilder("insert $p isa person");
+                for (int i = 0; i < 100; i++) hub.append(", has name 'hub").append(i).append("'");
+                txn.query().insert(Graql.parseQuery(hub.append(";").toString()).asInsert());
+                txn.commit();
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                Planner cached = cache.get(structure(false), graphMgr, new Traversal.Parameters());
+                assertSame(planner, cached);
+                cached.tryOptimise(graphMgr, false);
+                long deadline = System.currentTimeMillis() + SWAP_TIMEOUT_MILLIS;
+                while (cached.procedure() == procedure && System.currentTimeMillis() < deadline) Thread.sleep(10);
+                assertNotSame(procedure, cached.procedure());
+            }
+        }
+        assertEquals(1, cache.metrics().misses());
+        assertEquals(1, cache.metrics().hits());
+        assertEquals(2, cache.metrics().solves());
+        assertEquals(1, cache.metrics().backgroundSolves());
+    }
+
+    @Test
+    public void test_only_top_values_get_a_planner_of_their_own() {
+        TraversalCache cache = new TraversalCache();
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                Planner top0 = cache.get(structure(true), graphMgr, nameEquals("top0"));
+                Planner top1 = cache.get(structure(true), graphMgr, nameEquals("top1"));
+                Planner rare0 = cache.get(structure(true), graphMgr, nameEquals("rare0"));
+                assertNotSame(top0, top1);
+                assertNotSame(top0, rare0);
+                assertSame(top0, cache.get(structure(true), graphMgr, nameEquals("top0")));
+                assertSame(rare0, cache.get(structure(true), graphMgr, nameEquals("rare1")));
+                assertSame(rare0, cache.get(structure(true), graphMgr, nameEquals("missing")));
+                assertEquals(3, cache.metrics().misses());
+                assertEquals(3, cache.metrics().hits());
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < 5; i++) {
+                    txn.query().insert(Graql.parseQuery("insert $p isa person, has name 'rare0';").asInsert());
+                }
+                txn.commit();
+            }
+            try (RocksTransaction txn = session.transaction(Arguments.Transaction.Type.READ)) {
+                GraphManager graphMgr = txn.traversal().graph();
+                Planner rare1 = cache.get(structure(true), graphMgr, nameEquals("rare1"));
+                assertNotSame(rare1, cache.get(structure(true), graphMgr, nameEquals("rare0")));
+                assertEquals(4, cache.metrics().misses());
+            }
+        }
+    }
+
+    private static Structure structure(boolean hasPredicate) {
+        Structure structure = new Structure();
+        structure.thingVertex(p).props().types(set(Label.of("person")));
+        structure.thingVertex(n).props().types(set(Label.of("name")));
+        if (hasPredicate) structure.thingVertex(n).props().predicate(nameEquals);
+        structure.nativeEdge(structure.thingVertex(p), structure.thingVertex(n), HAS);
+        return structure;
+    }
+
+    private static Traversal.Parameters nameEquals(String value) {
+        Traversal.Parameters params = new Traversal.Parameters();
+        params.pushValue(n, nameEquals, new Traversal.Parameters.Value(value));
+        return params;
+    }
+}
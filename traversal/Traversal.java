@@ -32,6 +32,7 @@ import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.graph.TraversalVertex;
 import grakn.core.traversal.planner.Planner;
+import grakn.core.traversal.procedure.Procedure;
 import grakn.core.traversal.predicate.Predicate;
 import grakn.core.traversal.predicate.PredicateArgument;
 import grakn.core.traversal.structure.Structure;
@@ -45,6 +46,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -100,10 +102,10 @@ public class Traversal {
         return filter;
     }
 
-    void initialise(TraversalCache cache) {
+    void initialise(TraversalCache cache, GraphManager graphMgr) {
         planners = iterate(structure.asGraphs()).filter(p -> iterate(p.vertices()).anyMatch(
                 v -> v.id().isName() && filter().contains(v.id().asVariable().asName())
-        )).map(s -> cache.get(s, Planner::create)).toList();
+        )).map(s -> cache.get(s, graphMgr, parameters)).toList();
     }
 
     ResourceIterator<VertexMap> iterator(GraphManager graphMgr, boolean extraPlanningTime) {
@@ -123,6 +125,15 @@ public class Traversal {
         }
     }
 
+    Optional<ResourceIterator<VertexMap>> iterator(GraphManager graphMgr, Identifier.Variable.Name start) {
+        assert !planners.isEmpty();
+        if (planners.size() > 1) return Optional.empty();
+        planners.get(0).tryOptimise(graphMgr, false);
+        Procedure procedure = planners.get(0).procedure();
+        if (!procedure.startVertex().id().equals(start)) return Optional.empty();
+        return Optional.of(procedure.iterator(graphMgr, parameters, filter()));
+    }
+
     Producer<VertexMap> producer(GraphManager graphMgr, Arguments.Query.Producer mode,
                                  int parallelisation, boolean extraPlanningTime) {
         assert !planners.isEmpty();
@@ -18,17 +18,172 @@
 
 package grakn.core.traversal;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.cache.CommonCache;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.iid.VertexIID;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.planner.Planner;
+import grakn.core.traversal.predicate.Predicate;
 import grakn.core.traversal.structure.Structure;
 
-public class TraversalCache extends CommonCache<Structure, Planner> {
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static grakn.common.collection.Collections.pair;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The planners of every traversal structure, shared by every transaction of a
+ * database until its schema changes. A structure has a planner for every class
+ * of the values its costs are estimated from. A traversal of a cached structure reuses
+ * the best procedure known to its planner, while the planner improves on it in
+ * the background.
+ */
+public class TraversalCache extends CommonCache<Pair<Structure, Set<Pair<Pair<Identifier.Variable, Predicate.Value<?>>, Object>>>, Planner> {
+
+    private final Metrics metrics;
+    private final TopStrings topStrings;
 
     public TraversalCache() {
+        this(new Metrics());
+    }
+
+    public TraversalCache(Metrics metrics) {
         super();
+        this.metrics = metrics;
+        this.topStrings = new TopStrings();
     }
 
     public TraversalCache(int size, int timeOutMinutes) {
         super(size, timeOutMinutes);
+        this.metrics = new Metrics();
+        this.topStrings = new TopStrings();
+    }
+
+    /**
+     * Returns the planner of a traversal structure, shared by every traversal of the
+     * structure whose values fall into the same classes as the given parameters.
+     *
+     * @param structure of the traversal
+     * @param graphMgr  of the transaction that reads the statistics to class the values
+     * @param params    of the traversal
+     * @return the planner of the structure for the given parameters
+     */
+    public Planner get(Structure structure, GraphManager graphMgr, Traversal.Parameters params) {
+        metrics.lookups.increment();
+        return get(pair(structure, Planner.valueClasses(structure, graphMgr, params, topStrings)), key -> {
+            metrics.misses.increment();
+            return Planner.create(structure, params, metrics);
+        });
+    }
+
+    public Metrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * The strings ranked among the top values of each attribute type, over all of
+     * its owner types, as of the latest statistics snapshot seen by a lookup. The
+     * top values of an attribute type are read from the statistics once per
+     * snapshot, rather than once per owner type on every lookup, and the strings
+     * of a snapshot are dropped as soon as a lookup sees a newer one. A lookup
+     * from a transaction opened before the latest snapshot reads its own top
+     * values without caching them.
+     */
+    @ThreadSafe
+    public static class TopStrings {
+
+        private final ConcurrentMap<Pair<Long, VertexIID.Type>, Set<String>> strings;
+        private final AtomicLong snapshot;
+
+        TopStrings() {
+            strings = new ConcurrentHashMap<>();
+            snapshot = new AtomicLong(-1L);
+        }
+
+        public boolean contains(GraphManager graphMgr, TypeVertex attributeType, String value) {
+            long txSnapshot = graphMgr.data().stats().snapshot();
+            long latest = snapshot.getAndAccumulate(txSnapshot, Math::max);
+            if (latest > txSnapshot) return read(graphMgr, attributeType).contains(value);
+            if (latest < txSnapshot) strings.keySet().removeIf(key -> key.first() < txSnapshot);
+            return strings.computeIfAbsent(
+                    pair(txSnapshot, attributeType.iid()), key -> read(graphMgr, attributeType)
+            ).contains(value);
+        }
+
+        private Set<String> read(GraphManager graphMgr, TypeVertex attributeType) {
+            Set<String> values = new HashSet<>();
+            for (TypeVertex ownerType : graphMgr.schema().ownersOfAttributeType(attributeType)) {
+                values.addAll(graphMgr.data().stats().topValues(attributeType, ownerType).strings());
+            }
+            return values;
+        }
+    }
+
+    @ThreadSafe
+    public static class Metrics {
+
+        private final LongAdder lookups;
+        private final LongAdder misses;
+        private final LongAdder solves;
+        private final LongAdder backgroundSolves;
+        private final LongAdder solveNanos;
+        private final AtomicLong solveMaxNanos;
+
+        public Metrics() {
+            lookups = new LongAdder();
+            misses = new LongAdder();
+            solves = new LongAdder();
+            backgroundSolves = new LongAdder();
+            solveNanos = new LongAdder();
+            solveMaxNanos = new AtomicLong(0);
+        }
+
+        public void solved(long durationNanos, boolean isBackground) {
+            solves.increment();
+            if (isBackground) backgroundSolves.increment();
+            solveNanos.add(durationNanos);
+            solveMaxNanos.accumulateAndGet(durationNanos, Math::max);
+        }
+
+        public long hits() {
+            return lookups.sum() - misses.sum();
+        }
+
+        public long misses() {
+            return misses.sum();
+        }
+
+        public long solves() {
+            return solves.sum();
+        }
+
+        public long backgroundSolves() {
+            return backgroundSolves.sum();
+        }
+
+        public double meanSolveMillis() {
+            long solves = solves();
+            return solves == 0 ? 0 : (double) NANOSECONDS.toMicros(solveNanos.sum()) / solves / 1000;
+        }
+
+        public double maxSolveMillis() {
+            return (double) NANOSECONDS.toMicros(solveMaxNanos.get()) / 1000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("planner: hits=%d, misses=%d, solves=%d, background-solves=%d, " +
+                                         "solve-ms[mean=%.3f, max=%.3f]",
+                                 hits(), misses(), solves(), backgroundSolves(),
+                                 meanSolveMillis(), maxSolveMillis());
+        }
     }
 }
@@ -26,6 +26,7 @@ import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
 
+import java.util.Optional;
 import java.util.Set;
 
 import static grakn.common.collection.Collections.set;
@@ -50,7 +51,7 @@ public class TraversalEngine {
 
     public Producer<VertexMap> producer(Traversal traversal, Arguments.Query.Producer mode,
                                         int parallelisation, boolean extraPlanningTime) {
-        traversal.initialise(cache);
+        traversal.initialise(cache, graphMgr);
         return traversal.producer(graphMgr, mode, parallelisation, extraPlanningTime);
     }
 
@@ -59,10 +60,24 @@ public class TraversalEngine {
     }
 
     public ResourceIterator<VertexMap> iterator(Traversal traversal, boolean extraPlanningTime) {
-        traversal.initialise(cache);
+        traversal.initialise(cache, graphMgr);
         return traversal.iterator(graphMgr, extraPlanningTime);
     }
 
+    /**
+     * Returns the answers of a traversal grouped by the given variable, such that
+     * every answer of a vertex of the variable is returned before those of the
+     * next vertex, if the procedure of the traversal starts from that variable.
+     *
+     * @param traversal to be iterated
+     * @param start     the variable the answers should be grouped by
+     * @return the answers grouped by the variable, or empty if they would not be
+     */
+    public Optional<ResourceIterator<VertexMap>> iterator(Traversal traversal, Identifier.Variable.Name start) {
+        traversal.initialise(cache, graphMgr);
+        return traversal.iterator(graphMgr, start);
+    }
+
     public ResourceIterator<VertexMap> iterator(GraphProcedure procedure, Traversal.Parameters params) {
         return iterator(procedure, params, set());
     }
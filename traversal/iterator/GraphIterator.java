@@ -22,6 +22,7 @@ import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.AbstractResourceIterator;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.graph.GraphManager;
+import grakn.core.graph.adjacency.ThingAdjacency;
 import grakn.core.graph.vertex.ThingVertex;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.Traversal;
@@ -29,19 +30,24 @@ import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
 import grakn.core.traversal.procedure.ProcedureEdge;
+import grakn.core.traversal.procedure.ProcedureVertex;
+import graql.lang.pattern.variable.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
-import static java.util.stream.Collectors.toMap;
 
 public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
@@ -50,11 +56,16 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
     private final GraphManager graphMgr;
     private final GraphProcedure procedure;
     private final Traversal.Parameters params;
-    private final Set<Identifier.Variable.Name> filter;
-    private final Map<Identifier, ResourceIterator<? extends Vertex<?, ?>>> iterators;
-    private final Map<Identifier, Vertex<?, ?>> answer;
+    private final ResourceIterator<? extends Vertex<?, ?>>[] iterators;
+    private final Vertex<?, ?>[] answer;
+    private final int[] fromSlots;
+    private final int[] toSlots;
+    private final boolean[] isIntersected;
+    private final int[] filteredSlots;
+    private final Reference[] filteredReferences;
     private final Scopes scopes;
     private final SeekStack seekStack;
+    private final ResourceIterator<? extends Vertex<?, ?>> firstBranch;
     private final int edgeCount;
     private int computeNextSeekPos;
     private State state;
@@ -63,20 +74,53 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
     public GraphIterator(GraphManager graphMgr, Vertex<?, ?> start, GraphProcedure procedure,
                          Traversal.Parameters params, Set<Identifier.Variable.Name> filter) {
+        this(graphMgr, start, null, procedure, params, filter);
+    }
+
+    /**
+     * Creates an iterator over the answers of a start vertex, whose vertices
+     * across the first edge of the procedure are restricted to those of the given
+     * branch, so that the answers of a single start vertex can be split across
+     * many iterators, each with its own part of the first branch.
+     *
+     * @param firstBranch the vertices across the first edge, or null for every vertex
+     */
+    public GraphIterator(GraphManager graphMgr, Vertex<?, ?> start,
+                         @Nullable ResourceIterator<? extends Vertex<?, ?>> firstBranch, GraphProcedure procedure,
+                         Traversal.Parameters params, Set<Identifier.Variable.Name> filter) {
         assert procedure.edgesCount() > 0;
+        assert firstBranch == null || isSplittable(procedure);
         this.graphMgr = graphMgr;
         this.procedure = procedure;
         this.params = params;
-        this.filter = filter;
         this.edgeCount = procedure.edgesCount();
-        this.iterators = new HashMap<>();
         this.scopes = new Scopes();
         this.seekStack = new SeekStack(edgeCount);
+        this.firstBranch = firstBranch;
         this.state = State.INIT;
-        this.answer = new HashMap<>();
+
+        this.fromSlots = new int[edgeCount + 1];
+        this.toSlots = new int[edgeCount + 1];
+        this.isIntersected = new boolean[edgeCount + 1];
+        for (int pos = 1; pos <= edgeCount; pos++) {
+            fromSlots[pos] = slot(procedure.edge(pos).from());
+            toSlots[pos] = slot(procedure.edge(pos).to());
+            procedure.intersections(pos).forEach(closure -> isIntersected[closure.order()] = true);
+        }
+        List<ProcedureVertex<?, ?>> filtered = procedure.vertices().filter(
+                v -> v.id().isName() && filter.contains(v.id().asVariable().asName())
+        ).collect(Collectors.toList());
+        this.filteredSlots = new int[filtered.size()];
+        this.filteredReferences = new Reference[filtered.size()];
+        for (int i = 0; i < filtered.size(); i++) {
+            filteredSlots[i] = slot(filtered.get(i));
+            filteredReferences[i] = filtered.get(i).id().asVariable().reference();
+        }
+        this.iterators = iterators(edgeCount + 1);
+        this.answer = new Vertex<?, ?>[edgeCount + 1];
 
         Identifier startId = procedure.startVertex().id();
-        this.answer.put(startId, start);
+        this.answer[0] = start;
         if (startId.isScoped()) {
             Identifier.Variable scope = startId.asScoped().scope();
             Scopes.Scoped scoped = scopes.getOrInitialise(scope);
@@ -84,6 +128,40 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         }
     }
 
+    /**
+     * Every vertex of the procedure, other than the start vertex, is reached by a
+     * single branch edge, so the vertices of an answer are held in an array,
+     * indexed by the order of the branch edge of every vertex, and by 0 for the
+     * start vertex. The slots of the vertices of every edge are resolved once, so
+     * that computing an answer takes no hash lookups.
+     */
+    private static int slot(ProcedureVertex<?, ?> vertex) {
+        if (vertex.ins().isEmpty()) return 0;
+        else return vertex.branchEdge().order();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResourceIterator<? extends Vertex<?, ?>>[] iterators(int size) {
+        return (ResourceIterator<? extends Vertex<?, ?>>[]) new ResourceIterator<?>[size];
+    }
+
+    /**
+     * The answers of a start vertex can only be split by the vertices across the
+     * first edge if the first edge is a branch into an unscoped vertex, which is
+     * not left unbounded for the sake of a single adjacent vertex.
+     *
+     * @param procedure to be split
+     * @return true if the first branch of the procedure can be split
+     */
+    public static boolean isSplittable(GraphProcedure procedure) {
+        ProcedureEdge<?, ?> edge = procedure.edge(1);
+        return !edge.isClosureEdge() && !edge.isRolePlayer() && !edge.to().id().isScoped() && !isLimitedToOne(edge);
+    }
+
+    private static boolean isLimitedToOne(ProcedureEdge<?, ?> edge) {
+        return !edge.to().id().isName() && edge.to().outs().isEmpty() && edge.to().ins().size() == 1;
+    }
+
     @Override
     public boolean hasNext() {
         try {
@@ -108,33 +186,34 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
     }
 
     private boolean computeFirst(int pos) {
-        if (answer.containsKey(procedure.edge(pos).to().id())) return computeFirstClosure(pos);
+        if (answer[toSlots[pos]] != null) return computeFirstClosure(pos);
         else return computeFirstBranch(pos);
     }
 
     private boolean computeFirstBranch(int pos) {
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        Identifier toID = edge.to().id();
-        Identifier fromId = edge.from().id();
-        ResourceIterator<? extends Vertex<?, ?>> toIter = branch(answer.get(fromId), edge);
+        int toSlot = toSlots[pos];
+        ResourceIterator<? extends Vertex<?, ?>> toIter;
+        if (pos == 1 && firstBranch != null) toIter = firstBranch;
+        else toIter = branch(answer[fromSlots[pos]], edge);
 
         if (toIter.hasNext()) {
-            iterators.put(toID, toIter);
-            answer.put(toID, toIter.next());
+            iterators[toSlot] = toIter;
+            answer[toSlot] = toIter.next();
             if (pos == edgeCount) return true;
             while (!computeFirst(pos + 1)) {
                 if (pos == seekStack.peekLastPos()) {
                     seekStack.popLastPos();
-                    if (toIter.hasNext()) answer.put(toID, toIter.next());
+                    if (toIter.hasNext()) answer[toSlot] = toIter.next();
                     else {
                         popScope(pos);
-                        answer.remove(toID);
+                        answer[toSlot] = null;
                         branchFailure(edge);
                         return false;
                     }
                 } else {
                     popScope(pos);
-                    answer.remove(toID);
+                    answer[toSlot] = null;
                     toIter.recycle();
                     return false;
                 }
@@ -148,7 +227,7 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
     private boolean computeFirstClosure(int pos) {
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        if (isClosure(edge, answer.get(edge.from().id()), answer.get(edge.to().id()))) {
+        if (isClosure(edge, answer[fromSlots[pos]], answer[toSlots[pos]])) {
             if (pos == edgeCount) return true;
             else return computeFirst(pos + 1);
         } else {
@@ -164,6 +243,9 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         } else {
             seekStack.addSeeks(edge.from().dependedEdgeOrders());
         }
+        for (ProcedureEdge<?, ?> closure : procedure.intersections(edge.order())) {
+            seekStack.addSeeks(adjacent(closure, edge.to()).dependedEdgeOrders());
+        }
     }
 
     private void closureFailure(ProcedureEdge<?, ?> edge) {
@@ -184,30 +266,31 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         if (pos == 0) return false;
 
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        Identifier toID = edge.to().id();
+        int toSlot = toSlots[pos];
 
         if (pos == computeNextSeekPos) {
             computeNextSeekPos = edgeCount;
         } else if (pos > computeNextSeekPos) {
-            if (!edge.isClosureEdge()) iterators.get(toID).recycle();
-            if (!backTrack(pos)) return false;
+            if (!edge.isClosureEdge()) iterators[toSlot].recycle();
+            if (pos == 1 || !backTrack(pos)) return false;
 
             if (edge.isClosureEdge()) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                Vertex<?, ?> toVertex = answer.get(edge.to().id());
-                if (isClosure(edge, fromVertex, toVertex)) return true;
+                if (isClosure(edge, answer[fromSlots[pos]], answer[toSlot])) return true;
                 else return computeNextClosure(pos);
             } else {
-                ResourceIterator<? extends Vertex<?, ?>> toIter = branch(answer.get(edge.from().id()), edge);
-                iterators.put(toID, toIter);
+                iterators[toSlot] = branch(answer[fromSlots[pos]], edge);
             }
         }
 
         if (edge.isClosureEdge()) {
             return computeNextClosure(pos);
-        } else if (iterators.get(toID).hasNext()) {
-            answer.put(toID, iterators.get(toID).next());
+        } else if (iterators[toSlot].hasNext()) {
+            answer[toSlot] = iterators[toSlot].next();
             return true;
+        } else if (pos == 1) {
+            // the first branch starts from the start vertex, so it is never re-created, which
+            // is what keeps the iterators given a part of the first branch from overlapping
+            return false;
         } else {
             return computeNextBranch(pos);
         }
@@ -218,9 +301,7 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         do {
 
             if (backTrack(pos)) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                Vertex<?, ?> toVertex = answer.get(edge.to().id());
-                if (isClosure(edge, fromVertex, toVertex)) return true;
+                if (isClosure(edge, answer[fromSlots[pos]], answer[toSlots[pos]])) return true;
             } else {
                 return false;
             }
@@ -228,16 +309,18 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
     }
 
     private boolean computeNextBranch(int pos) {
+        assert pos > 1;
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
         ResourceIterator<? extends Vertex<?, ?>> newIter;
 
         do {
             if (backTrack(pos)) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                newIter = branch(fromVertex, edge);
+                newIter = branch(answer[fromSlots[pos]], edge);
                 if (!newIter.hasNext()) {
                     if (edge.onlyStartsFromRelation() && !scopes.get(edge.from().id().asVariable()).isEmpty()) {
                         computeNextSeekPos = scopes.get(edge.from().id().asVariable()).lastEdgeOrder();
+                    } else if (!procedure.intersections(pos).isEmpty()) {
+                        computeNextSeekPos = intersectionSeekPos(pos);
                     } else if (!edge.from().ins().isEmpty()) {
                         computeNextSeekPos = edge.from().branchEdge().order();
                     } else {
@@ -249,13 +332,15 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
                 return false;
             }
         } while (!newIter.hasNext());
-        iterators.put(edge.to().id(), newIter);
-        answer.put(edge.to().id(), newIter.next());
+        iterators[toSlots[pos]] = newIter;
+        answer[toSlots[pos]] = newIter.next();
         return true;
     }
 
     private boolean isClosure(ProcedureEdge<?, ?> edge, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex) {
-        if (edge.isRolePlayer()) {
+        if (isIntersected[edge.order()]) {
+            return true;
+        } else if (edge.isRolePlayer()) {
             Scopes.Scoped scoped = scopes.getOrInitialise(edge.asRolePlayer().scope());
             return edge.asRolePlayer().isClosure(graphMgr, fromVertex, toVertex, params, scoped);
         } else {
@@ -287,10 +372,12 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
                     return true;
                 }
             }).map(e -> edge.direction().isForward() ? e.to() : e.from());
+        } else if (!procedure.intersections(edge.order()).isEmpty()) {
+            toIter = intersect(fromVertex, edge);
         } else {
             toIter = edge.branch(graphMgr, fromVertex, params);
         }
-        if (!edge.to().id().isName() && edge.to().outs().isEmpty() && edge.to().ins().size() == 1) {
+        if (isLimitedToOne(edge)) {
             // TODO: This optimisation can apply to more situations, such as to
             //       an entire tree, where none of the leaves are referenced by name
             toIter = toIter.limit(1);
@@ -298,6 +385,36 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         return toIter;
     }
 
+    /**
+     * Binds the vertex of a branch edge that closes a cycle to the vertices
+     * across the branch edge that are also across every closure edge into the
+     * vertex, which therefore never have to be checked against the closure edges.
+     */
+    private ResourceIterator<? extends Vertex<?, ?>> intersect(Vertex<?, ?> fromVertex, ProcedureEdge<?, ?> edge) {
+        List<ProcedureEdge<?, ?>> closures = procedure.intersections(edge.order());
+        List<ThingAdjacency.SeekableIterator> adjacents = new ArrayList<>(closures.size() + 1);
+        adjacents.add(edge.seekable(fromVertex, true));
+        for (ProcedureEdge<?, ?> closure : closures) {
+            boolean isFrom = closure.to() == edge.to();
+            Vertex<?, ?> adjacent = answer[isFrom ? fromSlots[closure.order()] : toSlots[closure.order()]];
+            adjacents.add(closure.seekable(adjacent, isFrom));
+        }
+        return edge.to().asThing().filter(new IntersectionIterator(adjacents), params);
+    }
+
+    private int intersectionSeekPos(int pos) {
+        int seekPos = fromSlots[pos];
+        for (ProcedureEdge<?, ?> closure : procedure.intersections(pos)) {
+            int order = closure.order();
+            seekPos = Math.max(seekPos, closure.to() == procedure.edge(pos).to() ? fromSlots[order] : toSlots[order]);
+        }
+        return seekPos;
+    }
+
+    private static ProcedureVertex<?, ?> adjacent(ProcedureEdge<?, ?> closure, ProcedureVertex<?, ?> vertex) {
+        return closure.to() == vertex ? closure.from() : closure.to();
+    }
+
     private boolean backTrack(int pos) {
         popScope(pos);
         return computeNext(pos - 1);
@@ -318,15 +435,13 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
     public VertexMap next() {
         if (!hasNext()) throw new NoSuchElementException();
         state = State.EMPTY;
-        return toReferenceMap(answer);
+        return toReferenceMap();
     }
 
-    private VertexMap toReferenceMap(Map<Identifier, Vertex<?, ?>> answer) {
-        return VertexMap.of(
-                answer.entrySet().stream()
-                        .filter(e -> e.getKey().isName() && filter.contains(e.getKey().asVariable().asName()))
-                        .collect(toMap(k -> k.getKey().asVariable().reference(), Map.Entry::getValue))
-        );
+    private VertexMap toReferenceMap() {
+        Map<Reference, Vertex<?, ?>> map = new HashMap<>(filteredSlots.length * 2);
+        for (int i = 0; i < filteredSlots.length; i++) map.put(filteredReferences[i], answer[filteredSlots[i]]);
+        return VertexMap.of(map);
     }
 
     @Override
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.iterator;
+
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.graph.adjacency.ThingAdjacency;
+import grakn.core.graph.vertex.ThingVertex;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static grakn.core.common.collection.Bytes.compareBytes;
+
+/**
+ * Iterates the vertices that are adjacent to every one of a set of vertices,
+ * by leapfrogging over their adjacent vertices in the order of their IIDs:
+ * every iterator is sought forward to the largest IID of the others, until
+ * all of them agree on a vertex. The cost of an intersection is therefore
+ * bounded by the smallest of the adjacencies, rather than by the adjacency
+ * that the intersection happens to be started from.
+ */
+@NotThreadSafe
+class IntersectionIterator extends AbstractResourceIterator<ThingVertex> {
+
+    private final List<ThingAdjacency.SeekableIterator> iterators;
+    private ThingVertex next;
+    private boolean isCompleted;
+
+    IntersectionIterator(List<ThingAdjacency.SeekableIterator> iterators) {
+        assert iterators.size() > 1;
+        this.iterators = iterators;
+        this.next = null;
+        this.isCompleted = false;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        else if (isCompleted) return false;
+
+        ThingVertex max = null;
+        int agreed = 0;
+        while (agreed < iterators.size()) {
+            for (ThingAdjacency.SeekableIterator iterator : iterators) {
+                if (max != null) iterator.seek(max.iid());
+                if (!iterator.hasNext()) {
+                    recycle();
+                    return false;
+                }
+                ThingVertex vertex = iterator.peek();
+                int cmp = max == null ? 1 : compareBytes(vertex.iid().bytes(), max.iid().bytes());
+                assert cmp >= 0;
+                if (cmp > 0) {
+                    max = vertex;
+                    agreed = 1;
+                } else {
+                    agreed++;
+                }
+                if (agreed == iterators.size()) break;
+            }
+        }
+        iterators.forEach(ThingAdjacency.SeekableIterator::next);
+        next = max;
+        return true;
+    }
+
+    @Override
+    public ThingVertex next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ThingVertex vertex = next;
+        next = null;
+        return vertex;
+    }
+
+    @Override
+    public void recycle() {
+        isCompleted = true;
+        iterators.forEach(ThingAdjacency.SeekableIterator::recycle);
+    }
+}
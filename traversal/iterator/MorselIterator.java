@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.iterator;
+
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.GraphManager;
+import grakn.core.graph.vertex.Vertex;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.common.Identifier;
+import grakn.core.traversal.procedure.GraphProcedure;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Iterates the graph iterators of a procedure, to be run in parallel by the
+ * jobs of a producer, which take the next iterator whenever they run out.
+ *
+ * Every start vertex begins with a single iterator, which takes the vertices
+ * across the first edge of the procedure in morsels of {@link #MORSEL_SIZE}
+ * from a branch that is shared by every iterator of the start vertex. Once a
+ * start vertex has given out a whole morsel, it is known to have a high degree,
+ * and every job that asks for a new iterator is given another iterator over the
+ * remaining morsels of that start vertex, before moving on to the next start
+ * vertex. Jobs that run out of work therefore steal the remaining work of the
+ * jobs stuck on vertices of a high degree, rather than leaving them on a single
+ * thread.
+ *
+ * Once there are no more start vertices, the remaining morsels of every start
+ * vertex are given out straight away, whether or not a whole morsel has been
+ * taken yet. Otherwise a procedure with a single start vertex, such as one that
+ * starts from an IID, would only ever be given to a single job, as a producer
+ * only asks for more iterators when one of its jobs runs out of work.
+ */
+@NotThreadSafe
+public class MorselIterator extends AbstractResourceIterator<GraphIterator> {
+
+    static final int MORSEL_SIZE = 64;
+
+    private final GraphManager graphMgr;
+    private final GraphProcedure procedure;
+    private final Traversal.Parameters params;
+    private final Set<Identifier.Variable.Name> filter;
+    private final ResourceIterator<? extends Vertex<?, ?>> starts;
+    private final boolean isSplittable;
+    private final List<Morsels> stealable;
+    private GraphIterator next;
+
+    public MorselIterator(GraphManager graphMgr, GraphProcedure procedure, Traversal.Parameters params,
+                          Set<Identifier.Variable.Name> filter, ResourceIterator<? extends Vertex<?, ?>> starts) {
+        this.graphMgr = graphMgr;
+        this.procedure = procedure;
+        this.params = params;
+        this.filter = filter;
+        this.starts = starts;
+        this.isSplittable = GraphIterator.isSplittable(procedure);
+        this.stealable = new ArrayList<>();
+        this.next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) return true;
+        Iterator<Morsels> iterator = stealable.iterator();
+        while (iterator.hasNext()) {
+            Morsels morsels = iterator.next();
+            if (!morsels.hasNext()) iterator.remove();
+            else if (morsels.isStealable() || !starts.hasNext()) {
+                next = iterator(morsels);
+                return true;
+            }
+        }
+        if (starts.hasNext()) {
+            Vertex<?, ?> start = starts.next();
+            if (!isSplittable) next = new GraphIterator(graphMgr, start, procedure, params, filter);
+            else {
+                Morsels morsels = new Morsels(start, procedure.edge(1).branch(graphMgr, start, params));
+                stealable.add(morsels);
+                next = iterator(morsels);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public GraphIterator next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        GraphIterator iterator = next;
+        next = null;
+        return iterator;
+    }
+
+    private GraphIterator iterator(Morsels morsels) {
+        return new GraphIterator(graphMgr, morsels.start, new MorselBranch(morsels), procedure, params, filter);
+    }
+
+    @Override
+    public void recycle() {
+        starts.recycle();
+        stealable.forEach(Morsels::recycle);
+    }
+
+    /**
+     * The branch of a start vertex across the first edge, shared by every graph
+     * iterator of the start vertex, which take it in morsels.
+     */
+    @ThreadSafe
+    private static class Morsels {
+
+        private final Vertex<?, ?> start;
+        private final ResourceIterator<? extends Vertex<?, ?>> branch;
+        private boolean isStealable;
+
+        private Morsels(Vertex<?, ?> start, ResourceIterator<? extends Vertex<?, ?>> branch) {
+            this.start = start;
+            this.branch = branch;
+            this.isStealable = false;
+        }
+
+        private synchronized boolean hasNext() {
+            return branch.hasNext();
+        }
+
+        private synchronized boolean isStealable() {
+            return isStealable;
+        }
+
+        private synchronized List<Vertex<?, ?>> next() {
+            List<Vertex<?, ?>> morsel = new ArrayList<>(MORSEL_SIZE);
+            while (morsel.size() < MORSEL_SIZE && branch.hasNext()) morsel.add(branch.next());
+            if (morsel.size() == MORSEL_SIZE) isStealable = true;
+            return morsel;
+        }
+
+        private synchronized void recycle() {
+            branch.recycle();
+        }
+    }
+
+    /**
+     * The part of the first branch of a start vertex that is iterated by a
+     * single graph iterator, which takes one morsel at a time.
+     */
+    @NotThreadSafe
+    private static class MorselBranch extends AbstractResourceIterator<Vertex<?, ?>> {
+
+        private final Morsels morsels;
+        private Iterator<Vertex<?, ?>> morsel;
+
+        private MorselBranch(Morsels morsels) {
+            this.morsels = morsels;
+            this.morsel = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (morsel == null || !morsel.hasNext()) morsel = morsels.next().iterator();
+            return morsel.hasNext();
+        }
+
+        @Override
+        public Vertex<?, ?> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return morsel.next();
+        }
+
+        @Override
+        public void recycle() {}
+    }
+}
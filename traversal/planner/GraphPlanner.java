@@ -23,10 +23,18 @@ import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPSolverParameters;
 import com.google.ortools.linearsolver.MPVariable;
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.Label;
+import grakn.core.graph.DataGraph.Statistics.ValueHistogram;
 import grakn.core.graph.GraphManager;
+import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.TraversalCache;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.graph.TraversalEdge;
+import grakn.core.traversal.predicate.Predicate;
+import grakn.core.traversal.predicate.PredicateOperator;
 import grakn.core.traversal.procedure.GraphProcedure;
 import grakn.core.traversal.structure.Structure;
 import grakn.core.traversal.structure.StructureEdge;
@@ -34,6 +42,7 @@ import grakn.core.traversal.structure.StructureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -56,7 +65,15 @@ import static com.google.ortools.linearsolver.MPSolverParameters.IncrementalityV
 import static com.google.ortools.linearsolver.MPSolverParameters.IntegerParam.INCREMENTALITY;
 import static com.google.ortools.linearsolver.MPSolverParameters.IntegerParam.PRESOLVE;
 import static com.google.ortools.linearsolver.MPSolverParameters.PresolveValues.PRESOLVE_ON;
+import static grakn.common.collection.Collections.pair;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_PLANNING_ERROR;
+import static grakn.core.concurrent.common.Executors.plannerPool;
+import static grakn.core.graph.common.Encoding.ValueType.STRING;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LTE;
 import static java.time.Duration.between;
 import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
@@ -74,6 +91,7 @@ public class GraphPlanner implements Planner {
 
     private final MPSolver solver;
     private final MPSolverParameters parameters;
+    private final TraversalCache.Metrics metrics;
     private final Map<Identifier, PlannerVertex<?>> vertices;
     private final Set<PlannerEdge<?, ?>> edges;
     private final AtomicBoolean isOptimising;
@@ -84,13 +102,16 @@ public class GraphPlanner implements Planner {
     private volatile boolean isUpToDate;
     private volatile long totalDuration;
     private volatile long snapshot;
+    private final Traversal.Parameters params;
 
     volatile double totalCostLastRecorded;
     double totalCostNext;
     double branchingFactor;
     double costExponentUnit;
 
-    private GraphPlanner() {
+    private GraphPlanner(Traversal.Parameters params, TraversalCache.Metrics metrics) {
+        this.params = params;
+        this.metrics = metrics;
         solver = MPSolver.createSolver("SCIP");
         solver.objective().setMinimization();
         parameters = new MPSolverParameters();
@@ -110,9 +131,9 @@ public class GraphPlanner implements Planner {
         snapshot = -1L;
     }
 
-    static GraphPlanner create(Structure structure) {
+    static GraphPlanner create(Structure structure, Traversal.Parameters params, TraversalCache.Metrics metrics) {
         assert structure.vertices().size() > 1;
-        GraphPlanner planner = new GraphPlanner();
+        GraphPlanner planner = new GraphPlanner(params, metrics);
         Set<StructureVertex<?>> registeredVertices = new HashSet<>();
         Set<StructureEdge<?, ?>> registeredEdges = new HashSet<>();
         structure.vertices().forEach(vertex -> planner.registerVertex(vertex, registeredVertices, registeredEdges));
@@ -169,6 +190,71 @@ public class GraphPlanner implements Planner {
         return resultStatus == INFEASIBLE || resultStatus == UNBOUNDED || resultStatus == ABNORMAL;
     }
 
+    /**
+     * Returns the parameters of the traversal that this planner was created for.
+     * A planner is only shared by the traversals whose values fall into the same
+     * classes, see {@link #valueClasses(Structure, GraphManager, Traversal.Parameters, TraversalCache.TopStrings)},
+     * so the values of these parameters stand for the values of all of them.
+     */
+    Traversal.Parameters params() {
+        return params;
+    }
+
+    /**
+     * Returns the classes of the values of a traversal that the costs of a planner
+     * are estimated from, so that two traversals of the same structure only share
+     * a planner if the costs estimated from the values of one hold for the other.
+     * A value in a range predicate is classed by its bucket in the value histograms,
+     * while a string compared for equality is only classed by itself if it is one
+     * of the top values of its attribute type, and otherwise shares its class with
+     * every other string that is not. The top values are read through the given
+     * {@link TraversalCache.TopStrings}, which only reads them from the statistics
+     * once per snapshot.
+     *
+     * @param structure  of the traversal
+     * @param graphMgr   of the transaction that reads the statistics
+     * @param params     of the traversal
+     * @param topStrings of the attribute types, as of the snapshot of the transaction
+     * @return the classes of the values of the traversal, keyed by their vertex and predicate
+     */
+    static Set<Pair<Pair<Identifier.Variable, Predicate.Value<?>>, Object>> valueClasses(
+            Structure structure, GraphManager graphMgr, Traversal.Parameters params,
+            TraversalCache.TopStrings topStrings) {
+        Set<Pair<Pair<Identifier.Variable, Predicate.Value<?>>, Object>> classes = new HashSet<>();
+        for (StructureVertex<?> vertex : structure.vertices()) {
+            if (!vertex.isThing() || !vertex.id().isVariable()) continue;
+            Identifier.Variable id = vertex.id().asVariable();
+            for (Predicate.Value<?> predicate : vertex.asThing().props().predicates()) {
+                Set<Traversal.Parameters.Value> values = params.getValues(id, predicate);
+                if (values == null) continue;
+                for (Traversal.Parameters.Value value : values) {
+                    Object valueClass = valueClass(vertex.asThing(), predicate.operator(), value, graphMgr, topStrings);
+                    if (valueClass != null) classes.add(pair(pair(id, predicate), valueClass));
+                }
+            }
+        }
+        return classes;
+    }
+
+    @Nullable
+    private static Object valueClass(StructureVertex.Thing vertex, PredicateOperator operator,
+                                     Traversal.Parameters.Value value, GraphManager graphMgr,
+                                     TraversalCache.TopStrings topStrings) {
+        if (operator.equals(LT) || operator.equals(LTE) || operator.equals(GT) || operator.equals(GTE)) {
+            Double numeric;
+            if (value.isDateTime()) numeric = ValueHistogram.numeric(value.getDateTime());
+            else numeric = value.getDouble();
+            return numeric != null ? ValueHistogram.bucket(numeric) : null;
+        } else if (operator.equals(EQ) && value.isString()) {
+            for (Label label : vertex.props().types()) {
+                TypeVertex attType = graphMgr.schema().getType(label);
+                if (attType == null || !attType.isAttributeType() || attType.valueType() != STRING) continue;
+                if (topStrings.contains(graphMgr, attType, value.getString())) return value.getString();
+            }
+        }
+        return null;
+    }
+
     MPSolver solver() {
         return solver;
     }
@@ -335,37 +421,72 @@ public class GraphPlanner implements Planner {
         solver.setHint(new MPVariable[]{}, new double[]{});
     }
 
-    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    /**
+     * Updates the objective of the planner with the latest statistics, and solves
+     * it again if the statistics have drifted far enough to make the current
+     * procedure out of date, or if the current procedure is not yet optimal.
+     *
+     * Only the first procedure of the planner is solved in the calling thread.
+     * Every later solve runs in the planner pool, while traversals keep using the
+     * current procedure until the solve swaps in a new one. The objective is
+     * always updated in the calling thread, as it reads the statistics through
+     * the graph of the calling transaction.
+     *
+     * @param graph     of the transaction that reads the statistics
+     * @param extraTime whether to allocate a higher time limit to the first solve
+     */
     void optimise(GraphManager graph, boolean extraTime) {
         if (isOptimising.compareAndSet(false, true)) {
-            updateObjective(graph);
-            if (isUpToDate() && isOptimal()) {
-                if (LOG.isDebugEnabled()) LOG.debug("Optimisation still optimal and up-to-date");
-            } else {
-                // TODO: we should have a more clever logic to allocate extra time
-                long allocatedDuration = extraTime ? HIGHER_TIME_LIMIT_MILLIS : DEFAULT_TIME_LIMIT_MILLIS;
-                Instant start, endSolver, end;
-                totalDuration += allocatedDuration;
-                solver.setTimeLimit(totalDuration);
-
-                start = Instant.now();
-                resultStatus = solver.solve(parameters);
-                resetInitialValues();
-                endSolver = Instant.now();
-                if (isError()) throwPlanningError();
-                else assert isPlanned();
-
-                createProcedure();
-                end = Instant.now();
-
-                isUpToDate = true;
-                totalDuration -= allocatedDuration - between(start, endSolver).toMillis();
-                printDebug(start, endSolver, end);
+            boolean isSolvingInBackground = false;
+            try {
+                updateObjective(graph);
+                if (isUpToDate() && isOptimal()) {
+                    if (LOG.isDebugEnabled()) LOG.debug("Optimisation still optimal and up-to-date");
+                } else if (procedure == null) {
+                    // TODO: we should have a more clever logic to allocate extra time
+                    solve(extraTime ? HIGHER_TIME_LIMIT_MILLIS : DEFAULT_TIME_LIMIT_MILLIS, false);
+                } else {
+                    plannerPool().execute(this::solveInBackground);
+                    isSolvingInBackground = true;
+                }
+            } finally {
+                if (!isSolvingInBackground) isOptimising.set(false);
             }
+        }
+    }
+
+    private void solveInBackground() {
+        try {
+            solve(HIGHER_TIME_LIMIT_MILLIS, true);
+        } catch (Throwable e) {
+            LOG.error("Background optimisation failed, the previous procedure will be kept", e);
+        } finally {
             isOptimising.set(false);
         }
     }
 
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void solve(long allocatedDuration, boolean isBackground) {
+        Instant start, endSolver, end;
+        totalDuration += allocatedDuration;
+        solver.setTimeLimit(totalDuration);
+
+        start = Instant.now();
+        resultStatus = solver.solve(parameters);
+        resetInitialValues();
+        endSolver = Instant.now();
+        metrics.solved(between(start, endSolver).toNanos(), isBackground);
+        if (isError()) throwPlanningError();
+        else assert isPlanned();
+
+        createProcedure();
+        end = Instant.now();
+
+        isUpToDate = true;
+        totalDuration -= allocatedDuration - between(start, endSolver).toMillis();
+        printDebug(start, endSolver, end);
+    }
+
     private void throwPlanningError() {
         LOG.error(toString());
         LOG.error(solver.exportModelAsLpFormat());
@@ -381,6 +502,11 @@ public class GraphPlanner implements Planner {
         }
     }
 
+    /**
+     * Records the results of the solver and builds a new procedure from them. The
+     * new procedure is swapped in with a single volatile write, so a traversal
+     * reads either the previous or the new procedure, but never a mix of both.
+     */
     private void createProcedure() {
         vertices.values().forEach(PlannerVertex::recordResults);
         edges.forEach(PlannerEdge::recordResults);
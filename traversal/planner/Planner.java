@@ -18,11 +18,19 @@
 
 package grakn.core.traversal.planner;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
 import grakn.core.graph.GraphManager;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.TraversalCache;
+import grakn.core.traversal.common.Identifier;
+import grakn.core.traversal.predicate.Predicate;
 import grakn.core.traversal.procedure.Procedure;
 import grakn.core.traversal.structure.Structure;
 
+import java.util.Set;
+
+import static grakn.common.collection.Collections.set;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 
@@ -34,9 +42,16 @@ public interface Planner {
         if (isGraph()) this.asGraph().optimise(graphMgr, extraTime);
     }
 
-    static Planner create(Structure structure) {
+    static Planner create(Structure structure, Traversal.Parameters params, TraversalCache.Metrics metrics) {
         if (structure.vertices().size() == 1) return VertexPlanner.create(structure);
-        else return GraphPlanner.create(structure);
+        else return GraphPlanner.create(structure, params, metrics);
+    }
+
+    static Set<Pair<Pair<Identifier.Variable, Predicate.Value<?>>, Object>> valueClasses(
+            Structure structure, GraphManager graphMgr, Traversal.Parameters params,
+            TraversalCache.TopStrings topStrings) {
+        if (structure.vertices().size() == 1) return set();
+        else return GraphPlanner.valueClasses(structure, graphMgr, params, topStrings);
     }
 
     default boolean isVertex() { return false; }
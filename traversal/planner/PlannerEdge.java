@@ -22,21 +22,28 @@ import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPVariable;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Label;
+import grakn.core.graph.DataGraph.Statistics;
+import grakn.core.graph.DataGraph.Statistics.DegreeHistogram;
+import grakn.core.graph.DataGraph.Statistics.TopValues;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.SchemaGraph;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.traversal.Traversal;
 import grakn.core.traversal.graph.TraversalEdge;
+import grakn.core.traversal.predicate.Predicate.Value;
 import grakn.core.traversal.predicate.PredicateOperator;
 import grakn.core.traversal.structure.StructureEdge;
 import graql.lang.common.GraqlToken;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Stream;
 
 import static grakn.common.collection.Collections.pair;
@@ -59,6 +66,12 @@ import static grakn.core.graph.common.Encoding.Edge.Type.OWNS_KEY;
 import static grakn.core.graph.common.Encoding.Edge.Type.PLAYS;
 import static grakn.core.graph.common.Encoding.Edge.Type.RELATES;
 import static grakn.core.graph.common.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_IN;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_OUT;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_PLAYING_OUT;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_RELATING_OUT;
+import static grakn.core.graph.common.Encoding.ValueType.STRING;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
 import static java.util.stream.Collectors.toSet;
 
 public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_TO extends PlannerVertex<?>>
@@ -973,6 +986,64 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                 return encoding.asThing();
             }
 
+            static Set<TypeVertex> types(GraphManager graphMgr, Set<Label> labels) {
+                return iterate(labels).map(graphMgr.schema()::getType).toSet();
+            }
+
+            /**
+             * Returns the number of roles of the given types played by the players of
+             * the given types, from the degrees of the players. The number of role
+             * instances of the role types is used instead, until degrees are counted.
+             */
+            static double playingSum(GraphManager graphMgr, Set<TypeVertex> playerTypes,
+                                     Set<TypeVertex> roleTypes, Set<Label> roleLabels) {
+                long degreeSum = graphMgr.data().stats().degreeSum(playerTypes, EDGE_PLAYING_OUT, roleTypes);
+                return degreeSum > 0 ? degreeSum : graphMgr.data().stats().thingVertexSum(roleLabels);
+            }
+
+            /**
+             * Returns the number of roles of the given type in the relations of the given
+             * type, from the degrees of the relations. The number of role instances of
+             * the role type is used instead, until degrees are counted.
+             */
+            static double relatingSum(GraphManager graphMgr, TypeVertex relationType, TypeVertex roleType) {
+                long degreeSum = graphMgr.data().stats().degreeSum(set(relationType), EDGE_RELATING_OUT, set(roleType));
+                return degreeSum > 0 ? degreeSum : graphMgr.data().stats().thingVertexCount(roleType);
+            }
+
+            /**
+             * Returns the number of has edges that are read from the things of the
+             * given type to the things of the adjacent types, from the degrees of the
+             * things. The given number of has edges is used instead, until degrees
+             * are counted.
+             */
+            static double hasSum(GraphManager graphMgr, TypeVertex type, Encoding.Infix infix,
+                                 Set<TypeVertex> adjacentTypes, double hasEdgeSum) {
+                return hasSum(graphMgr, type, infix, adjacentTypes, t -> Double.POSITIVE_INFINITY, hasEdgeSum);
+            }
+
+            /**
+             * Returns the number of has edges that are read from the things of the
+             * given type to the things of the adjacent types, from the degrees of the
+             * things. The degree of every thing is capped at the given number of
+             * things of an adjacent type that the traversal looks up instead, in the
+             * reverse direction, rather than scan the edges of a hub. The given number
+             * of has edges is used instead, until degrees are counted.
+             */
+            static double hasSum(GraphManager graphMgr, TypeVertex type, Encoding.Infix infix,
+                                 Set<TypeVertex> adjacentTypes, ToDoubleFunction<TypeVertex> reverseCount,
+                                 double hasEdgeSum) {
+                Statistics stats = graphMgr.data().stats();
+                double sum = 0;
+                long counted = 0;
+                for (TypeVertex adjacentType : adjacentTypes) {
+                    DegreeHistogram histogram = stats.degreeHistogram(type, infix, adjacentType);
+                    counted += histogram.vertexCount();
+                    sum += histogram.vertexCount() * histogram.cappedMean(reverseCount.applyAsDouble(adjacentType));
+                }
+                return counted > 0 ? sum : hasEdgeSum;
+            }
+
             static Thing of(PlannerVertex.Thing from, PlannerVertex.Thing to, StructureEdge.Native<?, ?> structureEdge) {
                 Encoding.Edge.Thing encoding = structureEdge.encoding().asThing();
                 switch (encoding) {
@@ -1098,7 +1169,10 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         for (TypeVertex owner : ownerToAttributeTypes.keySet()) {
                             double div = graphMgr.data().stats().thingVertexCount(owner);
                             if (div > 0) {
-                                cost += graphMgr.data().stats().hasEdgeSum(owner, ownerToAttributeTypes.get(owner)) / div;
+                                Set<TypeVertex> attributeTypes = ownerToAttributeTypes.get(owner);
+                                double hasEdgeSum = graphMgr.data().stats().hasEdgeSum(owner, attributeTypes);
+                                cost += hasSum(graphMgr, owner, EDGE_HAS_OUT, attributeTypes,
+                                               t -> to.rangeCount(graphMgr, t), hasEdgeSum) / div;
                             }
                         }
                         assert !ownerToAttributeTypes.isEmpty();
@@ -1148,10 +1222,17 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         }
 
                         double cost = 0.0;
+                        String value = stringValue();
                         for (TypeVertex owner : attributeTypesToOwners.keySet()) {
                             double div = graphMgr.data().stats().thingVertexCount(owner);
                             if (div > 0) {
-                                cost += graphMgr.data().stats().hasEdgeSum(attributeTypesToOwners.get(owner), owner) / div;
+                                if (value != null && owner.valueType() == STRING) {
+                                    cost += ownerCount(graphMgr, owner, attributeTypesToOwners.get(owner), value, div);
+                                } else {
+                                    Set<TypeVertex> owners = attributeTypesToOwners.get(owner);
+                                    double hasEdgeSum = graphMgr.data().stats().hasEdgeSum(owners, owner);
+                                    cost += hasSum(graphMgr, owner, EDGE_HAS_IN, owners, hasEdgeSum) / div;
+                                }
                             }
                         }
                         assert !attributeTypesToOwners.isEmpty();
@@ -1159,6 +1240,40 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         assert !Double.isNaN(cost);
                         setObjectiveCoefficient(cost);
                     }
+
+                    /**
+                     * Estimates the number of owners of the attribute with the given value,
+                     * from the top values of its type if the value is one of them. Any other
+                     * value is owned by at most as many owners as the least owned top value.
+                     */
+                    private double ownerCount(GraphManager graphMgr, TypeVertex attType, Set<TypeVertex> ownerTypes,
+                                              String value, double attCount) {
+                        double count = 0;
+                        for (TypeVertex ownerType : ownerTypes) {
+                            TopValues topValues = graphMgr.data().stats().topValues(attType, ownerType);
+                            Long degree = topValues.degree(value);
+                            double mean = graphMgr.data().stats().hasEdgeCount(ownerType, attType) / attCount;
+                            if (degree != null) count += degree;
+                            else if (topValues.isFull()) count += Math.min(mean, topValues.minDegree());
+                            else count += mean;
+                        }
+                        return count;
+                    }
+
+                    @Nullable
+                    private String stringValue() {
+                        GraphPlanner planner = from.planner;
+                        if (planner == null || planner.params() == null || !from.id().isVariable()) return null;
+                        for (Value<?> predicate : from.props().predicates()) {
+                            if (!predicate.operator().equals(EQ)) continue;
+                            Set<Traversal.Parameters.Value> values = planner.params().getValues(from.id().asVariable(), predicate);
+                            if (values == null) continue;
+                            for (Traversal.Parameters.Value value : values) {
+                                if (value.isString()) return value.getString();
+                            }
+                        }
+                        return null;
+                    }
                 }
             }
 
@@ -1199,7 +1314,10 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                         double cost = 0.0;
                         if (!to.props().types().isEmpty() && !from.props().types().isEmpty()) {
                             double div = graphMgr.data().stats().thingVertexSum(from.props().types());
-                            if (div > 0) cost = graphMgr.data().stats().thingVertexSum(to.props().types()) / div;
+                            if (div > 0) {
+                                cost = playingSum(graphMgr, types(graphMgr, from.props().types()),
+                                                  types(graphMgr, to.props().types()), to.props().types()) / div;
+                            }
                         } else {
                             // TODO: We can refine this by not strictly considering entities being the only divisor
                             double div = graphMgr.data().stats().thingVertexTransitiveCount(graphMgr.schema().rootEntityType());
@@ -1264,8 +1382,11 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             cost = 0;
                             for (Label roleType : to.props().types()) {
                                 assert roleType.scope().isPresent();
-                                double div = graphMgr.data().stats().thingVertexCount(Label.of(roleType.scope().get()));
-                                if (div > 0) cost += graphMgr.data().stats().thingVertexCount(roleType) / div;
+                                TypeVertex relationType = graphMgr.schema().getType(Label.of(roleType.scope().get()));
+                                double div = graphMgr.data().stats().thingVertexCount(relationType);
+                                if (div > 0) {
+                                    cost += relatingSum(graphMgr, relationType, graphMgr.schema().getType(roleType)) / div;
+                                }
                             }
                             assert !to.props().types().isEmpty();
                             cost /= to.props().types().size();
@@ -1350,8 +1471,9 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             for (TypeVertex roleType : resolvedRoleTypes(graphMgr.schema())) {
                                 // TODO: roleType.scope() could be made to return the relation type vertex (optionally)
                                 assert roleType.isRoleType() && roleType.properLabel().scope().isPresent();
-                                double div = graphMgr.data().stats().thingVertexCount(Label.of(roleType.properLabel().scope().get()));
-                                if (div > 0) cost += graphMgr.data().stats().thingVertexCount(roleType) / div;
+                                TypeVertex relationType = graphMgr.schema().getType(Label.of(roleType.properLabel().scope().get()));
+                                double div = graphMgr.data().stats().thingVertexCount(relationType);
+                                if (div > 0) cost += relatingSum(graphMgr, relationType, roleType) / div;
                             }
                             assert !roleTypes.isEmpty();
                             cost = cost / roleTypes.size();
@@ -1379,7 +1501,10 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
                             cost = 1;
                         } else if (!roleTypes.isEmpty() && !from.props().types().isEmpty()) {
                             double div = graphMgr.data().stats().thingVertexSum(from.props().types());
-                            if (div > 0) cost = graphMgr.data().stats().thingVertexSum(roleTypes) / div;
+                            if (div > 0) {
+                                cost = playingSum(graphMgr, types(graphMgr, from.props().types()),
+                                                  resolvedRoleTypes(graphMgr.schema()), roleTypes) / div;
+                            }
                         } else {
                             // TODO: We can refine this by not strictly considering entities being the only divisor
                             double div = graphMgr.data().stats().thingVertexTransitiveCount(graphMgr.schema().rootEntityType());
@@ -22,18 +22,27 @@ import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPVariable;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.DataGraph.Statistics.ValueHistogram;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.vertex.TypeVertex;
+import grakn.core.traversal.Traversal;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.graph.TraversalVertex;
+import grakn.core.traversal.predicate.Predicate;
+import grakn.core.traversal.predicate.PredicateOperator;
 
 import javax.annotation.Nullable;
+import java.util.Set;
 
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LTE;
 
 public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Properties>
         extends TraversalVertex<PlannerEdge.Directional<?, ?>, PROPERTIES> {
@@ -269,7 +278,7 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
                 if (iterate(props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(props().types().size());
                 } else {
-                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(props().types()));
+                    setObjectiveCoefficient(thingVertexSum(graph, iterate(props().types()).map(graph.schema()::getType)));
                 }
             } else if (!props().predicates().isEmpty()) {
                 ResourceIterator<TypeVertex> attTypes = iterate(props().predicates())
@@ -278,13 +287,69 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
                 if (iterate(props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                     setObjectiveCoefficient(attTypes.count());
                 } else {
-                    setObjectiveCoefficient(graph.data().stats().thingVertexSum(attTypes.stream()));
+                    setObjectiveCoefficient(thingVertexSum(graph, attTypes));
                 }
             } else {
                 setObjectiveCoefficient(graph.data().stats().thingVertexTransitiveCount(graph.schema().rootThingType()));
             }
         }
 
+        private double thingVertexSum(GraphManager graph, ResourceIterator<TypeVertex> types) {
+            double sum = 0;
+            while (types.hasNext()) {
+                TypeVertex type = types.next();
+                sum += graph.data().stats().thingVertexCount(type) * valueSelectivity(graph, type);
+            }
+            return sum;
+        }
+
+        /**
+         * Estimates the number of attributes of the given type that satisfy the
+         * range predicates of this vertex, which a traversal looks up by their
+         * values rather than scan the has edges of a hub, or returns infinity if
+         * the predicates do not bound the values of the type.
+         */
+        double rangeCount(GraphManager graph, TypeVertex type) {
+            if (!type.isAttributeType() || !ValueHistogram.isNumeric(type.valueType()) ||
+                    !iterate(props().predicates()).anyMatch(p -> isRange(p.operator()))) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return graph.data().stats().thingVertexCount(type) * valueSelectivity(graph, type);
+        }
+
+        private static boolean isRange(PredicateOperator operator) {
+            return operator.equals(LT) || operator.equals(LTE) || operator.equals(GT) || operator.equals(GTE);
+        }
+
+        /**
+         * Estimates the fraction of the attributes of the given type that satisfy
+         * the range predicates of this vertex, from the value histogram of the type
+         * and the values of the traversal that triggered the optimisation.
+         */
+        private double valueSelectivity(GraphManager graph, TypeVertex type) {
+            if (!type.isAttributeType() || planner == null || planner.params() == null || !id().isVariable()) return 1;
+            double selectivity = 1;
+            for (Predicate.Value<?> predicate : props().predicates()) {
+                Set<Traversal.Parameters.Value> values = planner.params().getValues(id().asVariable(), predicate);
+                if (values == null) continue;
+                for (Traversal.Parameters.Value value : values) {
+                    selectivity *= valueSelectivity(graph.data().stats().valueHistogram(type), predicate.operator(), value);
+                }
+            }
+            return selectivity;
+        }
+
+        private static double valueSelectivity(ValueHistogram histogram, PredicateOperator operator,
+                                               Traversal.Parameters.Value value) {
+            Double numeric;
+            if (value.isDateTime()) numeric = ValueHistogram.numeric(value.getDateTime());
+            else numeric = value.getDouble();
+            if (numeric == null || histogram.count() <= 0) return 1;
+            else if (operator.equals(LT) || operator.equals(LTE)) return histogram.fractionBelow(numeric);
+            else if (operator.equals(GT) || operator.equals(GTE)) return 1 - histogram.fractionBelow(numeric);
+            else return 1;
+        }
+
         @Override
         public boolean isThing() { return true; }
 
@@ -28,6 +28,7 @@ import grakn.core.traversal.Traversal;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.iterator.GraphIterator;
+import grakn.core.traversal.iterator.MorselIterator;
 import grakn.core.traversal.planner.GraphPlanner;
 import grakn.core.traversal.planner.PlannerEdge;
 import grakn.core.traversal.planner.PlannerVertex;
@@ -38,6 +39,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -57,11 +59,13 @@ public class GraphProcedure implements Procedure {
 
     private final Map<Identifier, ProcedureVertex<?, ?>> vertices;
     private final ProcedureEdge<?, ?>[] edges;
+    private final Map<Integer, List<ProcedureEdge<?, ?>>> intersections;
     private ProcedureVertex<?, ?> startVertex;
 
     private GraphProcedure(int edgeSize) {
         vertices = new HashMap<>();
         edges = new ProcedureEdge<?, ?>[edgeSize];
+        intersections = new HashMap<>();
     }
 
     public static GraphProcedure create(GraphPlanner planner) {
@@ -69,6 +73,7 @@ public class GraphProcedure implements Procedure {
         Set<PlannerVertex<?>> registeredVertices = new HashSet<>();
         Set<PlannerEdge.Directional<?, ?>> registeredEdges = new HashSet<>();
         planner.vertices().forEach(vertex -> procedure.registerVertex(vertex, registeredVertices, registeredEdges));
+        procedure.initialiseIntersections();
         return procedure;
     }
 
@@ -81,6 +86,7 @@ public class GraphProcedure implements Procedure {
         return vertices.values().stream();
     }
 
+    @Override
     public ProcedureVertex<?, ?> startVertex() {
         if (startVertex == null) {
             startVertex = this.vertices().filter(ProcedureVertex::isStartingVertex)
@@ -101,6 +107,52 @@ public class GraphProcedure implements Procedure {
         return edges.length;
     }
 
+    /**
+     * Returns the closure edges that are intersected with the branch edge at a
+     * given position, to bind the vertex of the branch edge, which are empty if
+     * the vertex is bound by the branch edge alone.
+     *
+     * @param pos of the branch edge
+     * @return the closure edges into the vertex of the branch edge, from vertices bound before it
+     */
+    public List<ProcedureEdge<?, ?>> intersections(int pos) {
+        return intersections.getOrDefault(pos, Collections.emptyList());
+    }
+
+    /**
+     * A vertex that closes a cycle in a pattern is reached by its branch edge,
+     * and by closure edges from vertices that are bound before it. If all of
+     * these edges can be read in the order of the IIDs of the vertices across
+     * them, the vertex is bound by a worst-case optimal intersection of all of
+     * them, rather than by checking every closure edge against every vertex
+     * across the branch edge. The first edge is left to be split across the
+     * iterators of a start vertex.
+     */
+    private void initialiseIntersections() {
+        for (int pos = 2; pos <= edges.length; pos++) {
+            ProcedureEdge<?, ?> edge = edge(pos);
+            ProcedureVertex<?, ?> vertex = edge.to();
+            if (edge.isClosureEdge() || !edge.isSeekable() || vertex.id().isScoped()) continue;
+
+            List<ProcedureEdge<?, ?>> closures = new ArrayList<>();
+            for (int next = pos + 1; next <= edges.length; next++) {
+                ProcedureEdge<?, ?> closure = edge(next);
+                ProcedureVertex<?, ?> adjacent;
+                if (closure.to() == vertex) adjacent = closure.from();
+                else if (closure.from() == vertex) adjacent = closure.to();
+                else continue;
+                if (adjacent != vertex && closure.isClosureEdge() && closure.isSeekable() && isBoundBefore(adjacent, pos)) {
+                    closures.add(closure);
+                }
+            }
+            if (!closures.isEmpty()) intersections.put(pos, closures);
+        }
+    }
+
+    private static boolean isBoundBefore(ProcedureVertex<?, ?> vertex, int pos) {
+        return vertex.ins().isEmpty() || vertex.branchEdge().order() < pos;
+    }
+
     private void registerVertex(PlannerVertex<?> plannerVertex, Set<PlannerVertex<?>> registeredVertices,
                                 Set<PlannerEdge.Directional<?, ?>> registeredEdges) {
         if (registeredVertices.contains(plannerVertex)) return;
@@ -177,8 +229,9 @@ public class GraphProcedure implements Procedure {
         }
         assertWithinFilterBounds(filter);
         ConcurrentSet<VertexMap> produced = new ConcurrentSet<>();
-        ResourceIterator<ResourceIterator<VertexMap>> iterators = startVertex().iterator(graphMgr, params)
-                .map(v -> new GraphIterator(graphMgr, v, this, params, filter).distinct(produced));
+        ResourceIterator<ResourceIterator<VertexMap>> iterators = new MorselIterator(
+                graphMgr, this, params, filter, startVertex().iterator(graphMgr, params)
+        ).map(iterator -> iterator.distinct(produced));
         return async(iterators, parallelisation);
     }
 
@@ -223,6 +276,7 @@ public class GraphProcedure implements Procedure {
             vertices.values().forEach(v -> {
                 if (v.isType()) v.asType().props(v.asType().props());
             });
+            initialiseIntersections();
             return GraphProcedure.this;
         }
 
@@ -29,6 +29,14 @@ import java.util.Set;
 
 public interface Procedure {
 
+    /**
+     * The iterator of a procedure iterates the vertices of its starting vertex in
+     * turn, and returns every answer of a starting vertex before those of the next.
+     *
+     * @return the vertex from which the procedure starts
+     */
+    ProcedureVertex<?, ?> startVertex();
+
     Producer<VertexMap> producer(GraphManager graphMgr, Traversal.Parameters params,
                                  Set<Identifier.Variable.Name> filter, int parallelisation);
 
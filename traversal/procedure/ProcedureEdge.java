@@ -21,8 +21,11 @@ package grakn.core.traversal.procedure;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
+import grakn.core.graph.DataGraph;
+import grakn.core.graph.DataGraph.Statistics.ValueHistogram;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.SchemaGraph;
+import grakn.core.graph.adjacency.ThingAdjacency;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.edge.TypeEdge;
@@ -39,12 +42,14 @@ import grakn.core.traversal.iterator.GraphIterator;
 import grakn.core.traversal.planner.PlannerEdge;
 import graql.lang.common.GraqlToken;
 
+import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 import static grakn.common.util.Objects.className;
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
@@ -67,10 +72,15 @@ import static grakn.core.graph.common.Encoding.Edge.Type.OWNS_KEY;
 import static grakn.core.graph.common.Encoding.Edge.Type.PLAYS;
 import static grakn.core.graph.common.Encoding.Edge.Type.RELATES;
 import static grakn.core.graph.common.Encoding.Edge.Type.SUB;
+import static grakn.core.graph.common.Encoding.Infix.EDGE_HAS_OUT;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ATTRIBUTE;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ROLE;
 import static grakn.core.graph.common.Encoding.Vertex.Thing.RELATION;
 import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LTE;
 import static grakn.core.traversal.procedure.ProcedureVertex.Thing.filterAttributes;
 
 public abstract class ProcedureEdge<
@@ -119,6 +129,25 @@ public abstract class ProcedureEdge<
         return order() > to().branchEdge().order();
     }
 
+    /**
+     * Returns true if the vertices across this edge can be read from either of
+     * its vertices in the order of their IIDs, so that the edges of a cycle
+     * that meet at the same vertex can be intersected with seeks.
+     */
+    public boolean isSeekable() { return false; }
+
+    /**
+     * Returns the vertices across this edge from a vertex at either end of it,
+     * in the order of their IIDs.
+     *
+     * @param vertex at one end of this edge
+     * @param isFrom true if the vertex is at the {@code from} end of this edge
+     * @return the vertices at the other end of this edge, in the order of their IIDs
+     */
+    public ThingAdjacency.SeekableIterator seekable(Vertex<?, ?> vertex, boolean isFrom) {
+        throw GraknException.of(ILLEGAL_OPERATION);
+    }
+
     public boolean onlyStartsFromAttribute() { return false; }
 
     public boolean onlyStartsFromRelation() { return false; }
@@ -702,6 +731,12 @@ public abstract class ProcedureEdge<
                 }
             }
 
+            ThingAdjacency.SeekableIterator seekable(Vertex<?, ?> vertex, boolean isFrom,
+                                                     Encoding.Edge.Thing encoding) {
+                if (direction().isForward() == isFrom) return vertex.asThing().outs().seekable(encoding);
+                else return vertex.asThing().ins().seekable(encoding);
+            }
+
             ResourceIterator<? extends ThingVertex> backwardBranchToIID(
                     GraphManager graphMgr, ThingVertex fromVertex,
                     Encoding.Edge.Thing encoding, VertexIID.Thing toIID) {
@@ -732,6 +767,104 @@ public abstract class ProcedureEdge<
                     super(from, to, order, direction, HAS);
                 }
 
+                @Override
+                public boolean isSeekable() { return true; }
+
+                @Override
+                public ThingAdjacency.SeekableIterator seekable(Vertex<?, ?> vertex, boolean isFrom) {
+                    return seekable(vertex, isFrom, HAS);
+                }
+
+                /**
+                 * Returns true if a thing has more edges to the things of an adjacent
+                 * type than the given number of things of that type that are looked up
+                 * instead, in the reverse direction, which are then cheaper to check
+                 * one edge at a time than the edges of the thing are to scan. The
+                 * degree of the thing is only read if the degrees of the things of its
+                 * type reach the given number of things.
+                 */
+                static boolean isHub(GraphManager graphMgr, ThingVertex thing, Encoding.Infix infix,
+                                     TypeVertex adjacentType, double adjacentCount) {
+                    DataGraph.Statistics stats = graphMgr.data().stats();
+                    if (stats.degreeHistogram(thing.type(), infix, adjacentType).quantile(1) <= adjacentCount) {
+                        return false;
+                    }
+                    return stats.degree(thing.iid(), infix, adjacentType.iid()) > adjacentCount;
+                }
+
+                /**
+                 * The IIDs of the least and the greatest attributes of a type that may
+                 * satisfy the range predicates of a vertex, which bound the values of
+                 * longs, doubles and datetimes as their IIDs are in the order of their
+                 * values. A null IID leaves the range unbounded on that side.
+                 */
+                static class ValueRange {
+
+                    @Nullable
+                    final VertexIID.Attribute<?> lower, upper;
+
+                    private ValueRange(@Nullable VertexIID.Attribute<?> lower, @Nullable VertexIID.Attribute<?> upper) {
+                        this.lower = lower;
+                        this.upper = upper;
+                    }
+
+                    @Nullable
+                    static ValueRange of(ProcedureVertex.Thing vertex, TypeVertex attType, Traversal.Parameters params) {
+                        VertexIID.Attribute<?> lower = null, upper = null;
+                        for (grakn.core.traversal.predicate.Predicate.Value<?> predicate : vertex.props().predicates()) {
+                            boolean isLower = predicate.operator().equals(GT) || predicate.operator().equals(GTE);
+                            boolean isUpper = predicate.operator().equals(LT) || predicate.operator().equals(LTE);
+                            if (!isLower && !isUpper) continue;
+                            for (Traversal.Parameters.Value value : params.getValues(vertex.id().asVariable(), predicate)) {
+                                VertexIID.Attribute<?> bound = bound(attType, value, isLower);
+                                if (bound == null) continue;
+                                if (isLower && (lower == null || compareBytes(bound.bytes(), lower.bytes()) > 0)) {
+                                    lower = bound;
+                                } else if (isUpper && (upper == null || compareBytes(bound.bytes(), upper.bytes()) < 0)) {
+                                    upper = bound;
+                                }
+                            }
+                        }
+                        return lower == null && upper == null ? null : new ValueRange(lower, upper);
+                    }
+
+                    @Nullable
+                    private static VertexIID.Attribute<?> bound(TypeVertex attType, Traversal.Parameters.Value value,
+                                                                boolean isLower) {
+                        switch (attType.valueType()) {
+                            case LONG:
+                                if (value.isLong()) return new VertexIID.Attribute.Long(attType.iid(), value.getLong());
+                                else if (!value.isDouble()) return null;
+                                double rounded = isLower ? Math.floor(value.getDouble()) : Math.ceil(value.getDouble());
+                                return new VertexIID.Attribute.Long(attType.iid(), (long) rounded);
+                            case DOUBLE:
+                                if (value.getDouble() == null) return null;
+                                return new VertexIID.Attribute.Double(attType.iid(), value.getDouble());
+                            case DATETIME:
+                                if (!value.isDateTime()) return null;
+                                return new VertexIID.Attribute.DateTime(attType.iid(), value.getDateTime());
+                            default:
+                                return null;
+                        }
+                    }
+
+                    /**
+                     * Estimates the number of attributes of the given type within the range,
+                     * from the value histogram of the type.
+                     */
+                    double count(GraphManager graphMgr, TypeVertex attType) {
+                        DataGraph.Statistics stats = graphMgr.data().stats();
+                        ValueHistogram histogram = stats.valueHistogram(attType);
+                        double fraction = 1;
+                        if (histogram.count() > 0) {
+                            double below = upper == null ? 1 : histogram.fractionBelow(ValueHistogram.numeric(upper));
+                            double above = lower == null ? 0 : histogram.fractionBelow(ValueHistogram.numeric(lower));
+                            fraction = Math.max(0, below - above);
+                        }
+                        return stats.thingVertexCount(attType) * fraction;
+                    }
+                }
+
                 static class Forward extends Has {
 
                     Forward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
@@ -760,7 +893,15 @@ public abstract class ProcedureEdge<
                                         .filter(a -> owner.outs().edge(HAS, a) != null);
                             } else {
                                 iter = iterate(to.props().types()).map(l -> graphMgr.schema().getType(l)).noNulls()
-                                        .flatMap(t -> owner.outs().edge(HAS, PrefixIID.of(VERTEX_ATTRIBUTE), t.iid()).to())
+                                        .flatMap(t -> {
+                                            ValueRange range = ValueRange.of(to, t, params);
+                                            if (range != null && isHub(graphMgr, owner, EDGE_HAS_OUT, t, range.count(graphMgr, t))) {
+                                                return graphMgr.data().get(t, range.lower, range.upper)
+                                                        .filter(a -> owner.outs().edge(HAS, a) != null);
+                                            } else {
+                                                return owner.outs().edge(HAS, PrefixIID.of(VERTEX_ATTRIBUTE), t.iid()).to();
+                                            }
+                                        })
                                         .map(ThingVertex::asAttribute);
                             }
                         } else {
@@ -822,6 +963,14 @@ public abstract class ProcedureEdge<
                     super(from, to, order, direction, PLAYING);
                 }
 
+                @Override
+                public boolean isSeekable() { return true; }
+
+                @Override
+                public ThingAdjacency.SeekableIterator seekable(Vertex<?, ?> vertex, boolean isFrom) {
+                    return seekable(vertex, isFrom, PLAYING);
+                }
+
                 static class Forward extends Playing {
 
                     Forward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
@@ -1030,11 +1179,7 @@ public abstract class ProcedureEdge<
                                 filteredIID = true;
                                 ThingVertex player = graphMgr.data().get(params.getIID(to.id().asVariable()));
                                 if (player == null) return empty();
-                                // TODO: the following code can be optimised if we have an API to directly get the
-                                //       roleplayer edge when we have the roleplayer vertex
-                                iter = resolveRoleTypesIter.flatMap(
-                                        rt -> rel.outs().edge(ROLEPLAYER, rt.iid(), player.iid().prefix(), player.iid().type()).get()
-                                ).filter(e -> e.to().equals(player));
+                                iter = resolveRoleTypesIter.flatMap(rt -> rel.outs().edges(ROLEPLAYER, player, rt.iid()));
                             } else if (!to.props().types().isEmpty()) {
                                 filteredTypes = true;
                                 iter = resolveRoleTypesIter.flatMap(
@@ -1061,8 +1206,8 @@ public abstract class ProcedureEdge<
                         Optional<ThingEdge> validEdge;
                         if (!roleTypes.isEmpty()) {
                             validEdge = iterate(resolvedRoleTypes(graphMgr.schema())).flatMap(
-                                    rt -> rel.outs().edge(ROLEPLAYER, rt.iid(), player.iid().prefix(), player.iid().type()).get()
-                                            .filter(e -> e.to().equals(player) && !scoped.contains(e.optimised().get())))
+                                    rt -> rel.outs().edges(ROLEPLAYER, player, rt.iid())
+                                            .filter(e -> !scoped.contains(e.optimised().get())))
                                     .first();
                         } else {
                             validEdge = rel.outs().edge(ROLEPLAYER).get().filter(
@@ -1095,9 +1240,7 @@ public abstract class ProcedureEdge<
                                 filteredIID = true;
                                 ThingVertex relation = graphMgr.data().get(params.getIID(to.id().asVariable()));
                                 if (relation == null) return empty();
-                                iter = resolveRoleTypesIter.flatMap(
-                                        rt -> player.ins().edge(ROLEPLAYER, rt.iid(), relation.iid().prefix(), relation.iid().type())
-                                                .get().filter(r -> r.from().equals(relation)));
+                                iter = resolveRoleTypesIter.flatMap(rt -> player.ins().edges(ROLEPLAYER, relation, rt.iid()));
                             } else if (!to.props().types().isEmpty()) {
                                 filteredTypes = true;
                                 iter = resolveRoleTypesIter.flatMap(
@@ -1122,8 +1265,8 @@ public abstract class ProcedureEdge<
                         Optional<ThingEdge> validEdge;
                         if (!roleTypes.isEmpty()) {
                             validEdge = iterate(resolvedRoleTypes(graphMgr.schema())).flatMap(
-                                    rt -> player.ins().edge(ROLEPLAYER, rt.iid(), rel.iid().prefix(), rel.iid().type()).get()
-                                            .filter(e -> e.from().equals(rel) && !scoped.contains(e.optimised().get())))
+                                    rt -> player.ins().edges(ROLEPLAYER, rel, rt.iid())
+                                            .filter(e -> !scoped.contains(e.optimised().get())))
                                     .first();
                         } else {
                             validEdge = player.ins().edge(ROLEPLAYER).get().filter(
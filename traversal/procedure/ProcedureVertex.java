@@ -151,8 +151,8 @@ public abstract class ProcedureVertex<
             else throw GraknException.of(ILLEGAL_STATE);
         }
 
-        ResourceIterator<? extends ThingVertex> filter(ResourceIterator<? extends ThingVertex> iterator,
-                                                       Traversal.Parameters params) {
+        public ResourceIterator<? extends ThingVertex> filter(ResourceIterator<? extends ThingVertex> iterator,
+                                                              Traversal.Parameters params) {
             if (props().hasIID()) iterator = filterIID(iterator, params);
             if (!props().types().isEmpty()) iterator = filterTypes(iterator);
             if (!props().predicates().isEmpty()) iterator = filterPredicates(filterAttributes(iterator), params);
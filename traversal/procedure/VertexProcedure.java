@@ -72,6 +72,11 @@ public class VertexProcedure implements Procedure {
         return procedureVertex;
     }
 
+    @Override
+    public ProcedureVertex<?, ?> startVertex() {
+        return vertex;
+    }
+
     @Override
     public String toString() {
         StringBuilder str = new StringBuilder();